@@ -0,0 +1,20 @@
+package ru.itis.marketplace.catalogservice.availability;
+
+import java.math.BigDecimal;
+
+public record ProductSizeAvailability(
+        Long productId,
+        Long sizeId,
+        boolean exists,
+        Long brandId,
+        BigDecimal price,
+        String requestStatus
+) {
+    public ProductSizeAvailability(Long productId, Long sizeId, Long brandId, BigDecimal price, String requestStatus) {
+        this(productId, sizeId, true, brandId, price, requestStatus);
+    }
+
+    public static ProductSizeAvailability missing(Long productId, Long sizeId) {
+        return new ProductSizeAvailability(productId, sizeId, false, null, null, null);
+    }
+}
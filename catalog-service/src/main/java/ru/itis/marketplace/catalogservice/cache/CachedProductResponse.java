@@ -0,0 +1,22 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import ru.itis.marketplace.catalogservice.conditional.EntityTags;
+
+public record CachedProductResponse(
+        Long id,
+        Long version,
+        byte[] json,
+        byte[] gzip
+) {
+    public boolean isCompressed() {
+        return gzip != null;
+    }
+
+    public String eTag() {
+        return EntityTags.of(version);
+    }
+
+    public String gzipETag() {
+        return EntityTags.gzipOf(version);
+    }
+}
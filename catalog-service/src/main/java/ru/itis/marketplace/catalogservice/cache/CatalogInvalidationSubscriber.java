@@ -0,0 +1,24 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import java.util.Collection;
+
+public interface CatalogInvalidationSubscriber {
+
+    default void productsInvalidated(Collection<Long> productIds) {
+    }
+
+    default void allProductsInvalidated() {
+    }
+
+    default void brandsInvalidated(Collection<Long> brandIds) {
+    }
+
+    default void allBrandsInvalidated() {
+    }
+
+    default void categoriesInvalidated(Collection<Long> categoryIds) {
+    }
+
+    // called after the listener reconnects, notifications sent while it was offline are lost
+    void resynchronize();
+}
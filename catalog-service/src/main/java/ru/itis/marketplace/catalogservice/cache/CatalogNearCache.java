@@ -0,0 +1,180 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class CatalogNearCache implements MeterBinder {
+
+    public static final String INVALIDATION_CHANNEL = "catalog_cache_invalidation";
+    static final String PRODUCT_PREFIX = "product:";
+    static final String BRAND_PREFIX = "brand:";
+    static final String CATEGORY_PREFIX = "category:";
+    static final String ALL = "*";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryDictionary categoryDictionary;
+    private final Cache<Long, Product> products;
+    private final Cache<Long, Brand> brands;
+    private final Cache<Long, Category> categories;
+    private final Cache<Long, CachedProductResponse> productResponses;
+
+    public CatalogNearCache(JdbcTemplate jdbcTemplate, CategoryDictionary categoryDictionary,
+                            @Value("${catalog.near-cache.time-to-live}") Duration timeToLive,
+                            @Value("${catalog.near-cache.maximum-size}") long maximumSize,
+                            @Value("${catalog.near-cache.response-maximum-size}") long responseMaximumSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryDictionary = categoryDictionary;
+        this.products = build(timeToLive, maximumSize);
+        this.brands = build(timeToLive, maximumSize);
+        this.categories = build(timeToLive, maximumSize);
+        this.productResponses = build(timeToLive, responseMaximumSize);
+    }
+
+    public Product findProduct(Long id, Function<Long, Product> loader) {
+        return products.get(id, loader);
+    }
+
+    public Brand findBrand(Long id, Function<Long, Brand> loader) {
+        return brands.get(id, loader);
+    }
+
+    public Map<Long, Product> findProducts(Collection<Long> ids, Function<Set<? extends Long>, Map<Long, Product>> loader) {
+        return products.getAll(ids, loader);
+    }
+
+    public Map<Long, Brand> findBrands(Collection<Long> ids, Function<Set<? extends Long>, Map<Long, Brand>> loader) {
+        return brands.getAll(ids, loader);
+    }
+
+    public Map<Long, Product> findPresentProducts(Collection<Long> ids) {
+        return products.getAllPresent(ids);
+    }
+
+    public Map<Long, Brand> findPresentBrands(Collection<Long> ids) {
+        return brands.getAllPresent(ids);
+    }
+
+    public CachedProductResponse findProductResponse(Long id, Function<Long, CachedProductResponse> loader) {
+        return productResponses.get(id, loader);
+    }
+
+    public void putProductResponse(Long id, CachedProductResponse response) {
+        productResponses.put(id, response);
+    }
+
+    public Map<Long, CachedProductResponse> findProductResponses(Collection<Long> ids,
+                                                                 Function<Set<? extends Long>, Map<Long, CachedProductResponse>> loader) {
+        return productResponses.getAll(ids, loader);
+    }
+
+    public Category findCategory(Long id, Function<Long, Category> loader) {
+        return categories.get(id, loader);
+    }
+
+    public void invalidateProduct(Long id) {
+        invalidate(PRODUCT_PREFIX + id);
+    }
+
+    public void invalidateProducts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        var keys = ids.stream().map(id -> PRODUCT_PREFIX + id).toList();
+        keys.forEach(this::evict);
+        jdbcTemplate.query("SELECT pg_notify(?, key) FROM unnest(?) AS key", (ResultSetExtractor<Void>) resultSet -> null,
+                INVALIDATION_CHANNEL, keys.toArray(String[]::new));
+        afterCommit(() -> keys.forEach(this::evict));
+    }
+
+    public void invalidateBrand(Long id) {
+        invalidate(BRAND_PREFIX + id);
+    }
+
+    public void invalidateAllBrands() {
+        invalidate(BRAND_PREFIX + ALL);
+    }
+
+    public void invalidateCategory(Long id) {
+        invalidate(CATEGORY_PREFIX + id);
+    }
+
+    public void evict(String key) {
+        if (key.startsWith(PRODUCT_PREFIX)) {
+            evict(products, key.substring(PRODUCT_PREFIX.length()));
+            evict(productResponses, key.substring(PRODUCT_PREFIX.length()));
+        } else if (key.startsWith(BRAND_PREFIX)) {
+            evict(brands, key.substring(BRAND_PREFIX.length()));
+        } else if (key.startsWith(CATEGORY_PREFIX)) {
+            evict(categories, key.substring(CATEGORY_PREFIX.length()));
+            categoryDictionary.refresh();
+        }
+    }
+
+    public void evictAll() {
+        products.invalidateAll();
+        brands.invalidateAll();
+        categories.invalidateAll();
+        productResponses.invalidateAll();
+        categoryDictionary.refresh();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, products, "catalog.products");
+        CaffeineCacheMetrics.monitor(registry, brands, "catalog.brands");
+        CaffeineCacheMetrics.monitor(registry, categories, "catalog.categories");
+        CaffeineCacheMetrics.monitor(registry, productResponses, "catalog.product-responses");
+    }
+
+    private void invalidate(String key) {
+        evict(key);
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) resultSet -> null, INVALIDATION_CHANNEL, key);
+        afterCommit(() -> evict(key));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static void evict(Cache<Long, ?> cache, String id) {
+        if (id.equals(ALL)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(Long.valueOf(id));
+        }
+    }
+
+    private static <T> Cache<Long, T> build(Duration timeToLive, long maximumSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class CatalogNearCacheInvalidationListener implements SmartLifecycle, Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogNearCacheInvalidationListener.class);
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final CatalogNearCache catalogNearCache;
+    private final List<CatalogInvalidationSubscriber> subscribers;
+    private volatile Thread worker;
+
+    public CatalogNearCacheInvalidationListener(DataSource dataSource, CatalogNearCache catalogNearCache,
+                                                List<CatalogInvalidationSubscriber> subscribers) {
+        this.dataSource = dataSource;
+        this.catalogNearCache = catalogNearCache;
+        this.subscribers = subscribers;
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofPlatform().daemon().name("catalog-near-cache-invalidation").start(this);
+    }
+
+    @Override
+    public void stop() {
+        var thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    @Override
+    public void run() {
+        boolean reconnected = false;
+        while (worker == Thread.currentThread()) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CatalogNearCache.INVALIDATION_CHANNEL);
+                catalogNearCache.evictAll();
+                if (reconnected) {
+                    notifySubscribers(CatalogInvalidationSubscriber::resynchronize);
+                }
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (worker == Thread.currentThread()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException exception) {
+                LOGGER.warn("Catalog near cache invalidation listener lost its connection", exception);
+                reconnected = true;
+                catalogNearCache.evictAll();
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interruptedException) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> brandIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        boolean allProducts = false;
+        boolean allBrands = false;
+        for (var notification : notifications) {
+            String key = notification.getParameter();
+            catalogNearCache.evict(key);
+            if (key.startsWith(CatalogNearCache.PRODUCT_PREFIX)) {
+                String id = key.substring(CatalogNearCache.PRODUCT_PREFIX.length());
+                if (id.equals(CatalogNearCache.ALL)) {
+                    allProducts = true;
+                } else {
+                    productIds.add(Long.valueOf(id));
+                }
+            } else if (key.startsWith(CatalogNearCache.BRAND_PREFIX)) {
+                String id = key.substring(CatalogNearCache.BRAND_PREFIX.length());
+                if (id.equals(CatalogNearCache.ALL)) {
+                    allBrands = true;
+                } else {
+                    brandIds.add(Long.valueOf(id));
+                }
+            } else if (key.startsWith(CatalogNearCache.CATEGORY_PREFIX)) {
+                categoryIds.add(Long.valueOf(key.substring(CatalogNearCache.CATEGORY_PREFIX.length())));
+            }
+        }
+        if (allProducts) {
+            notifySubscribers(CatalogInvalidationSubscriber::allProductsInvalidated);
+        } else if (!productIds.isEmpty()) {
+            notifySubscribers(subscriber -> subscriber.productsInvalidated(productIds));
+        }
+        if (allBrands) {
+            notifySubscribers(CatalogInvalidationSubscriber::allBrandsInvalidated);
+        } else if (!brandIds.isEmpty()) {
+            notifySubscribers(subscriber -> subscriber.brandsInvalidated(brandIds));
+        }
+        if (!categoryIds.isEmpty()) {
+            notifySubscribers(subscriber -> subscriber.categoriesInvalidated(categoryIds));
+        }
+    }
+
+    private void notifySubscribers(Consumer<CatalogInvalidationSubscriber> action) {
+        for (var subscriber : subscribers) {
+            try {
+                action.accept(subscriber);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Catalog invalidation subscriber {} failed", subscriber.getClass().getSimpleName(), exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogSnapshots;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// the old copy is served while a refresh requested by a change or by the ttl runs in the background
+@Component
+public class CategoryDictionary {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryDictionary.class);
+
+    private final CategoryRepository categoryRepository;
+    private final TaskExecutor taskExecutor;
+    private final long timeToLiveNanos;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entries entries;
+
+    public CategoryDictionary(CategoryRepository categoryRepository,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                              @Value("${catalog.category-dictionary.time-to-live}") Duration timeToLive) {
+        this.categoryRepository = categoryRepository;
+        this.taskExecutor = taskExecutor;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    public List<Category> findAll() {
+        return current().sorted();
+    }
+
+    // a category missing from the copy may have been created after it was loaded, so the database decides
+    public boolean exists(Long id) {
+        return current().ids().contains(id) || categoryRepository.existsById(id);
+    }
+
+    public void refresh() {
+        requested.incrementAndGet();
+        scheduleRefresh();
+    }
+
+    private Entries current() {
+        var current = entries;
+        if (current == null) {
+            return loadFirst();
+        }
+        if (current.generation() != requested.get() || System.nanoTime() - current.loadedAt() > timeToLiveNanos) {
+            scheduleRefresh();
+        }
+        return current;
+    }
+
+    private synchronized Entries loadFirst() {
+        if (entries == null) {
+            entries = load(requested.get());
+        }
+        return entries;
+    }
+
+    private void scheduleRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            taskExecutor.execute(this::reload);
+        }
+    }
+
+    // a change requested while loading is not visible to that load, so loading is repeated until it catches up
+    private void reload() {
+        boolean loaded = false;
+        try {
+            long generation;
+            do {
+                generation = requested.get();
+                entries = load(generation);
+            } while (requested.get() != generation);
+            loaded = true;
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Category dictionary refresh failed, the previous copy is served", exception);
+        } finally {
+            refreshing.set(false);
+        }
+        if (loaded && entries.generation() != requested.get()) {
+            scheduleRefresh();
+        }
+    }
+
+    private Entries load(long generation) {
+        List<Category> sorted = categoryRepository.findAll(Sort.by("name")).stream()
+                .map(CatalogSnapshots::snapshotOf)
+                .toList();
+        Set<Long> ids = sorted.stream().map(Category::getId).collect(Collectors.toUnmodifiableSet());
+        return new Entries(sorted, ids, generation, System.nanoTime());
+    }
+
+    private record Entries(List<Category> sorted, Set<Long> ids, long generation, long loadedAt) {
+    }
+}
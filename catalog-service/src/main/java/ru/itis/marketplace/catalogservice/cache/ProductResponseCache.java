@@ -0,0 +1,83 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.service.ProductService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@RequiredArgsConstructor
+public class ProductResponseCache {
+
+    // smaller bodies do not get shorter after compression
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    private final CatalogNearCache catalogNearCache;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    public CachedProductResponse findProduct(Long id, long version) {
+        CachedProductResponse response = catalogNearCache.findProductResponse(id, this::load);
+        // an entry older than the stored version outlived a missed invalidation
+        if (response.version() == null || response.version() < version) {
+            response = load(id);
+            catalogNearCache.putProductResponse(id, response);
+        }
+        return response;
+    }
+
+    public List<CachedProductResponse> findProducts(List<Long> ids) {
+        Map<Long, CachedProductResponse> responses = catalogNearCache.findProductResponses(ids, this::load);
+        return ids.stream()
+                .distinct()
+                .map(responses::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private CachedProductResponse load(Long id) {
+        return render(productService.findProductById(id));
+    }
+
+    private Map<Long, CachedProductResponse> load(Set<? extends Long> ids) {
+        return productService.multiGetProducts(List.copyOf(ids), FieldSelection.ALL)
+                .items()
+                .stream()
+                .map(this::render)
+                .collect(Collectors.toMap(CachedProductResponse::id, Function.identity()));
+    }
+
+    private CachedProductResponse render(Product product) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(product);
+            byte[] gzip = json.length < GZIP_MIN_SIZE ? null : gzip(json);
+            return new CachedProductResponse(product.getId(), product.getVersion(), json, gzip);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        var compressed = new ByteArrayOutputStream(json.length / 4);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return compressed.toByteArray();
+    }
+}
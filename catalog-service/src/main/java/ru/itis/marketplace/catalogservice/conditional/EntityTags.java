@@ -0,0 +1,63 @@
+package ru.itis.marketplace.catalogservice.conditional;
+
+import org.springframework.util.DigestUtils;
+import ru.itis.marketplace.catalogservice.entity.Category;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public final class EntityTags {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private EntityTags() {
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static String of(String digest) {
+        return "\"" + digest + "\"";
+    }
+
+    // same digest as CategoryRepository.findVersionsDigest, so a list served by the read model gets its own tag
+    public static String ofCategories(List<Category> categories) {
+        String versions = categories.stream()
+                .sorted(Comparator.comparing(Category::getId))
+                .map(category -> category.getId() + ":" + category.getVersion())
+                .collect(Collectors.joining(","));
+        return of(DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // the compressed body is a different representation, so it needs its own strong validator
+    public static String gzipOf(Long version) {
+        return version == null ? null : "\"" + version + GZIP_SUFFIX + "\"";
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored
+    public static Optional<String> matching(String ifNoneMatch, String... eTags) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*")) {
+                return Optional.of(eTags[0]);
+            }
+            String match = tag;
+            Optional<String> matched = Arrays.stream(eTags).filter(match::equals).findFirst();
+            if (matched.isPresent()) {
+                return matched;
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -10,11 +10,8 @@ import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
-import ru.itis.marketplace.catalogservice.kafka.message.ProductUpdateKafkaMessage;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -34,36 +31,31 @@ public class KafkaBeans {
     private String topicForProductUpdateName;
     @Value("${kafka.topics.product-update.partitions}")
     private Integer topicForProductUpdatePartitions;
+    @Value("${kafka.topics.catalog-changes.name}")
+    private String topicForCatalogChangesName;
+    @Value("${kafka.topics.catalog-changes.partitions}")
+    private Integer topicForCatalogChangesPartitions;
 
     private Map<String, Object> configProps() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.RETRIES_CONFIG, 10);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
         return configProps;
     }
 
     @Bean
-    public ProducerFactory<String, List<Long>> producerFactoryForDeletion() {
+    public ProducerFactory<String, String> producerFactoryForOutbox() {
         return new DefaultKafkaProducerFactory<>(configProps());
     }
 
     @Bean
-    public ProducerFactory<String, ProductUpdateKafkaMessage> producerFactoryForUpdate() {
-        return new DefaultKafkaProducerFactory<>(configProps());
-    }
-
-    @Bean
-    public KafkaTemplate<String, List<Long>> kafkaTemplateForDeletion() {
-        return new KafkaTemplate<>(producerFactoryForDeletion());
-    }
-
-    @Bean
-    public KafkaTemplate<String, ProductUpdateKafkaMessage> kafkaTemplateForUpdate() {
-        return new KafkaTemplate<>(producerFactoryForUpdate());
+    public KafkaTemplate<String, String> kafkaTemplateForOutbox() {
+        return new KafkaTemplate<>(producerFactoryForOutbox());
     }
 
     @Bean
@@ -80,4 +72,9 @@ public class KafkaBeans {
     public NewTopic topicForProductUpdate() {
         return TopicBuilder.name(topicForProductUpdateName).partitions(topicForProductUpdatePartitions).build();
     }
+
+    @Bean
+    public NewTopic topicForCatalogChanges() {
+        return TopicBuilder.name(topicForCatalogChangesName).partitions(topicForCatalogChangesPartitions).compact().build();
+    }
 }
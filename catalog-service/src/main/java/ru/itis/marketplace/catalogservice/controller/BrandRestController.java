@@ -1,5 +1,6 @@
 package ru.itis.marketplace.catalogservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -9,15 +10,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.itis.marketplace.catalogservice.conditional.EntityTags;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.NewBrandPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.UpdateBrandPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.UpdateBrandStatusPayload;
+import ru.itis.marketplace.catalogservice.controller.payload.multi_get.MultiGetPayload;
 import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.PaginationHeaders;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.projection.SparseFieldsets;
 import ru.itis.marketplace.catalogservice.service.BrandService;
 
 import java.util.List;
@@ -30,18 +42,34 @@ import java.util.List;
 public class BrandRestController {
 
     private final BrandService brandService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
-            summary = "Endpoint for getting brand by ID, only for authorized users",
+            summary = "Endpoint for getting brand by ID, only for authorized users. The ETag is the brand version, the brand is not returned when it matches the If-None-Match header. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'links', relations are not returned when only 'fields' is specified",
             responses = {
-                    @ApiResponse(description = "Successful response with brand", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Brand.class))),
+                    @ApiResponse(description = "Successful response with brand", headers = @Header(name = "ETag", description = "Version of the brand"), responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Brand.class))),
+                    @ApiResponse(description = "Brand not modified since the version from the If-None-Match header", responseCode = "304", useReturnTypeSchema = true),
+                    @ApiResponse(description = "Requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Brand not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping(path = "/{brandId:\\d+}")
-    public Brand findBrandById(@PathVariable Long brandId) {
-        return brandService.findBrandById(brandId);
+    public ResponseEntity<Object> findBrandById(@PathVariable Long brandId,
+                                                @RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forBrands(fields, include);
+        if (ifNoneMatch != null) {
+            var notModified = EntityTags.matching(ifNoneMatch, EntityTags.of(brandService.findBrandVersionById(brandId)));
+            if (notModified.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified.get()).build();
+            }
+        }
+        Brand brand = brandService.findBrandById(brandId);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(brand.getVersion()))
+                .body(SparseFieldsets.brands(objectMapper, List.of(brand), selection).get(0));
     }
 
     @Operation(
@@ -67,43 +95,72 @@ public class BrandRestController {
                     @ApiResponse(description = "Successful response, brand status updated", responseCode = "204", useReturnTypeSchema = true),
                     @ApiResponse(description = "Incorrect payload or some parameters are not specified", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Brand not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Brand status differs from the expected one", responseCode = "409", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @PatchMapping(path = "/{brandId:\\d+}")
     public ResponseEntity<Void> updateBrandStatusById(@PathVariable Long brandId,
                                                       @Valid @RequestBody UpdateBrandStatusPayload payload) {
-        brandService.updateBrandStatusById(brandId, payload.requestStatus());
+        brandService.updateBrandStatusById(brandId, payload.requestStatus(), payload.expectedRequestStatus());
         return ResponseEntity.noContent().build();
     }
 
 
     @Operation(
-            summary = "Endpoint for deleting brand by ID, only for authorized users",
+            summary = "Endpoint for deleting brand by ID, only for authorized users. Products of the brand are deleted in the background, the progress is available by the link from the Location header",
             responses = {
-                    @ApiResponse(description = "Successful response when brand is deleted", responseCode = "204"),
+                    @ApiResponse(description = "Successful response when brand deletion job is started", responseCode = "202", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeletionJob.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @DeleteMapping(path = "/{brandId:\\d+}")
-    public ResponseEntity<Void> deleteBrandById(@PathVariable Long brandId) {
-        brandService.deleteBrandById(brandId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<DeletionJob> deleteBrandById(@PathVariable Long brandId,
+                                                   UriComponentsBuilder uriComponentsBuilder) {
+        DeletionJob deletionJob = brandService.deleteBrandById(brandId);
+        return ResponseEntity
+                .accepted()
+                .location(uriComponentsBuilder
+                    .replacePath("api/v1/catalog/deletion-jobs/{jobId}")
+                    .build(deletionJob.getId()))
+                .body(deletionJob);
     }
 
     @Operation(
-            summary = "Endpoint for getting all brands, only for authorized users",
+            summary = "Endpoint for getting all brands, only for authorized users. If the 'after' parameter is provided, keyset pagination is used and the cursor of the next page is returned in the X-Next-Cursor header, an empty 'after' starts from the first page. The total number of brands is not counted unless the 'total' parameter is set to 'exact'. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'links', relations are not returned when only 'fields' is specified",
             responses = {
-                    @ApiResponse(description = "Successful response with brands", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Brand.class)))),
+                    @ApiResponse(description = "Successful response with brands", headers = {
+                            @Header(name = PaginationHeaders.NEXT_CURSOR, description = "Cursor of the next page, present only in keyset mode when the next page exists"),
+                            @Header(name = PaginationHeaders.HAS_NEXT, description = "Whether the next page exists"),
+                            @Header(name = PaginationHeaders.TOTAL_COUNT, description = "Total number of brands, present only when the 'total' parameter is specified")
+                    }, responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Brand.class)))),
+                    @ApiResponse(description = "Cursor is invalid or does not match the requested sorting or total count mode or requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping
-    public List<Brand> findBrands(@RequestParam(required = false) String status,
-                                  @RequestParam(required = false, name = "page-size") Integer pageSize,
-                                  @RequestParam(required = false) Integer page,
-                                  @RequestParam(required = false, name = "sorted-by") String sortedBy) {
-        return brandService.findAllBrands(status, pageSize, page, sortedBy);
+    public ResponseEntity<List<Object>> findBrands(@RequestParam(required = false) String status,
+                                                  @RequestParam(required = false, name = "page-size") Integer pageSize,
+                                                  @RequestParam(required = false) Integer page,
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) String total,
+                                                  @RequestParam(required = false, name = "sorted-by") String sortedBy,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forBrands(fields, include);
+        var response = ResponseEntity.ok();
+        Window<Brand> brands;
+        if (after == null) {
+            brands = brandService.findAllBrands(status, pageSize, page, sortedBy, selection);
+        } else {
+            brands = brandService.findAllBrandsAfter(status, pageSize, after, sortedBy, selection);
+            KeysetCursors.nextCursor(brands).ifPresent(cursor -> response.header(PaginationHeaders.NEXT_CURSOR, cursor));
+        }
+        response.header(PaginationHeaders.HAS_NEXT, String.valueOf(brands.hasNext()));
+        if (total != null) {
+            response.header(PaginationHeaders.TOTAL_COUNT, String.valueOf(brandService.countBrands(total, status)));
+        }
+        return response.body(SparseFieldsets.brands(objectMapper, brands.getContent(), selection));
     }
 
     @Operation(
@@ -125,6 +182,23 @@ public class BrandRestController {
                 .body(brand);
     }
 
+    @Operation(
+            summary = "Endpoint for getting brands by IDs from the request body, only for authorized users. Found brands are returned in the order of the requested IDs, IDs that do not exist are listed separately. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'links', relations are not returned when only 'fields' is specified",
+            responses = {
+                    @ApiResponse(description = "Successful response with found brands and missing IDs", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MultiGetResult.class))),
+                    @ApiResponse(description = "IDs are not specified or too many IDs are requested or requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @PostMapping("/multi-get")
+    public MultiGetResult<Object> multiGetBrands(@Valid @RequestBody MultiGetPayload payload,
+                                                 @RequestParam(required = false) String fields,
+                                                 @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forBrands(fields, include);
+        var result = brandService.multiGetBrands(payload.ids(), selection);
+        return new MultiGetResult<>(SparseFieldsets.brands(objectMapper, result.items(), selection), result.missingIds());
+    }
+
     @Operation(
             summary = "Endpoint for getting brands by IDs, only for authorized users",
             responses = {
@@ -138,14 +212,16 @@ public class BrandRestController {
     }
 
     @Operation(
-            summary = "Endpoint for getting brands by an inaccurate name match, only for authorized users",
+            summary = "Endpoint for getting brands by an inaccurate name match ordered by name similarity, only for authorized users. The number of results is limited by the 'limit' parameter, 20 by default and 100 at most",
             responses = {
                     @ApiResponse(description = "Successful response with brands", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Brand.class)))),
+                    @ApiResponse(description = "Limit is not positive", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping("/search")
-    public List<Brand> findBrandsByNameLike(@RequestParam String name) {
-        return brandService.findBrandsByNameLike(name);
+    public List<Brand> findBrandsByNameLike(@RequestParam String name,
+                                            @RequestParam(required = false) Integer limit) {
+        return brandService.findBrandsByNameLike(name, limit);
     }
 }
@@ -0,0 +1,40 @@
+package ru.itis.marketplace.catalogservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ProblemDetail;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.itis.marketplace.catalogservice.delta.CatalogChanges;
+import ru.itis.marketplace.catalogservice.service.CatalogChangeService;
+
+@Tag(name = "Catalog Change Rest Controller", description = "Incremental synchronization of products")
+@Validated
+@RestController
+@RequestMapping("api/v1/catalog/changes")
+@RequiredArgsConstructor
+public class CatalogChangeRestController {
+
+    private final CatalogChangeService catalogChangeService;
+
+    @Operation(
+            summary = "Endpoint for getting products changed and entities deleted since the cursor, only for authorized users. Without the 'since' parameter the whole catalog is returned in batches, every response carries the 'next' cursor for the following request and 'hasMore' tells whether the following request returns more changes right away. Changed products are returned with their photos and sizes, deleted products, sizes and photos are returned in 'deleted'",
+            responses = {
+                    @ApiResponse(description = "Successful response with a batch of changes", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CatalogChanges.class))),
+                    @ApiResponse(description = "Cursor is invalid or older than the tombstone retention, or limit is not positive", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @GetMapping
+    public CatalogChanges findChanges(@RequestParam(required = false) String since,
+                                      @RequestParam(required = false) Integer limit) {
+        return catalogChangeService.findChangesSince(since, limit);
+    }
+}
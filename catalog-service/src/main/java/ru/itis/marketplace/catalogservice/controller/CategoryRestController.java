@@ -9,14 +9,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.itis.marketplace.catalogservice.conditional.EntityTags;
 import ru.itis.marketplace.catalogservice.controller.payload.category.NewCategoryPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.category.UpdateCategoryPayload;
 import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.service.CategoryService;
 
 import java.util.List;
@@ -31,16 +35,26 @@ public class CategoryRestController {
     private final CategoryService categoryService;
 
     @Operation(
-            summary = "Endpoint for getting category by ID, only for authorized users",
+            summary = "Endpoint for getting category by ID, only for authorized users. The ETag is the category version, the category is not returned when it matches the If-None-Match header",
             responses = {
-                    @ApiResponse(description = "Successful response with category", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Category.class))),
+                    @ApiResponse(description = "Successful response with category", headers = @Header(name = "ETag", description = "Version of the category"), responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Category.class))),
+                    @ApiResponse(description = "Category not modified since the version from the If-None-Match header", responseCode = "304", useReturnTypeSchema = true),
+                    
                     @ApiResponse(description = "Category not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping(path = "/{categoryId:\\d+}")
-    public Category findCategoryById(@PathVariable Long categoryId) {
-        return categoryService.findCategoryById(categoryId);
+    public ResponseEntity<Category> findCategoryById(@PathVariable Long categoryId,
+                                                     @RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            var notModified = EntityTags.matching(ifNoneMatch, EntityTags.of(categoryService.findCategoryVersionById(categoryId)));
+            if (notModified.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified.get()).build();
+            }
+        }
+        Category category = categoryService.findCategoryById(categoryId);
+        return ResponseEntity.ok().eTag(EntityTags.of(category.getVersion())).body(category);
     }
 
     @Operation(
@@ -60,16 +74,22 @@ public class CategoryRestController {
     }
 
     @Operation(
-            summary = "Endpoint for deleting category by ID, only for authorized users",
+            summary = "Endpoint for deleting category by ID, only for authorized users. Products of the category are deleted in the background, the progress is available by the link from the Location header",
             responses = {
-                    @ApiResponse(description = "Successful response when category is deleted", responseCode = "204"),
+                    @ApiResponse(description = "Successful response when category deletion job is started", responseCode = "202", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeletionJob.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @DeleteMapping(path = "/{categoryId:\\d+}")
-    public ResponseEntity<Void> deleteCategoryById(@PathVariable Long categoryId) {
-        categoryService.deleteCategoryById(categoryId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<DeletionJob> deleteCategoryById(@PathVariable Long categoryId,
+                                                   UriComponentsBuilder uriComponentsBuilder) {
+        DeletionJob deletionJob = categoryService.deleteCategoryById(categoryId);
+        return ResponseEntity
+                .accepted()
+                .location(uriComponentsBuilder
+                    .replacePath("api/v1/catalog/deletion-jobs/{jobId}")
+                    .build(deletionJob.getId()))
+                .body(deletionJob);
     }
 
     @Operation(
@@ -92,26 +112,36 @@ public class CategoryRestController {
     }
 
     @Operation(
-            summary = "Endpoint for getting all categories, only for authorized users",
+            summary = "Endpoint for getting all categories, only for authorized users. The ETag is a digest of the category versions, the categories are not returned when it matches the If-None-Match header",
             responses = {
-                    @ApiResponse(description = "Successful response with categories", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Category.class)))),
+                    @ApiResponse(description = "Successful response with categories", headers = @Header(name = "ETag", description = "Digest of the category versions"), responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Category.class)))),
+                    @ApiResponse(description = "Categories not modified since the version from the If-None-Match header", responseCode = "304", useReturnTypeSchema = true),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping
-    public List<Category> findCategories() {
-        return categoryService.findAllCategories();
+    public ResponseEntity<List<Category>> findCategories(@RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            var notModified = EntityTags.matching(ifNoneMatch, EntityTags.of(categoryService.findCategoriesVersion()));
+            if (notModified.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified.get()).build();
+            }
+        }
+        List<Category> categories = categoryService.findAllCategories();
+        return ResponseEntity.ok().eTag(EntityTags.ofCategories(categories)).body(categories);
     }
 
     @Operation(
-            summary = "Endpoint for getting categories by an inaccurate name match, only for authorized users",
+            summary = "Endpoint for getting categories by an inaccurate name match ordered by name similarity, only for authorized users. The number of results is limited by the 'limit' parameter, 20 by default and 100 at most",
             responses = {
                     @ApiResponse(description = "Successful response with categories", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Category.class)))),
+                    @ApiResponse(description = "Limit is not positive", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping("/search")
-    public List<Category> findCategoriesByNameLike(@RequestParam String name) {
-        return categoryService.findCategoryByNameLike(name);
+    public List<Category> findCategoriesByNameLike(@RequestParam String name,
+                                                   @RequestParam(required = false) Integer limit) {
+        return categoryService.findCategoryByNameLike(name, limit);
     }
 }
@@ -0,0 +1,39 @@
+package ru.itis.marketplace.catalogservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ProblemDetail;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.service.DeletionJobService;
+
+@Tag(name = "Deletion Job Rest Controller", description = "Progress of background brand and category deletions")
+@Validated
+@RestController
+@RequestMapping("api/v1/catalog/deletion-jobs")
+@RequiredArgsConstructor
+public class DeletionJobRestController {
+
+    private final DeletionJobService deletionJobService;
+
+    @Operation(
+            summary = "Endpoint for getting deletion job by ID, only for authorized users",
+            responses = {
+                    @ApiResponse(description = "Successful response with deletion job", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeletionJob.class))),
+                    @ApiResponse(description = "Deletion job not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @GetMapping(path = "/{jobId:\\d+}")
+    public DeletionJob findDeletionJobById(@PathVariable Long jobId) {
+        return deletionJobService.findDeletionJobById(jobId);
+    }
+}
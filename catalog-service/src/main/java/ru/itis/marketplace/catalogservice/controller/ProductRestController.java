@@ -1,5 +1,11 @@
 package ru.itis.marketplace.catalogservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -9,17 +15,42 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.itis.marketplace.catalogservice.cache.CachedProductResponse;
+import ru.itis.marketplace.catalogservice.cache.ProductResponseCache;
+import ru.itis.marketplace.catalogservice.conditional.EntityTags;
+import ru.itis.marketplace.catalogservice.controller.payload.multi_get.MultiGetPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.NewProductPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.UpdateProductPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.UpdateProductStatusPayload;
 import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.facet.ProductFacets;
+import ru.itis.marketplace.catalogservice.importing.JsonProductImportRows;
+import ru.itis.marketplace.catalogservice.importing.ProductImportReport;
+import ru.itis.marketplace.catalogservice.importing.ProductImportRow;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.PaginationHeaders;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.projection.SparseFieldsets;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
+import ru.itis.marketplace.catalogservice.service.ProductImportService;
 import ru.itis.marketplace.catalogservice.service.ProductService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -31,18 +62,54 @@ import java.util.List;
 public class ProductRestController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductResponseCache productResponseCache;
+    private final ObjectMapper objectMapper;
 
     @Operation(
-            summary = "Endpoint for getting product by ID, only for authorized users",
+            summary = "Endpoint for getting product by ID, only for authorized users. The serialized product is cached and returned gzip-compressed when the client accepts it. The ETag is the product version, the product is not returned when it matches the If-None-Match header. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'sizes', relations are not returned when only 'fields' is specified. Such a partial product is neither cached nor compressed",
             responses = {
-                    @ApiResponse(description = "Successful response with product", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Product.class))),
+                    @ApiResponse(description = "Successful response with product", headers = @Header(name = "ETag", description = "Version of the product, with the -gzip suffix for the compressed representation"), responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Product.class))),
+                    @ApiResponse(description = "Product not modified since the version from the If-None-Match header", responseCode = "304", useReturnTypeSchema = true),
+                    @ApiResponse(description = "Requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Product not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping("/{productId:\\d+}")
-    public Product findProductById(@PathVariable Long productId) {
-        return productService.findProductById(productId);
+    public ResponseEntity<byte[]> findProductById(@PathVariable Long productId,
+                                                  @RequestHeader(required = false, name = HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                                  @RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forProducts(fields, include);
+        long version = productService.findProductVersionById(productId);
+        var notModified = EntityTags.matching(ifNoneMatch, EntityTags.of(version), EntityTags.gzipOf(version));
+        if (notModified.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(notModified.get())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!selection.isAll()) {
+            // the cache keeps full representations only, a partial one is loaded without the omitted relations
+            var result = productService.multiGetProducts(List.of(productId), selection);
+            if (result.items().isEmpty()) {
+                throw new NotFoundException("Product with ID: " + productId + " not found");
+            }
+            var partialProduct = SparseFieldsets.products(objectMapper, result.items(), selection).get(0);
+            return response.eTag(EntityTags.of(version)).body(writeBytes(partialProduct));
+        }
+        CachedProductResponse product = productResponseCache.findProduct(productId, version);
+        if (product.isCompressed() && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(product.gzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(product.gzip());
+        }
+        return response.eTag(product.eTag()).body(product.json());
     }
 
     @Operation(
@@ -68,13 +135,14 @@ public class ProductRestController {
                     @ApiResponse(description = "Successful response, product status updated", responseCode = "204", useReturnTypeSchema = true),
                     @ApiResponse(description = "Incorrect payload or some parameters are not specified", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Product not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Product status differs from the expected one", responseCode = "409", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @PatchMapping("/{productId:\\d+}")
     public ResponseEntity<Void> updateProductStatusById(@PathVariable Long productId,
                                                         @Valid @RequestBody UpdateProductStatusPayload payload) {
-        productService.updateProductStatusById(productId, payload.requestStatus());
+        productService.updateProductStatusById(productId, payload.requestStatus(), payload.expectedRequestStatus());
         return ResponseEntity.noContent().build();
     }
 
@@ -92,24 +160,81 @@ public class ProductRestController {
     }
 
     @Operation(
-            summary = "Endpoint for getting all products, only for authorized users",
+            summary = "Endpoint for getting all products, only for authorized users. If the 'after' parameter is provided, keyset pagination is used and the cursor of the next page is returned in the X-Next-Cursor header, an empty 'after' starts from the first page. The total number of products is not counted unless the 'total' parameter is set to 'exact' or 'estimate'. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'sizes', relations are not returned when only 'fields' is specified. The 'status', 'brand-id' and 'category-id' parameters accept several values, repeated or comma-separated, and match products with any of them",
             responses = {
-                    @ApiResponse(description = "Successful response with products", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Product.class)))),
+                    @ApiResponse(description = "Successful response with products", headers = {
+                            @Header(name = PaginationHeaders.NEXT_CURSOR, description = "Cursor of the next page, present only in keyset mode when the next page exists"),
+                            @Header(name = PaginationHeaders.HAS_NEXT, description = "Whether the next page exists"),
+                            @Header(name = PaginationHeaders.TOTAL_COUNT, description = "Exact or estimated total number of products, present only when the 'total' parameter is specified")
+                    }, responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Product.class)))),
+                    @ApiResponse(description = "Cursor is invalid or does not match the requested sorting or total count mode or requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping
-    public List<Product> findAllProducts(@RequestParam(required = false, name = "page-size") Integer pageSize,
-                                         @RequestParam(required = false) Integer page,
-                                         @RequestParam(required = false, name = "sort-by") String sortBy,
-                                         @RequestParam(required = false) String direction,
-                                         @RequestParam(required = false, name = "price-from") BigDecimal priceFrom,
-                                         @RequestParam(required = false, name = "price-to") BigDecimal priceTo,
-                                         @RequestParam(required = false) String status,
-                                         @RequestParam(required = false, name = "brand-id") Long brandId,
-                                         @RequestParam(required = false, name = "category-id") Long categoryId) {
-        return productService.findAllProducts(pageSize, page, sortBy, direction,
-                priceFrom, priceTo, status, brandId, categoryId);
+    public ResponseEntity<List<Object>> findAllProducts(@RequestParam(required = false, name = "page-size") Integer pageSize,
+                                                         @RequestParam(required = false) Integer page,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) String total,
+                                                         @RequestParam(required = false, name = "sort-by") String sortBy,
+                                                         @RequestParam(required = false) String direction,
+                                                         @RequestParam(required = false, name = "price-from") BigDecimal priceFrom,
+                                                         @RequestParam(required = false, name = "price-to") BigDecimal priceTo,
+                                                         @RequestParam(required = false, name = "status") List<String> statuses,
+                                                         @RequestParam(required = false, name = "brand-id") List<Long> brandIds,
+                                                         @RequestParam(required = false, name = "category-id") List<Long> categoryIds,
+                                                         @RequestParam(required = false) String fields,
+                                                         @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forProducts(fields, include);
+        var response = ResponseEntity.ok();
+        Window<Product> products;
+        if (after == null) {
+            products = productService.findAllProducts(pageSize, page, sortBy, direction,
+                    priceFrom, priceTo, statuses, brandIds, categoryIds, selection);
+        } else {
+            products = productService.findAllProductsAfter(pageSize, after, sortBy, direction,
+                    priceFrom, priceTo, statuses, brandIds, categoryIds, selection);
+            KeysetCursors.nextCursor(products).ifPresent(cursor -> response.header(PaginationHeaders.NEXT_CURSOR, cursor));
+        }
+        response.header(PaginationHeaders.HAS_NEXT, String.valueOf(products.hasNext()));
+        if (total != null) {
+            long totalCount = productService.countProducts(total, priceFrom, priceTo, statuses, brandIds, categoryIds);
+            response.header(PaginationHeaders.TOTAL_COUNT, String.valueOf(totalCount));
+        }
+        return response.body(SparseFieldsets.products(objectMapper, products.getContent(), selection));
+    }
+
+    @Operation(
+            summary = "Endpoint for getting the number of products per brand, category, price bucket and status, only for authorized users. The counts are maintained on every product change, so the response does not depend on the number of products. Every facet is narrowed by the filters on the other facets, but not by its own one",
+            responses = {
+                    @ApiResponse(description = "Successful response with product counts", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductFacets.class))),
+                    @ApiResponse(description = "Price bucket is not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @GetMapping("/facets")
+    public ProductFacets findProductFacets(@RequestParam(required = false) String status,
+                                           @RequestParam(required = false, name = "brand-id") Long brandId,
+                                           @RequestParam(required = false, name = "category-id") Long categoryId,
+                                           @RequestParam(required = false, name = "price-bucket") Integer priceBucket) {
+        return productService.findProductFacets(status, brandId, categoryId, priceBucket);
+    }
+
+    @Operation(
+            summary = "Endpoint for getting products by IDs from the request body, only for authorized users. Found products are returned in the order of the requested IDs, IDs that do not exist are listed separately. The 'fields' parameter limits the returned fields to the comma-separated list, the 'include' parameter lists the returned relations among 'photos' and 'sizes', relations are not returned when only 'fields' is specified",
+            responses = {
+                    @ApiResponse(description = "Successful response with found products and missing IDs", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MultiGetResult.class))),
+                    @ApiResponse(description = "IDs are not specified or too many IDs are requested or requested fields are not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @PostMapping("/multi-get")
+    public MultiGetResult<Object> multiGetProducts(@Valid @RequestBody MultiGetPayload payload,
+                                                   @RequestParam(required = false) String fields,
+                                                   @RequestParam(required = false) String include) {
+        var selection = FieldSelection.forProducts(fields, include);
+        var result = productService.multiGetProducts(payload.ids(), selection);
+        return new MultiGetResult<>(SparseFieldsets.products(objectMapper, result.items(), selection), result.missingIds());
     }
 
     @Operation(
@@ -120,8 +245,34 @@ public class ProductRestController {
             }
     )
     @GetMapping("/by-ids/{productIds}")
-    public List<Product> findProductsByIds(@PathVariable List<Long> productIds) {
-        return productService.findProductsByIds(productIds);
+    public ResponseEntity<byte[]> findProductsByIds(@PathVariable List<Long> productIds) {
+        List<CachedProductResponse> products = productResponseCache.findProducts(productIds);
+        var body = new ByteArrayOutputStream();
+        body.write('[');
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.writeBytes(products.get(i).json());
+        }
+        body.write(']');
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.toByteArray());
+    }
+
+    @Operation(
+            summary = "Endpoint for bulk import of products with their sizes and photos, only for authorized users. Accepts a JSON array or newline-delimited JSON, rows are imported in chunks and invalid rows are reported without failing the rest of the import",
+            responses = {
+                    @ApiResponse(description = "Successful response with the number of received and imported rows and the errors of the rejected rows", responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductImportReport.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ProductImportReport importProducts(InputStream body) throws IOException {
+        try (MappingIterator<ProductImportRow> rows = objectMapper.readerFor(ProductImportRow.class).readValues(body)) {
+            return productImportService.importProducts(new JsonProductImportRows(rows));
+        }
     }
 
     @Operation(
@@ -145,14 +296,72 @@ public class ProductRestController {
     }
 
     @Operation(
-            summary = "Endpoint for getting products by an inaccurate name match, only for authorized users",
+            summary = "Endpoint for getting products by an inaccurate name match ordered by name similarity, only for authorized users. The number of results is limited by the 'limit' parameter, 20 by default and 100 at most",
             responses = {
                     @ApiResponse(description = "Successful response with products", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Product.class)))),
+                    @ApiResponse(description = "Limit is not positive", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping("/search")
-    public List<Product> findProductsByNameLike(@RequestParam String name) {
-        return productService.findProductsByNameLike(name);
+    public List<Product> findProductsByNameLike(@RequestParam String name,
+                                                @RequestParam(required = false) Integer limit) {
+        return productService.findProductsByNameLike(name, limit);
+    }
+
+    @Operation(
+            summary = "Endpoint for relevance-ranked full-text search of products by name and description with typo tolerance and russian and english stemming, only for authorized users. Served from the in-memory index without querying the database. The number of results is limited by the 'limit' parameter, 20 by default and 100 at most",
+            responses = {
+                    @ApiResponse(description = "Successful response with found products ordered by relevance", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductSearchHit.class)))),
+                    @ApiResponse(description = "Limit is not positive", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @GetMapping("/full-text-search")
+    public List<ProductSearchHit> findProductsByFullText(@RequestParam String query,
+                                                         @RequestParam(required = false, name = "price-from") BigDecimal priceFrom,
+                                                         @RequestParam(required = false, name = "price-to") BigDecimal priceTo,
+                                                         @RequestParam(required = false) String status,
+                                                         @RequestParam(required = false, name = "brand-id") Long brandId,
+                                                         @RequestParam(required = false, name = "category-id") Long categoryId,
+                                                         @RequestParam(required = false) Integer limit) {
+        return productService.findProductsByFullText(query, priceFrom, priceTo, status, brandId, categoryId, limit);
+    }
+
+    @Operation(
+            summary = "Endpoint for exporting all products matching the filters with their photos and sizes as newline-delimited JSON, only for authorized users. Products are streamed from a database cursor in ID order, so the memory used does not depend on the catalog size",
+            responses = {
+                    @ApiResponse(description = "Successful response with one product per line", responseCode = "200", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = Product.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(required = false, name = "price-from") BigDecimal priceFrom,
+                                                                @RequestParam(required = false, name = "price-to") BigDecimal priceTo,
+                                                                @RequestParam(required = false) String status,
+                                                                @RequestParam(required = false, name = "brand-id") Long brandId,
+                                                                @RequestParam(required = false, name = "category-id") Long categoryId) {
+        ObjectWriter writer = objectMapper.writerFor(Product.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                productService.exportProducts(priceFrom, priceTo, status, brandId, categoryId, product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private byte[] writeBytes(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
     }
 }
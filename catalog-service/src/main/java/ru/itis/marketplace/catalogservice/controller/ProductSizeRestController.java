@@ -14,7 +14,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
 import ru.itis.marketplace.catalogservice.controller.payload.product_size.NewProductSizePayload;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeAvailabilityPayload;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.service.ProductSizeService;
 
@@ -42,6 +44,20 @@ public class ProductSizeRestController {
         return productSizeService.findAllProductSizes(productId);
     }
 
+    @Operation(
+            summary = "Endpoint for checking many product sizes at once, only for authorized users. For every (productId, sizeId) pair the response tells in request order whether the size exists and belongs to the product, together with the product brand, price and status",
+            responses = {
+                    @ApiResponse(description = "Successful response with availability of every requested pair", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductSizeAvailability.class)))),
+                    @ApiResponse(description = "Incorrect payload or too many pairs are requested", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
+            }
+    )
+    @PostMapping("/sizes/availability")
+    public List<ProductSizeAvailability> findProductSizeAvailability(
+            @Valid @RequestBody ProductSizeAvailabilityPayload payload) {
+        return productSizeService.findProductSizeAvailability(payload.items());
+    }
+
     @Operation(
             summary = "Endpoint for creating product size, only for authorized users",
             responses = {
@@ -0,0 +1,14 @@
+package ru.itis.marketplace.catalogservice.controller.payload.multi_get;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record MultiGetPayload(
+        @NotEmpty
+        @Size(max = 10000)
+        List<@NotNull Long> ids
+) {
+}
@@ -6,6 +6,8 @@ import org.hibernate.validator.constraints.Length;
 public record UpdateProductStatusPayload(
         @NotBlank
         @Length(max = 255)
-        String requestStatus
+        String requestStatus,
+        @Length(max = 255)
+        String expectedRequestStatus
 ) {
 }
@@ -0,0 +1,15 @@
+package ru.itis.marketplace.catalogservice.controller.payload.product_size;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductSizeAvailabilityPayload(
+        @NotEmpty
+        @Size(max = 1000)
+        List<@Valid @NotNull ProductSizeReferencePayload> items
+) {
+}
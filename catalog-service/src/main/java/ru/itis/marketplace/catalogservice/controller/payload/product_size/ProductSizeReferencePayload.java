@@ -0,0 +1,11 @@
+package ru.itis.marketplace.catalogservice.controller.payload.product_size;
+
+import jakarta.validation.constraints.NotNull;
+
+public record ProductSizeReferencePayload(
+        @NotNull
+        Long productId,
+        @NotNull
+        Long sizeId
+) {
+}
@@ -0,0 +1,14 @@
+package ru.itis.marketplace.catalogservice.delta;
+
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.util.List;
+
+public record CatalogChanges(
+        List<Product> products,
+        List<CatalogTombstone> deleted,
+        String next,
+        boolean hasMore
+) {
+
+}
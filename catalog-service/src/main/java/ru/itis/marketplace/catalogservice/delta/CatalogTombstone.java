@@ -0,0 +1,16 @@
+package ru.itis.marketplace.catalogservice.delta;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+
+public record CatalogTombstone(
+        @JsonIgnore
+        Long id,
+        String entityType,
+        Long entityId,
+        Long productId,
+        Instant deletionDateTime
+) {
+
+}
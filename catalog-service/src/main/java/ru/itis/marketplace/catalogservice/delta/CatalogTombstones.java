@@ -0,0 +1,87 @@
+package ru.itis.marketplace.catalogservice.delta;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// deleted rows are gone from their tables, so delta sync learns about them from tombstones kept for the retention period
+@Component
+public class CatalogTombstones {
+
+    public static final String PRODUCT = "product";
+    public static final String PRODUCT_SIZE = "product_size";
+    public static final String PRODUCT_PHOTO = "product_photo";
+
+    private static final String INSERT_PRODUCTS_SQL = "INSERT INTO catalog_tombstone " +
+            "(id, entity_type, entity_id, product_id, deletion_date_time) " +
+            "SELECT nextval('catalog_tombstone_seq'), '" + PRODUCT + "', p.id, p.id, :now FROM product p WHERE p.id IN (:ids) AND p.deleted_at IS NULL";
+    private static final String INSERT_SIZES_SQL = "INSERT INTO catalog_tombstone " +
+            "(id, entity_type, entity_id, product_id, deletion_date_time) " +
+            "SELECT nextval('catalog_tombstone_seq'), '" + PRODUCT_SIZE + "', s.id, s.product_id, :now FROM product_size s WHERE s.id IN (:ids)";
+    private static final String INSERT_PHOTOS_SQL = "INSERT INTO catalog_tombstone " +
+            "(id, entity_type, entity_id, product_id, deletion_date_time) " +
+            "SELECT nextval('catalog_tombstone_seq'), '" + PRODUCT_PHOTO + "', p.id, p.product_id, :now FROM product_photo p WHERE p.id IN (:ids)";
+    private static final String FIND_AFTER_SQL = "SELECT id, entity_type, entity_id, product_id, deletion_date_time " +
+            "FROM catalog_tombstone WHERE (deletion_date_time, id) > (:deletedAfter, :afterId) AND deletion_date_time <= :until " +
+            "ORDER BY deletion_date_time, id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    public CatalogTombstones(NamedParameterJdbcTemplate jdbcTemplate,
+                             @Value("${catalog.changes.tombstone-retention}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+    }
+
+    public Duration retention() {
+        return retention;
+    }
+
+    // the recording methods read the deleted rows, so they must run before the rows are deleted
+    public void recordProducts(Collection<Long> productIds) {
+        record(INSERT_PRODUCTS_SQL, productIds);
+    }
+
+    public void recordProductSizes(Collection<Long> sizeIds) {
+        record(INSERT_SIZES_SQL, sizeIds);
+    }
+
+    public void recordProductPhotos(Collection<Long> photoIds) {
+        record(INSERT_PHOTOS_SQL, photoIds);
+    }
+
+    public List<CatalogTombstone> findAfter(Instant deletedAfter, long afterId, Instant until, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("deletedAfter", Timestamp.from(deletedAfter))
+                .addValue("afterId", afterId)
+                .addValue("until", Timestamp.from(until))
+                .addValue("limit", limit);
+        return jdbcTemplate.query(FIND_AFTER_SQL, parameters, (resultSet, rowNum) -> new CatalogTombstone(
+                resultSet.getLong("id"), resultSet.getString("entity_type"), resultSet.getLong("entity_id"),
+                resultSet.getLong("product_id"), resultSet.getTimestamp("deletion_date_time").toInstant()));
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.tombstone-purge-interval}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM catalog_tombstone WHERE deletion_date_time < :expired",
+                Map.of("expired", Timestamp.from(Instant.now().minus(retention))));
+    }
+
+    private void record(String sql, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(sql, new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("now", Timestamp.from(Instant.now())));
+        }
+    }
+}
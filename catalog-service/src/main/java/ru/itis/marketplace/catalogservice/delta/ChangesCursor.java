@@ -0,0 +1,58 @@
+package ru.itis.marketplace.catalogservice.delta;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
+
+// products and tombstones are read as two independent streams, so the cursor keeps a position in each of them
+public record ChangesCursor(
+        Instant updatedAt,
+        long productId,
+        Instant deletedAt,
+        long tombstoneId
+) {
+    public static final ChangesCursor INITIAL = new ChangesCursor(Instant.EPOCH, 0, Instant.EPOCH, 0);
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+            .enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)
+            .build();
+
+    @JsonIgnore
+    public boolean isInitial() {
+        return equals(INITIAL);
+    }
+
+    public static ChangesCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            ChangesCursor decoded = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), ChangesCursor.class);
+            if (decoded.updatedAt() == null || decoded.deletedAt() == null) {
+                throw new BadRequestException("Cursor: " + cursor + " is invalid");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IOException exception) {
+            throw new BadRequestException("Cursor: " + cursor + " is invalid");
+        }
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
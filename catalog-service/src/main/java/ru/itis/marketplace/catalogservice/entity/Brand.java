@@ -1,16 +1,19 @@
 package ru.itis.marketplace.catalogservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.proxy.HibernateProxy;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModelEntityListener;
 
 import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CatalogReadModelEntityListener.class)
 @Setter
 @Getter
 @NoArgsConstructor
@@ -18,7 +21,7 @@ import java.util.Objects;
 public class Brand {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "brand_seq")
-    @SequenceGenerator(name = "brand_seq", sequenceName = "brand_seq", allocationSize = 1)
+    @SequenceGenerator(name = "brand_seq", sequenceName = "brand_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
@@ -28,6 +31,9 @@ public class Brand {
     private List<BrandPhoto> brandPhotos;
     @OneToMany(mappedBy = "brandId")
     private List<BrandLink> brandLinks;
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public Brand(String name, String description, String linkToLogo) {
         this.name = name;
@@ -58,6 +64,7 @@ public class Brand {
                 "name = " + name + ", " +
                 "description = " + description + ", " +
                 "linkToLogo = " + linkToLogo + ", " +
-                "requestStatus = " + requestStatus + ")";
+                "requestStatus = " + requestStatus + ", " +
+                "version = " + version + ")";
     }
 }
@@ -6,10 +6,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.proxy.HibernateProxy;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModelEntityListener;
 
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CatalogReadModelEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +19,7 @@ import java.util.Objects;
 public class BrandPhoto {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "brand_photo_seq")
-    @SequenceGenerator(name = "brand_photo_seq", sequenceName = "brand_photo_seq", allocationSize = 1)
+    @SequenceGenerator(name = "brand_photo_seq", sequenceName = "brand_photo_seq", allocationSize = 50)
     private Long id;
     private String url;
     private Long sequenceNumber;
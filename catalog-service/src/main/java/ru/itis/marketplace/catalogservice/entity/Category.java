@@ -1,15 +1,18 @@
 package ru.itis.marketplace.catalogservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.proxy.HibernateProxy;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModelEntityListener;
 
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CatalogReadModelEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,9 +20,12 @@ import java.util.Objects;
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
-    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 1)
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
     private Long id;
     private String name;
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public Category(String name) {
         this.name = name;
@@ -45,6 +51,7 @@ public class Category {
     public String toString() {
         return getClass().getSimpleName() + "(" +
                 "id = " + id + ", " +
-                "name = " + name + ")";
+                "name = " + name + ", " +
+                "version = " + version + ")";
     }
 }
@@ -0,0 +1,74 @@
+package ru.itis.marketplace.catalogservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deletion_job_seq")
+    @SequenceGenerator(name = "deletion_job_seq", sequenceName = "deletion_job_seq", allocationSize = 50)
+    private Long id;
+    private String targetType;
+    private Long targetId;
+    private String status = "pending";
+    private Long deletedProducts = 0L;
+    private Long deletedSizes = 0L;
+    private String error;
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    @CreationTimestamp
+    private Instant creationDateTime;
+    @UpdateTimestamp
+    private Instant updateDateTime;
+
+    public DeletionJob(String targetType, Long targetId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+    }
+
+    @Override
+    public final boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null) return false;
+        Class<?> oEffectiveClass = object instanceof HibernateProxy hibernateProxy ? hibernateProxy.getHibernateLazyInitializer().getPersistentClass() : object.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy hibernateProxy ? hibernateProxy.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        DeletionJob that = (DeletionJob) object;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy hibernateProxy ? hibernateProxy.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "id = " + id + ", " +
+                "targetType = " + targetType + ", " +
+                "targetId = " + targetId + ", " +
+                "status = " + status + ", " +
+                "deletedProducts = " + deletedProducts + ", " +
+                "deletedSizes = " + deletedSizes + ", " +
+                "error = " + error + ", " +
+                "leaseOwner = " + leaseOwner + ", " +
+                "leaseExpiresAt = " + leaseExpiresAt + ", " +
+                "creationDateTime = " + creationDateTime + ", " +
+                "updateDateTime = " + updateDateTime + ")";
+    }
+}
@@ -1,13 +1,17 @@
 package ru.itis.marketplace.catalogservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndexEntityListener;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModelEntityListener;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,6 +19,8 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@SQLRestriction("deleted_at IS NULL")
+@EntityListeners({CatalogReadModelEntityListener.class, ProductFilterIndexEntityListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,7 +28,7 @@ import java.util.Objects;
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
-    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 1)
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     private String name;
     private BigDecimal price;
@@ -38,6 +44,9 @@ public class Product {
     private Instant additionDateTime;
     @UpdateTimestamp
     private Instant updateDateTime;
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public Product(String name, BigDecimal price, String description, Long categoryId, Long brandId) {
         this.name = name;
@@ -74,6 +83,7 @@ public class Product {
                 "categoryId = " + categoryId + ", " +
                 "brandId = " + brandId + ", " +
                 "additionDateTime = " + additionDateTime + ", " +
-                "updateDateTime = " + updateDateTime + ")";
+                "updateDateTime = " + updateDateTime + ", " +
+                "version = " + version + ")";
     }
 }
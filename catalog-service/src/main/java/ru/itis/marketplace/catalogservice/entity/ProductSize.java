@@ -6,10 +6,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.proxy.HibernateProxy;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModelEntityListener;
 
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CatalogReadModelEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +19,7 @@ import java.util.Objects;
 public class ProductSize {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_size_seq")
-    @SequenceGenerator(name = "product_size_seq", sequenceName = "product_size_seq", allocationSize = 1)
+    @SequenceGenerator(name = "product_size_seq", sequenceName = "product_size_seq", allocationSize = 50)
     private Long id;
     private String name;
     private Long productId;
@@ -33,6 +33,15 @@ public class GlobalExceptionHandlerControllerAdvice extends ResponseEntityExcept
         return problemDetail;
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ProblemDetail handleConflictException(HttpServletRequest request, ConflictException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+        problemDetail.setTitle("Conflict");
+        problemDetail.setInstance(URI.create(request.getRequestURI()));
+        problemDetail.setType(URI.create(PROBLEM_DETAIL_TYPE));
+        return problemDetail;
+    }
+
     @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
     public ProblemDetail handleIllegalsException(HttpServletRequest request, Exception exception) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage());
@@ -0,0 +1,28 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.util.Comparator;
+
+public record FacetKey(
+        Long brandId,
+        Long categoryId,
+        int priceBucket,
+        String requestStatus
+) implements Comparable<FacetKey> {
+
+    private static final Comparator<FacetKey> ORDER = Comparator.comparing(FacetKey::brandId)
+            .thenComparing(FacetKey::categoryId)
+            .thenComparingInt(FacetKey::priceBucket)
+            .thenComparing(FacetKey::requestStatus);
+
+    public static FacetKey of(Product product) {
+        return new FacetKey(product.getBrandId(), product.getCategoryId(),
+                PriceBuckets.of(product.getPrice()), product.getRequestStatus());
+    }
+
+    @Override
+    public int compareTo(FacetKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import java.math.BigDecimal;
+
+public record PriceBucketCount(
+        int bucket,
+        BigDecimal priceFrom,
+        BigDecimal priceTo,
+        long count
+) {
+}
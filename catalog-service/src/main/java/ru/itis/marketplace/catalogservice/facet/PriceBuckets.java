@@ -0,0 +1,50 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class PriceBuckets {
+
+    // the 2026-10-17-fill-product-facet-count-table migration filled the counters with the same width_bucket expression,
+    // PriceBucketsTests compares the two. Changing the bounds needs a new migration that refills product_facet_count
+    private static final BigDecimal[] BOUNDS = {
+            BigDecimal.valueOf(1000), BigDecimal.valueOf(2500), BigDecimal.valueOf(5000),
+            BigDecimal.valueOf(10000), BigDecimal.valueOf(25000)
+    };
+
+    public static final String SQL = "width_bucket(price, ARRAY[" + Arrays.stream(BOUNDS)
+            .map(BigDecimal::toPlainString)
+            .collect(Collectors.joining(", ")) + "]::numeric[])";
+
+    private PriceBuckets() {
+    }
+
+    public static int of(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < BOUNDS.length && price.compareTo(BOUNDS[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public static int count() {
+        return BOUNDS.length + 1;
+    }
+
+    public static BigDecimal from(int bucket) {
+        return bucket == 0 ? BigDecimal.ZERO : BOUNDS[bucket - 1];
+    }
+
+    public static BigDecimal to(int bucket) {
+        return bucket == BOUNDS.length ? null : BOUNDS[bucket];
+    }
+
+    public static void check(Integer bucket) {
+        if (bucket != null && (bucket < 0 || bucket >= count())) {
+            throw new BadRequestException("Price bucket: " + bucket + " is not supported");
+        }
+    }
+}
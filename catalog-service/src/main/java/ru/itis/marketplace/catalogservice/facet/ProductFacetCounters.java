@@ -0,0 +1,112 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// counters are changed in the transaction of the product change, so they never disagree with the product table
+@Component
+@RequiredArgsConstructor
+public class ProductFacetCounters {
+
+    private static final String ADD_SQL = "INSERT INTO product_facet_count " +
+            "(brand_id, category_id, price_bucket, request_status, product_count) " +
+            "VALUES (:brandId, :categoryId, :priceBucket, :requestStatus, :delta) " +
+            "ON CONFLICT (brand_id, category_id, price_bucket, request_status) " +
+            "DO UPDATE SET product_count = product_facet_count.product_count + EXCLUDED.product_count";
+    private static final String REMOVE_BY_PRODUCT_IDS_SQL = "UPDATE product_facet_count f " +
+            "SET product_count = f.product_count - removed.product_count " +
+            "FROM (SELECT brand_id, category_id, " + PriceBuckets.SQL + " AS price_bucket, request_status, count(*) AS product_count " +
+            "FROM product WHERE id IN (:ids) AND deleted_at IS NULL GROUP BY 1, 2, 3, 4) removed " +
+            "WHERE f.brand_id = removed.brand_id AND f.category_id = removed.category_id " +
+            "AND f.price_bucket = removed.price_bucket AND f.request_status = removed.request_status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void add(Collection<Product> products) {
+        Map<FacetKey, Long> deltas = products.stream()
+                .collect(Collectors.groupingBy(FacetKey::of, TreeMap::new, Collectors.counting()));
+        apply(deltas);
+    }
+
+    public void move(FacetKey from, FacetKey to) {
+        if (from.equals(to)) {
+            return;
+        }
+        Map<FacetKey, Long> deltas = new TreeMap<>();
+        deltas.put(from, -1L);
+        deltas.put(to, 1L);
+        apply(deltas);
+    }
+
+    // must run before the products are deleted, the removed keys are read from the product rows,
+    // soft deleted products were already removed from the counters and are skipped
+    public void removeByProductIds(Collection<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            jdbcTemplate.update(REMOVE_BY_PRODUCT_IDS_SQL, Map.of("ids", productIds));
+        }
+    }
+
+    public ProductFacets find(String status, Long brandId, Long categoryId, Integer priceBucket) {
+        PriceBuckets.check(priceBucket);
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("request_status", status);
+        filters.put("brand_id", brandId);
+        filters.put("category_id", categoryId);
+        filters.put("price_bucket", priceBucket);
+        Map<Integer, Long> prices = count("price_bucket", filters, (resultSet, rowNum) -> resultSet.getInt(1));
+        List<PriceBucketCount> priceCounts = new ArrayList<>(prices.size());
+        prices.forEach((bucket, count) -> priceCounts.add(
+                new PriceBucketCount(bucket, PriceBuckets.from(bucket), PriceBuckets.to(bucket), count)));
+        return new ProductFacets(
+                count("brand_id", filters, (resultSet, rowNum) -> resultSet.getLong(1)),
+                count("category_id", filters, (resultSet, rowNum) -> resultSet.getLong(1)),
+                priceCounts,
+                count("request_status", filters, (resultSet, rowNum) -> resultSet.getString(1)));
+    }
+
+    // keys are sorted, so concurrent transactions lock the counter rows in the same order
+    private void apply(Map<FacetKey, Long> deltas) {
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("brandId", delta.getKey().brandId())
+                        .addValue("categoryId", delta.getKey().categoryId())
+                        .addValue("priceBucket", delta.getKey().priceBucket())
+                        .addValue("requestStatus", delta.getKey().requestStatus())
+                        .addValue("delta", delta.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        if (batch.length > 0) {
+            jdbcTemplate.batchUpdate(ADD_SQL, batch);
+        }
+    }
+
+    // a facet is not narrowed by its own filter, so the alternatives to the selected value are still counted
+    private <T> Map<T, Long> count(String column, Map<String, Object> filters, RowMapper<T> valueMapper) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(column)
+                .append(", SUM(product_count) FROM product_facet_count WHERE product_count > 0");
+        var params = new MapSqlParameterSource();
+        filters.forEach((filterColumn, value) -> {
+            if (value != null && !filterColumn.equals(column)) {
+                sql.append(" AND ").append(filterColumn).append(" = :").append(filterColumn);
+                params.addValue(filterColumn, value);
+            }
+        });
+        sql.append(" GROUP BY ").append(column).append(" ORDER BY ").append(column);
+        return jdbcTemplate.query(sql.toString(), params, (resultSet, rowNum) ->
+                        Map.entry(valueMapper.mapRow(resultSet, rowNum), resultSet.getLong(2)))
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, LinkedHashMap::new));
+    }
+}
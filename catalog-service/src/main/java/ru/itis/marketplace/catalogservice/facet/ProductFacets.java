@@ -0,0 +1,12 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductFacets(
+        Map<Long, Long> brands,
+        Map<Long, Long> categories,
+        List<PriceBucketCount> prices,
+        Map<String, Long> statuses
+) {
+}
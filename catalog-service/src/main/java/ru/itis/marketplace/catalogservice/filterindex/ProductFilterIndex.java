@@ -0,0 +1,195 @@
+package ru.itis.marketplace.catalogservice.filterindex;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.itis.marketplace.catalogservice.cache.CatalogInvalidationSubscriber;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// changes are collected in a map and the primitive snapshot is rebuilt in the background, the index is
+// not used while the snapshot lags behind the map
+@Component
+@ConditionalOnProperty(name = "catalog.filter-index.enabled", havingValue = "true")
+public class ProductFilterIndex implements CatalogInvalidationSubscriber {
+
+    private static final String LOAD_SQL = "SELECT id, price, brand_id, category_id, request_status FROM product WHERE deleted_at IS NULL";
+    private static final String RELOAD_SQL = LOAD_SQL + " AND id = ANY(?)";
+    // bounds of decimal(15,2), filters beyond them match the same products as the bounds
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999999.99");
+    private static final BigDecimal MIN_PRICE = MAX_PRICE.negate();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong changes = new AtomicLong();
+    private final Object changeLock = new Object();
+    private volatile Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile ProductFilterSnapshot snapshot;
+    private Set<Long> pendingIds;
+
+    public ProductFilterIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        var current = snapshot;
+        return current != null && current.changes() == changes.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        synchronized (changeLock) {
+            pendingIds = new HashSet<>();
+        }
+        try {
+            Map<Long, Entry> loaded = new ConcurrentHashMap<>();
+            jdbcTemplate.query(LOAD_SQL, collectTo(loaded));
+            synchronized (changeLock) {
+                // products changed while the rows above were read are read again before the map is swapped
+                reload(loaded, pendingIds);
+                entries = loaded;
+                changes.incrementAndGet();
+            }
+        } finally {
+            synchronized (changeLock) {
+                pendingIds = null;
+            }
+        }
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.filter-index.rebuild-interval}")
+    public void rebuildChanged() {
+        var current = snapshot;
+        if (current != null && current.changes() != changes.get()) {
+            rebuild();
+        }
+    }
+
+    public void put(Product product) {
+        var entry = new Entry(cents(product.getPrice(), RoundingMode.HALF_UP), product.getBrandId(),
+                product.getCategoryId(), product.getRequestStatus());
+        Long productId = product.getId();
+        afterCommit(() -> change(List.of(productId), current -> current.put(productId, entry)));
+    }
+
+    public void remove(Collection<Long> productIds) {
+        var removed = List.copyOf(productIds);
+        afterCommit(() -> change(removed, current -> current.keySet().removeAll(removed)));
+    }
+
+    @Override
+    public void productsInvalidated(Collection<Long> productIds) {
+        change(productIds, current -> reload(current, productIds));
+    }
+
+    @Override
+    public void allProductsInvalidated() {
+        load();
+    }
+
+    @Override
+    public void resynchronize() {
+        load();
+    }
+
+    public Optional<Window<Long>> findIds(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses, Collection<Long> brandIds,
+                                          Collection<Long> categoryIds, String sortBy, Sort.Direction direction, long offset, int limit) {
+        var current = snapshot;
+        boolean byPrice = "price".equals(sortBy);
+        if (current == null || current.changes() != changes.get() || !byPrice && sortBy != null && !"id".equals(sortBy)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.page(lowerCents(priceFrom), upperCents(priceTo), statuses, brandIds, categoryIds,
+                byPrice, direction.isAscending(), offset, limit));
+    }
+
+    public OptionalLong count(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses, Collection<Long> brandIds, Collection<Long> categoryIds) {
+        var current = snapshot;
+        if (current == null || current.changes() != changes.get()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(current.count(lowerCents(priceFrom), upperCents(priceTo), statuses, brandIds, categoryIds));
+    }
+
+    private void change(Collection<Long> productIds, Consumer<Map<Long, Entry>> change) {
+        synchronized (changeLock) {
+            change.accept(entries);
+            changes.incrementAndGet();
+            if (pendingIds != null) {
+                pendingIds.addAll(productIds);
+            }
+        }
+    }
+
+    private void reload(Map<Long, Entry> current, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Entry> reloaded = new HashMap<>();
+        jdbcTemplate.query(RELOAD_SQL, collectTo(reloaded), (Object) productIds.toArray(Long[]::new));
+        productIds.forEach(current::remove);
+        current.putAll(reloaded);
+    }
+
+    private static RowCallbackHandler collectTo(Map<Long, Entry> entries) {
+        return resultSet -> entries.put(resultSet.getLong("id"),
+                new Entry(cents(resultSet.getBigDecimal("price"), RoundingMode.HALF_UP),
+                        resultSet.getLong("brand_id"), resultSet.getLong("category_id"),
+                        resultSet.getString("request_status")));
+    }
+
+    private synchronized void rebuild() {
+        long version = changes.get();
+        snapshot = new ProductFilterSnapshot(Map.copyOf(entries), version);
+    }
+
+    private static Long lowerCents(BigDecimal price) {
+        return price == null ? null : cents(price.max(MIN_PRICE).min(MAX_PRICE), RoundingMode.CEILING);
+    }
+
+    private static Long upperCents(BigDecimal price) {
+        return price == null ? null : cents(price.max(MIN_PRICE).min(MAX_PRICE), RoundingMode.FLOOR);
+    }
+
+    // price is stored as decimal(15,2) rounded half up, so whole cents fit into a long exactly
+    private static long cents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    record Entry(long price, long brandId, long categoryId, String requestStatus) {
+    }
+}
@@ -0,0 +1,29 @@
+package ru.itis.marketplace.catalogservice.filterindex;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.util.List;
+
+public class ProductFilterIndexEntityListener {
+
+    private final ObjectProvider<ProductFilterIndex> productFilterIndex;
+
+    public ProductFilterIndexEntityListener(ObjectProvider<ProductFilterIndex> productFilterIndex) {
+        this.productFilterIndex = productFilterIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Product product) {
+        productFilterIndex.ifAvailable(index -> index.put(product));
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        productFilterIndex.ifAvailable(index -> index.remove(List.of(product.getId())));
+    }
+}
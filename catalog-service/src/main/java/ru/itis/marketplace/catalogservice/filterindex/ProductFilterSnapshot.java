@@ -0,0 +1,165 @@
+package ru.itis.marketplace.catalogservice.filterindex;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// products are numbered by (price, id), so a price range is a contiguous range of positions
+final class ProductFilterSnapshot {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final long changes;
+    private final long[] ids;
+    private final long[] prices;
+    private final int[] positionsById;
+    private final Map<Long, BitSet> brands = new HashMap<>();
+    private final Map<Long, BitSet> categories = new HashMap<>();
+    private final Map<String, BitSet> statuses = new HashMap<>();
+
+    ProductFilterSnapshot(Map<Long, ProductFilterIndex.Entry> entries, long changes) {
+        this.changes = changes;
+        var sorted = entries.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Long, ProductFilterIndex.Entry>>comparingLong(entry -> entry.getValue().price())
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+        int size = sorted.size();
+        ids = new long[size];
+        prices = new long[size];
+        for (int position = 0; position < size; position++) {
+            var entry = sorted.get(position);
+            ids[position] = entry.getKey();
+            prices[position] = entry.getValue().price();
+            brands.computeIfAbsent(entry.getValue().brandId(), brandId -> new BitSet(size)).set(position);
+            categories.computeIfAbsent(entry.getValue().categoryId(), categoryId -> new BitSet(size)).set(position);
+            statuses.computeIfAbsent(entry.getValue().requestStatus(), status -> new BitSet(size)).set(position);
+        }
+        Integer[] positions = new Integer[size];
+        Arrays.setAll(positions, position -> position);
+        Arrays.sort(positions, Comparator.comparingLong(position -> ids[position]));
+        positionsById = new int[size];
+        Arrays.setAll(positionsById, i -> positions[i]);
+    }
+
+    long changes() {
+        return changes;
+    }
+
+    Window<Long> page(Long priceFrom, Long priceTo, Collection<String> statuses, Collection<Long> brandIds, Collection<Long> categoryIds,
+                      boolean byPrice, boolean ascending, long offset, int limit) {
+        int from = priceFrom == null ? 0 : firstAtLeast(priceFrom);
+        int to = priceTo == null ? ids.length : firstAtLeast(priceTo + 1);
+        BitSet filter = filter(statuses, brandIds, categoryIds);
+        List<Long> content = new ArrayList<>(limit + 1);
+        long skipped = 0;
+        if (byPrice) {
+            int position = ascending ? next(filter, from, to) : previous(filter, from, to - 1);
+            while (position >= 0 && content.size() <= limit) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    content.add(ids[position]);
+                }
+                position = ascending ? next(filter, position + 1, to) : previous(filter, from, position - 1);
+            }
+        } else {
+            for (int i = 0; i < positionsById.length && content.size() <= limit; i++) {
+                int position = positionsById[ascending ? i : positionsById.length - 1 - i];
+                if (position >= from && position < to && (filter == null || filter.get(position))) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        content.add(ids[position]);
+                    }
+                }
+            }
+        }
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content.remove(limit);
+        }
+        return Window.from(content, index -> ScrollPosition.offset(offset + index), hasNext);
+    }
+
+    long count(Long priceFrom, Long priceTo, Collection<String> statuses, Collection<Long> brandIds, Collection<Long> categoryIds) {
+        int from = priceFrom == null ? 0 : firstAtLeast(priceFrom);
+        int to = priceTo == null ? ids.length : firstAtLeast(priceTo + 1);
+        BitSet filter = filter(statuses, brandIds, categoryIds);
+        if (filter == null) {
+            return Math.max(0, to - from);
+        }
+        return from >= to ? 0 : filter.get(from, to).cardinality();
+    }
+
+    // null means that no bitmap filter is requested and every position matches
+    private BitSet filter(Collection<String> statusValues, Collection<Long> brandIds, Collection<Long> categoryIds) {
+        List<BitSet> bitmaps = new ArrayList<>(3);
+        if (!CollectionUtils.isEmpty(statusValues)) {
+            bitmaps.add(union(statuses, statusValues));
+        }
+        if (!CollectionUtils.isEmpty(brandIds)) {
+            bitmaps.add(union(brands, brandIds));
+        }
+        if (!CollectionUtils.isEmpty(categoryIds)) {
+            bitmaps.add(union(categories, categoryIds));
+        }
+        if (bitmaps.isEmpty()) {
+            return null;
+        }
+        if (bitmaps.size() == 1) {
+            return bitmaps.get(0);
+        }
+        bitmaps.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet intersection = (BitSet) bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size(); i++) {
+            intersection.and(bitmaps.get(i));
+        }
+        return intersection;
+    }
+
+    // several values of one field match a product with any of them, the shared bitmap is returned for a single value
+    private static <T> BitSet union(Map<T, BitSet> bitmaps, Collection<T> values) {
+        if (values.size() == 1) {
+            return bitmaps.getOrDefault(values.iterator().next(), NONE);
+        }
+        BitSet union = new BitSet();
+        values.forEach(value -> union.or(bitmaps.getOrDefault(value, NONE)));
+        return union;
+    }
+
+    private int firstAtLeast(long price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int next(BitSet filter, int position, int to) {
+        int next = filter == null ? position : filter.nextSetBit(position);
+        return next >= 0 && next < to ? next : -1;
+    }
+
+    private static int previous(BitSet filter, int from, int position) {
+        if (position < from) {
+            return -1;
+        }
+        int previous = filter == null ? position : filter.previousSetBit(position);
+        return previous >= from ? previous : -1;
+    }
+}
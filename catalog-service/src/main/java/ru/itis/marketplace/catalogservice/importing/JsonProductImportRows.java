@@ -0,0 +1,43 @@
+package ru.itis.marketplace.catalogservice.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+public class JsonProductImportRows implements Iterator<ProductImportRow> {
+
+    private final MappingIterator<ProductImportRow> rows;
+
+    public JsonProductImportRows(MappingIterator<ProductImportRow> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return rows.hasNextValue();
+        } catch (IOException exception) {
+            throw translate(exception);
+        }
+    }
+
+    @Override
+    public ProductImportRow next() {
+        try {
+            return rows.nextValue();
+        } catch (IOException exception) {
+            throw translate(exception);
+        }
+    }
+
+    private static RuntimeException translate(IOException exception) {
+        if (exception instanceof JsonProcessingException processingException) {
+            return new BadRequestException("Row could not be read: " + processingException.getOriginalMessage());
+        }
+        return new UncheckedIOException(exception);
+    }
+}
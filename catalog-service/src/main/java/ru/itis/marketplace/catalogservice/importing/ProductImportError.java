@@ -0,0 +1,8 @@
+package ru.itis.marketplace.catalogservice.importing;
+
+public record ProductImportError(
+        long row,
+        String name,
+        String message
+) {
+}
@@ -0,0 +1,10 @@
+package ru.itis.marketplace.catalogservice.importing;
+
+import java.util.List;
+
+public record ProductImportReport(
+        long received,
+        long imported,
+        List<ProductImportError> errors
+) {
+}
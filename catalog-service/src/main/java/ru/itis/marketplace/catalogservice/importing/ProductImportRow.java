@@ -0,0 +1,47 @@
+package ru.itis.marketplace.catalogservice.importing;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.Length;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductImportRow(
+        @NotBlank
+        @Length(max = 255)
+        String name,
+        @NotNull
+        @Positive
+        BigDecimal price,
+        @NotBlank
+        String description,
+        @NotNull
+        @Positive
+        Long categoryId,
+        @NotNull
+        @Positive
+        Long brandId,
+        List<@Valid @NotNull Size> sizes,
+        List<@Valid @NotNull Photo> photos
+) {
+
+    public record Size(
+            @NotBlank
+            @Length(max = 255)
+            String name
+    ) {
+    }
+
+    public record Photo(
+            @NotBlank
+            @Length(max = 2048)
+            String url,
+            @NotNull
+            @Positive
+            Long sequenceNumber
+    ) {
+    }
+}
@@ -0,0 +1,205 @@
+package ru.itis.marketplace.catalogservice.kafka;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.kafka.message.BrandChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductSizeKafkaMessage;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// changed ids are collected per transaction and their state is read right before commit, so a single message carries
+// the final state however often the transaction changed the entity, and a row that is gone becomes a delete marker
+// with the version given by the deleting transaction followed by a tombstone
+@Component
+public class CatalogChangeFeed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogChangeFeed.class);
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final KafkaProducer kafkaProducer;
+    private final EntityManager entityManager;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean bootstrap;
+    private final int replayChunkSize;
+
+    public CatalogChangeFeed(ProductRepository productRepository, BrandRepository brandRepository,
+                             KafkaProducer kafkaProducer, EntityManager entityManager,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${catalog.changes.bootstrap}") boolean bootstrap,
+                             @Value("${catalog.changes.replay-chunk-size}") int replayChunkSize) {
+        this.productRepository = productRepository;
+        this.brandRepository = brandRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.entityManager = entityManager;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bootstrap = bootstrap;
+        this.replayChunkSize = replayChunkSize;
+    }
+
+    public void productsChanged(Collection<Long> productIds) {
+        changes().productIds.addAll(productIds);
+    }
+
+    public void brandsChanged(Collection<Long> brandIds) {
+        changes().brandIds.addAll(brandIds);
+    }
+
+    // versions are the ones the delete markers are published with, they have to be greater than any stored version
+    public void productsDeleted(Map<Long, Long> versions) {
+        Changes changes = changes();
+        changes.productIds.addAll(versions.keySet());
+        changes.deletedProductVersions.putAll(versions);
+    }
+
+    public void brandsDeleted(Map<Long, Long> versions) {
+        Changes changes = changes();
+        changes.brandIds.addAll(versions.keySet());
+        changes.deletedBrandVersions.putAll(versions);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnBootstrap() {
+        if (bootstrap) {
+            taskExecutor.execute(() -> {
+                try {
+                    replay();
+                } catch (RuntimeException exception) {
+                    LOGGER.error("Catalog changes replay failed", exception);
+                }
+            });
+        }
+    }
+
+    // the current state of every product and brand is written again, every chunk is committed on its own
+    public void replay() {
+        long products = replay(productRepository::findIdsAfter, this::productsChanged);
+        long brands = replay(brandRepository::findIdsAfter, this::brandsChanged);
+        LOGGER.info("Catalog changes replayed {} products and {} brands", products, brands);
+    }
+
+    private long replay(BiFunction<Long, Integer, List<Long>> idsAfter, Consumer<Collection<Long>> changed) {
+        long replayed = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long from = afterId;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = idsAfter.apply(from, replayChunkSize);
+                changed.accept(chunk);
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            replayed += ids.size();
+        } while (ids.size() == replayChunkSize);
+        return replayed;
+    }
+
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Catalog changes can only be published within a transaction");
+        }
+        var changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private void publish(Changes changes) {
+        // the state is read with plain sql, so pending entity changes have to reach the database first
+        entityManager.flush();
+        // a transaction publishing the same keys waits for this one to commit and then reads the committed state
+        kafkaProducer.lockChanges(changes.productIds, changes.brandIds);
+        if (!changes.productIds.isEmpty()) {
+            Map<Long, Product> products = productRepository.findAssembledByIdIn(changes.productIds, FieldSelection.ALL).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            changes.productIds.forEach(id -> {
+                Product product = products.get(id);
+                if (product == null) {
+                    kafkaProducer.sendProductDeletion(id, changes.deletedProductVersions.get(id));
+                } else {
+                    kafkaProducer.sendProductChange(id, toMessage(product));
+                }
+            });
+        }
+        if (!changes.brandIds.isEmpty()) {
+            Map<Long, Brand> brands = brandRepository.findAssembledByIdIn(changes.brandIds, FieldSelection.ALL).stream()
+                    .collect(Collectors.toMap(Brand::getId, Function.identity()));
+            changes.brandIds.forEach(id -> {
+                Brand brand = brands.get(id);
+                if (brand == null) {
+                    kafkaProducer.sendBrandDeletion(id, changes.deletedBrandVersions.get(id));
+                } else {
+                    kafkaProducer.sendBrandChange(id, toMessage(brand));
+                }
+            });
+        }
+    }
+
+    private static ProductChangeKafkaMessage toMessage(Product product) {
+        var sizes = product.getSizes().stream()
+                .map(size -> new ProductSizeKafkaMessage(size.getId(), size.getName()))
+                .toList();
+        return new ProductChangeKafkaMessage(product.getId(), product.getName(), product.getPrice(),
+                product.getDescription(), product.getRequestStatus(), product.getCategoryId(), product.getBrandId(),
+                sizes, product.getVersion());
+    }
+
+    private static BrandChangeKafkaMessage toMessage(Brand brand) {
+        return new BrandChangeKafkaMessage(brand.getId(), brand.getName(), brand.getDescription(),
+                brand.getLinkToLogo(), brand.getRequestStatus(), brand.getVersion());
+    }
+
+    private final class Changes implements TransactionSynchronization {
+
+        private final Set<Long> productIds = new TreeSet<>();
+        private final Set<Long> brandIds = new TreeSet<>();
+        private final Map<Long, Long> deletedProductVersions = new HashMap<>();
+        private final Map<Long, Long> deletedBrandVersions = new HashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            publish(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeFeed.this);
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package ru.itis.marketplace.catalogservice.kafka;
 
-import org.springframework.kafka.support.SendResult;
-import ru.itis.marketplace.catalogservice.kafka.message.ProductUpdateKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.BrandChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductChangeKafkaMessage;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public interface KafkaProducer {
 
-    CompletableFuture<SendResult<String, List<Long>>> sendSizeIds(List<Long> sizeIds);
+    void sendSizeIds(List<Long> sizeIds);
 
-    CompletableFuture<SendResult<String, List<Long>>> sendBrandIds(List<Long> brandIds);
+    void sendBrandIds(List<Long> brandIds);
 
-    CompletableFuture<SendResult<String, ProductUpdateKafkaMessage>> sendProductUpdateMessage(Long productId, Long productNewBrandId);
+    void sendProductUpdateMessage(Long productId, Long productNewBrandId);
+
+    // must be called before the state of the products and brands is read, so their changes are stored in commit order
+    void lockChanges(Collection<Long> productIds, Collection<Long> brandIds);
+
+    void sendProductChange(Long productId, ProductChangeKafkaMessage message);
+
+    // a versioned delete marker is followed by a tombstone, so the compacted topic forgets the deleted product,
+    // without a known version only the tombstone is sent
+    void sendProductDeletion(Long productId, Long version);
+
+    void sendBrandChange(Long brandId, BrandChangeKafkaMessage message);
+
+    void sendBrandDeletion(Long brandId, Long version);
 }
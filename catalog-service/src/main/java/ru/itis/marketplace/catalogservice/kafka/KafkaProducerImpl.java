@@ -1,21 +1,31 @@
 package ru.itis.marketplace.catalogservice.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import ru.itis.marketplace.catalogservice.entity.OutboxEvent;
+import ru.itis.marketplace.catalogservice.kafka.message.BrandChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.CatalogDeletionKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductChangeKafkaMessage;
 import ru.itis.marketplace.catalogservice.kafka.message.ProductUpdateKafkaMessage;
+import ru.itis.marketplace.catalogservice.repository.OutboxEventRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
+// events are stored in the outbox within the caller's transaction and published by OutboxRelay after commit,
+// a keyed event locks its key first, so events with the same key get their ids in commit order
 @Component
 @RequiredArgsConstructor
+@Transactional(Transactional.TxType.MANDATORY)
 public class KafkaProducerImpl implements KafkaProducer{
 
-    private final KafkaTemplate<String, List<Long>> kafkaTemplateForDeletion;
-    private final KafkaTemplate<String, ProductUpdateKafkaMessage> kafkaTemplateForUpdate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
     @Value("${kafka.topics.size-deletion.name}")
     private String topicForSizeDeletionName;
@@ -23,19 +33,84 @@ public class KafkaProducerImpl implements KafkaProducer{
     private String topicForBrandDeletionName;
     @Value("${kafka.topics.product-update.name}")
     private String topicForProductUpdateName;
+    @Value("${kafka.topics.catalog-changes.name}")
+    private String topicForCatalogChangesName;
 
     @Override
-    public CompletableFuture<SendResult<String, List<Long>>> sendSizeIds(List<Long> sizeIds) {
-        return kafkaTemplateForDeletion.send(topicForSizeDeletionName, sizeIds);
+    public void sendSizeIds(List<Long> sizeIds) {
+        if (!sizeIds.isEmpty()) {
+            save(topicForSizeDeletionName, null, sizeIds);
+        }
     }
 
     @Override
-    public CompletableFuture<SendResult<String, List<Long>>> sendBrandIds(List<Long> brandIds) {
-        return kafkaTemplateForDeletion.send(topicForBrandDeletionName, brandIds);
+    public void sendBrandIds(List<Long> brandIds) {
+        if (!brandIds.isEmpty()) {
+            save(topicForBrandDeletionName, null, brandIds);
+        }
     }
 
     @Override
-    public CompletableFuture<SendResult<String, ProductUpdateKafkaMessage>> sendProductUpdateMessage(Long productId, Long productNewBrandId) {
-        return kafkaTemplateForUpdate.send(topicForProductUpdateName, new ProductUpdateKafkaMessage(productId, productNewBrandId));
+    public void sendProductUpdateMessage(Long productId, Long productNewBrandId) {
+        outboxEventRepository.lockKeys(List.of(lockKey(topicForProductUpdateName, productId.toString())));
+        save(topicForProductUpdateName, productId.toString(), new ProductUpdateKafkaMessage(productId, productNewBrandId));
+    }
+
+    @Override
+    public void lockChanges(Collection<Long> productIds, Collection<Long> brandIds) {
+        List<String> keys = new ArrayList<>(productIds.size() + brandIds.size());
+        productIds.forEach(id -> keys.add(lockKey(topicForCatalogChangesName, productKey(id))));
+        brandIds.forEach(id -> keys.add(lockKey(topicForCatalogChangesName, brandKey(id))));
+        if (!keys.isEmpty()) {
+            outboxEventRepository.lockKeys(keys);
+        }
+    }
+
+    @Override
+    public void sendProductChange(Long productId, ProductChangeKafkaMessage message) {
+        save(topicForCatalogChangesName, productKey(productId), message);
+    }
+
+    @Override
+    public void sendProductDeletion(Long productId, Long version) {
+        sendDeletion(productKey(productId), productId, version);
+    }
+
+    @Override
+    public void sendBrandChange(Long brandId, BrandChangeKafkaMessage message) {
+        save(topicForCatalogChangesName, brandKey(brandId), message);
+    }
+
+    @Override
+    public void sendBrandDeletion(Long brandId, Long version) {
+        sendDeletion(brandKey(brandId), brandId, version);
+    }
+
+    private void sendDeletion(String key, Long id, Long version) {
+        if (version != null) {
+            save(topicForCatalogChangesName, key, new CatalogDeletionKafkaMessage(id, true, version));
+        }
+        save(topicForCatalogChangesName, key, null);
+    }
+
+    private static String productKey(Long productId) {
+        return "product:" + productId;
+    }
+
+    private static String brandKey(Long brandId) {
+        return "brand:" + brandId;
+    }
+
+    private static String lockKey(String topic, String key) {
+        return topic + "/" + key;
+    }
+
+    private void save(String topic, String key, Object message) {
+        try {
+            String payload = message == null ? null : objectMapper.writeValueAsString(message);
+            outboxEventRepository.save(new OutboxEvent(topic, key, payload));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
     }
 }
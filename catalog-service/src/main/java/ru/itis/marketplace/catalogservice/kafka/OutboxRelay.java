@@ -0,0 +1,71 @@
+package ru.itis.marketplace.catalogservice.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.itis.marketplace.catalogservice.entity.OutboxEvent;
+import ru.itis.marketplace.catalogservice.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplateForOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, KafkaTemplate<String, String> kafkaTemplateForOutbox,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${catalog.outbox.batch-size}") int batchSize,
+                       @Value("${catalog.outbox.send-timeout}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplateForOutbox = kafkaTemplateForOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.poll-interval}")
+    public void relay() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    // rows stay locked until the broker acknowledges the whole batch, a failed send rolls back and the batch is retried,
+    // only one replica relays at a time, so events with the same key reach the broker in the order of their ids
+    private int relayBatch() {
+        if (!outboxEventRepository.tryLockRelay()) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxEventRepository.lockOldest(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> kafkaTemplateForOutbox.send(event.getTopic(), event.getMessageKey(), event.getPayload()))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Relaying outbox events was interrupted", exception);
+        } catch (ExecutionException | TimeoutException exception) {
+            throw new IllegalStateException("Outbox events could not be relayed", exception);
+        }
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        return events.size();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.itis.marketplace.catalogservice.kafka.message;
+
+public record BrandChangeKafkaMessage(
+        Long id,
+        String name,
+        String description,
+        String linkToLogo,
+        String requestStatus,
+        Long version
+) {
+
+}
@@ -0,0 +1,9 @@
+package ru.itis.marketplace.catalogservice.kafka.message;
+
+public record CatalogDeletionKafkaMessage(
+        Long id,
+        boolean deleted,
+        Long version
+) {
+
+}
@@ -0,0 +1,18 @@
+package ru.itis.marketplace.catalogservice.kafka.message;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductChangeKafkaMessage(
+        Long id,
+        String name,
+        BigDecimal price,
+        String description,
+        String requestStatus,
+        Long categoryId,
+        Long brandId,
+        List<ProductSizeKafkaMessage> sizes,
+        Long version
+) {
+
+}
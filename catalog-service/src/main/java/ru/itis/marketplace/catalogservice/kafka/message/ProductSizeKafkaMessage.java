@@ -0,0 +1,8 @@
+package ru.itis.marketplace.catalogservice.kafka.message;
+
+public record ProductSizeKafkaMessage(
+        Long id,
+        String name
+) {
+
+}
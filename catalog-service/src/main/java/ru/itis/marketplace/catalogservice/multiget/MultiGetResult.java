@@ -0,0 +1,25 @@
+package ru.itis.marketplace.catalogservice.multiget;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+public record MultiGetResult<T>(
+        List<T> items,
+        List<Long> missingIds
+) {
+    public static <T> MultiGetResult<T> of(List<Long> ids, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            T item = found.get(id);
+            if (item == null) {
+                missingIds.add(id);
+            } else {
+                items.add(item);
+            }
+        }
+        return new MultiGetResult<>(items, missingIds);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.itis.marketplace.catalogservice.pagination;
+
+public final class PaginationHeaders {
+
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    public static final String HAS_NEXT = "X-Has-Next";
+    public static final String TOTAL_COUNT = "X-Total-Count";
+
+    private PaginationHeaders() {
+    }
+}
@@ -0,0 +1,22 @@
+package ru.itis.marketplace.catalogservice.pagination;
+
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+public final class SearchLimits {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private SearchLimits() {
+    }
+
+    public static int resolve(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("Search limit: " + limit + " must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
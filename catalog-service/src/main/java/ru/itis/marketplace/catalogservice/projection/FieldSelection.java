@@ -0,0 +1,85 @@
+package ru.itis.marketplace.catalogservice.projection;
+
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public record FieldSelection(
+        Set<String> fields,
+        Set<String> includes
+) {
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    private static final Set<String> PRODUCT_FIELDS = Set.of("id", "name", "price", "description", "requestStatus",
+            "categoryId", "brandId", "additionDateTime", "updateDateTime");
+    private static final Map<String, String> PRODUCT_INCLUDES = Map.of("photos", "photos", "sizes", "sizes");
+    private static final Set<String> BRAND_FIELDS = Set.of("id", "name", "description", "linkToLogo", "requestStatus");
+    private static final Map<String, String> BRAND_INCLUDES = Map.of("photos", "brandPhotos", "links", "brandLinks");
+
+    public static FieldSelection forProducts(String fields, String include) {
+        return parse(fields, include, PRODUCT_FIELDS, PRODUCT_INCLUDES);
+    }
+
+    public static FieldSelection forBrands(String fields, String include) {
+        return parse(fields, include, BRAND_FIELDS, BRAND_INCLUDES);
+    }
+
+    public boolean isAll() {
+        return fields == null && includes == null;
+    }
+
+    public boolean selects(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // without an explicit include, relations are returned only together with all fields
+    public boolean includes(String relation) {
+        return includes == null ? fields == null : includes.contains(relation);
+    }
+
+    public Set<String> productProperties() {
+        return properties(PRODUCT_INCLUDES);
+    }
+
+    public Set<String> brandProperties() {
+        return properties(BRAND_INCLUDES);
+    }
+
+    private Set<String> properties(Map<String, String> relationProperties) {
+        Set<String> properties = new LinkedHashSet<>(fields);
+        relationProperties.forEach((relation, property) -> {
+            if (includes(relation)) {
+                properties.add(property);
+            }
+        });
+        return properties;
+    }
+
+    private static FieldSelection parse(String fields, String include, Set<String> allowedFields,
+                                        Map<String, String> allowedIncludes) {
+        if (fields == null && include == null) {
+            return ALL;
+        }
+        Set<String> selectedFields = fields == null ? new LinkedHashSet<>(allowedFields) : split(fields, allowedFields, "Field");
+        selectedFields.add("id");
+        Set<String> selectedIncludes = include == null ? null : split(include, allowedIncludes.keySet(), "Include");
+        return new FieldSelection(Set.copyOf(selectedFields), selectedIncludes == null ? null : Set.copyOf(selectedIncludes));
+    }
+
+    private static Set<String> split(String value, Set<String> allowed, String kind) {
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(name -> {
+                    if (!allowed.contains(name)) {
+                        throw new BadRequestException(kind + ": " + name + " is not supported");
+                    }
+                    names.add(name);
+                });
+        return names;
+    }
+}
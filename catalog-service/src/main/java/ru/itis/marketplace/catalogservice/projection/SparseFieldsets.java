@@ -0,0 +1,30 @@
+package ru.itis.marketplace.catalogservice.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public final class SparseFieldsets {
+
+    private SparseFieldsets() {
+    }
+
+    public static List<Object> products(ObjectMapper objectMapper, List<Product> products, FieldSelection selection) {
+        return selection.isAll() ? Collections.unmodifiableList(products) : retain(objectMapper, products, selection.productProperties());
+    }
+
+    public static List<Object> brands(ObjectMapper objectMapper, List<Brand> brands, FieldSelection selection) {
+        return selection.isAll() ? Collections.unmodifiableList(brands) : retain(objectMapper, brands, selection.brandProperties());
+    }
+
+    private static List<Object> retain(ObjectMapper objectMapper, List<?> items, Set<String> properties) {
+        return items.stream()
+                .<Object>map(item -> objectMapper.<ObjectNode>valueToTree(item).retain(properties))
+                .toList();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.itis.marketplace.catalogservice.purge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.time.Duration;
+
+// deleted products are only marked by requests, the rows with their photos and sizes are removed here in small batches
+@Component
+public class SoftDeletedProductPurger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoftDeletedProductPurger.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration delay;
+    private final int batchSize;
+
+    public SoftDeletedProductPurger(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                                    @Value("${catalog.soft-delete.purge-delay}") Duration delay,
+                                    @Value("${catalog.soft-delete.purge-batch-size}") int batchSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.delay = delay;
+        this.batchSize = batchSize;
+    }
+
+    // every batch is committed on its own, so row locks are held only for one batch
+    @Scheduled(cron = "${catalog.soft-delete.purge-cron}")
+    public void purge() {
+        long purged = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> productRepository.purgeSoftDeleted(delay.toSeconds(), batchSize));
+            purged += deleted == null ? 0 : deleted;
+        } while (deleted != null && deleted == batchSize);
+        if (purged > 0) {
+            LOGGER.info("Purged {} soft deleted products", purged);
+        }
+    }
+}
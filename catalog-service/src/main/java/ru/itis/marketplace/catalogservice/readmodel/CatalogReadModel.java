@@ -0,0 +1,358 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+import ru.itis.marketplace.catalogservice.cache.CatalogInvalidationSubscriber;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.BrandLink;
+import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.itis.marketplace.catalogservice.readmodel.CatalogSnapshots.snapshotOf;
+
+@Component
+@ConditionalOnProperty(name = "catalog.read-model.enabled", havingValue = "true")
+public class CatalogReadModel implements CatalogInvalidationSubscriber {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Map<String, Comparator<Product>> PRODUCT_ORDERS = Map.of(
+            "id", nullsLast(Product::getId),
+            "name", nullsLast(Product::getName),
+            "price", nullsLast(Product::getPrice),
+            "description", nullsLast(Product::getDescription),
+            "requestStatus", nullsLast(Product::getRequestStatus),
+            "categoryId", nullsLast(Product::getCategoryId),
+            "brandId", nullsLast(Product::getBrandId),
+            "additionDateTime", nullsLast(Product::getAdditionDateTime),
+            "updateDateTime", nullsLast(Product::getUpdateDateTime));
+    private static final Map<String, Comparator<Brand>> BRAND_ORDERS = Map.of(
+            "id", nullsLast(Brand::getId),
+            "name", nullsLast(Brand::getName),
+            "description", nullsLast(Brand::getDescription),
+            "linkToLogo", nullsLast(Brand::getLinkToLogo),
+            "requestStatus", nullsLast(Brand::getRequestStatus));
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object changeLock = new Object();
+
+    private volatile State state = new State();
+    private volatile boolean ready;
+    private List<Consumer<State>> pendingChanges;
+
+    public CatalogReadModel(ProductRepository productRepository, BrandRepository brandRepository,
+                            CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            State rebuilt = new State();
+            ScrollPosition position = ScrollPosition.keyset();
+            boolean hasNext = true;
+            while (hasNext) {
+                var from = position;
+                Window<Product> window = transactionTemplate.execute(status -> {
+                    Window<Product> batch = productRepository.findBy(
+                            ProductRepository.buildProductSpecification(null, null, null, null, null),
+                            query -> query.sortBy(Sort.by("id")).limit(REBUILD_BATCH_SIZE).scroll(from));
+                    joinProducts(batch.getContent()).forEach(rebuilt.products::put);
+                    return batch;
+                });
+                hasNext = window.hasNext() && !window.isEmpty();
+                if (hasNext) {
+                    position = window.positionAt(window.size() - 1);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> joinBrands(brandRepository.findAll()).forEach(rebuilt.brands::put));
+            transactionTemplate.executeWithoutResult(status -> rebuilt.categories = Categories.of(categoryRepository.findAll().stream()
+                    .map(CatalogSnapshots::snapshotOf).toList()));
+            synchronized (changeLock) {
+                // changes committed while the batches above were read are applied again on top of them
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                state = rebuilt;
+            }
+            ready = true;
+        } finally {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    public Optional<Product> findProductById(Long id) {
+        return Optional.ofNullable(state.products.get(id));
+    }
+
+    public List<Product> findProductsByIds(Collection<Long> ids) {
+        var products = state.products;
+        return ids.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+
+    public Optional<Window<Product>> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction,
+                                                     BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses,
+                                                     List<Long> brandIds, List<Long> categoryIds) {
+        var ordered = state.products.ordered(sortBy == null ? "id" : sortBy,
+                sortBy == null ? Sort.Direction.ASC : Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC));
+        if (ordered.isEmpty()) {
+            return Optional.empty();
+        }
+        Predicate<Product> filter = product -> (CollectionUtils.isEmpty(statuses) || statuses.contains(product.getRequestStatus()))
+                && (priceFrom == null || product.getPrice() != null && product.getPrice().compareTo(priceFrom) >= 0)
+                && (priceTo == null || product.getPrice() != null && product.getPrice().compareTo(priceTo) <= 0)
+                && (CollectionUtils.isEmpty(brandIds) || brandIds.contains(product.getBrandId()))
+                && (CollectionUtils.isEmpty(categoryIds) || categoryIds.contains(product.getCategoryId()));
+        return Optional.of(page(ordered.get().stream().filter(filter), pageSize, page));
+    }
+
+    public Optional<Window<Brand>> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy) {
+        var ordered = state.brands.ordered(sortedBy == null ? "id" : sortedBy, Sort.Direction.ASC);
+        if (ordered.isEmpty()) {
+            return Optional.empty();
+        }
+        Predicate<Brand> filter = brand -> status == null || status.equals(brand.getRequestStatus());
+        return Optional.of(page(ordered.get().stream().filter(filter), pageSize, page));
+    }
+
+    public List<Category> findAllCategories() {
+        return state.categories.byName();
+    }
+
+    public void refreshProduct(Long productId) {
+        refreshProducts(List.of(productId));
+    }
+
+    public void refreshProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        var refreshed = List.copyOf(productIds);
+        afterCommit(() -> change(current -> {
+            var products = transactionTemplate.execute(status -> joinProducts(productRepository.findAllById(refreshed)));
+            products.forEach(current.products::put);
+            var found = products.stream().map(Product::getId).collect(Collectors.toSet());
+            refreshed.stream().filter(id -> !found.contains(id)).forEach(current.products::remove);
+        }));
+    }
+
+    public void refreshBrand(Long brandId) {
+        afterCommit(() -> change(current -> transactionTemplate.execute(status -> brandRepository.findById(brandId)
+                .map(found -> joinBrands(List.of(found)).get(0)))
+                .ifPresentOrElse(current.brands::put, () -> {
+                    current.brands.remove(brandId);
+                    current.products.removeIf(product -> brandId.equals(product.getBrandId()));
+                })));
+    }
+
+    public void refreshCategory(Long categoryId) {
+        afterCommit(() -> change(current -> transactionTemplate.execute(status -> categoryRepository.findById(categoryId)
+                .map(CatalogSnapshots::snapshotOf))
+                .ifPresentOrElse(found -> current.categories = current.categories.with(found), () -> {
+                    current.categories = current.categories.without(categoryId);
+                    current.products.removeIf(product -> categoryId.equals(product.getCategoryId()));
+                })));
+    }
+
+    public void evictProducts(Collection<Long> productIds) {
+        var evicted = Set.copyOf(productIds);
+        afterCommit(() -> change(current -> evicted.forEach(current.products::remove)));
+    }
+
+    public void evictProductPhotos(Collection<Long> photoIds) {
+        var evicted = Set.copyOf(photoIds);
+        afterCommit(() -> change(current -> current.products.replaceIf(
+                product -> contains(product.getPhotos(), ProductPhoto::getId, evicted),
+                product -> snapshotOf(product, without(product.getPhotos(), ProductPhoto::getId, evicted), product.getSizes()))));
+    }
+
+    public void evictProductSizes(Collection<Long> sizeIds) {
+        var evicted = Set.copyOf(sizeIds);
+        afterCommit(() -> change(current -> current.products.replaceIf(
+                product -> contains(product.getSizes(), ProductSize::getId, evicted),
+                product -> snapshotOf(product, product.getPhotos(), without(product.getSizes(), ProductSize::getId, evicted)))));
+    }
+
+    public void evictBrandPhotos(Collection<Long> photoIds) {
+        var evicted = Set.copyOf(photoIds);
+        afterCommit(() -> change(current -> current.brands.replaceIf(
+                brand -> contains(brand.getBrandPhotos(), BrandPhoto::getId, evicted),
+                brand -> snapshotOf(brand, without(brand.getBrandPhotos(), BrandPhoto::getId, evicted), brand.getBrandLinks()))));
+    }
+
+    public void evictBrandLinks(Collection<Long> linkIds) {
+        var evicted = Set.copyOf(linkIds);
+        afterCommit(() -> change(current -> current.brands.replaceIf(
+                brand -> contains(brand.getBrandLinks(), BrandLink::getId, evicted),
+                brand -> snapshotOf(brand, brand.getBrandPhotos(), without(brand.getBrandLinks(), BrandLink::getId, evicted)))));
+    }
+
+    @Override
+    public void productsInvalidated(Collection<Long> productIds) {
+        refreshProducts(productIds);
+    }
+
+    @Override
+    public void allProductsInvalidated() {
+        rebuild();
+    }
+
+    @Override
+    public void brandsInvalidated(Collection<Long> brandIds) {
+        brandIds.forEach(this::refreshBrand);
+    }
+
+    @Override
+    public void allBrandsInvalidated() {
+        change(current -> {
+            var brands = transactionTemplate.execute(status -> joinBrands(brandRepository.findAll()));
+            brands.forEach(current.brands::put);
+            var found = brands.stream().map(Brand::getId).collect(Collectors.toSet());
+            current.brands.removeIf(brand -> !found.contains(brand.getId()));
+        });
+    }
+
+    @Override
+    public void categoriesInvalidated(Collection<Long> categoryIds) {
+        categoryIds.forEach(this::refreshCategory);
+    }
+
+    @Override
+    public void resynchronize() {
+        rebuild();
+    }
+
+    private void change(Consumer<State> change) {
+        synchronized (changeLock) {
+            change.accept(state);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private List<Product> joinProducts(List<Product> products) {
+        var productIds = products.stream().map(Product::getId).toList();
+        productRepository.joinPhotosToProductWithIds(productIds);
+        productRepository.joinSizesToBrandWithIds(productIds);
+        return products.stream().map(CatalogSnapshots::snapshotOf).toList();
+    }
+
+    private List<Brand> joinBrands(List<Brand> brands) {
+        var brandIds = brands.stream().map(Brand::getId).toList();
+        brandRepository.joinLinksToBrandsWithIds(brandIds);
+        brandRepository.joinPhotosToBrandsWithIds(brandIds);
+        return brands.stream().map(CatalogSnapshots::snapshotOf).toList();
+    }
+
+    private static <T> List<T> without(List<T> list, Function<T, Long> id, Set<Long> ids) {
+        return list.stream().filter(element -> !ids.contains(id.apply(element))).toList();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static <T> boolean contains(List<T> list, Function<T, Long> id, Set<Long> ids) {
+        return list.stream().anyMatch(element -> ids.contains(id.apply(element)));
+    }
+
+    private static <T> Window<T> page(Stream<T> ordered, Integer pageSize, Integer page) {
+        if (pageSize == null || page == null) {
+            return Window.from(ordered.toList(), ScrollPosition::offset);
+        }
+        long offset = (long) page * pageSize;
+        List<T> content = new ArrayList<>(ordered.skip(offset).limit(pageSize + 1L).toList());
+        boolean hasNext = content.size() > pageSize;
+        if (hasNext) {
+            content.remove(pageSize.intValue());
+        }
+        return Window.from(content, index -> ScrollPosition.offset(offset + index), hasNext);
+    }
+
+    private static <T, U extends Comparable<? super U>> Comparator<T> nullsLast(Function<T, U> property) {
+        return Comparator.comparing(property, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static final class State {
+        final OrderedEntries<Product> products = new OrderedEntries<>(Product::getId, PRODUCT_ORDERS);
+        final OrderedEntries<Brand> brands = new OrderedEntries<>(Brand::getId, BRAND_ORDERS);
+        volatile Categories categories = Categories.of(List.of());
+    }
+
+    private record Categories(Map<Long, Category> byId, List<Category> byName) {
+
+        static Categories of(Collection<Category> categories) {
+            return new Categories(categories.stream().collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity())),
+                    categories.stream().sorted(Comparator.comparing(Category::getName, Comparator.nullsLast(Comparator.naturalOrder()))).toList());
+        }
+
+        Categories with(Category category) {
+            Map<Long, Category> changed = new HashMap<>(byId);
+            changed.put(category.getId(), category);
+            return of(changed.values());
+        }
+
+        Categories without(Long categoryId) {
+            Map<Long, Category> changed = new HashMap<>(byId);
+            changed.remove(categoryId);
+            return of(changed.values());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.BrandLink;
+import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+
+public class CatalogReadModelEntityListener {
+
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
+
+    public CatalogReadModelEntityListener(ObjectProvider<CatalogReadModel> catalogReadModel) {
+        this.catalogReadModel = catalogReadModel;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        catalogReadModel.ifAvailable(readModel -> {
+            switch (entity) {
+                case Product product -> readModel.refreshProduct(product.getId());
+                case ProductPhoto photo -> readModel.refreshProduct(photo.getProductId());
+                case ProductSize size -> readModel.refreshProduct(size.getProductId());
+                case Brand brand -> readModel.refreshBrand(brand.getId());
+                case BrandLink link -> readModel.refreshBrand(link.getBrandId());
+                case BrandPhoto photo -> readModel.refreshBrand(photo.getBrandId());
+                case Category category -> readModel.refreshCategory(category.getId());
+                default -> {
+                }
+            }
+        });
+    }
+}
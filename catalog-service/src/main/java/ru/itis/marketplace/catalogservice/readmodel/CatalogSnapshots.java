@@ -0,0 +1,44 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.BrandLink;
+import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+
+import java.util.List;
+
+public final class CatalogSnapshots {
+
+    private CatalogSnapshots() {
+    }
+
+    public static Product snapshotOf(Product product) {
+        return snapshotOf(product, product.getPhotos(), product.getSizes());
+    }
+
+    public static Product snapshotOf(Product product, List<ProductPhoto> photos, List<ProductSize> sizes) {
+        return new Product(product.getId(), product.getName(), product.getPrice(), product.getDescription(),
+                product.getRequestStatus(), product.getCategoryId(), product.getBrandId(),
+                copyOf(photos), copyOf(sizes), product.getAdditionDateTime(), product.getUpdateDateTime(), product.getVersion());
+    }
+
+    public static Brand snapshotOf(Brand brand) {
+        return snapshotOf(brand, brand.getBrandPhotos(), brand.getBrandLinks());
+    }
+
+    public static Brand snapshotOf(Brand brand, List<BrandPhoto> photos, List<BrandLink> links) {
+        return new Brand(brand.getId(), brand.getName(), brand.getDescription(), brand.getLinkToLogo(),
+                brand.getRequestStatus(), copyOf(photos), copyOf(links), brand.getVersion());
+    }
+
+    public static Category snapshotOf(Category category) {
+        return new Category(category.getId(), category.getName(), category.getVersion());
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return list == null ? List.of() : List.copyOf(list);
+    }
+}
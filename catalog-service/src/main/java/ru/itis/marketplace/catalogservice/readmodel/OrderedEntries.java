@@ -0,0 +1,67 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// readers iterate without locking, writers are serialized by CatalogReadModel
+final class OrderedEntries<T> {
+
+    private final Function<T, Long> id;
+    private final Map<Long, T> entries = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<T>> orders = new HashMap<>();
+
+    OrderedEntries(Function<T, Long> id, Map<String, Comparator<T>> comparators) {
+        this.id = id;
+        comparators.forEach((property, comparator) ->
+                orders.put(property, new ConcurrentSkipListSet<>(comparator.thenComparing(id))));
+    }
+
+    T get(Long entryId) {
+        return entries.get(entryId);
+    }
+
+    Collection<T> values() {
+        return entries.values();
+    }
+
+    Optional<NavigableSet<T>> ordered(String property, Sort.Direction direction) {
+        return Optional.ofNullable(orders.get(property))
+                .map(ordered -> direction.isAscending() ? ordered : ordered.descendingSet());
+    }
+
+    void put(T entry) {
+        T previous = entries.put(id.apply(entry), entry);
+        for (var ordered : orders.values()) {
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+            ordered.add(entry);
+        }
+    }
+
+    void remove(Long entryId) {
+        T previous = entries.remove(entryId);
+        if (previous != null) {
+            orders.values().forEach(ordered -> ordered.remove(previous));
+        }
+    }
+
+    void removeIf(Predicate<T> condition) {
+        entries.values().stream().filter(condition).toList().forEach(entry -> remove(id.apply(entry)));
+    }
+
+    void replaceIf(Predicate<T> condition, UnaryOperator<T> change) {
+        entries.values().stream().filter(condition).toList().forEach(entry -> put(change.apply(entry)));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.service.BrandService;
+import ru.itis.marketplace.catalogservice.service.impl.BrandServiceImpl;
+
+import java.util.List;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "catalog.read-model.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReadModelBrandService implements BrandService {
+
+    private final BrandServiceImpl brandService;
+    private final CatalogReadModel catalogReadModel;
+
+    @Override
+    public Brand findBrandById(Long id) {
+        return brandService.findBrandById(id);
+    }
+
+    @Override
+    public long findBrandVersionById(Long id) {
+        return brandService.findBrandVersionById(id);
+    }
+
+    @Override
+    public void updateBrandById(Long brandId, String name, String description, String linkToLogo, String status) {
+        brandService.updateBrandById(brandId, name, description, linkToLogo, status);
+    }
+
+    @Override
+    public DeletionJob deleteBrandById(Long id) {
+        return brandService.deleteBrandById(id);
+    }
+
+    @Override
+    public Window<Brand> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy, FieldSelection selection) {
+        if (!catalogReadModel.isReady()) {
+            return brandService.findAllBrands(status, pageSize, page, sortedBy, selection);
+        }
+        return catalogReadModel.findAllBrands(status, pageSize, page, sortedBy)
+                .orElseGet(() -> brandService.findAllBrands(status, pageSize, page, sortedBy, selection));
+    }
+
+    @Override
+    public Window<Brand> findAllBrandsAfter(String status, Integer pageSize, String after, String sortedBy, FieldSelection selection) {
+        return brandService.findAllBrandsAfter(status, pageSize, after, sortedBy, selection);
+    }
+
+    @Override
+    public long countBrands(String totalMode, String status) {
+        return brandService.countBrands(totalMode, status);
+    }
+
+    @Override
+    public Brand createBrand(String name, String description, String linkToLogo) {
+        return brandService.createBrand(name, description, linkToLogo);
+    }
+
+    @Override
+    public List<Brand> findAllBrandByIds(List<Long> brandIds) {
+        return brandService.findAllBrandByIds(brandIds);
+    }
+
+    @Override
+    public MultiGetResult<Brand> multiGetBrands(List<Long> brandIds, FieldSelection selection) {
+        return brandService.multiGetBrands(brandIds, selection);
+    }
+
+    @Override
+    public List<Brand> findBrandsByNameLike(String name, Integer limit) {
+        return brandService.findBrandsByNameLike(name, limit);
+    }
+
+    @Override
+    public void updateBrandStatusById(Long brandId, String requestStatus, String expectedRequestStatus) {
+        brandService.updateBrandStatusById(brandId, requestStatus, expectedRequestStatus);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.service.CategoryService;
+import ru.itis.marketplace.catalogservice.service.impl.CategoryServiceImpl;
+
+import java.util.List;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "catalog.read-model.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReadModelCategoryService implements CategoryService {
+
+    private final CategoryServiceImpl categoryService;
+    private final CatalogReadModel catalogReadModel;
+
+    @Override
+    public Category findCategoryById(Long id) {
+        return categoryService.findCategoryById(id);
+    }
+
+    @Override
+    public long findCategoryVersionById(Long id) {
+        return categoryService.findCategoryVersionById(id);
+    }
+
+    @Override
+    public void updateCategoryById(Long id, String name) {
+        categoryService.updateCategoryById(id, name);
+    }
+
+    @Override
+    public DeletionJob deleteCategoryById(Long id) {
+        return categoryService.deleteCategoryById(id);
+    }
+
+    @Override
+    public Category createCategory(String name) {
+        return categoryService.createCategory(name);
+    }
+
+    @Override
+    public List<Category> findAllCategories() {
+        if (!catalogReadModel.isReady()) {
+            return categoryService.findAllCategories();
+        }
+        return catalogReadModel.findAllCategories();
+    }
+
+    @Override
+    public String findCategoriesVersion() {
+        return categoryService.findCategoriesVersion();
+    }
+
+    @Override
+    public List<Category> findCategoryByNameLike(String name, Integer limit) {
+        return categoryService.findCategoryByNameLike(name, limit);
+    }
+}
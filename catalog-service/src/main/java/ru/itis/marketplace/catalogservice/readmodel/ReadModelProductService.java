@@ -0,0 +1,120 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.facet.ProductFacets;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
+import ru.itis.marketplace.catalogservice.service.ProductService;
+import ru.itis.marketplace.catalogservice.service.impl.ProductServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "catalog.read-model.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReadModelProductService implements ProductService {
+
+    private final ProductServiceImpl productService;
+    private final CatalogReadModel catalogReadModel;
+
+    @Override
+    public Product findProductById(Long id) {
+        if (!catalogReadModel.isReady()) {
+            return productService.findProductById(id);
+        }
+        return catalogReadModel.findProductById(id).orElseGet(() -> productService.findProductById(id));
+    }
+
+    @Override
+    public long findProductVersionById(Long id) {
+        return productService.findProductVersionById(id);
+    }
+
+    @Override
+    public void updateProductById(Long productId, String name, BigDecimal price, String description, String status, Long categoryId, Long brandId) {
+        productService.updateProductById(productId, name, price, description, status, categoryId, brandId);
+    }
+
+    @Override
+    public void deleteProductById(Long id) {
+        productService.deleteProductById(id);
+    }
+
+    @Override
+    public Window<Product> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection) {
+        if (!catalogReadModel.isReady()) {
+            return productService.findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds, selection);
+        }
+        return catalogReadModel.findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds)
+                .orElseGet(() -> productService.findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds, selection));
+    }
+
+    @Override
+    public Window<Product> findAllProductsAfter(Integer pageSize, String after, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection) {
+        return productService.findAllProductsAfter(pageSize, after, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds, selection);
+    }
+
+    @Override
+    public long countProducts(String totalMode, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds) {
+        return productService.countProducts(totalMode, priceFrom, priceTo, statuses, brandIds, categoryIds);
+    }
+
+    @Override
+    public ProductFacets findProductFacets(String status, Long brandId, Long categoryId, Integer priceBucket) {
+        return productService.findProductFacets(status, brandId, categoryId, priceBucket);
+    }
+
+    @Override
+    public Product createProduct(String name, BigDecimal price, String description, Long categoryId, Long brandId) {
+        return productService.createProduct(name, price, description, categoryId, brandId);
+    }
+
+    @Override
+    public List<Product> findProductsByIds(List<Long> productIds) {
+        if (!catalogReadModel.isReady()) {
+            return productService.findProductsByIds(productIds);
+        }
+        return catalogReadModel.findProductsByIds(productIds);
+    }
+
+    @Override
+    public MultiGetResult<Product> multiGetProducts(List<Long> productIds, FieldSelection selection) {
+        if (!catalogReadModel.isReady()) {
+            return productService.multiGetProducts(productIds, selection);
+        }
+        return MultiGetResult.of(productIds, catalogReadModel.findProductsByIds(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity(), (first, second) -> first)));
+    }
+
+    @Override
+    public List<Product> findProductsByNameLike(String name, Integer limit) {
+        return productService.findProductsByNameLike(name, limit);
+    }
+
+    @Override
+    public List<ProductSearchHit> findProductsByFullText(String query, BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Integer limit) {
+        return productService.findProductsByFullText(query, priceFrom, priceTo, status, brandId, categoryId, limit);
+    }
+
+    @Override
+    public void updateProductStatusById(Long productId, String requestStatus, String expectedRequestStatus) {
+        productService.updateProductStatusById(productId, requestStatus, expectedRequestStatus);
+    }
+
+    @Override
+    public void exportProducts(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Consumer<Product> consumer) {
+        productService.exportProducts(priceFrom, priceTo, status, brandId, categoryId, consumer);
+    }
+}
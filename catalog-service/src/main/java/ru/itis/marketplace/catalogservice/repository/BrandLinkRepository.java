@@ -1,12 +1,16 @@
 package ru.itis.marketplace.catalogservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.itis.marketplace.catalogservice.entity.BrandLink;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BrandLinkRepository extends JpaRepository<BrandLink, Long> {
     List<BrandLink> findByBrandId(Long brandId);
     Optional<BrandLink> findByName(String name);
+    @Query("SELECT DISTINCT l.brandId FROM BrandLink l WHERE l.id IN (:linkIds)")
+    List<Long> findBrandIdsByIdIn(Collection<Long> linkIds);
 }
@@ -2,10 +2,14 @@ package ru.itis.marketplace.catalogservice.repository;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BrandPhotoRepository extends JpaRepository<BrandPhoto, Long> {
     List<BrandPhoto> findByBrandId(Long brandId, Sort sort);
+    @Query("SELECT DISTINCT p.brandId FROM BrandPhoto p WHERE p.id IN (:photoIds)")
+    List<Long> findBrandIdsByIdIn(Collection<Long> photoIds);
 }
@@ -4,23 +4,48 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.itis.marketplace.catalogservice.entity.Brand;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface BrandRepository extends JpaRepository<Brand, Long>, JpaSpecificationExecutor<Brand> {
+public interface BrandRepository extends JpaRepository<Brand, Long>, JpaSpecificationExecutor<Brand>, BrandRepositoryCustom {
     Optional<Brand> findByName(String name);
+    @Query("SELECT b.version FROM Brand b WHERE b.id = :id")
+    Optional<Long> findVersionById(Long id);
+    @Modifying
+    @Query("UPDATE Brand b SET b.version = b.version + 1 WHERE b.id = :id")
+    void incrementVersion(Long id);
+    @Modifying
+    @Query("UPDATE Brand b SET b.requestStatus = :requestStatus, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND (:expectedRequestStatus IS NULL OR b.requestStatus = :expectedRequestStatus)")
+    int updateRequestStatus(Long id, String requestStatus, String expectedRequestStatus);
+    @Modifying
+    @Query("UPDATE Brand b SET b.version = b.version + 1 WHERE b.id IN (SELECT photo.brandId FROM BrandPhoto photo WHERE photo.id IN (:photoIds))")
+    void incrementVersionByPhotoIds(Collection<Long> photoIds);
+    @Modifying
+    @Query("UPDATE Brand b SET b.version = b.version + 1 WHERE b.id IN (SELECT link.brandId FROM BrandLink link WHERE link.id IN (:linkIds))")
+    void incrementVersionByLinkIds(Collection<Long> linkIds);
+    @Query("SELECT b.id FROM Brand b WHERE b.id IN (:ids)")
+    Set<Long> findExistingIds(Collection<Long> ids);
+    @Query(value = "SELECT b.id FROM brand b WHERE b.id > :afterId ORDER BY b.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(Long afterId, int limit);
     @Query("SELECT b FROM Brand b LEFT JOIN FETCH b.brandLinks links WHERE b.id in (:ids)")
     List<Brand> joinLinksToBrandsWithIds(List<Long> ids);
     @Query("SELECT b FROM Brand b LEFT JOIN FETCH b.brandPhotos photos WHERE b.id in (:ids)")
     List<Brand> joinPhotosToBrandsWithIds(List<Long> ids);
-    @Query("SELECT b FROM Brand b WHERE LOWER(b.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Brand> findByNameLikeIgnoreCase(String name);
+    @Query(value = "SELECT b.* FROM brand b " +
+            "WHERE LOWER(b.name) LIKE CONCAT('%', LOWER(:name), '%') OR LOWER(:name) <% LOWER(b.name) " +
+            "ORDER BY word_similarity(LOWER(:name), LOWER(b.name)) DESC, similarity(LOWER(:name), LOWER(b.name)) DESC, b.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Brand> findByNameSimilar(String name, int limit);
 
     static Specification<Brand> buildFindAllSpecificationByStatus(String status) {
         return (root, query, criteriaBuilder) -> {
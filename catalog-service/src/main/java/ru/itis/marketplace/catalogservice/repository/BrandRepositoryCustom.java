@@ -0,0 +1,16 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BrandRepositoryCustom {
+    Window<Brand> scrollAssembled(String status, Sort sort, ScrollPosition position, Integer limit, FieldSelection selection);
+    List<Brand> findAssembledByNameSimilar(String name, int limit);
+    List<Brand> findAssembledByIdIn(Collection<Long> ids, FieldSelection selection);
+}
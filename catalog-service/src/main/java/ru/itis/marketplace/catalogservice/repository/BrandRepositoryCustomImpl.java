@@ -0,0 +1,153 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.BrandLink;
+import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class BrandRepositoryCustomImpl implements BrandRepositoryCustom {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description",
+            "linkToLogo", "link_to_logo",
+            "requestStatus", "request_status");
+    private static final String ASSEMBLY_SQL = "SELECT page.*, 'link' AS kind, link.id AS child_id, link.url AS child_url, " +
+            "link.name AS child_name, NULL AS child_sequence_number " +
+            "FROM page LEFT JOIN brand_link link ON link.brand_id = page.id " +
+            "UNION ALL " +
+            "SELECT page.*, 'photo', photo.id, photo.url, NULL, photo.sequence_number " +
+            "FROM page JOIN brand_photo photo ON photo.brand_id = page.id " +
+            "ORDER BY page_position, kind, child_sequence_number, child_id";
+    private static final String LINK_ASSEMBLY_SQL = "SELECT page.*, 'link' AS kind, link.id AS child_id, link.url AS child_url, " +
+            "link.name AS child_name, NULL AS child_sequence_number " +
+            "FROM page LEFT JOIN brand_link link ON link.brand_id = page.id " +
+            "ORDER BY page_position, child_id";
+    private static final String PHOTO_ASSEMBLY_SQL = "SELECT page.*, 'photo' AS kind, photo.id AS child_id, photo.url AS child_url, " +
+            "NULL AS child_name, photo.sequence_number AS child_sequence_number " +
+            "FROM page LEFT JOIN brand_photo photo ON photo.brand_id = page.id " +
+            "ORDER BY page_position, child_sequence_number, child_id";
+    private static final String PAGE_ASSEMBLY_SQL = "SELECT page.*, NULL AS kind, NULL AS child_id, NULL AS child_url, " +
+            "NULL AS child_name, NULL AS child_sequence_number FROM page ORDER BY page_position";
+
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Window<Brand> scrollAssembled(String status, Sort sort, ScrollPosition position, Integer limit, FieldSelection selection) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> conditions = new ArrayList<>(2);
+        if (status != null) {
+            conditions.add("request_status = :status");
+            parameters.addValue("status", status);
+        }
+        if (position instanceof KeysetScrollPosition keysetPosition && !keysetPosition.isInitial()) {
+            conditions.add(NativeScrolls.keysetCondition(keysetPosition, sort, COLUMNS, "b", parameters));
+        }
+        String orderBy = NativeScrolls.orderBy(sort, COLUMNS, "b");
+        StringBuilder page = new StringBuilder("SELECT ").append(selectList(selection, sort))
+                .append(", row_number() OVER (ORDER BY ").append(orderBy).append(") AS page_position FROM brand b");
+        if (!conditions.isEmpty()) {
+            page.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        page.append(" ORDER BY ").append(orderBy);
+        if (limit != null) {
+            page.append(" LIMIT :limit");
+            parameters.addValue("limit", limit + 1);
+        }
+        if (position instanceof OffsetScrollPosition offsetPosition && !offsetPosition.isInitial()) {
+            page.append(" OFFSET :offset");
+            parameters.addValue("offset", NativeScrolls.offset(offsetPosition));
+        }
+        return NativeScrolls.window(assemble(page.toString(), parameters, assemblySql(selection)), position, limit, sort);
+    }
+
+    @Override
+    public List<Brand> findAssembledByNameSimilar(String name, int limit) {
+        String page = "SELECT b.*, row_number() OVER (ORDER BY word_similarity(LOWER(:name), LOWER(b.name)) DESC, " +
+                "similarity(LOWER(:name), LOWER(b.name)) DESC, b.id) AS page_position FROM brand b " +
+                "WHERE LOWER(b.name) LIKE CONCAT('%', LOWER(:name), '%') OR LOWER(:name) <% LOWER(b.name) " +
+                "ORDER BY page_position LIMIT :limit";
+        return assemble(page, new MapSqlParameterSource().addValue("name", name).addValue("limit", limit), ASSEMBLY_SQL);
+    }
+
+    @Override
+    public List<Brand> findAssembledByIdIn(Collection<Long> ids, FieldSelection selection) {
+        List<Brand> brands = new ArrayList<>(ids.size());
+        String page = "SELECT " + selectList(selection, Sort.unsorted()) + ", b.id AS page_position FROM brand b WHERE b.id IN (:ids)";
+        for (List<Long> chunk : NativeScrolls.chunks(ids, ID_CHUNK_SIZE)) {
+            brands.addAll(assemble(page, new MapSqlParameterSource("ids", chunk), assemblySql(selection)));
+        }
+        return brands;
+    }
+
+    private List<Brand> assemble(String page, MapSqlParameterSource parameters, String assemblySql) {
+        Map<Long, Brand> brands = new LinkedHashMap<>();
+        jdbcTemplate.query("WITH page AS (" + page + ") " + assemblySql, parameters, resultSet -> {
+            Brand brand = brands.computeIfAbsent(resultSet.getLong("id"), id -> brand(resultSet));
+            long childId = resultSet.getLong("child_id");
+            if (resultSet.wasNull()) {
+                return;
+            }
+            if (resultSet.getString("kind").equals("link")) {
+                brand.getBrandLinks().add(new BrandLink(childId, resultSet.getString("child_url"),
+                        resultSet.getString("child_name"), brand.getId()));
+            } else {
+                brand.getBrandPhotos().add(new BrandPhoto(childId, resultSet.getString("child_url"),
+                        resultSet.getLong("child_sequence_number"), brand.getId()));
+            }
+        });
+        return new ArrayList<>(brands.values());
+    }
+
+    private static String selectList(FieldSelection selection, Sort sort) {
+        if (selection.isAll()) {
+            return "b.*";
+        }
+        List<String> columns = new ArrayList<>(COLUMNS.size() + 1);
+        COLUMNS.forEach((property, column) -> columns.add(
+                selection.selects(property) || sort.getOrderFor(property) != null ? "b." + column : "NULL AS " + column));
+        columns.add("b.version");
+        return String.join(", ", columns);
+    }
+
+    private static String assemblySql(FieldSelection selection) {
+        boolean links = selection.includes("links");
+        boolean photos = selection.includes("photos");
+        if (links && photos) {
+            return ASSEMBLY_SQL;
+        }
+        if (links) {
+            return LINK_ASSEMBLY_SQL;
+        }
+        return photos ? PHOTO_ASSEMBLY_SQL : PAGE_ASSEMBLY_SQL;
+    }
+
+    private static Brand brand(ResultSet resultSet) {
+        try {
+            return new Brand(resultSet.getLong("id"), resultSet.getString("name"), resultSet.getString("description"),
+                    resultSet.getString("link_to_logo"), resultSet.getString("request_status"), new ArrayList<>(), new ArrayList<>(), resultSet.getLong("version"));
+        } catch (SQLException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -4,11 +4,22 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.itis.marketplace.catalogservice.entity.Category;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
-    @Query("SELECT c FROM Category c WHERE LOWER(c.name) LIKE LOWER(:name)")
-    List<Category> findByNameLikeIgnoreCase(String name);
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(Long id);
+    @Query(value = "SELECT md5(COALESCE(string_agg(c.id || ':' || c.version, ',' ORDER BY c.id), '')) FROM category c", nativeQuery = true)
+    String findVersionsDigest();
+    @Query("SELECT c.id FROM Category c WHERE c.id IN (:ids)")
+    Set<Long> findExistingIds(Collection<Long> ids);
+    @Query(value = "SELECT c.* FROM category c " +
+            "WHERE LOWER(c.name) LIKE CONCAT('%', LOWER(:name), '%') OR LOWER(:name) <% LOWER(c.name) " +
+            "ORDER BY word_similarity(LOWER(:name), LOWER(c.name)) DESC, similarity(LOWER(:name), LOWER(c.name)) DESC, c.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Category> findByNameSimilar(String name, int limit);
 }
@@ -0,0 +1,21 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, Long> {
+    List<DeletionJob> findByStatusIn(Collection<String> statuses);
+    @Modifying
+    @Query(value = "UPDATE deletion_job SET lease_owner = :owner, lease_expires_at = now() + make_interval(secs => :leaseSeconds) " +
+            "WHERE id = :id AND status IN ('pending', 'running') AND (lease_owner IS NULL OR lease_expires_at < now())", nativeQuery = true)
+    int claim(Long id, String owner, long leaseSeconds);
+    @Modifying
+    @Query(value = "UPDATE deletion_job SET lease_expires_at = now() + make_interval(secs => :leaseSeconds) " +
+            "WHERE id = :id AND lease_owner = :owner", nativeQuery = true)
+    int renewLease(Long id, String owner, long leaseSeconds);
+}
@@ -0,0 +1,7 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+public record EntityVersion(
+        Long id,
+        Long version
+) {
+}
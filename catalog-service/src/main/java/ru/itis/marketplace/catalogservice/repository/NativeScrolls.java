@@ -0,0 +1,97 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+final class NativeScrolls {
+
+    private NativeScrolls() {
+    }
+
+    static String orderBy(Sort sort, Map<String, String> columns, String alias) {
+        if (sort.isUnsorted()) {
+            return alias + ".id";
+        }
+        List<String> orders = new ArrayList<>();
+        sort.forEach(order -> orders.add(alias + "." + column(columns, order.getProperty()) + " " + order.getDirection().name()));
+        return String.join(", ", orders);
+    }
+
+    // every sortable column is NOT NULL and KeysetCursors rejects cursors with null keys, so plain comparisons seek exactly
+    static String keysetCondition(KeysetScrollPosition position, Sort sort, Map<String, String> columns,
+                                  String alias, MapSqlParameterSource parameters) {
+        List<Sort.Order> orders = sort.toList();
+        List<String> alternatives = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            List<String> conjunction = new ArrayList<>(i + 1);
+            for (int j = 0; j <= i; j++) {
+                var order = orders.get(j);
+                String parameter = "key" + j;
+                parameters.addValue(parameter, toJdbc(position.getKeys().get(order.getProperty())));
+                String operator = j < i ? "=" : order.isAscending() ? ">" : "<";
+                conjunction.add(alias + "." + column(columns, order.getProperty()) + " " + operator + " :" + parameter);
+            }
+            alternatives.add("(" + String.join(" AND ", conjunction) + ")");
+        }
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+    static long offset(OffsetScrollPosition position) {
+        return position.isInitial() ? 0 : position.getOffset() + 1;
+    }
+
+    static <T> Window<T> window(List<T> content, ScrollPosition position, Integer limit, Sort sort) {
+        boolean hasNext = limit != null && content.size() > limit;
+        List<T> page = hasNext ? content.subList(0, limit) : content;
+        if (position instanceof OffsetScrollPosition offsetPosition) {
+            long offset = offset(offsetPosition);
+            return Window.from(page, index -> ScrollPosition.offset(offset + index), hasNext);
+        }
+        return Window.from(page, index -> {
+            var element = new BeanWrapperImpl(page.get(index));
+            Map<String, Object> keys = new LinkedHashMap<>();
+            sort.forEach(order -> keys.put(order.getProperty(), element.getPropertyValue(order.getProperty())));
+            return ScrollPosition.forward(keys);
+        }, hasNext);
+    }
+
+    static List<List<Long>> chunks(Collection<Long> ids, int chunkSize) {
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            chunks.add(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())));
+        }
+        return chunks;
+    }
+
+    static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static Object toJdbc(Object value) {
+        return value instanceof Instant instant ? Timestamp.from(instant) : value;
+    }
+
+    private static String column(Map<String, String> columns, String property) {
+        String column = columns.get(property);
+        if (column == null) {
+            throw new BadRequestException("Sorting by: " + property + " is not supported");
+        }
+        return column;
+    }
+}
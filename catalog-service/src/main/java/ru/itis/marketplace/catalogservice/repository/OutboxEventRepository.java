@@ -0,0 +1,20 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.itis.marketplace.catalogservice.entity.OutboxEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query(value = "SELECT * FROM outbox_event ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockOldest(int limit);
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtextextended('outbox_event', 0))", nativeQuery = true)
+    boolean tryLockRelay();
+    // keys are locked in hash order, so transactions locking overlapping keys can not deadlock
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(lock_key) FROM " +
+            "(SELECT DISTINCT hashtextextended(message_key, 0) AS lock_key FROM unnest(ARRAY[:keys]) AS message_key ORDER BY lock_key) AS ordered_keys) AS locked",
+            nativeQuery = true)
+    long lockKeys(Collection<String> keys);
+}
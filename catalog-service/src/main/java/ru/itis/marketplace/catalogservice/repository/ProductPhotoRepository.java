@@ -2,10 +2,14 @@ package ru.itis.marketplace.catalogservice.repository;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long> {
     List<ProductPhoto> findByProductId(Long productId, Sort sort);
+    @Query("SELECT DISTINCT p.productId FROM ProductPhoto p WHERE p.id IN (:photoIds)")
+    List<Long> findProductIdsByIdIn(Collection<Long> photoIds);
 }
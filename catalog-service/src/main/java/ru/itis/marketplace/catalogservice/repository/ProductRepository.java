@@ -4,28 +4,69 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.util.CollectionUtils;
 import ru.itis.marketplace.catalogservice.entity.Product;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     Optional<Product> findByName(String name);
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+    @Query("SELECT new ru.itis.marketplace.catalogservice.repository.EntityVersion(p.id, p.version) FROM Product p WHERE p.id IN (:ids)")
+    List<EntityVersion> findVersionsByIdIn(Collection<Long> ids);
+    @Modifying
+    @Query("UPDATE Product p SET p.version = p.version + 1, p.updateDateTime = instant WHERE p.id = :id")
+    void incrementVersion(Long id);
+    @Modifying
+    @Query("UPDATE Product p SET p.version = p.version + 1, p.updateDateTime = instant WHERE p.id IN (SELECT photo.productId FROM ProductPhoto photo WHERE photo.id IN (:photoIds))")
+    void incrementVersionByPhotoIds(Collection<Long> photoIds);
+    @Modifying
+    @Query("UPDATE Product p SET p.version = p.version + 1, p.updateDateTime = instant WHERE p.id IN (SELECT ps.productId FROM ProductSize ps WHERE ps.id IN (:sizeIds))")
+    void incrementVersionBySizeIds(Collection<Long> sizeIds);
+    @Query(value = "SELECT version FROM product WHERE id = :id AND deleted_at IS NULL FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockVersionById(Long id);
+    @Modifying
+    @Query(value = "UPDATE product SET deleted_at = now(), version = version + 1 WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    void softDeleteById(Long id);
+    @Modifying
+    @Query(value = "DELETE FROM product WHERE id IN (SELECT id FROM product " +
+            "WHERE deleted_at < now() - make_interval(secs => :delaySeconds) ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeSoftDeleted(long delaySeconds, int limit);
+    @Modifying
+    @Query(value = "DELETE FROM product WHERE id IN (:ids)", nativeQuery = true)
+    void hardDeleteByIdIn(Collection<Long> ids);
+    @Query("SELECT p.name FROM Product p WHERE p.name IN (:names)")
+    Set<String> findExistingNames(Collection<String> names);
+    @Query(value = "SELECT p.id FROM product p WHERE p.brand_id = :brandId AND p.deleted_at IS NULL ORDER BY p.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByBrandId(Long brandId, int limit);
+    @Query(value = "SELECT p.id FROM product p WHERE p.category_id = :categoryId AND p.deleted_at IS NULL ORDER BY p.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByCategoryId(Long categoryId, int limit);
+    @Query(value = "SELECT p.id FROM product p WHERE p.id > :afterId AND p.deleted_at IS NULL ORDER BY p.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(Long afterId, int limit);
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.photos photos WHERE p.id in (:ids)")
     List<Product> joinPhotosToProductWithIds(List<Long> ids);
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.sizes sizes WHERE p.id in (:ids)")
     List<Product> joinSizesToBrandWithIds(List<Long> ids);
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(:name)")
-    List<Product> findByNameLikeIgnoreCase(String name);
+    @Query(value = "SELECT p.* FROM product p " +
+            "WHERE (LOWER(p.name) LIKE CONCAT('%', LOWER(:name), '%') OR LOWER(:name) <% LOWER(p.name)) AND p.deleted_at IS NULL " +
+            "ORDER BY word_similarity(LOWER(:name), LOWER(p.name)) DESC, similarity(LOWER(:name), LOWER(p.name)) DESC, p.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Product> findByNameSimilar(String name, int limit);
 
-    static Specification<Product> buildProductSpecification(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId) {
+    static Specification<Product> buildProductSpecification(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses,
+                                                            Collection<Long> brandIds, Collection<Long> categoryIds) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>(5);
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("requestStatus"), status));
+            if (!CollectionUtils.isEmpty(statuses)) {
+                predicates.add(root.get("requestStatus").in(statuses));
             }
             if (priceFrom != null) {
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), priceFrom));
@@ -33,11 +74,11 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
             if (priceTo != null) {
                 predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), priceTo));
             }
-            if (brandId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("brandId"), brandId));
+            if (!CollectionUtils.isEmpty(brandIds)) {
+                predicates.add(root.get("brandId").in(brandIds));
             }
-            if (categoryId != null) {
-                predicates.add(criteriaBuilder.equal(root.get("categoryId"), categoryId));
+            if (!CollectionUtils.isEmpty(categoryIds)) {
+                predicates.add(root.get("categoryId").in(categoryIds));
             }
             return predicates.stream().reduce(criteriaBuilder::and).orElse(null);
         };
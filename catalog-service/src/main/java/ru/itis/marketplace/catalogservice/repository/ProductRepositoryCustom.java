@@ -0,0 +1,27 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface ProductRepositoryCustom {
+    long estimateCount(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses, Collection<Long> brandIds, Collection<Long> categoryIds);
+    Window<Product> scrollAssembled(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses,
+                                    Collection<Long> brandIds, Collection<Long> categoryIds, Sort sort, ScrollPosition position, Integer limit, FieldSelection selection);
+    List<Product> findAssembledByNameSimilar(String name, int limit);
+    List<Product> findAssembledByIdIn(Collection<Long> ids, FieldSelection selection);
+    List<Product> findAssembledChangedAfter(Instant updatedAfter, long afterId, Instant until, int limit);
+    void streamAssembled(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId,
+                         Consumer<Product> consumer);
+    List<Product> insertAssembled(List<Product> products);
+    Optional<ProductStatusChange> updateRequestStatus(Long id, String requestStatus, String expectedRequestStatus);
+}
@@ -0,0 +1,380 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.util.CollectionUtils;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "description", "description",
+            "requestStatus", "request_status",
+            "categoryId", "category_id",
+            "brandId", "brand_id",
+            "additionDateTime", "addition_date_time",
+            "updateDateTime", "update_date_time");
+    private static final String ASSEMBLY_SQL = "SELECT page.*, 'photo' AS kind, photo.id AS child_id, photo.url AS child_url, " +
+            "photo.sequence_number AS child_sequence_number, NULL AS child_name " +
+            "FROM page LEFT JOIN product_photo photo ON photo.product_id = page.id " +
+            "UNION ALL " +
+            "SELECT page.*, 'size', ps.id, NULL, NULL, ps.name " +
+            "FROM page JOIN product_size ps ON ps.product_id = page.id " +
+            "ORDER BY page_position, kind, child_sequence_number, child_id";
+    private static final String PHOTO_ASSEMBLY_SQL = "SELECT page.*, 'photo' AS kind, photo.id AS child_id, photo.url AS child_url, " +
+            "photo.sequence_number AS child_sequence_number, NULL AS child_name " +
+            "FROM page LEFT JOIN product_photo photo ON photo.product_id = page.id " +
+            "ORDER BY page_position, child_sequence_number, child_id";
+    private static final String SIZE_ASSEMBLY_SQL = "SELECT page.*, 'size' AS kind, ps.id AS child_id, NULL AS child_url, " +
+            "NULL AS child_sequence_number, ps.name AS child_name " +
+            "FROM page LEFT JOIN product_size ps ON ps.product_id = page.id " +
+            "ORDER BY page_position, child_id";
+    private static final String PAGE_ASSEMBLY_SQL = "SELECT page.*, NULL AS kind, NULL AS child_id, NULL AS child_url, " +
+            "NULL AS child_sequence_number, NULL AS child_name FROM page ORDER BY page_position";
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO product (id, name, description, price, request_status, " +
+            "brand_id, category_id, addition_date_time, update_date_time) " +
+            "VALUES (:id, :name, :description, :price, :requestStatus, :brandId, :categoryId, :additionDateTime, :updateDateTime) " +
+            "ON CONFLICT (name) WHERE deleted_at IS NULL DO NOTHING";
+    private static final String INSERT_PHOTO_SQL = "INSERT INTO product_photo (id, url, sequence_number, product_id) " +
+            "VALUES (:id, :url, :sequenceNumber, :productId)";
+    private static final String INSERT_SIZE_SQL = "INSERT INTO product_size (id, name, product_id) VALUES (:id, :name, :productId)";
+
+    // the locked row keeps the previous status for the facet counters, postgres returns only the new one from UPDATE
+    private static final String UPDATE_STATUS_SQL = "WITH previous AS (SELECT id, request_status FROM product " +
+            "WHERE id = :id AND deleted_at IS NULL AND (CAST(:expectedRequestStatus AS varchar) IS NULL OR request_status = :expectedRequestStatus) FOR UPDATE) " +
+            "UPDATE product p SET request_status = :requestStatus, version = p.version + 1, update_date_time = :updateDateTime " +
+            "FROM previous WHERE p.id = previous.id RETURNING p.*, previous.request_status AS previous_request_status";
+
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long estimateCount(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses,
+                              Collection<Long> brandIds, Collection<Long> categoryIds) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> conditions = conditions(priceFrom, priceTo, statuses, brandIds, categoryIds, parameters);
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM product"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+        String plan = jdbcTemplate.queryForObject(sql, parameters, String.class);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public Window<Product> scrollAssembled(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses,
+                                           Collection<Long> brandIds, Collection<Long> categoryIds,
+                                           Sort sort, ScrollPosition position, Integer limit, FieldSelection selection) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        List<String> conditions = conditions(priceFrom, priceTo, statuses, brandIds, categoryIds, parameters);
+        if (position instanceof KeysetScrollPosition keysetPosition && !keysetPosition.isInitial()) {
+            conditions.add(NativeScrolls.keysetCondition(keysetPosition, sort, COLUMNS, "p", parameters));
+        }
+        String orderBy = NativeScrolls.orderBy(sort, COLUMNS, "p");
+        StringBuilder page = new StringBuilder("SELECT ").append(selectList(selection, sort))
+                .append(", row_number() OVER (ORDER BY ").append(orderBy).append(") AS page_position FROM product p");
+        if (!conditions.isEmpty()) {
+            page.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        page.append(" ORDER BY ").append(orderBy);
+        if (limit != null) {
+            page.append(" LIMIT :limit");
+            parameters.addValue("limit", limit + 1);
+        }
+        if (position instanceof OffsetScrollPosition offsetPosition && !offsetPosition.isInitial()) {
+            page.append(" OFFSET :offset");
+            parameters.addValue("offset", NativeScrolls.offset(offsetPosition));
+        }
+        return NativeScrolls.window(assemble(page.toString(), parameters, assemblySql(selection)), position, limit, sort);
+    }
+
+    @Override
+    public List<Product> findAssembledByNameSimilar(String name, int limit) {
+        String page = "SELECT p.*, row_number() OVER (ORDER BY word_similarity(LOWER(:name), LOWER(p.name)) DESC, " +
+                "similarity(LOWER(:name), LOWER(p.name)) DESC, p.id) AS page_position FROM product p " +
+                "WHERE (LOWER(p.name) LIKE CONCAT('%', LOWER(:name), '%') OR LOWER(:name) <% LOWER(p.name)) AND p.deleted_at IS NULL " +
+                "ORDER BY page_position LIMIT :limit";
+        return assemble(page, new MapSqlParameterSource().addValue("name", name).addValue("limit", limit), ASSEMBLY_SQL);
+    }
+
+    @Override
+    public List<Product> findAssembledByIdIn(Collection<Long> ids, FieldSelection selection) {
+        List<Product> products = new ArrayList<>(ids.size());
+        String page = "SELECT " + selectList(selection, Sort.unsorted()) + ", p.id AS page_position FROM product p WHERE p.id IN (:ids) AND p.deleted_at IS NULL";
+        for (List<Long> chunk : NativeScrolls.chunks(ids, ID_CHUNK_SIZE)) {
+            products.addAll(assemble(page, new MapSqlParameterSource("ids", chunk), assemblySql(selection)));
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findAssembledChangedAfter(Instant updatedAfter, long afterId, Instant until, int limit) {
+        String page = "SELECT p.*, row_number() OVER (ORDER BY p.update_date_time, p.id) AS page_position FROM product p " +
+                "WHERE (p.update_date_time, p.id) > (:updatedAfter, :afterId) AND p.update_date_time <= :until AND p.deleted_at IS NULL " +
+                "ORDER BY p.update_date_time, p.id LIMIT :limit";
+        return assemble(page, new MapSqlParameterSource()
+                .addValue("updatedAfter", Timestamp.from(updatedAfter))
+                .addValue("afterId", afterId)
+                .addValue("until", Timestamp.from(until))
+                .addValue("limit", limit), ASSEMBLY_SQL);
+    }
+
+    // products are read in id ranges along the primary key, so no chunk sorts more than its own rows
+    @Override
+    public void streamAssembled(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId,
+                                Consumer<Product> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", EXPORT_CHUNK_SIZE);
+        List<String> conditions = conditions(priceFrom, priceTo, valueOf(status), valueOf(brandId), valueOf(categoryId), parameters);
+        conditions.add("p.id > :afterId");
+        String page = "SELECT p.*, p.id AS page_position FROM product p WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY p.id LIMIT :limit";
+        long afterId = Long.MIN_VALUE;
+        List<Product> chunk;
+        do {
+            chunk = assemble(page, parameters.addValue("afterId", afterId), ASSEMBLY_SQL);
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    @Override
+    public List<Product> insertAssembled(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        Timestamp timestamp = Timestamp.from(now);
+        Iterator<Long> productIds = nextIds("product_seq", products.size()).iterator();
+        SqlParameterSource[] productParameters = new SqlParameterSource[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            product.setId(productIds.next());
+            product.setAdditionDateTime(now);
+            product.setUpdateDateTime(now);
+            productParameters[i] = new MapSqlParameterSource()
+                    .addValue("id", product.getId())
+                    .addValue("name", product.getName())
+                    .addValue("description", product.getDescription())
+                    .addValue("price", product.getPrice())
+                    .addValue("requestStatus", product.getRequestStatus())
+                    .addValue("brandId", product.getBrandId())
+                    .addValue("categoryId", product.getCategoryId())
+                    .addValue("additionDateTime", timestamp)
+                    .addValue("updateDateTime", timestamp);
+        }
+        int[] insertedCounts = jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, productParameters);
+        List<Product> inserted = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            // a zero count means the name was taken concurrently and the row was skipped by ON CONFLICT
+            if (insertedCounts[i] != 0) {
+                inserted.add(products.get(i));
+            }
+        }
+        List<ProductPhoto> photos = new ArrayList<>();
+        List<ProductSize> sizes = new ArrayList<>();
+        for (Product product : inserted) {
+            product.getPhotos().forEach(photo -> photo.setProductId(product.getId()));
+            product.getSizes().forEach(size -> size.setProductId(product.getId()));
+            photos.addAll(product.getPhotos());
+            sizes.addAll(product.getSizes());
+        }
+        Iterator<Long> photoIds = nextIds("product_photo_seq", photos.size()).iterator();
+        photos.forEach(photo -> photo.setId(photoIds.next()));
+        jdbcTemplate.batchUpdate(INSERT_PHOTO_SQL, photos.stream()
+                .map(photo -> new MapSqlParameterSource()
+                        .addValue("id", photo.getId())
+                        .addValue("url", photo.getUrl())
+                        .addValue("sequenceNumber", photo.getSequenceNumber())
+                        .addValue("productId", photo.getProductId()))
+                .toArray(SqlParameterSource[]::new));
+        Iterator<Long> sizeIds = nextIds("product_size_seq", sizes.size()).iterator();
+        sizes.forEach(size -> size.setId(sizeIds.next()));
+        jdbcTemplate.batchUpdate(INSERT_SIZE_SQL, sizes.stream()
+                .map(size -> new MapSqlParameterSource()
+                        .addValue("id", size.getId())
+                        .addValue("name", size.getName())
+                        .addValue("productId", size.getProductId()))
+                .toArray(SqlParameterSource[]::new));
+        return inserted;
+    }
+
+    // sequences advance by the entity allocation size, each value is the low end of a pooled-lo block
+    @Override
+    public Optional<ProductStatusChange> updateRequestStatus(Long id, String requestStatus, String expectedRequestStatus) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("requestStatus", requestStatus)
+                .addValue("expectedRequestStatus", expectedRequestStatus)
+                .addValue("updateDateTime", Timestamp.from(Instant.now()));
+        return jdbcTemplate.query(UPDATE_STATUS_SQL, parameters,
+                (resultSet, rowNum) -> new ProductStatusChange(product(resultSet), resultSet.getString("previous_request_status")))
+                .stream().findFirst();
+    }
+
+    private List<Long> nextIds(String sequence, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        List<Long> lowValues = jdbcTemplate.queryForList("SELECT nextval('" + sequence + "') FROM generate_series(1, :blocks)",
+                new MapSqlParameterSource("blocks", blocks), Long.class);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long lowValue : lowValues) {
+            for (int i = 0; i < ID_ALLOCATION_SIZE && ids.size() < count; i++) {
+                ids.add(lowValue + i);
+            }
+        }
+        return ids;
+    }
+
+    private List<Product> assemble(String page, MapSqlParameterSource parameters, String assemblySql) {
+        List<Product> products = new ArrayList<>();
+        var assembler = new ProductAssembler(products::add);
+        jdbcTemplate.query("WITH page AS (" + page + ") " + assemblySql, parameters, assembler);
+        assembler.finish();
+        return products;
+    }
+
+    // columns that are neither requested nor needed for the keyset are not read from the table
+    private static String selectList(FieldSelection selection, Sort sort) {
+        if (selection.isAll()) {
+            return "p.*";
+        }
+        List<String> columns = new ArrayList<>(COLUMNS.size() + 1);
+        COLUMNS.forEach((property, column) -> columns.add(
+                selection.selects(property) || sort.getOrderFor(property) != null ? "p." + column : "NULL AS " + column));
+        columns.add("p.version");
+        return String.join(", ", columns);
+    }
+
+    private static String assemblySql(FieldSelection selection) {
+        boolean photos = selection.includes("photos");
+        boolean sizes = selection.includes("sizes");
+        if (photos && sizes) {
+            return ASSEMBLY_SQL;
+        }
+        if (photos) {
+            return PHOTO_ASSEMBLY_SQL;
+        }
+        return sizes ? SIZE_ASSEMBLY_SQL : PAGE_ASSEMBLY_SQL;
+    }
+
+    private static Product product(ResultSet resultSet) throws SQLException {
+        return new Product(resultSet.getLong("id"), resultSet.getString("name"), resultSet.getBigDecimal("price"),
+                resultSet.getString("description"), resultSet.getString("request_status"),
+                resultSet.getLong("category_id"), resultSet.getLong("brand_id"), new ArrayList<>(), new ArrayList<>(),
+                NativeScrolls.toInstant(resultSet.getTimestamp("addition_date_time")),
+                NativeScrolls.toInstant(resultSet.getTimestamp("update_date_time")), resultSet.getLong("version"));
+    }
+
+    private static class ProductAssembler implements RowCallbackHandler {
+
+        private final Consumer<Product> consumer;
+        private Product current;
+
+        ProductAssembler(Consumer<Product> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            long productId = resultSet.getLong("id");
+            if (current == null || current.getId() != productId) {
+                finish();
+                current = product(resultSet);
+            }
+            long childId = resultSet.getLong("child_id");
+            if (resultSet.wasNull()) {
+                return;
+            }
+            if (resultSet.getString("kind").equals("photo")) {
+                current.getPhotos().add(new ProductPhoto(childId, resultSet.getString("child_url"),
+                        resultSet.getLong("child_sequence_number"), productId));
+            } else {
+                current.getSizes().add(new ProductSize(childId, resultSet.getString("child_name"), productId));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+
+    private static <T> List<T> valueOf(T value) {
+        return value == null ? null : List.of(value);
+    }
+
+    // lists are bound as a single array parameter, so the statement is the same for any number of values
+    private static List<String> conditions(BigDecimal priceFrom, BigDecimal priceTo, Collection<String> statuses,
+                                           Collection<Long> brandIds, Collection<Long> categoryIds,
+                                           MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>(6);
+        conditions.add("deleted_at IS NULL");
+        if (!CollectionUtils.isEmpty(statuses)) {
+            conditions.add("request_status = ANY(:statuses)");
+            parameters.addValue("statuses", statuses.toArray(String[]::new));
+        }
+        if (priceFrom != null) {
+            conditions.add("price >= :priceFrom");
+            parameters.addValue("priceFrom", priceFrom);
+        }
+        if (priceTo != null) {
+            conditions.add("price <= :priceTo");
+            parameters.addValue("priceTo", priceTo);
+        }
+        if (!CollectionUtils.isEmpty(brandIds)) {
+            conditions.add("brand_id = ANY(:brandIds)");
+            parameters.addValue("brandIds", brandIds.toArray(Long[]::new));
+        }
+        if (!CollectionUtils.isEmpty(categoryIds)) {
+            conditions.add("category_id = ANY(:categoryIds)");
+            parameters.addValue("categoryIds", categoryIds.toArray(Long[]::new));
+        }
+        return conditions;
+    }
+}
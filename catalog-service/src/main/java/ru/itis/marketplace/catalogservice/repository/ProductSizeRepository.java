@@ -1,10 +1,20 @@
 package ru.itis.marketplace.catalogservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductSizeRepository extends JpaRepository<ProductSize, Long> {
     List<ProductSize> findByProductId(Long productId);
+    @Query("SELECT s.id FROM ProductSize s WHERE s.productId IN (:productIds)")
+    List<Long> findIdsByProductIdIn(Collection<Long> productIds);
+    @Query("SELECT DISTINCT s.productId FROM ProductSize s WHERE s.id IN (:sizeIds)")
+    List<Long> findProductIdsByIdIn(Collection<Long> sizeIds);
+    @Query("SELECT new ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability(s.productId, s.id, p.brandId, p.price, p.requestStatus) " +
+            "FROM ProductSize s JOIN Product p ON p.id = s.productId WHERE s.id IN (:sizeIds)")
+    List<ProductSizeAvailability> findAvailabilityBySizeIdIn(Collection<Long> sizeIds);
 }
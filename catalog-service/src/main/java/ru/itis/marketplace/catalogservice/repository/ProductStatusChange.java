@@ -0,0 +1,9 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+public record ProductStatusChange(
+        Product product,
+        String previousRequestStatus
+) {
+}
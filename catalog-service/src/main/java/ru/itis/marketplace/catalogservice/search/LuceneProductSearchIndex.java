@@ -0,0 +1,308 @@
+package ru.itis.marketplace.catalogservice.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.itis.marketplace.catalogservice.cache.CatalogInvalidationSubscriber;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class LuceneProductSearchIndex implements ProductSearchIndex, CatalogInvalidationSubscriber, DisposableBean {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String NAME_RU = "name_ru";
+    private static final String NAME_EN = "name_en";
+    private static final String DESCRIPTION = "description";
+    private static final String DESCRIPTION_RU = "description_ru";
+    private static final String DESCRIPTION_EN = "description_en";
+    private static final String PRICE = "price";
+    private static final String REQUEST_STATUS = "request_status";
+    private static final String CATEGORY_ID = "category_id";
+    private static final String BRAND_ID = "brand_id";
+    private static final String GENERATION = "generation";
+    private static final Map<String, Float> TEXT_FIELD_BOOSTS = Map.of(
+            NAME_RU, 2.0f, NAME_EN, 2.0f, DESCRIPTION_RU, 1.0f, DESCRIPTION_EN, 1.0f);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+            NAME_RU, new RussianAnalyzer(), DESCRIPTION_RU, new RussianAnalyzer(),
+            NAME_EN, new EnglishAnalyzer(), DESCRIPTION_EN, new EnglishAnalyzer()));
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    private final AtomicLong generation = new AtomicLong();
+
+    public LuceneProductSearchIndex(ProductRepository productRepository) throws IOException {
+        this.productRepository = productRepository;
+        this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long rebuildGeneration = generation.incrementAndGet();
+        try {
+            Window<Product> window;
+            ScrollPosition position = ScrollPosition.keyset();
+            do {
+                var windowPosition = position;
+                synchronized (indexWriter) {
+                    window = productRepository.findBy(
+                            ProductRepository.buildProductSpecification(null, null, null, null, null),
+                            query -> query.sortBy(Sort.by("id")).limit(REBUILD_BATCH_SIZE).scroll(windowPosition));
+                    for (Product product : window) {
+                        indexWriter.updateDocument(new Term(ID, product.getId().toString()), toDocument(product, rebuildGeneration));
+                    }
+                }
+                if (!window.isEmpty()) {
+                    position = window.positionAt(window.size() - 1);
+                }
+            } while (window.hasNext());
+            indexWriter.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, rebuildGeneration - 1));
+            indexWriter.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void index(Product product) {
+        index(List.of(product));
+    }
+
+    @Override
+    public void index(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        var indexed = List.copyOf(products);
+        afterCommit(() -> write(indexed, List.of()));
+    }
+
+    @Override
+    public void remove(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        var removed = List.copyOf(productIds);
+        afterCommit(() -> write(List.of(), removed));
+    }
+
+    @Override
+    public void productsInvalidated(Collection<Long> productIds) {
+        var products = productRepository.findAllById(productIds);
+        var foundIds = products.stream().map(Product::getId).collect(Collectors.toSet());
+        write(products, productIds.stream().filter(id -> !foundIds.contains(id)).toList());
+    }
+
+    @Override
+    public void allProductsInvalidated() {
+        rebuild();
+    }
+
+    @Override
+    public void resynchronize() {
+        rebuild();
+    }
+
+    @Override
+    public List<ProductSearchHit> search(String query, BigDecimal priceFrom, BigDecimal priceTo, String status,
+                                         Long brandId, Long categoryId, int limit) {
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        for (var field : TEXT_FIELD_BOOSTS.entrySet()) {
+            for (String token : analyze(field.getKey(), query)) {
+                Query fuzzyQuery = new FuzzyQuery(new Term(field.getKey(), token), maxEdits(token));
+                text.add(new BoostQuery(fuzzyQuery, field.getValue()), BooleanClause.Occur.SHOULD);
+            }
+        }
+        BooleanQuery textQuery = text.build();
+        if (textQuery.clauses().isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (priceFrom != null || priceTo != null) {
+            double from = priceFrom == null ? Double.NEGATIVE_INFINITY : priceFrom.doubleValue();
+            double to = priceTo == null ? Double.POSITIVE_INFINITY : priceTo.doubleValue();
+            builder.add(DoublePoint.newRangeQuery(PRICE, from, to), BooleanClause.Occur.FILTER);
+        }
+        if (status != null) {
+            builder.add(new TermQuery(new Term(REQUEST_STATUS, status)), BooleanClause.Occur.FILTER);
+        }
+        if (brandId != null) {
+            builder.add(LongPoint.newExactQuery(BRAND_ID, brandId), BooleanClause.Occur.FILTER);
+        }
+        if (categoryId != null) {
+            builder.add(LongPoint.newExactQuery(CATEGORY_ID, categoryId), BooleanClause.Occur.FILTER);
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                var storedFields = searcher.storedFields();
+                List<ProductSearchHit> hits = new ArrayList<>();
+                for (ScoreDoc scoreDoc : searcher.search(builder.build(), limit).scoreDocs) {
+                    hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return tokens;
+    }
+
+    private static int maxEdits(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    private void write(Collection<Product> products, Collection<Long> removedIds) {
+        try {
+            synchronized (indexWriter) {
+                for (Product product : products) {
+                    indexWriter.updateDocument(new Term(ID, product.getId().toString()), toDocument(product, generation.get()));
+                }
+                if (!removedIds.isEmpty()) {
+                    indexWriter.deleteDocuments(removedIds.stream().map(id -> new Term(ID, id.toString())).toArray(Term[]::new));
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Document toDocument(Product product, long generation) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation));
+        if (product.getName() != null) {
+            document.add(new StoredField(NAME, product.getName()));
+            document.add(new TextField(NAME_RU, product.getName(), Field.Store.NO));
+            document.add(new TextField(NAME_EN, product.getName(), Field.Store.NO));
+        }
+        if (product.getDescription() != null) {
+            document.add(new StoredField(DESCRIPTION, product.getDescription()));
+            document.add(new TextField(DESCRIPTION_RU, product.getDescription(), Field.Store.NO));
+            document.add(new TextField(DESCRIPTION_EN, product.getDescription(), Field.Store.NO));
+        }
+        if (product.getPrice() != null) {
+            document.add(new DoublePoint(PRICE, product.getPrice().doubleValue()));
+            document.add(new StoredField(PRICE, product.getPrice().toPlainString()));
+        }
+        if (product.getRequestStatus() != null) {
+            document.add(new StringField(REQUEST_STATUS, product.getRequestStatus(), Field.Store.YES));
+        }
+        if (product.getCategoryId() != null) {
+            document.add(new LongPoint(CATEGORY_ID, product.getCategoryId()));
+            document.add(new StoredField(CATEGORY_ID, product.getCategoryId()));
+        }
+        if (product.getBrandId() != null) {
+            document.add(new LongPoint(BRAND_ID, product.getBrandId()));
+            document.add(new StoredField(BRAND_ID, product.getBrandId()));
+        }
+        return document;
+    }
+
+    private static ProductSearchHit toHit(Document document, float score) {
+        String price = document.get(PRICE);
+        var categoryId = document.getField(CATEGORY_ID);
+        var brandId = document.getField(BRAND_ID);
+        return new ProductSearchHit(
+                Long.valueOf(document.get(ID)),
+                document.get(NAME),
+                document.get(DESCRIPTION),
+                price == null ? null : new BigDecimal(price),
+                document.get(REQUEST_STATUS),
+                categoryId == null ? null : categoryId.numericValue().longValue(),
+                brandId == null ? null : brandId.numericValue().longValue(),
+                score);
+    }
+}
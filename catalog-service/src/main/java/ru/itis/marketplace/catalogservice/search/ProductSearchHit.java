@@ -0,0 +1,15 @@
+package ru.itis.marketplace.catalogservice.search;
+
+import java.math.BigDecimal;
+
+public record ProductSearchHit(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        String requestStatus,
+        Long categoryId,
+        Long brandId,
+        float score
+) {
+}
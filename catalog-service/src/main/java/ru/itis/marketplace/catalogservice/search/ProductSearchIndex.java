@@ -0,0 +1,21 @@
+package ru.itis.marketplace.catalogservice.search;
+
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductSearchIndex {
+
+    void rebuild();
+
+    void index(Product product);
+
+    void index(Collection<Product> products);
+
+    void remove(Collection<Long> productIds);
+
+    List<ProductSearchHit> search(String query, BigDecimal priceFrom, BigDecimal priceTo, String status,
+                                  Long brandId, Long categoryId, int limit);
+}
@@ -1,16 +1,24 @@
 package ru.itis.marketplace.catalogservice.service;
 
+import org.springframework.data.domain.Window;
 import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
 
 import java.util.List;
 
 public interface BrandService {
     Brand findBrandById(Long id);
+    long findBrandVersionById(Long id);
     void updateBrandById(Long brandId, String name, String description, String linkToLogo, String status);
-    void deleteBrandById(Long id);
-    List<Brand> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy);
+    DeletionJob deleteBrandById(Long id);
+    Window<Brand> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy, FieldSelection selection);
+    Window<Brand> findAllBrandsAfter(String status, Integer pageSize, String after, String sortedBy, FieldSelection selection);
+    long countBrands(String totalMode, String status);
     Brand createBrand(String name, String description, String linkToLogo);
     List<Brand> findAllBrandByIds(List<Long> brandIds);
-    List<Brand> findBrandsByNameLike(String name);
-    void updateBrandStatusById(Long brandId, String requestStatus);
+    MultiGetResult<Brand> multiGetBrands(List<Long> brandIds, FieldSelection selection);
+    List<Brand> findBrandsByNameLike(String name, Integer limit);
+    void updateBrandStatusById(Long brandId, String requestStatus, String expectedRequestStatus);
 }
@@ -0,0 +1,7 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import ru.itis.marketplace.catalogservice.delta.CatalogChanges;
+
+public interface CatalogChangeService {
+    CatalogChanges findChangesSince(String since, Integer limit);
+}
@@ -1,14 +1,17 @@
 package ru.itis.marketplace.catalogservice.service;
 
 import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 
 import java.util.List;
 
 public interface CategoryService {
     Category findCategoryById(Long id);
+    long findCategoryVersionById(Long id);
     void updateCategoryById(Long id,  String name);
-    void deleteCategoryById(Long id);
+    DeletionJob deleteCategoryById(Long id);
     Category createCategory(String name);
     List<Category> findAllCategories();
-    List<Category> findCategoryByNameLike(String name);
+    String findCategoriesVersion();
+    List<Category> findCategoryByNameLike(String name, Integer limit);
 }
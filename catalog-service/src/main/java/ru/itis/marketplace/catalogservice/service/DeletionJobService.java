@@ -0,0 +1,9 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+
+public interface DeletionJobService {
+    DeletionJob startBrandDeletion(Long brandId);
+    DeletionJob startCategoryDeletion(Long categoryId);
+    DeletionJob findDeletionJobById(Long jobId);
+}
@@ -0,0 +1,10 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import ru.itis.marketplace.catalogservice.importing.ProductImportReport;
+import ru.itis.marketplace.catalogservice.importing.ProductImportRow;
+
+import java.util.Iterator;
+
+public interface ProductImportService {
+    ProductImportReport importProducts(Iterator<ProductImportRow> rows);
+}
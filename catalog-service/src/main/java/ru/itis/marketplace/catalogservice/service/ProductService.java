@@ -1,17 +1,30 @@
 package ru.itis.marketplace.catalogservice.service;
 
+import org.springframework.data.domain.Window;
 import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.facet.ProductFacets;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Product findProductById(Long id);
+    long findProductVersionById(Long id);
     void updateProductById(Long productId, String name, BigDecimal price, String description, String status, Long categoryId, Long brandId);
     void deleteProductById(Long id);
-    List<Product> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId);
+    Window<Product> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection);
+    Window<Product> findAllProductsAfter(Integer pageSize, String after, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection);
+    long countProducts(String totalMode, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds);
+    ProductFacets findProductFacets(String status, Long brandId, Long categoryId, Integer priceBucket);
     Product createProduct(String name, BigDecimal price, String description, Long categoryId, Long brandId);
     List<Product> findProductsByIds(List<Long> productIds);
-    List<Product> findProductsByNameLike(String name);
-    void updateProductStatusById(Long productId, String requestStatus);
+    MultiGetResult<Product> multiGetProducts(List<Long> productIds, FieldSelection selection);
+    List<Product> findProductsByNameLike(String name, Integer limit);
+    List<ProductSearchHit> findProductsByFullText(String query, BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Integer limit);
+    void updateProductStatusById(Long productId, String requestStatus, String expectedRequestStatus);
+    void exportProducts(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Consumer<Product> consumer);
 }
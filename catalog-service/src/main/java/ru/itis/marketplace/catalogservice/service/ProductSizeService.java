@@ -1,5 +1,7 @@
 package ru.itis.marketplace.catalogservice.service;
 
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeReferencePayload;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 
 import java.util.List;
@@ -9,4 +11,5 @@ public interface ProductSizeService {
     ProductSize createProductSize(Long productId, String name);
     void deleteAllProductSizesById(List<Long> sizeIds);
     ProductSize findSizeByIdAndProductId(Long productId, Long sizeId);
+    List<ProductSizeAvailability> findProductSizeAvailability(List<ProductSizeReferencePayload> references);
 }
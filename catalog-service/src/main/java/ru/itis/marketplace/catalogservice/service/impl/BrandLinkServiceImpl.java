@@ -3,10 +3,14 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.BrandLink;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
 import ru.itis.marketplace.catalogservice.repository.BrandLinkRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.BrandLinkService;
@@ -19,7 +23,10 @@ public class BrandLinkServiceImpl implements BrandLinkService {
 
     private final BrandLinkRepository brandLinkRepository;
     private final BrandRepository brandRepository;
+    private final CatalogChangeFeed catalogChangeFeed;
     private final MeterRegistry meterRegistry;
+    private final CatalogNearCache catalogNearCache;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
 
     @Override
     public List<BrandLink> findAllBrandLinks(Long brandId) {
@@ -40,12 +47,20 @@ public class BrandLinkServiceImpl implements BrandLinkService {
                     + name + " and brand ID: " + brandId + " already exist");
         }
         var brandLink = brandLinkRepository.save(new BrandLink(url, name, brandId));
+        brandRepository.incrementVersion(brandId);
+        catalogChangeFeed.brandsChanged(List.of(brandId));
+        catalogNearCache.invalidateBrand(brandId);
         meterRegistry.counter("count of created brand links").increment();
         return brandLink;
     }
 
     @Override
+    @Transactional
     public void deleteAllBrandLinkById(List<Long> linkIds) {
+        brandRepository.incrementVersionByLinkIds(linkIds);
+        catalogChangeFeed.brandsChanged(brandLinkRepository.findBrandIdsByIdIn(linkIds));
         brandLinkRepository.deleteAllByIdInBatch(linkIds);
+        catalogNearCache.invalidateAllBrands();
+        catalogReadModel.ifAvailable(readModel -> readModel.evictBrandLinks(linkIds));
     }
 }
@@ -3,10 +3,14 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
 import ru.itis.marketplace.catalogservice.repository.BrandPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.BrandPhotoService;
@@ -19,7 +23,10 @@ public class BrandPhotoServiceImpl implements BrandPhotoService {
 
     private final BrandPhotoRepository brandPhotoRepository;
     private final BrandRepository brandRepository;
+    private final CatalogChangeFeed catalogChangeFeed;
     private final MeterRegistry meterRegistry;
+    private final CatalogNearCache catalogNearCache;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
 
     @Override
     public List<BrandPhoto> findBrandPhotos(Long brandId) {
@@ -28,8 +35,13 @@ public class BrandPhotoServiceImpl implements BrandPhotoService {
     }
 
     @Override
+    @Transactional
     public void deleteAllBrandPhotosById(List<Long> photoIds) {
+        brandRepository.incrementVersionByPhotoIds(photoIds);
+        catalogChangeFeed.brandsChanged(brandPhotoRepository.findBrandIdsByIdIn(photoIds));
         brandPhotoRepository.deleteAllByIdInBatch(photoIds);
+        catalogNearCache.invalidateAllBrands();
+        catalogReadModel.ifAvailable(readModel -> readModel.evictBrandPhotos(photoIds));
     }
 
     @Override
@@ -37,6 +49,9 @@ public class BrandPhotoServiceImpl implements BrandPhotoService {
     public BrandPhoto createBrandPhoto(Long brandId, String url, Long sequenceNumber) {
         brandRepository.findById(brandId).orElseThrow(() -> new NotFoundException("Brand with ID: " + brandId + " not found"));
         var brandPhoto = brandPhotoRepository.save(new BrandPhoto(url, sequenceNumber, brandId));
+        brandRepository.incrementVersion(brandId);
+        catalogChangeFeed.brandsChanged(List.of(brandId));
+        catalogNearCache.invalidateBrand(brandId);
         meterRegistry.counter("count of created brand photos").increment();
         return brandPhoto;
     }
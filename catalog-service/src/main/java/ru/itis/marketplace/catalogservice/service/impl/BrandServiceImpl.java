@@ -3,40 +3,78 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.Brand;
-import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.exception.ConflictException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
-import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.OffsetPositions;
+import ru.itis.marketplace.catalogservice.pagination.SearchLimits;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogSnapshots;
+import ru.itis.marketplace.catalogservice.repository.BrandLinkRepository;
+import ru.itis.marketplace.catalogservice.repository.BrandPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.BrandService;
-import ru.itis.marketplace.catalogservice.service.ProductService;
+import ru.itis.marketplace.catalogservice.service.DeletionJobService;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BrandServiceImpl implements BrandService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final BrandRepository brandRepository;
-    private final ProductService productService;
-    private final KafkaProducer kafkaProducer;
+    private final BrandPhotoRepository brandPhotoRepository;
+    private final BrandLinkRepository brandLinkRepository;
+    private final DeletionJobService deletionJobService;
+    private final CatalogNearCache catalogNearCache;
+    private final CatalogChangeFeed catalogChangeFeed;
     private final MeterRegistry meterRegistry;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
 
     @Override
     public Brand findBrandById(Long id) {
+        return catalogNearCache.findBrand(id, this::loadBrand);
+    }
+
+    private Brand loadBrand(Long id) {
+        Brand brand = getBrandById(id);
+        var photos = brandPhotoRepository.findByBrandId(id, Sort.by(Sort.Direction.ASC, "sequenceNumber"));
+        return CatalogSnapshots.snapshotOf(brand, photos, brandLinkRepository.findByBrandId(id));
+    }
+
+    @Override
+    public long findBrandVersionById(Long id) {
+        return brandRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Brand with ID: " + id + " not found"));
+    }
+
+    private Brand getBrandById(Long id) {
         return brandRepository.findById(id).orElseThrow(() -> new NotFoundException("Brand with ID: " + id + " not found"));
     }
 
     @Override
     @Transactional
     public void updateBrandById(Long brandId, String name, String description, String linkToLogo, String status) {
-        Brand brand = findBrandById(brandId);
+        Brand brand = getBrandById(brandId);
         if (!brand.getName().equals(name) && brandRepository.findByName(name).isPresent()) {
             throw new BadRequestException("Brand with name: " + name + " already exist");
         }
@@ -45,39 +83,48 @@ public class BrandServiceImpl implements BrandService {
         brand.setLinkToLogo(linkToLogo);
         brand.setRequestStatus(status.toLowerCase());
         brandRepository.save(brand);
+        catalogChangeFeed.brandsChanged(List.of(brandId));
+        catalogNearCache.invalidateBrand(brandId);
     }
 
     @Override
-    public void deleteBrandById(Long id) {
-        var products = productService.findAllProducts(null, null, null, null, null, null, null, id, null);
-        var sizeIds = products.stream().flatMap(product -> product.getSizes().stream()).map(ProductSize::getId).toList();
-        kafkaProducer.sendSizeIds(sizeIds);
-        kafkaProducer.sendBrandIds(List.of(id));
-        brandRepository.deleteById(id);
+    public DeletionJob deleteBrandById(Long id) {
+        return deletionJobService.startBrandDeletion(id);
     }
 
     @Override
-    @Transactional
-    public List<Brand> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy) {
+    public Window<Brand> findAllBrands(String status, Integer pageSize, Integer page, String sortedBy, FieldSelection selection) {
         Sort sort = sortedBy == null ? Sort.unsorted() : Sort.by(sortedBy);
-        Pageable pageable = Pageable.unpaged(sort);
         if (pageSize != null && page != null) {
-            pageable = PageRequest.of(page, pageSize, sort);
+            return brandRepository.scrollAssembled(status, sort, OffsetPositions.forPage(page, pageSize), pageSize, selection);
         }
-        Specification<Brand> statusSpec = BrandRepository.buildFindAllSpecificationByStatus(status);
-        var brands = brandRepository.findAll(statusSpec, pageable).toList();
-        brandRepository.joinLinksToBrandsWithIds(brands.stream().map(Brand::getId).toList());
-        brandRepository.joinPhotosToBrandsWithIds(brands.stream().map(Brand::getId).toList());
-        return brands;
+        return brandRepository.scrollAssembled(status, sort, ScrollPosition.offset(), null, selection);
     }
 
+    @Override
+    public Window<Brand> findAllBrandsAfter(String status, Integer pageSize, String after, String sortedBy, FieldSelection selection) {
+        Sort sort = KeysetCursors.keysetSort(sortedBy, Sort.Direction.ASC);
+        var position = KeysetCursors.decode(after, Brand.class, sort);
+        int limit = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        return brandRepository.scrollAssembled(status, sort, position, limit, selection);
+    }
+
+    @Override
+    public long countBrands(String totalMode, String status) {
+        if (!totalMode.equalsIgnoreCase("exact")) {
+            throw new BadRequestException("Total count mode: " + totalMode + " is not supported");
+        }
+        return brandRepository.count(BrandRepository.buildFindAllSpecificationByStatus(status));
+    }
 
     @Override
+    @Transactional
     public Brand createBrand(String name, String description, String linkToLogo) {
         if (brandRepository.findByName(name).isPresent()) {
             throw new BadRequestException("Brand with name: " + name + " already exist");
         }
         var brand = brandRepository.save(new Brand(name, description, linkToLogo));
+        catalogChangeFeed.brandsChanged(List.of(brand.getId()));
         meterRegistry.counter("count of created brands").increment();
         return brand;
     }
@@ -88,20 +135,47 @@ public class BrandServiceImpl implements BrandService {
     }
 
     @Override
-    @Transactional
-    public List<Brand> findBrandsByNameLike(String name) {
-        var brands = brandRepository.findByNameLikeIgnoreCase(name);
-        brandRepository.joinLinksToBrandsWithIds(brands.stream().map(Brand::getId).toList());
-        brandRepository.joinPhotosToBrandsWithIds(brands.stream().map(Brand::getId).toList());
-        return brands;
+    public MultiGetResult<Brand> multiGetBrands(List<Long> brandIds, FieldSelection selection) {
+        if (selection.isAll()) {
+            return MultiGetResult.of(brandIds, catalogNearCache.findBrands(brandIds, this::loadBrands));
+        }
+        // projected rows are incomplete, so they are served but never put into the near cache
+        Map<Long, Brand> found = new HashMap<>(catalogNearCache.findPresentBrands(brandIds));
+        Set<Long> missingIds = new HashSet<>(brandIds);
+        missingIds.removeAll(found.keySet());
+        if (!missingIds.isEmpty()) {
+            found.putAll(loadBrands(missingIds, selection));
+        }
+        return MultiGetResult.of(brandIds, found);
+    }
+
+    private Map<Long, Brand> loadBrands(Set<? extends Long> ids) {
+        return loadBrands(ids, FieldSelection.ALL);
+    }
+
+    private Map<Long, Brand> loadBrands(Set<? extends Long> ids, FieldSelection selection) {
+        return brandRepository.findAssembledByIdIn(List.copyOf(ids), selection)
+                .stream()
+                .collect(Collectors.toMap(Brand::getId, Function.identity()));
+    }
+
+    @Override
+    public List<Brand> findBrandsByNameLike(String name, Integer limit) {
+        return brandRepository.findAssembledByNameSimilar(name, SearchLimits.resolve(limit));
     }
 
     @Override
     @Transactional
-    public void updateBrandStatusById(Long brandId, String requestStatus) {
-        Brand brand = findBrandById(brandId);
-        brand.setRequestStatus(requestStatus);
-        brandRepository.save(brand);
+    public void updateBrandStatusById(Long brandId, String requestStatus, String expectedRequestStatus) {
+        if (brandRepository.updateRequestStatus(brandId, requestStatus, expectedRequestStatus) == 0) {
+            if (brandRepository.findVersionById(brandId).isEmpty()) {
+                throw new NotFoundException("Brand with ID: " + brandId + " not found");
+            }
+            throw new ConflictException("Brand with ID: " + brandId + " has request status other than: " + expectedRequestStatus);
+        }
+        catalogReadModel.ifAvailable(readModel -> readModel.refreshBrand(brandId));
+        catalogChangeFeed.brandsChanged(List.of(brandId));
+        catalogNearCache.invalidateBrand(brandId);
     }
 
 }
@@ -0,0 +1,90 @@
+package ru.itis.marketplace.catalogservice.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.delta.CatalogChanges;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstone;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
+import ru.itis.marketplace.catalogservice.delta.ChangesCursor;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.service.CatalogChangeService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private final ProductRepository productRepository;
+    private final CatalogTombstones catalogTombstones;
+    private final Duration settleTime;
+
+    public CatalogChangeServiceImpl(ProductRepository productRepository, CatalogTombstones catalogTombstones,
+                                    @Value("${catalog.changes.settle-time}") Duration settleTime) {
+        this.productRepository = productRepository;
+        this.catalogTombstones = catalogTombstones;
+        this.settleTime = settleTime;
+    }
+
+    @Override
+    public CatalogChanges findChangesSince(String since, Integer limit) {
+        int batchSize = resolve(limit);
+        ChangesCursor cursor = ChangesCursor.decode(since);
+        Instant now = Instant.now();
+        if (!cursor.isInitial() && cursor.deletedAt().isBefore(now.minus(catalogTombstones.retention()))) {
+            throw new BadRequestException("Cursor: " + since + " is older than the tombstone retention, a full sync is required");
+        }
+        // rows stamped just before now may belong to transactions that are not committed yet, they are left for the next batch
+        Instant until = now.minus(settleTime).truncatedTo(ChronoUnit.MICROS);
+        List<Product> products = productRepository.findAssembledChangedAfter(cursor.updatedAt(), cursor.productId(), until, batchSize + 1);
+        // a client without a copy has nothing to delete, so a full sync starts the tombstone stream at the bound
+        List<CatalogTombstone> tombstones = cursor.isInitial()
+                ? List.of()
+                : catalogTombstones.findAfter(cursor.deletedAt(), cursor.tombstoneId(), until, batchSize + 1);
+        boolean moreProducts = products.size() > batchSize;
+        boolean moreTombstones = tombstones.size() > batchSize;
+        products = moreProducts ? products.subList(0, batchSize) : products;
+        tombstones = moreTombstones ? tombstones.subList(0, batchSize) : tombstones;
+
+        // a stream that was read up to the bound continues after it, so an idle stream still moves towards now
+        Instant updatedAt = until;
+        long productId = Long.MAX_VALUE;
+        if (moreProducts) {
+            Product last = products.get(products.size() - 1);
+            updatedAt = last.getUpdateDateTime();
+            productId = last.getId();
+        } else if (until.isBefore(cursor.updatedAt())) {
+            updatedAt = cursor.updatedAt();
+            productId = cursor.productId();
+        }
+        Instant deletedAt = until;
+        long tombstoneId = Long.MAX_VALUE;
+        if (moreTombstones) {
+            CatalogTombstone last = tombstones.get(tombstones.size() - 1);
+            deletedAt = last.deletionDateTime();
+            tombstoneId = last.id();
+        } else if (until.isBefore(cursor.deletedAt())) {
+            deletedAt = cursor.deletedAt();
+            tombstoneId = cursor.tombstoneId();
+        }
+        String next = new ChangesCursor(updatedAt, productId, deletedAt, tombstoneId).encode();
+        return new CatalogChanges(products, tombstones, next, moreProducts || moreTombstones);
+    }
+
+    private static int resolve(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("Limit: " + limit + " must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -3,16 +3,18 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.cache.CategoryDictionary;
 import ru.itis.marketplace.catalogservice.entity.Category;
-import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
-import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.pagination.SearchLimits;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogSnapshots;
 import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
 import ru.itis.marketplace.catalogservice.service.CategoryService;
-import ru.itis.marketplace.catalogservice.service.ProductService;
+import ru.itis.marketplace.catalogservice.service.DeletionJobService;
 
 import java.util.List;
 
@@ -21,32 +23,44 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ProductService productService;
-    private final KafkaProducer kafkaProducer;
+    private final DeletionJobService deletionJobService;
+    private final CatalogNearCache catalogNearCache;
+    private final CategoryDictionary categoryDictionary;
     private final MeterRegistry meterRegistry;
 
 
     @Override
     public Category findCategoryById(Long id) {
+        return catalogNearCache.findCategory(id, this::loadCategory);
+    }
+
+    private Category loadCategory(Long id) {
+        return CatalogSnapshots.snapshotOf(getCategoryById(id));
+    }
+
+    @Override
+    public long findCategoryVersionById(Long id) {
+        return categoryRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Category with ID: " + id + " not found"));
+    }
+
+    private Category getCategoryById(Long id) {
         return categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category with ID: " + id + " not found"));
     }
 
     @Override
     @Transactional
     public void updateCategoryById(Long id, String name) {
-        Category category = findCategoryById(id);
+        Category category = getCategoryById(id);
         if (!category.getName().equals(name) && categoryRepository.findByName(name).isPresent())
             throw new BadRequestException("Category with name: " + name + " already exist");
         category.setName(name);
         categoryRepository.save(category);
+        catalogNearCache.invalidateCategory(id);
     }
 
     @Override
-    public void deleteCategoryById(Long id) {
-        var products = productService.findAllProducts(null, null, null, null, null, null, null, null, id);
-        var sizeIds = products.stream().flatMap(product -> product.getSizes().stream()).map(ProductSize::getId).toList();
-        kafkaProducer.sendSizeIds(sizeIds);
-        categoryRepository.deleteById(id);
+    public DeletionJob deleteCategoryById(Long id) {
+        return deletionJobService.startCategoryDeletion(id);
     }
 
     @Override
@@ -55,17 +69,23 @@ public class CategoryServiceImpl implements CategoryService {
         if (categoryRepository.findByName(name).isPresent())
             throw new BadRequestException("Category with name: " + name + " already exist");
         var category = categoryRepository.save(new Category(name));
+        catalogNearCache.invalidateCategory(category.getId());
         meterRegistry.counter("count of created categories").increment();
         return category;
     }
 
     @Override
     public List<Category> findAllCategories() {
-        return categoryRepository.findAll(Sort.by("name"));
+        return categoryDictionary.findAll();
+    }
+
+    @Override
+    public String findCategoriesVersion() {
+        return categoryRepository.findVersionsDigest();
     }
 
     @Override
-    public List<Category> findCategoryByNameLike(String name) {
-        return categoryRepository.findByNameLikeIgnoreCase(name);
+    public List<Category> findCategoryByNameLike(String name, Integer limit) {
+        return categoryRepository.findByNameSimilar(name, SearchLimits.resolve(limit));
     }
 }
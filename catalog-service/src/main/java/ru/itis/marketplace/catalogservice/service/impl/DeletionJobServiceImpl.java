@@ -0,0 +1,206 @@
+package ru.itis.marketplace.catalogservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndex;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.DeletionJobRepository;
+import ru.itis.marketplace.catalogservice.repository.EntityVersion;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
+import ru.itis.marketplace.catalogservice.service.DeletionJobService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class DeletionJobServiceImpl implements DeletionJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeletionJobServiceImpl.class);
+    private static final String BRAND = "brand";
+    private static final String CATEGORY = "category";
+    private static final List<String> UNFINISHED_STATUSES = List.of("pending", "running");
+
+    private final DeletionJobRepository deletionJobRepository;
+    private final ProductRepository productRepository;
+    private final ProductSizeRepository productSizeRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+    private final KafkaProducer kafkaProducer;
+    private final CatalogChangeFeed catalogChangeFeed;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetCounters productFacetCounters;
+    private final CatalogTombstones catalogTombstones;
+    private final CatalogNearCache catalogNearCache;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
+    private final ObjectProvider<ProductFilterIndex> productFilterIndex;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long leaseSeconds;
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    public DeletionJobServiceImpl(DeletionJobRepository deletionJobRepository, ProductRepository productRepository,
+                                  ProductSizeRepository productSizeRepository, BrandRepository brandRepository,
+                                  CategoryRepository categoryRepository, KafkaProducer kafkaProducer,
+                                  CatalogChangeFeed catalogChangeFeed,
+                                  ProductSearchIndex productSearchIndex, ProductFacetCounters productFacetCounters,
+                                  CatalogTombstones catalogTombstones,
+                                  CatalogNearCache catalogNearCache,
+                                  ObjectProvider<CatalogReadModel> catalogReadModel,
+                                  ObjectProvider<ProductFilterIndex> productFilterIndex,
+                                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${catalog.deletion.chunk-size}") int chunkSize,
+                                  @Value("${catalog.deletion.lease-duration}") Duration leaseDuration) {
+        this.deletionJobRepository = deletionJobRepository;
+        this.productRepository = productRepository;
+        this.productSizeRepository = productSizeRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.catalogChangeFeed = catalogChangeFeed;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetCounters = productFacetCounters;
+        this.catalogTombstones = catalogTombstones;
+        this.catalogNearCache = catalogNearCache;
+        this.catalogReadModel = catalogReadModel;
+        this.productFilterIndex = productFilterIndex;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.leaseSeconds = leaseDuration.toSeconds();
+    }
+
+    @Override
+    public DeletionJob startBrandDeletion(Long brandId) {
+        return start(new DeletionJob(BRAND, brandId));
+    }
+
+    @Override
+    public DeletionJob startCategoryDeletion(Long categoryId) {
+        return start(new DeletionJob(CATEGORY, categoryId));
+    }
+
+    @Override
+    public DeletionJob findDeletionJobById(Long jobId) {
+        return deletionJobRepository.findById(jobId).orElseThrow(() -> new NotFoundException("Deletion job with ID: " + jobId + " not found"));
+    }
+
+    // every chunk is committed on its own and rereads what is left, so an interrupted job is simply run again
+    // by whichever instance, this one included, claims its expired lease
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.deletion.lease-duration}")
+    public void resumeUnfinishedJobs() {
+        deletionJobRepository.findByStatusIn(UNFINISHED_STATUSES).forEach(job -> claimAndRun(job.getId()));
+    }
+
+    private DeletionJob start(DeletionJob job) {
+        DeletionJob savedJob = deletionJobRepository.save(job);
+        claimAndRun(savedJob.getId());
+        return savedJob;
+    }
+
+    private void claimAndRun(Long jobId) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deletionJobRepository.claim(jobId, leaseOwner, leaseSeconds) == 1))) {
+            taskExecutor.execute(() -> run(jobId));
+        }
+    }
+
+    // the lease is renewed in the transaction of every chunk, so its row lock keeps other instances from claiming it meanwhile
+    private void run(Long jobId) {
+        try {
+            Boolean deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> renewLease(jobId) ? deleteChunk(jobId) : null);
+            } while (Boolean.TRUE.equals(deleted));
+            if (deleted == null) {
+                LOGGER.warn("Deletion job with ID: {} lease was taken over by another instance", jobId);
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (renewLease(jobId)) {
+                    complete(jobId);
+                }
+            });
+        } catch (RuntimeException exception) {
+            LOGGER.error("Deletion job with ID: {} failed", jobId, exception);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (renewLease(jobId)) {
+                    DeletionJob job = findDeletionJobById(jobId);
+                    job.setStatus("failed");
+                    job.setError(exception.getMessage());
+                }
+            });
+        }
+    }
+
+    private boolean renewLease(Long jobId) {
+        return deletionJobRepository.renewLease(jobId, leaseOwner, leaseSeconds) == 1;
+    }
+
+    private boolean deleteChunk(Long jobId) {
+        DeletionJob job = findDeletionJobById(jobId);
+        job.setStatus("running");
+        List<Long> productIds = job.getTargetType().equals(BRAND)
+                ? productRepository.findIdsByBrandId(job.getTargetId(), chunkSize)
+                : productRepository.findIdsByCategoryId(job.getTargetId(), chunkSize);
+        if (productIds.isEmpty()) {
+            return false;
+        }
+        List<Long> sizeIds = productSizeRepository.findIdsByProductIdIn(productIds);
+        kafkaProducer.sendSizeIds(sizeIds);
+        productFacetCounters.removeByProductIds(productIds);
+        catalogTombstones.recordProducts(productIds);
+        catalogChangeFeed.productsDeleted(productRepository.findVersionsByIdIn(productIds).stream()
+                .collect(Collectors.toMap(EntityVersion::id, version -> version.version() + 1)));
+        // soft deleted products are not selected above, they are left to the purger or cascade with the brand or category
+        productRepository.hardDeleteByIdIn(productIds);
+        job.setDeletedProducts(job.getDeletedProducts() + productIds.size());
+        job.setDeletedSizes(job.getDeletedSizes() + sizeIds.size());
+        productSearchIndex.remove(productIds);
+        catalogNearCache.invalidateProducts(productIds);
+        catalogReadModel.ifAvailable(readModel -> readModel.evictProducts(productIds));
+        productFilterIndex.ifAvailable(index -> index.remove(productIds));
+        return true;
+    }
+
+    private void complete(Long jobId) {
+        DeletionJob job = findDeletionJobById(jobId);
+        Long targetId = job.getTargetId();
+        if (job.getTargetType().equals(BRAND)) {
+            kafkaProducer.sendBrandIds(List.of(targetId));
+            brandRepository.findVersionById(targetId)
+                    .ifPresent(version -> catalogChangeFeed.brandsDeleted(Map.of(targetId, version + 1)));
+            brandRepository.deleteById(targetId);
+            catalogNearCache.invalidateBrand(targetId);
+        } else {
+            categoryRepository.deleteById(targetId);
+            catalogNearCache.invalidateCategory(targetId);
+        }
+        job.setStatus("completed");
+    }
+}
@@ -0,0 +1,187 @@
+package ru.itis.marketplace.catalogservice.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndex;
+import ru.itis.marketplace.catalogservice.importing.ProductImportError;
+import ru.itis.marketplace.catalogservice.importing.ProductImportReport;
+import ru.itis.marketplace.catalogservice.importing.ProductImportRow;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
+import ru.itis.marketplace.catalogservice.service.ProductImportService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetCounters productFacetCounters;
+    private final CatalogChangeFeed catalogChangeFeed;
+    private final CatalogNearCache catalogNearCache;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
+    private final ObjectProvider<ProductFilterIndex> productFilterIndex;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ProductImportServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                    BrandRepository brandRepository, ProductSearchIndex productSearchIndex,
+                                    ProductFacetCounters productFacetCounters, CatalogChangeFeed catalogChangeFeed,
+                                    CatalogNearCache catalogNearCache, ObjectProvider<CatalogReadModel> catalogReadModel,
+                                    ObjectProvider<ProductFilterIndex> productFilterIndex, Validator validator,
+                                    MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                                    @Value("${catalog.import.chunk-size}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetCounters = productFacetCounters;
+        this.catalogChangeFeed = catalogChangeFeed;
+        this.catalogNearCache = catalogNearCache;
+        this.catalogReadModel = catalogReadModel;
+        this.productFilterIndex = productFilterIndex;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ProductImportReport importProducts(Iterator<ProductImportRow> rows) {
+        List<ProductImportError> errors = new ArrayList<>();
+        Set<String> importedNames = new HashSet<>();
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        long received = 0;
+        long imported = 0;
+        while (true) {
+            ProductImportRow row;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                row = rows.next();
+            } catch (BadRequestException exception) {
+                errors.add(new ProductImportError(received + 1, null, exception.getMessage()));
+                break;
+            }
+            chunk.add(new NumberedRow(++received, row));
+            if (chunk.size() == chunkSize) {
+                imported += importChunk(chunk, importedNames, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, importedNames, errors);
+        }
+        meterRegistry.counter("count of created products").increment(imported);
+        errors.sort(Comparator.comparingLong(ProductImportError::row));
+        return new ProductImportReport(received, imported, errors);
+    }
+
+    private int importChunk(List<NumberedRow> chunk, Set<String> importedNames, List<ProductImportError> errors) {
+        List<NumberedRow> valid = new ArrayList<>(chunk.size());
+        for (NumberedRow numberedRow : chunk) {
+            Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(numberedRow.row());
+            if (!violations.isEmpty()) {
+                errors.add(numberedRow.error(violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            } else if (!importedNames.add(numberedRow.row().name())) {
+                errors.add(numberedRow.error("Product with name: " + numberedRow.row().name() + " is repeated in the import"));
+            } else {
+                valid.add(numberedRow);
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+        Set<Long> categoryIds = categoryRepository.findExistingIds(valid.stream().map(numberedRow -> numberedRow.row().categoryId()).collect(Collectors.toSet()));
+        Set<Long> brandIds = brandRepository.findExistingIds(valid.stream().map(numberedRow -> numberedRow.row().brandId()).collect(Collectors.toSet()));
+        Set<String> takenNames = productRepository.findExistingNames(valid.stream().map(numberedRow -> numberedRow.row().name()).toList());
+        List<Product> products = new ArrayList<>(valid.size());
+        List<NumberedRow> productRows = new ArrayList<>(valid.size());
+        for (NumberedRow numberedRow : valid) {
+            ProductImportRow row = numberedRow.row();
+            if (!categoryIds.contains(row.categoryId())) {
+                errors.add(numberedRow.error("Category with ID: " + row.categoryId() + " not found"));
+            } else if (!brandIds.contains(row.brandId())) {
+                errors.add(numberedRow.error("Brand with ID: " + row.brandId() + " not found"));
+            } else if (takenNames.contains(row.name())) {
+                errors.add(numberedRow.error("Product with name: " + row.name() + " already exist"));
+            } else {
+                products.add(toProduct(row));
+                productRows.add(numberedRow);
+            }
+        }
+        if (products.isEmpty()) {
+            return 0;
+        }
+        List<Product> inserted = transactionTemplate.execute(status -> {
+            List<Product> insertedInTransaction = productRepository.insertAssembled(products);
+            productFacetCounters.add(insertedInTransaction);
+            List<Long> insertedIds = insertedInTransaction.stream().map(Product::getId).toList();
+            catalogChangeFeed.productsChanged(insertedIds);
+            catalogNearCache.invalidateProducts(insertedIds);
+            return insertedInTransaction;
+        });
+        Set<Product> insertedProducts = Collections.newSetFromMap(new IdentityHashMap<>());
+        insertedProducts.addAll(inserted);
+        for (int i = 0; i < products.size(); i++) {
+            if (!insertedProducts.contains(products.get(i))) {
+                errors.add(productRows.get(i).error("Product with name: " + products.get(i).getName() + " already exist"));
+            }
+        }
+        productSearchIndex.index(inserted);
+        catalogReadModel.ifAvailable(readModel -> readModel.refreshProducts(inserted.stream().map(Product::getId).toList()));
+        productFilterIndex.ifAvailable(index -> inserted.forEach(index::put));
+        return inserted.size();
+    }
+
+    private static Product toProduct(ProductImportRow row) {
+        Product product = new Product(row.name(), row.price(), row.description(), row.categoryId(), row.brandId());
+        product.setSizes(row.sizes() == null ? new ArrayList<>() : row.sizes().stream()
+                .map(size -> new ProductSize(size.name(), null))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        product.setPhotos(row.photos() == null ? new ArrayList<>() : row.photos().stream()
+                .map(photo -> new ProductPhoto(photo.url(), photo.sequenceNumber(), null))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return product;
+    }
+
+    private record NumberedRow(long number, ProductImportRow row) {
+
+        ProductImportError error(String message) {
+            return new ProductImportError(number, row.name(), message);
+        }
+    }
+}
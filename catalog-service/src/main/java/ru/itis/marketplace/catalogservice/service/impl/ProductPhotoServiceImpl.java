@@ -3,10 +3,15 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
 import ru.itis.marketplace.catalogservice.repository.ProductPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.service.ProductPhotoService;
@@ -19,7 +24,11 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
 
     private final ProductPhotoRepository productPhotoRepository;
     private final ProductRepository productRepository;
+    private final CatalogChangeFeed catalogChangeFeed;
     private final MeterRegistry meterRegistry;
+    private final CatalogNearCache catalogNearCache;
+    private final CatalogTombstones catalogTombstones;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
 
     @Override
     public List<ProductPhoto> findProductPhotos(Long productId) {
@@ -31,8 +40,15 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
     }
 
     @Override
+    @Transactional
     public void deleteProductPhotosByIds(List<Long> photosIds) {
+        catalogTombstones.recordProductPhotos(photosIds);
+        productRepository.incrementVersionByPhotoIds(photosIds);
+        var productIds = productPhotoRepository.findProductIdsByIdIn(photosIds);
+        catalogChangeFeed.productsChanged(productIds);
         productPhotoRepository.deleteAllByIdInBatch(photosIds);
+        catalogNearCache.invalidateProducts(productIds);
+        catalogReadModel.ifAvailable(readModel -> readModel.evictProductPhotos(photosIds));
     }
 
     @Override
@@ -42,6 +58,9 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
                 .findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product with ID: " + productId + " not found"));
         var productPhoto = productPhotoRepository.save(new ProductPhoto(url, sequenceNumber, productId));
+        productRepository.incrementVersion(productId);
+        catalogChangeFeed.productsChanged(List.of(productId));
+        catalogNearCache.invalidateProduct(productId);
         meterRegistry.counter("count of created product photos").increment();
         return productPhoto;
     }
@@ -3,38 +3,92 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.cache.CategoryDictionary;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.Product;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.exception.ConflictException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.facet.FacetKey;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.facet.ProductFacets;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndex;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.OffsetPositions;
+import ru.itis.marketplace.catalogservice.pagination.SearchLimits;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogSnapshots;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
-import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductStatusChange;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
 import ru.itis.marketplace.catalogservice.service.ProductService;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final ProductRepository productRepository;
     private final ProductSizeRepository productSizeRepository;
-    private final CategoryRepository categoryRepository;
+    private final ProductPhotoRepository productPhotoRepository;
+    private final CategoryDictionary categoryDictionary;
     private final BrandRepository brandRepository;
     private final KafkaProducer kafkaProducer;
+    private final CatalogChangeFeed catalogChangeFeed;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogNearCache catalogNearCache;
+    private final ProductFacetCounters productFacetCounters;
+    private final CatalogTombstones catalogTombstones;
+    private final ObjectProvider<ProductFilterIndex> productFilterIndex;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
     private final MeterRegistry meterRegistry;
 
     @Override
     public Product findProductById(Long id) {
+        return catalogNearCache.findProduct(id, this::loadProduct);
+    }
+
+    private Product loadProduct(Long id) {
+        Product product = getProductById(id);
+        var photos = productPhotoRepository.findByProductId(id, Sort.by(Sort.Direction.ASC, "sequenceNumber"));
+        return CatalogSnapshots.snapshotOf(product, photos, productSizeRepository.findByProductId(id));
+    }
+
+    @Override
+    public long findProductVersionById(Long id) {
+        return productRepository.findVersionById(id).orElseThrow(() -> new NotFoundException("Product with ID: " + id + " not found"));
+    }
+
+    private Product getProductById(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product with ID: " + id + " not found"));
     }
 
@@ -42,12 +96,15 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     public void updateProductById(Long productId, String name, BigDecimal price, String description,
                                                String status, Long categoryId, Long brandId) {
-        Product product = findProductById(productId);
-        categoryRepository.findById(categoryId).orElseThrow(() -> new BadRequestException("Category with ID: " + categoryId + " not found"));
+        Product product = getProductById(productId);
+        if (!categoryDictionary.exists(categoryId)) {
+            throw new BadRequestException("Category with ID: " + categoryId + " not found");
+        }
         brandRepository.findById(brandId).orElseThrow(() -> new BadRequestException("Brand with ID: " + brandId + " not found"));
         if (!product.getName().equals(name) && productRepository.findByName(name).isPresent()) {
             throw new BadRequestException("Product with name: " + name + " already exist");
         }
+        FacetKey facetKey = FacetKey.of(product);
         product.setName(name);
         product.setDescription(description);
         product.setPrice(price);
@@ -57,42 +114,108 @@ public class ProductServiceImpl implements ProductService {
             kafkaProducer.sendProductUpdateMessage(productId, brandId);
         }
         product.setCategoryId(categoryId);
-        productRepository.save(product);
+        productSearchIndex.index(productRepository.save(product));
+        productFacetCounters.move(facetKey, FacetKey.of(product));
+        catalogChangeFeed.productsChanged(List.of(productId));
+        catalogNearCache.invalidateProduct(productId);
     }
 
     @Override
+    @Transactional
     public void deleteProductById(Long id) {
+        // the row is locked first, so a concurrent delete of the same product waits and then finds it deleted
+        var version = productRepository.lockVersionById(id);
+        if (version.isEmpty()) {
+            return;
+        }
         var sizeIds = productSizeRepository.findByProductId(id).stream().map(ProductSize::getId).toList();
+        productFacetCounters.removeByProductIds(List.of(id));
+        catalogTombstones.recordProducts(List.of(id));
+        // only the product row is marked, the product with its photos and sizes is removed later by the purger
+        productRepository.softDeleteById(id);
         kafkaProducer.sendSizeIds(sizeIds);
-        productRepository.deleteById(id);
+        catalogChangeFeed.productsDeleted(Map.of(id, version.get() + 1));
+        productSearchIndex.remove(List.of(id));
+        catalogNearCache.invalidateProduct(id);
+        catalogReadModel.ifAvailable(readModel -> readModel.evictProducts(List.of(id)));
+        productFilterIndex.ifAvailable(index -> index.remove(List.of(id)));
     }
 
     @Override
-    public List<Product> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId) {
+    public Window<Product> findAllProducts(Integer pageSize, Integer page, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection) {
         var dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
         Sort sort = sortBy == null ? Sort.unsorted() : Sort.by(dir, sortBy);
-        Pageable pageable = Pageable.unpaged(sort);
         if (pageSize != null && page != null) {
-            pageable = PageRequest.of(page, pageSize, sort);
+            var indexed = findIndexedProducts(pageSize, page, sortBy, dir, priceFrom, priceTo, statuses, brandIds, categoryIds, selection);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+            var position = OffsetPositions.forPage(page, pageSize);
+            return productRepository.scrollAssembled(priceFrom, priceTo, statuses, brandIds, categoryIds, sort, position, pageSize, selection);
         }
-        var specification = ProductRepository.buildProductSpecification(priceFrom, priceTo, status, brandId, categoryId);
-        var products = productRepository.findAll(specification, pageable).toList();
-        var productIds = products.stream().map(Product::getId).toList();
-        productRepository.joinPhotosToProductWithIds(productIds);
-        productRepository.joinSizesToBrandWithIds(productIds);
-        return products;
+        return productRepository.scrollAssembled(priceFrom, priceTo, statuses, brandIds, categoryIds, sort, ScrollPosition.offset(), null, selection);
+    }
+
+    // the index resolves the page to ids without the database, only the products of the page are loaded
+    private Optional<Window<Product>> findIndexedProducts(int pageSize, int page, String sortBy, Sort.Direction direction,
+                                                         BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses,
+                                                         List<Long> brandIds, List<Long> categoryIds, FieldSelection selection) {
+        var index = productFilterIndex.getIfAvailable();
+        if (index == null) {
+            return Optional.empty();
+        }
+        long offset = (long) page * pageSize;
+        return index.findIds(priceFrom, priceTo, statuses, brandIds, categoryIds, sortBy, direction, offset, pageSize)
+                .map(ids -> {
+                    var found = loadProducts(Set.copyOf(ids.getContent()), selection);
+                    List<Product> products = ids.stream().map(found::get).filter(Objects::nonNull).toList();
+                    return Window.from(products, i -> ScrollPosition.offset(offset + i), ids.hasNext());
+                });
+    }
+
+    @Override
+    public Window<Product> findAllProductsAfter(Integer pageSize, String after, String sortBy, String direction, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds, FieldSelection selection) {
+        var dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        Sort sort = KeysetCursors.keysetSort(sortBy, dir);
+        var position = KeysetCursors.decode(after, Product.class, sort);
+        int limit = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        return productRepository.scrollAssembled(priceFrom, priceTo, statuses, brandIds, categoryIds, sort, position, limit, selection);
+    }
+
+    @Override
+    public long countProducts(String totalMode, BigDecimal priceFrom, BigDecimal priceTo, List<String> statuses, List<Long> brandIds, List<Long> categoryIds) {
+        return switch (totalMode.toLowerCase()) {
+            case "exact" -> Optional.ofNullable(productFilterIndex.getIfAvailable())
+                    .map(index -> index.count(priceFrom, priceTo, statuses, brandIds, categoryIds))
+                    .filter(OptionalLong::isPresent)
+                    .map(OptionalLong::getAsLong)
+                    .orElseGet(() -> productRepository.count(ProductRepository.buildProductSpecification(priceFrom, priceTo, statuses, brandIds, categoryIds)));
+            case "estimate" -> productRepository.estimateCount(priceFrom, priceTo, statuses, brandIds, categoryIds);
+            default -> throw new BadRequestException("Total count mode: " + totalMode + " is not supported");
+        };
+    }
+
+    @Override
+    public ProductFacets findProductFacets(String status, Long brandId, Long categoryId, Integer priceBucket) {
+        return productFacetCounters.find(status, brandId, categoryId, priceBucket);
     }
 
     @Override
     @Transactional
     public Product createProduct(String name, BigDecimal price, String description, Long categoryId, Long brandId) {
-        categoryRepository.findById(categoryId).orElseThrow(() -> new BadRequestException("Category with ID: " + categoryId + " not found"));
+        if (!categoryDictionary.exists(categoryId)) {
+            throw new BadRequestException("Category with ID: " + categoryId + " not found");
+        }
         brandRepository.findById(brandId).orElseThrow(() -> new BadRequestException("Brand with ID: " + brandId + " not found"));
         if (productRepository.findByName(name).isPresent()) {
             throw new BadRequestException("Product with name: " + name + " already exist");
         }
         var product = productRepository.save(new Product(name, price, description, categoryId, brandId));
+        productFacetCounters.add(List.of(product));
+        catalogChangeFeed.productsChanged(List.of(product.getId()));
         meterRegistry.counter("count of created products").increment();
+        productSearchIndex.index(product);
+        catalogNearCache.invalidateProduct(product.getId());
         return product;
     }
 
@@ -101,21 +224,68 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAllById(productIds);
     }
 
+    @Override
+    public MultiGetResult<Product> multiGetProducts(List<Long> productIds, FieldSelection selection) {
+        if (selection.isAll()) {
+            return MultiGetResult.of(productIds, catalogNearCache.findProducts(productIds, this::loadProducts));
+        }
+        // projected rows are incomplete, so they are served but never put into the near cache
+        Map<Long, Product> found = new HashMap<>(catalogNearCache.findPresentProducts(productIds));
+        Set<Long> missingIds = new HashSet<>(productIds);
+        missingIds.removeAll(found.keySet());
+        if (!missingIds.isEmpty()) {
+            found.putAll(loadProducts(missingIds, selection));
+        }
+        return MultiGetResult.of(productIds, found);
+    }
+
+    private Map<Long, Product> loadProducts(Set<? extends Long> ids) {
+        return loadProducts(ids, FieldSelection.ALL);
+    }
+
+    private Map<Long, Product> loadProducts(Set<? extends Long> ids, FieldSelection selection) {
+        return productRepository.findAssembledByIdIn(List.copyOf(ids), selection)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    @Override
+    public List<Product> findProductsByNameLike(String name, Integer limit) {
+        return productRepository.findAssembledByNameSimilar(name, SearchLimits.resolve(limit));
+    }
+
+    @Override
+    @Transactional
+    public void updateProductStatusById(Long productId, String requestStatus, String expectedRequestStatus) {
+        var updated = productRepository.updateRequestStatus(productId, requestStatus, expectedRequestStatus);
+        if (updated.isEmpty()) {
+            if (productRepository.findVersionById(productId).isEmpty()) {
+                throw new NotFoundException("Product with ID: " + productId + " not found");
+            }
+            throw new ConflictException("Product with ID: " + productId + " has request status other than: " + expectedRequestStatus);
+        }
+        ProductStatusChange change = updated.get();
+        Product product = change.product();
+        FacetKey facetKey = FacetKey.of(product);
+        productSearchIndex.index(product);
+        productFacetCounters.move(new FacetKey(facetKey.brandId(), facetKey.categoryId(), facetKey.priceBucket(),
+                change.previousRequestStatus()), facetKey);
+        catalogChangeFeed.productsChanged(List.of(productId));
+        catalogNearCache.invalidateProduct(productId);
+        // the update bypasses the persistence context, so entity listeners do not see it
+        catalogReadModel.ifAvailable(readModel -> readModel.refreshProduct(productId));
+        productFilterIndex.ifAvailable(index -> index.put(product));
+    }
+
     @Override
     @Transactional
-    public List<Product> findProductsByNameLike(String name) {
-        var products = productRepository.findByNameLikeIgnoreCase(name);
-        var productIds = products.stream().map(Product::getId).toList();
-        productRepository.joinPhotosToProductWithIds(productIds);
-        productRepository.joinSizesToBrandWithIds(productIds);
-        return products;
+    public void exportProducts(BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Consumer<Product> consumer) {
+        productRepository.streamAssembled(priceFrom, priceTo, status, brandId, categoryId, consumer);
     }
 
     @Override
-    public void updateProductStatusById(Long productId, String requestStatus) {
-        Product product = findProductById(productId);
-        product.setRequestStatus(requestStatus);
-        productRepository.save(product);
+    public List<ProductSearchHit> findProductsByFullText(String query, BigDecimal priceFrom, BigDecimal priceTo, String status, Long brandId, Long categoryId, Integer limit) {
+        return productSearchIndex.search(query, priceFrom, priceTo, status, brandId, categoryId, SearchLimits.resolve(limit));
     }
 
 }
@@ -3,16 +3,26 @@ package ru.itis.marketplace.catalogservice.service.impl;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeReferencePayload;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
 import ru.itis.marketplace.catalogservice.service.ProductSizeService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +31,11 @@ public class ProductSizeServiceImpl implements ProductSizeService {
     private final ProductSizeRepository productSizeRepository;
     private final ProductRepository productRepository;
     private final KafkaProducer kafkaProducer;
+    private final CatalogChangeFeed catalogChangeFeed;
     private final MeterRegistry meterRegistry;
+    private final CatalogNearCache catalogNearCache;
+    private final CatalogTombstones catalogTombstones;
+    private final ObjectProvider<CatalogReadModel> catalogReadModel;
 
     @Override
     public List<ProductSize> findAllProductSizes(Long productId) {
@@ -43,18 +57,31 @@ public class ProductSizeServiceImpl implements ProductSizeService {
                     + " and product ID: " + productId + " already exist");
         }
         var productSize = productSizeRepository.save(new ProductSize(name, productId));
+        productRepository.incrementVersion(productId);
+        catalogChangeFeed.productsChanged(List.of(productId));
+        catalogNearCache.invalidateProduct(productId);
         meterRegistry.counter("count of created product sizes").increment();
         return productSize;
     }
 
     @Override
+    @Transactional
     public void deleteAllProductSizesById(List<Long> sizeIds) {
         kafkaProducer.sendSizeIds(sizeIds);
+        var productIds = productSizeRepository.findProductIdsByIdIn(sizeIds);
+        catalogChangeFeed.productsChanged(productIds);
+        catalogTombstones.recordProductSizes(sizeIds);
+        productRepository.incrementVersionBySizeIds(sizeIds);
         productSizeRepository.deleteAllByIdInBatch(sizeIds);
+        catalogNearCache.invalidateProducts(productIds);
+        catalogReadModel.ifAvailable(readModel -> readModel.evictProductSizes(sizeIds));
     }
 
     @Override
     public ProductSize findSizeByIdAndProductId(Long productId, Long sizeId) {
+        productRepository
+                .findById(productId)
+                .orElseThrow(() -> new NotFoundException("Product with ID: " + productId + " not found"));
         ProductSize size = productSizeRepository
                 .findById(sizeId)
                 .orElseThrow(() -> new NotFoundException("Size with ID: " + sizeId + " not found"));
@@ -63,4 +90,21 @@ public class ProductSizeServiceImpl implements ProductSizeService {
         }
         return size;
     }
+
+    @Override
+    public List<ProductSizeAvailability> findProductSizeAvailability(List<ProductSizeReferencePayload> references) {
+        List<Long> sizeIds = references.stream().map(ProductSizeReferencePayload::sizeId).distinct().toList();
+        Map<Long, ProductSizeAvailability> availabilities = productSizeRepository.findAvailabilityBySizeIdIn(sizeIds)
+                .stream()
+                .collect(Collectors.toMap(ProductSizeAvailability::sizeId, Function.identity()));
+        return references.stream()
+                .map(reference -> {
+                    var availability = availabilities.get(reference.sizeId());
+                    if (availability == null || !availability.productId().equals(reference.productId())) {
+                        return ProductSizeAvailability.missing(reference.productId(), reference.sizeId());
+                    }
+                    return availability;
+                })
+                .toList();
+    }
 }
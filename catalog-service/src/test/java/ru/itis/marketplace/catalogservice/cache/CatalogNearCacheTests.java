@@ -0,0 +1,163 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("ALL")
+class CatalogNearCacheTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private CategoryDictionary categoryDictionary;
+    private CatalogNearCache catalogNearCache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock();
+        categoryDictionary = mock();
+        catalogNearCache = new CatalogNearCache(jdbcTemplate, categoryDictionary, Duration.ofMinutes(5), 100, 100);
+    }
+
+    @Test
+    @DisplayName("findProduct should call loader only once for the same id")
+    void findProductCachedTest() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, Product> loader = id -> {
+            loads.incrementAndGet();
+            return product(id);
+        };
+
+        // Act
+        var first = catalogNearCache.findProduct(1L, loader);
+        var second = catalogNearCache.findProduct(1L, loader);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("findProduct should not cache exception thrown by loader")
+    void findProductNotFoundTest() {
+        // Arrange
+        Function<Long, Product> loader = id -> {
+            throw new NotFoundException("Product with ID: " + id + " not found");
+        };
+
+        // Act & Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> catalogNearCache.findProduct(1L, loader))
+                .withMessage("Product with ID: 1 not found");
+        assertThat(catalogNearCache.findProduct(1L, this::product).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("invalidateProduct should evict product locally and notify other instances")
+    void invalidateProductTest() {
+        // Arrange
+        catalogNearCache.findProduct(1L, this::product);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        catalogNearCache.invalidateProduct(1L);
+        catalogNearCache.findProduct(1L, id -> {
+            loads.incrementAndGet();
+            return product(id);
+        });
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                eq(CatalogNearCache.INVALIDATION_CHANNEL), eq("product:1"));
+    }
+
+    @Test
+    @DisplayName("evict should evict entries by notification payload")
+    void evictByPayloadTest() {
+        // Arrange
+        catalogNearCache.findProduct(1L, this::product);
+        catalogNearCache.findProduct(2L, this::product);
+        catalogNearCache.findBrand(1L, id -> new Brand("brand", "description", "logo"));
+        catalogNearCache.findCategory(1L, id -> new Category(id, "category", null));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        catalogNearCache.evict("product:*");
+        catalogNearCache.evict("brand:1");
+        catalogNearCache.findProduct(2L, id -> {
+            loads.incrementAndGet();
+            return product(id);
+        });
+        catalogNearCache.findBrand(1L, id -> {
+            loads.incrementAndGet();
+            return new Brand("brand", "description", "logo");
+        });
+        catalogNearCache.findCategory(1L, id -> {
+            loads.incrementAndGet();
+            return new Category(id, "category", null);
+        });
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("evict should refresh category dictionary, because category notification is received")
+    void evictCategoryRefreshesDictionaryTest() {
+        // Arrange
+        // Act
+        catalogNearCache.evict("product:1");
+        catalogNearCache.evict("category:1");
+
+        // Assert
+        verify(categoryDictionary, times(1)).refresh();
+    }
+
+    @Test
+    @DisplayName("invalidateProduct should evict serialized product response together with product")
+    void invalidateProductResponseTest() {
+        // Arrange
+        catalogNearCache.findProductResponse(1L, this::response);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        catalogNearCache.invalidateProduct(1L);
+        catalogNearCache.findProductResponse(1L, id -> {
+            loads.incrementAndGet();
+            return response(id);
+        });
+
+        // Assert
+        assertThat(loads).hasValue(1);
+    }
+
+    private CachedProductResponse response(Long id) {
+        return new CachedProductResponse(id, 0L, new byte[]{'{', '}'}, null);
+    }
+
+    private Product product(Long id) {
+        Product product = new Product("name", BigDecimal.TEN, "description", 1L, 1L);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryDictionaryTests {
+
+    private CategoryRepository categoryRepository;
+    private List<Runnable> tasks;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock();
+        tasks = new ArrayList<>();
+        when(categoryRepository.findAll(Sort.by("name")))
+                .thenReturn(List.of(new Category(1L, "first", 0L)))
+                .thenReturn(List.of(new Category(1L, "first", 0L), new Category(2L, "second", 0L)));
+    }
+
+    @Test
+    @DisplayName("findAll should load categories only once, because the copy is fresh")
+    void findAllCachedTest() {
+        // Arrange
+        var categoryDictionary = new CategoryDictionary(categoryRepository, tasks::add, Duration.ofMinutes(10));
+
+        // Act
+        categoryDictionary.findAll();
+        var categories = categoryDictionary.findAll();
+
+        // Assert
+        assertThat(categories).extracting(Category::getName).containsExactly("first");
+        assertThat(tasks).isEmpty();
+        verify(categoryRepository, times(1)).findAll(Sort.by("name"));
+    }
+
+    @Test
+    @DisplayName("findAll should serve the old copy until the background refresh completes, because refresh was requested")
+    void findAllStaleWhileRefreshingTest() {
+        // Arrange
+        var categoryDictionary = new CategoryDictionary(categoryRepository, tasks::add, Duration.ofMinutes(10));
+        categoryDictionary.findAll();
+
+        // Act
+        categoryDictionary.refresh();
+        categoryDictionary.refresh();
+        var stale = categoryDictionary.findAll();
+        tasks.forEach(Runnable::run);
+        var fresh = categoryDictionary.findAll();
+
+        // Assert
+        assertThat(tasks).hasSize(1);
+        assertThat(stale).extracting(Category::getName).containsExactly("first");
+        assertThat(fresh).extracting(Category::getName).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("findAll should schedule a refresh and serve the old copy, because time to live expired")
+    void findAllExpiredTest() {
+        // Arrange
+        var categoryDictionary = new CategoryDictionary(categoryRepository, tasks::add, Duration.ZERO);
+        categoryDictionary.findAll();
+
+        // Act
+        var stale = categoryDictionary.findAll();
+
+        // Assert
+        assertThat(stale).extracting(Category::getName).containsExactly("first");
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("exists should check categoryRepository only for ids missing from the copy")
+    void existsTest() {
+        // Arrange
+        var categoryDictionary = new CategoryDictionary(categoryRepository, tasks::add, Duration.ofMinutes(10));
+        when(categoryRepository.existsById(3L)).thenReturn(true);
+
+        // Act
+        boolean known = categoryDictionary.exists(1L);
+        boolean created = categoryDictionary.exists(3L);
+        boolean missing = categoryDictionary.exists(4L);
+
+        // Assert
+        assertThat(known).isTrue();
+        assertThat(created).isTrue();
+        assertThat(missing).isFalse();
+        verify(categoryRepository, never()).existsById(1L);
+    }
+}
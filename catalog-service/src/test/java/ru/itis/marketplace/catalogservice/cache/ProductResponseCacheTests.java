@@ -0,0 +1,117 @@
+package ru.itis.marketplace.catalogservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.service.ProductService;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductResponseCacheTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ProductService productService;
+    private ProductResponseCache productResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock();
+        var catalogNearCache = new CatalogNearCache(mock(), mock(), Duration.ofMinutes(5), 100, 100);
+        productResponseCache = new ProductResponseCache(catalogNearCache, productService, objectMapper);
+    }
+
+    @Test
+    @DisplayName("findProduct should serialize product once and reuse the bytes, because response is cached")
+    void findProductCachedTest() throws Exception {
+        // Arrange
+        Product product = product(1L, "description");
+        when(productService.findProductById(1L)).thenReturn(product);
+
+        // Act
+        CachedProductResponse first = productResponseCache.findProduct(1L, 0L);
+        CachedProductResponse second = productResponseCache.findProduct(1L, 0L);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(first.json()).isEqualTo(objectMapper.writeValueAsBytes(product));
+        assertThat(first.isCompressed()).isFalse();
+        assertThat(first.eTag()).isEqualTo("\"0\"");
+        verify(productService, times(1)).findProductById(1L);
+    }
+
+    @Test
+    @DisplayName("findProduct should precompress response, because serialized product is large")
+    void findProductCompressedTest() throws Exception {
+        // Arrange
+        when(productService.findProductById(1L)).thenReturn(product(1L, "description ".repeat(200)));
+
+        // Act
+        CachedProductResponse response = productResponseCache.findProduct(1L, 0L);
+
+        // Assert
+        assertThat(response.isCompressed()).isTrue();
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(response.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(response.json());
+        }
+    }
+
+    @Test
+    @DisplayName("findProduct should reload response, because cached response is older than stored version")
+    void findProductStaleVersionTest() {
+        // Arrange
+        when(productService.findProductById(1L))
+                .thenReturn(product(1L, "old", 0L))
+                .thenReturn(product(1L, "new", 1L));
+        productResponseCache.findProduct(1L, 0L);
+
+        // Act
+        CachedProductResponse response = productResponseCache.findProduct(1L, 1L);
+
+        // Assert
+        assertThat(response.version()).isEqualTo(1L);
+        assertThat(productResponseCache.findProduct(1L, 1L)).isSameAs(response);
+        verify(productService, times(2)).findProductById(1L);
+    }
+
+    @Test
+    @DisplayName("findProducts should load only missing products and return responses in request order")
+    void findProductsTest() {
+        // Arrange
+        when(productService.findProductById(2L)).thenReturn(product(2L, "cached"));
+        productResponseCache.findProduct(2L, 0L);
+        when(productService.multiGetProducts(any(), any()))
+                .thenReturn(new MultiGetResult<>(List.of(product(1L, "loaded")), List.of(3L)));
+
+        // Act
+        List<CachedProductResponse> responses = productResponseCache.findProducts(List.of(2L, 3L, 1L));
+
+        // Assert
+        assertThat(responses).extracting(CachedProductResponse::id).containsExactly(2L, 1L);
+        verify(productService).multiGetProducts(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 3L))), eq(FieldSelection.ALL));
+    }
+
+    private Product product(Long id, String description) {
+        return product(id, description, 0L);
+    }
+
+    private Product product(Long id, String description, Long version) {
+        return new Product(id, "name", BigDecimal.TEN, description, "approved", 1L, 1L, List.of(), List.of(), null, null, version);
+    }
+}
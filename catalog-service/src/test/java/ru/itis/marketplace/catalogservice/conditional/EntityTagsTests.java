@@ -0,0 +1,54 @@
+package ru.itis.marketplace.catalogservice.conditional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+import ru.itis.marketplace.catalogservice.entity.Category;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityTagsTests {
+
+    @Test
+    @DisplayName("matching should return matched tag, because If-None-Match contains weak tag with the same value")
+    void matchingWeakTagTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(EntityTags.matching("\"1\", W/\"2\"", EntityTags.of(2L), EntityTags.gzipOf(2L))).hasValue("\"2\"");
+    }
+
+    @Test
+    @DisplayName("matching should return first tag, because If-None-Match is a wildcard")
+    void matchingWildcardTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(EntityTags.matching("*", EntityTags.of(3L))).hasValue("\"3\"");
+    }
+
+    @Test
+    @DisplayName("matching should return empty, because If-None-Match contains only outdated tags")
+    void matchingOutdatedTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(EntityTags.matching("\"1\", \"1-gzip\"", EntityTags.of(2L), EntityTags.gzipOf(2L))).isEmpty();
+        assertThat(EntityTags.matching(null, EntityTags.of(2L))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ofCategories should digest versions ordered by id, the same way as the category version query")
+    void ofCategoriesTest() {
+        // Arrange
+        List<Category> categories = List.of(new Category(2L, "b", 5L), new Category(1L, "a", 0L));
+        String expected = DigestUtils.md5DigestAsHex("1:0,2:5".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        // Assert
+        assertThat(EntityTags.ofCategories(categories)).isEqualTo("\"" + expected + "\"");
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
@@ -17,15 +19,25 @@ import ru.itis.marketplace.catalogservice.config.SecurityBeans;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.NewBrandPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.UpdateBrandPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.brand.UpdateBrandStatusPayload;
+import ru.itis.marketplace.catalogservice.controller.payload.multi_get.MultiGetPayload;
 import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.PaginationHeaders;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
 import ru.itis.marketplace.catalogservice.service.BrandService;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,19 +59,56 @@ class BrandRestControllerTests {
         // Arrange
         Long brandId = 2L;
         ObjectMapper mapper = new ObjectMapper();
-        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null);
+        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null, 4L);
         when(brandService.findBrandById(brandId)).thenReturn(brand);
 
         // Act
         // Assert
         String response = mockMvc.perform(get("/api/v1/catalog/brands/{brandId}", brandId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
                 .andReturn().getResponse().getContentAsString();
         Brand actualBrand = mapper.readValue(response, Brand.class);
         assertThat(actualBrand).isEqualTo(brand);
         verify(brandService).findBrandById(brandId);
     }
 
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/brands/{brandId} should return 304, because If-None-Match contains current version")
+    @WithMockUser(roles={"SERVICE"})
+    void findBrandByIdNotModifiedTest() throws Exception {
+        // Arrange
+        Long brandId = 2L;
+        when(brandService.findBrandVersionById(brandId)).thenReturn(4L);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/brands/{brandId}", brandId)
+                        .header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""));
+        verify(brandService, never()).findBrandById(brandId);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/brands/{brandId} should return only requested fields and relations")
+    @WithMockUser(roles={"SERVICE"})
+    void findBrandByIdSparseFieldsetsTest() throws Exception {
+        // Arrange
+        Long brandId = 2L;
+        Brand brand = new Brand(2L, "name", "description", "link", "status", List.of(), List.of(), 4L);
+        when(brandService.findBrandById(brandId)).thenReturn(brand);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/brands/{brandId}", brandId)
+                        .param("fields", "name")
+                        .param("include", "links"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(content().json("{\"id\":2,\"name\":\"name\",\"brandLinks\":[]}", true));
+    }
+
     @Test
     @DisplayName("Method: GET Endpoint: api/v1/catalog/brands/{brandId}/links should return 401 because not auth-ed")
     @WithAnonymousUser
@@ -84,7 +133,7 @@ class BrandRestControllerTests {
         String linkToLogo = "link";
         String requestStatus = "status";
         ObjectMapper mapper = new ObjectMapper();
-        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null);
+        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null, null);
         when(brandService.findBrandById(brandId)).thenReturn(brand);
 
         // Act
@@ -147,17 +196,17 @@ class BrandRestControllerTests {
         Long brandId = 2L;
         String requestStatus = "status";
         ObjectMapper mapper = new ObjectMapper();
-        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null);
+        Brand brand = new Brand(2L, "name", "description", "link", "status", null, null, null);
         when(brandService.findBrandById(brandId)).thenReturn(brand);
 
         // Act
         // Assert
         mockMvc.perform(patch("/api/v1/catalog/brands/{brandId}", brandId)
                         .content(mapper.writeValueAsString(
-                                new UpdateBrandStatusPayload(requestStatus)))
+                                new UpdateBrandStatusPayload(requestStatus, null)))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
-        verify(brandService).updateBrandStatusById(brandId, requestStatus);
+        verify(brandService).updateBrandStatusById(brandId, requestStatus, null);
     }
 
     @Test
@@ -173,23 +222,26 @@ class BrandRestControllerTests {
         // Assert
         mockMvc.perform(patch("/api/v1/catalog/brands/{brandId}", brandId)
                         .content(mapper.writeValueAsString(
-                                new UpdateBrandStatusPayload(requestStatus)))
+                                new UpdateBrandStatusPayload(requestStatus, null)))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
 
     @Test
-    @DisplayName("Method: DELETE Endpoint: api/v1/catalog/brands/{brandId} should delete brand")
+    @DisplayName("Method: DELETE Endpoint: api/v1/catalog/brands/{brandId} should start brand deletion job")
     @WithMockUser(roles = {"SERVICE"})
     void deleteBrandByIdSuccessfulTest() throws Exception {
         // Arrange
         Long brandId = 2L;
+        DeletionJob deletionJob = new DeletionJob("brand", brandId);
+        deletionJob.setId(5L);
+        when(brandService.deleteBrandById(brandId)).thenReturn(deletionJob);
 
         // Act
         // Assert
-        mockMvc.perform(delete("/api/v1/catalog/brands/{brandId}", brandId)
-                        .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/catalog/brands/{brandId}", brandId))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v1/catalog/deletion-jobs/5"));
         verify(brandService).deleteBrandById(brandId);
     }
 
@@ -213,11 +265,11 @@ class BrandRestControllerTests {
     void findBrandsSuccessfulTest() throws Exception {
         // Arrange
         List<Brand> brands = List.of(
-                new Brand(1L, "name" , "description", "link", null, null, null),
-                new Brand(2L, "name" , "description", "link", null, null, null),
-                new Brand(3L, "name" , "description", "link", null, null, null)
+                new Brand(1L, "name" , "description", "link", null, null, null, null),
+                new Brand(2L, "name" , "description", "link", null, null, null, null),
+                new Brand(3L, "name" , "description", "link", null, null, null, null)
         );
-        when(brandService.findAllBrands(null, null, null, null)).thenReturn(brands);
+        when(brandService.findAllBrands(null, null, null, null, FieldSelection.ALL)).thenReturn(Window.from(brands, ScrollPosition::offset));
         ObjectMapper mapper = new ObjectMapper();
 
         // Act
@@ -228,7 +280,7 @@ class BrandRestControllerTests {
                 .andReturn().getResponse().getContentAsString();
         List<Brand> actualBrands = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualBrands).isEqualTo(brands);
-        verify(brandService).findAllBrands(null, null, null, null);
+        verify(brandService).findAllBrands(null, null, null, null, FieldSelection.ALL);
     }
 
     @Test
@@ -241,10 +293,10 @@ class BrandRestControllerTests {
         Integer page = 1;
         String sortedBy = "name";
         List<Brand> brands = List.of(
-                new Brand(1L, "name" , "description", "link", null, null, null),
-                new Brand(3L, "name" , "description", "link", null, null, null)
+                new Brand(1L, "name" , "description", "link", null, null, null, null),
+                new Brand(3L, "name" , "description", "link", null, null, null, null)
         );
-        when(brandService.findAllBrands(status, pageSize, page, sortedBy)).thenReturn(brands);
+        when(brandService.findAllBrands(status, pageSize, page, sortedBy, FieldSelection.ALL)).thenReturn(Window.from(brands, ScrollPosition::offset, true));
         ObjectMapper mapper = new ObjectMapper();
 
         // Act
@@ -253,10 +305,61 @@ class BrandRestControllerTests {
                         + "?status={status}&page-size={page-size}&page={page}&sorted-by={sortedBy}", status, pageSize, page, sortedBy)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.HAS_NEXT, "true"))
+                .andExpect(header().doesNotExist(PaginationHeaders.TOTAL_COUNT))
+                .andReturn().getResponse().getContentAsString();
+        List<Brand> actualBrands = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualBrands).isEqualTo(brands);
+        verify(brandService).findAllBrands(status, pageSize, page, sortedBy, FieldSelection.ALL);
+        verify(brandService, never()).countBrands(any(), any());
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/brands should return brands with total count, because total parameter is provided")
+    @WithMockUser(roles = {"SERVICE"})
+    void findBrandsSuccessfulTotalCountTest() throws Exception {
+        // Arrange
+        String total = "exact";
+        List<Brand> brands = List.of(
+                new Brand(1L, "name" , "description", "link", null, null, null, null)
+        );
+        when(brandService.findAllBrands(null, null, null, null, FieldSelection.ALL)).thenReturn(Window.from(brands, ScrollPosition::offset));
+        when(brandService.countBrands(total, null)).thenReturn(1L);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/brands?total={total}", total)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.HAS_NEXT, "false"))
+                .andExpect(header().string(PaginationHeaders.TOTAL_COUNT, "1"));
+        verify(brandService).countBrands(total, null);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/brands should return last brands without next cursor, because after parameter is provided and there is no next page")
+    @WithMockUser(roles = {"SERVICE"})
+    void findBrandsSuccessfulAfterCursorTest() throws Exception {
+        // Arrange
+        String after = KeysetCursors.encode(ScrollPosition.forward(Map.of("id", 1L)));
+        List<Brand> brands = List.of(
+                new Brand(2L, "name" , "description", "link", null, null, null, null),
+                new Brand(3L, "name" , "description", "link", null, null, null, null)
+        );
+        when(brandService.findAllBrandsAfter(null, null, after, null, FieldSelection.ALL))
+                .thenReturn(Window.from(brands, ScrollPosition::offset, false));
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(get("/api/v1/catalog/brands?after={after}", after)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PaginationHeaders.NEXT_CURSOR))
                 .andReturn().getResponse().getContentAsString();
         List<Brand> actualBrands = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualBrands).isEqualTo(brands);
-        verify(brandService).findAllBrands(status, pageSize, page, sortedBy);
+        verify(brandService).findAllBrandsAfter(null, null, after, null, FieldSelection.ALL);
     }
 
     @Test
@@ -279,7 +382,7 @@ class BrandRestControllerTests {
         String name = "name";
         String description = "description";
         String linkToLogo = "linkToLogo";
-        Brand brand = new Brand(1L, name, description, linkToLogo, null, null, null);
+        Brand brand = new Brand(1L, name, description, linkToLogo, null, null, null, null);
         when(brandService.createBrand(name, description, linkToLogo)).thenReturn(brand);
         ObjectMapper mapper = new ObjectMapper();
 
@@ -339,9 +442,9 @@ class BrandRestControllerTests {
         // Arrange
         List<Long> brandIds = List.of(1L, 2L, 3L, 4L);
         List<Brand> brands = List.of(
-            new Brand(1L, "name", "name", "name", null, null, null),
-            new Brand(2L, "name", "name", "name", null, null, null),
-            new Brand(3L, "name", "name", "name", null, null, null)
+            new Brand(1L, "name", "name", "name", null, null, null, null),
+            new Brand(2L, "name", "name", "name", null, null, null, null),
+            new Brand(3L, "name", "name", "name", null, null, null, null)
         );
         when(brandService.findAllBrandByIds(brandIds)).thenReturn(brands);
         ObjectMapper mapper = new ObjectMapper();
@@ -377,22 +480,23 @@ class BrandRestControllerTests {
     void findBrandsByNameLikeSuccessfulTest() throws Exception {
         // Arrange
         String name = "name";
+        Integer limit = 10;
         List<Brand> brands = List.of(
-                new Brand(1L, "name", "name", "name", null, null, null),
-                new Brand(2L, "name", "name", "name", null, null, null),
-                new Brand(3L, "name", "name", "name", null, null, null)
+                new Brand(1L, "name", "name", "name", null, null, null, null),
+                new Brand(2L, "name", "name", "name", null, null, null, null),
+                new Brand(3L, "name", "name", "name", null, null, null, null)
         );
-        when(brandService.findBrandsByNameLike(name)).thenReturn(brands);
+        when(brandService.findBrandsByNameLike(name, limit)).thenReturn(brands);
         ObjectMapper mapper = new ObjectMapper();
 
         // Act
         // Assert
-        String response = mockMvc.perform(get("/api/v1/catalog/brands/search?name={name}", name))
+        String response = mockMvc.perform(get("/api/v1/catalog/brands/search?name={name}&limit={limit}", name, limit))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         List<Brand> actualBrands = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualBrands).isEqualTo(brands);
-        verify(brandService).findBrandsByNameLike(name);
+        verify(brandService).findBrandsByNameLike(name, limit);
     }
 
     @Test
@@ -407,4 +511,64 @@ class BrandRestControllerTests {
         mockMvc.perform(get("/api/v1/catalog/brands/search?name={name}", name))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/brands/multi-get should return found brands and missing ids")
+    @WithMockUser(roles = {"SERVICE"})
+    void multiGetBrandsSuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        List<Long> brandIds = List.of(5L, 4L);
+        MultiGetResult<Brand> result = new MultiGetResult<>(
+                List.of(new Brand(4L, "name", null, null, null, List.of(), List.of(), null)), List.of(5L));
+        when(brandService.multiGetBrands(brandIds, FieldSelection.ALL)).thenReturn(result);
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(post("/api/v1/catalog/brands/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(brandIds))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MultiGetResult<Brand> actualResult = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualResult).isEqualTo(result);
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/brands/multi-get should return only requested fields and relations")
+    @WithMockUser(roles = {"SERVICE"})
+    void multiGetBrandsSparseFieldsetsTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        List<Long> brandIds = List.of(4L);
+        FieldSelection selection = FieldSelection.forBrands("name", "links");
+        MultiGetResult<Brand> result = new MultiGetResult<>(
+                List.of(new Brand(4L, "name", "description", "logo", "approved", List.of(), List.of(), null)), List.of());
+        when(brandService.multiGetBrands(brandIds, selection)).thenReturn(result);
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/brands/multi-get")
+                        .param("fields", "name")
+                        .param("include", "links")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(brandIds))))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[{\"id\":4,\"name\":\"name\",\"brandLinks\":[]}],\"missingIds\":[]}", true));
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/brands/multi-get should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void multiGetBrandsUnSuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/brands/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(List.of(1L)))))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,87 @@
+package ru.itis.marketplace.catalogservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.itis.marketplace.catalogservice.config.SecurityBeans;
+import ru.itis.marketplace.catalogservice.delta.CatalogChanges;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstone;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.service.CatalogChangeService;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {CatalogChangeRestController.class})
+@Import(SecurityBeans.class)
+@ActiveProfiles("test")
+class CatalogChangeRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CatalogChangeService catalogChangeService;
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/changes should return batch of changes with next cursor")
+    @WithMockUser(roles={"SERVICE"})
+    void findChangesSuccessfulTest() throws Exception {
+        // Arrange
+        CatalogTombstone tombstone = new CatalogTombstone(1L, CatalogTombstones.PRODUCT, 2L, 2L, Instant.parse("2024-01-01T00:00:00Z"));
+        when(catalogChangeService.findChangesSince("cursor", 10))
+                .thenReturn(new CatalogChanges(List.of(), List.of(tombstone), "next", true));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/changes")
+                        .param("since", "cursor")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.deleted[0].entityType").value("product"))
+                .andExpect(jsonPath("$.deleted[0].entityId").value(2))
+                .andExpect(jsonPath("$.deleted[0].id").doesNotExist());
+        verify(catalogChangeService).findChangesSince("cursor", 10);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/changes should return 400, because cursor is invalid")
+    @WithMockUser(roles={"SERVICE"})
+    void findChangesWithInvalidCursorTest() throws Exception {
+        // Arrange
+        when(catalogChangeService.findChangesSince("cursor", null))
+                .thenThrow(new BadRequestException("Cursor: cursor is invalid"));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/changes").param("since", "cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/changes should return 401, because not auth-ed")
+    @WithAnonymousUser()
+    void findChangesUnSuccessfulTest() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/changes"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -17,11 +17,13 @@ import ru.itis.marketplace.catalogservice.config.SecurityBeans;
 import ru.itis.marketplace.catalogservice.controller.payload.category.NewCategoryPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.category.UpdateCategoryPayload;
 import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.service.CategoryService;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -46,7 +48,7 @@ class CategoryRestControllerTests {
         // Arrange
         Long categoryId = 2L;
         ObjectMapper mapper = new ObjectMapper();
-        Category category = new Category(categoryId, "name");
+        Category category = new Category(categoryId, "name", null);
         when(categoryService.findCategoryById(categoryId)).thenReturn(category);
 
         // Act
@@ -125,16 +127,20 @@ class CategoryRestControllerTests {
     }
 
     @Test
-    @DisplayName("Method: DELETE Endpoint: api/v1/catalog/categories/{categoryId} should delete category")
-    @WithMockUser(roles={"SERVICE"})
+    @DisplayName("Method: DELETE Endpoint: api/v1/catalog/categories/{categoryId} should start category deletion job")
+    @WithMockUser(roles = {"SERVICE"})
     void deleteCategoryByIdSuccessfulTest() throws Exception {
         // Arrange
         Long categoryId = 2L;
+        DeletionJob deletionJob = new DeletionJob("category", categoryId);
+        deletionJob.setId(5L);
+        when(categoryService.deleteCategoryById(categoryId)).thenReturn(deletionJob);
 
         // Act
         // Assert
         mockMvc.perform(delete("/api/v1/catalog/categories/{categoryId}", categoryId))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v1/catalog/deletion-jobs/5"));
         verify(categoryService).deleteCategoryById(categoryId);
     }
 
@@ -158,7 +164,7 @@ class CategoryRestControllerTests {
         // Arrange
         Long categoryId = 2L;
         String name = "name";
-        Category category = new Category(categoryId, name);
+        Category category = new Category(categoryId, name, null);
         when(categoryService.createCategory(name)).thenReturn(category);
         ObjectMapper mapper = new ObjectMapper();
 
@@ -215,9 +221,9 @@ class CategoryRestControllerTests {
     void findCategoriesSuccessfulTest() throws Exception {
         // Arrange
         List<Category> categories = List.of(
-                new Category(1L, "name1"),
-                new Category(2L, "name2"),
-                new Category(3L, "name3")
+                new Category(1L, "name1", null),
+                new Category(2L, "name2", null),
+                new Category(3L, "name3", null)
         );
         when(categoryService.findAllCategories()).thenReturn(categories);
         ObjectMapper mapper = new ObjectMapper();
@@ -226,12 +232,29 @@ class CategoryRestControllerTests {
         // Assert
         String response = mockMvc.perform(get("/api/v1/catalog/categories"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
                 .andReturn().getResponse().getContentAsString();
         List<Category> actualCategories = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualCategories).isEqualTo(categories);
         verify(categoryService).findAllCategories();
     }
 
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/categories should return 304, because If-None-Match contains current digest of versions")
+    @WithMockUser(roles = {"SERVICE"})
+    void findCategoriesNotModifiedTest() throws Exception {
+        // Arrange
+        when(categoryService.findCategoriesVersion()).thenReturn("digest");
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/categories")
+                        .header("If-None-Match", "\"digest\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"digest\""));
+        verify(categoryService, never()).findAllCategories();
+    }
+
     @Test
     @DisplayName("Method: GET Endpoint: api/v1/catalog/categories should return 401,because not auth-ed")
     @WithAnonymousUser
@@ -249,22 +272,23 @@ class CategoryRestControllerTests {
     void findCategoriesByNameLikeSuccessfulTest() throws Exception {
         // Arrange
         List<Category> categories = List.of(
-                new Category(1L, "name"),
-                new Category(2L, "name"),
-                new Category(3L, "name")
+                new Category(1L, "name", null),
+                new Category(2L, "name", null),
+                new Category(3L, "name", null)
         );
         String name = "name";
-        when(categoryService.findCategoryByNameLike(name)).thenReturn(categories);
+        Integer limit = 10;
+        when(categoryService.findCategoryByNameLike(name, limit)).thenReturn(categories);
         ObjectMapper mapper = new ObjectMapper();
 
         // Act
         // Assert
-        String response = mockMvc.perform(get("/api/v1/catalog/categories/search?name={name}", name))
+        String response = mockMvc.perform(get("/api/v1/catalog/categories/search?name={name}&limit={limit}", name, limit))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         List<Category> actualCategories = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualCategories).isEqualTo(categories);
-        verify(categoryService).findCategoryByNameLike(name);
+        verify(categoryService).findCategoryByNameLike(name, limit);
     }
 
     @Test
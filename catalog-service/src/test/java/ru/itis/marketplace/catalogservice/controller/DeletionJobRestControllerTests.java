@@ -0,0 +1,83 @@
+package ru.itis.marketplace.catalogservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.itis.marketplace.catalogservice.config.SecurityBeans;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.service.DeletionJobService;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {DeletionJobRestController.class})
+@Import(SecurityBeans.class)
+@ActiveProfiles("test")
+class DeletionJobRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeletionJobService deletionJobService;
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/deletion-jobs/{jobId} should return deletion job")
+    @WithMockUser(roles = {"SERVICE"})
+    void findDeletionJobByIdSuccessfulTest() throws Exception {
+        // Arrange
+        Long jobId = 5L;
+        DeletionJob deletionJob = new DeletionJob("brand", 2L);
+        deletionJob.setId(jobId);
+        deletionJob.setStatus("running");
+        deletionJob.setDeletedProducts(500L);
+        when(deletionJobService.findDeletionJobById(jobId)).thenReturn(deletionJob);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/deletion-jobs/{jobId}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(jobId))
+                .andExpect(jsonPath("$.targetType").value("brand"))
+                .andExpect(jsonPath("$.targetId").value(2))
+                .andExpect(jsonPath("$.status").value("running"))
+                .andExpect(jsonPath("$.deletedProducts").value(500));
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/deletion-jobs/{jobId} should return 404, because job does not exist")
+    @WithMockUser(roles = {"SERVICE"})
+    void findDeletionJobByIdNotFoundTest() throws Exception {
+        // Arrange
+        Long jobId = 5L;
+        when(deletionJobService.findDeletionJobById(jobId)).thenThrow(new NotFoundException("Deletion job with ID: 5 not found"));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/deletion-jobs/{jobId}", jobId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/deletion-jobs/{jobId} should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void findDeletionJobByIdUnSuccessfulTest() throws Exception {
+        // Arrange
+        Long jobId = 5L;
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/deletion-jobs/{jobId}", jobId))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -7,27 +7,55 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.itis.marketplace.catalogservice.cache.CachedProductResponse;
+import ru.itis.marketplace.catalogservice.cache.ProductResponseCache;
 import ru.itis.marketplace.catalogservice.config.SecurityBeans;
+import ru.itis.marketplace.catalogservice.controller.payload.multi_get.MultiGetPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.NewProductPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.UpdateProductPayload;
 import ru.itis.marketplace.catalogservice.controller.payload.product.UpdateProductStatusPayload;
 import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.facet.PriceBucketCount;
+import ru.itis.marketplace.catalogservice.facet.ProductFacets;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.importing.ProductImportError;
+import ru.itis.marketplace.catalogservice.importing.ProductImportReport;
+import ru.itis.marketplace.catalogservice.importing.ProductImportRow;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.PaginationHeaders;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
+import ru.itis.marketplace.catalogservice.service.ProductImportService;
 import ru.itis.marketplace.catalogservice.service.ProductService;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {ProductRestController.class})
@@ -41,24 +69,112 @@ class ProductRestControllerTests {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductResponseCache productResponseCache;
+
     @Test
-    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return product")
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return cached product with ETag")
     @WithMockUser(roles={"SERVICE"})
     void findProductByIdSuccessfulTest() throws Exception {
         // Arrange
         Long productId = 2L;
         ObjectMapper mapper = new ObjectMapper();
-        Product product = new Product(productId, null, null, null, null, null, null, null, null, null, null);
-        when(productService.findProductById(productId)).thenReturn(product);
+        Product product = new Product(productId, null, null, null, null, null, null, null, null, null, null, null);
+        when(productService.findProductVersionById(productId)).thenReturn(3L);
+        when(productResponseCache.findProduct(productId, 3L)).thenReturn(
+                new CachedProductResponse(productId, 3L, mapper.writeValueAsBytes(product), new byte[]{1, 2}));
 
         // Act
         // Assert
         String response = mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
                 .andReturn().getResponse().getContentAsString();
         Product actualProduct = mapper.readValue(response, Product.class);
         assertThat(actualProduct).isEqualTo(product);
-        verify(productService).findProductById(productId);
+        verify(productResponseCache).findProduct(productId, 3L);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return precompressed product, because client accepts gzip")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductByIdGzipTest() throws Exception {
+        // Arrange
+        Long productId = 2L;
+        byte[] gzip = {1, 2, 3};
+        when(productService.findProductVersionById(productId)).thenReturn(3L);
+        when(productResponseCache.findProduct(productId, 3L)).thenReturn(
+                new CachedProductResponse(productId, 3L, new byte[]{'{', '}'}, gzip));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId)
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-gzip\""))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzip));
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return 304 without body, because If-None-Match contains current version")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductByIdNotModifiedTest() throws Exception {
+        // Arrange
+        Long productId = 2L;
+        when(productService.findProductVersionById(productId)).thenReturn(3L);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId)
+                        .header("If-None-Match", "\"2\", W/\"3-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3-gzip\""))
+                .andExpect(content().bytes(new byte[0]));
+        verifyNoInteractions(productResponseCache);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return only requested fields and relations without the response cache")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductByIdSparseFieldsetsTest() throws Exception {
+        // Arrange
+        Long productId = 2L;
+        FieldSelection selection = FieldSelection.forProducts("name,price", "sizes");
+        Product product = new Product(productId, "name", new BigDecimal("10.50"), "description", "approved", 2L, 3L, null, List.of(), null, null, 3L);
+        when(productService.findProductVersionById(productId)).thenReturn(3L);
+        when(productService.multiGetProducts(List.of(productId), selection)).thenReturn(new MultiGetResult<>(List.of(product), List.of()));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId)
+                        .param("fields", "name,price")
+                        .param("include", "sizes")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().json("{\"id\":2,\"name\":\"name\",\"price\":10.50,\"sizes\":[]}", true));
+        verifyNoInteractions(productResponseCache);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/{productId} should return 400, because requested field is not supported")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductByIdSparseFieldsetsUnSuccessfulTest() throws Exception {
+        // Arrange
+        Long productId = 2L;
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId)
+                        .param("fields", "weight"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productResponseCache);
     }
 
     @Test
@@ -154,9 +270,9 @@ class ProductRestControllerTests {
         // Assert
         mockMvc.perform(patch("/api/v1/catalog/products/{productId}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status))))
+                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status, "approved"))))
                 .andExpect(status().isNoContent());
-        verify(productService).updateProductStatusById(productId, status);
+        verify(productService).updateProductStatusById(productId, status, "approved");
     }
 
     @Test
@@ -172,7 +288,7 @@ class ProductRestControllerTests {
         // Assert
         mockMvc.perform(put("/api/v1/catalog/products/{productId}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status))))
+                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status, null))))
                 .andExpect(status().isBadRequest());
     }
 
@@ -189,7 +305,7 @@ class ProductRestControllerTests {
         // Assert
         mockMvc.perform(put("/api/v1/catalog/products/{productId}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status))))
+                        .content(mapper.writeValueAsString(new UpdateProductStatusPayload(status, null))))
                 .andExpect(status().isUnauthorized());
     }
 
@@ -227,12 +343,12 @@ class ProductRestControllerTests {
         // Arrange
         ObjectMapper mapper = new ObjectMapper();
         List<Product> products = List.of(
-                new Product(1L, null, null, null, null, null, null, null, null, null, null),
-                new Product(2L, null, null, null, null, null, null, null, null, null, null),
-                new Product(3L, null, null, null, null, null, null, null, null, null, null)
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(3L, null, null, null, null, null, null, null, null, null, null, null)
         );
-        when(productService.findAllProducts(null, null, null, null, null, null, null, null, null))
-                .thenReturn(products);
+        when(productService.findAllProducts(null, null, null, null, null, null, null, null, null, FieldSelection.ALL))
+                .thenReturn(Window.from(products, ScrollPosition::offset));
 
         // Act
         // Assert
@@ -241,7 +357,34 @@ class ProductRestControllerTests {
                 .andReturn().getResponse().getContentAsString();
         List<Product> actualProducts = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualProducts).isEqualTo(products);
-        verify(productService).findAllProducts(null, null, null, null, null, null, null, null, null);
+        verify(productService).findAllProducts(null, null, null, null, null, null, null, null, null, FieldSelection.ALL);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products should return products and next cursor, because after parameter is provided")
+    @WithMockUser(roles={"SERVICE"})
+    void findAllProductsSuccessfulAfterCursorTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        List<Product> products = List.of(
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, null, null, null, null, null, null, null, null, null, null, null)
+        );
+        Window<Product> window = Window.from(products, index -> ScrollPosition.forward(Map.of("id", products.get(index).getId())), true);
+        Integer pageSize = 2;
+        String after = "";
+        when(productService.findAllProductsAfter(pageSize, after, null, null, null, null, null, null, null, FieldSelection.ALL))
+                .thenReturn(window);
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(get("/api/v1/catalog/products?page-size={pageSize}&after={after}", pageSize, after))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.NEXT_CURSOR, KeysetCursors.encode(ScrollPosition.forward(Map.of("id", 2L)))))
+                .andReturn().getResponse().getContentAsString();
+        List<Product> actualProducts = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualProducts).isEqualTo(products);
+        verify(productService).findAllProductsAfter(pageSize, after, null, null, null, null, null, null, null, FieldSelection.ALL);
     }
 
     @Test
@@ -262,9 +405,9 @@ class ProductRestControllerTests {
         // Arrange
         ObjectMapper mapper = new ObjectMapper();
         List<Product> products = List.of(
-                new Product(1L, null, null, null, null, null, null, null, null, null, null),
-                new Product(2L, null, null, null, null, null, null, null, null, null, null),
-                new Product(3L, null, null, null, null, null, null, null, null, null, null)
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(3L, null, null, null, null, null, null, null, null, null, null, null)
         );
         Integer pageSize = 2;
         Integer page = 3;
@@ -272,24 +415,30 @@ class ProductRestControllerTests {
         String direction = "asc";
         BigDecimal priceFrom = BigDecimal.valueOf(100);
         BigDecimal priceTo = BigDecimal.valueOf(200);
-        String status = "status";
-        Long brandId = 5L;
-        Long categoryId = 6L;
-        when(productService.findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, status, brandId, categoryId))
-                .thenReturn(products);
+        List<String> statuses = List.of("status");
+        List<Long> brandIds = List.of(5L, 7L);
+        List<Long> categoryIds = List.of(6L);
+        String total = "estimate";
+        when(productService.findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds, FieldSelection.ALL))
+                .thenReturn(Window.from(products, ScrollPosition::offset, true));
+        when(productService.countProducts(total, priceFrom, priceTo, statuses, brandIds, categoryIds)).thenReturn(150L);
 
         // Act
         // Assert
         String response = mockMvc.perform(get("/api/v1/catalog/products" +
                         "?page-size={pageSize}&page={page}&sort-by={sortBy}&direction={direction}" +
                         "&price-from={priceFrom}&price-to={priceTo}&status={status}" +
-                        "&brand-id={brandId}&category-id={categoryId}",
-                        pageSize, page, sortBy, direction, priceFrom, priceTo, status, brandId, categoryId))
+                        "&brand-id={brandId}&brand-id={otherBrandId}&category-id={categoryId}&total={total}",
+                        pageSize, page, sortBy, direction, priceFrom, priceTo, "status", 5L, 7L, 6L, total))
                 .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.HAS_NEXT, "true"))
+                .andExpect(header().string(PaginationHeaders.TOTAL_COUNT, "150"))
+                .andExpect(header().doesNotExist(PaginationHeaders.NEXT_CURSOR))
                 .andReturn().getResponse().getContentAsString();
         List<Product> actualProducts = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualProducts).isEqualTo(products);
-        verify(productService).findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, status, brandId, categoryId);
+        verify(productService).findAllProducts(pageSize, page, sortBy, direction, priceFrom, priceTo, statuses, brandIds, categoryIds, FieldSelection.ALL);
+        verify(productService).countProducts(total, priceFrom, priceTo, statuses, brandIds, categoryIds);
     }
 
     @Test
@@ -300,11 +449,15 @@ class ProductRestControllerTests {
         ObjectMapper mapper = new ObjectMapper();
         List<Long> productIds = List.of(1L, 2L, 3L);
         List<Product> products = List.of(
-                new Product(1L, null, null, null, null, null, null, null, null, null, null),
-                new Product(2L, null, null, null, null, null, null, null, null, null, null),
-                new Product(3L, null, null, null, null, null, null, null, null, null, null)
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(3L, null, null, null, null, null, null, null, null, null, null, null)
         );
-        when(productService.findProductsByIds(productIds)).thenReturn(products);
+        List<CachedProductResponse> responses = new ArrayList<>();
+        for (Product product : products) {
+            responses.add(new CachedProductResponse(product.getId(), 0L, mapper.writeValueAsBytes(product), null));
+        }
+        when(productResponseCache.findProducts(productIds)).thenReturn(responses);
 
         // Act
         // Assert
@@ -314,7 +467,7 @@ class ProductRestControllerTests {
                 .andReturn().getResponse().getContentAsString();
         List<Product> actualProducts = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualProducts).isEqualTo(products);
-        verify(productService).findProductsByIds(productIds);
+        verify(productResponseCache).findProducts(productIds);
     }
 
     @Test
@@ -331,6 +484,113 @@ class ProductRestControllerTests {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/multi-get should return found products and missing ids")
+    @WithMockUser(roles={"SERVICE"})
+    void multiGetProductsSuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        List<Long> productIds = List.of(3L, 1L, 2L);
+        MultiGetResult<Product> result = new MultiGetResult<>(List.of(
+                new Product(3L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null)
+        ), List.of(2L));
+        when(productService.multiGetProducts(productIds, FieldSelection.ALL)).thenReturn(result);
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(post("/api/v1/catalog/products/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(productIds))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MultiGetResult<Product> actualResult = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualResult).isEqualTo(result);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products should return only requested fields and relations")
+    @WithMockUser(roles={"SERVICE"})
+    void findAllProductsSparseFieldsetsTest() throws Exception {
+        // Arrange
+        FieldSelection selection = FieldSelection.forProducts("name,price", "sizes");
+        List<Product> products = List.of(
+                new Product(1L, "name", new BigDecimal("10.50"), "description", "approved", 2L, 3L, List.of(), List.of(), null, null, null)
+        );
+        when(productService.findAllProducts(null, null, null, null, null, null, null, null, null, selection))
+                .thenReturn(Window.from(products, ScrollPosition::offset));
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products")
+                        .param("fields", "name,price")
+                        .param("include", "sizes"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1,\"name\":\"name\",\"price\":10.50,\"sizes\":[]}]", true));
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products should return 400, because requested field is not supported")
+    @WithMockUser(roles={"SERVICE"})
+    void findAllProductsUnsupportedFieldTest() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products").param("fields", "secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/facets should return product counts for the filter")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductFacetsTest() throws Exception {
+        // Arrange
+        ProductFacets facets = new ProductFacets(Map.of(3L, 5L), Map.of(2L, 4L, 6L, 1L),
+                List.of(new PriceBucketCount(0, BigDecimal.ZERO, BigDecimal.valueOf(1000), 5)), Map.of("approved", 5L));
+        when(productService.findProductFacets("approved", 3L, null, null)).thenReturn(facets);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/facets")
+                        .param("status", "approved")
+                        .param("brand-id", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brands.3").value(5))
+                .andExpect(jsonPath("$.categories.6").value(1))
+                .andExpect(jsonPath("$.prices[0].count").value(5))
+                .andExpect(jsonPath("$.statuses.approved").value(5));
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/multi-get should return 400, because ids are empty")
+    @WithMockUser(roles={"SERVICE"})
+    void multiGetProductsBadRequestTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/products/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/multi-get should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void multiGetProductsUnSuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/products/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new MultiGetPayload(List.of(1L)))))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("Method: POST Endpoint: api/v1/catalog/products should create product")
     @WithMockUser(roles={"SERVICE"})
@@ -342,7 +602,7 @@ class ProductRestControllerTests {
         String status = "status";
         Long categoryId = 3L;
         Long brandId = 4L;
-        Product product = new Product(1L, name, price, description, status, categoryId, brandId, null, null, null, null);
+        Product product = new Product(1L, name, price, description, status, categoryId, brandId, null, null, null, null, null);
         when(productService.createProduct(name, price, description, categoryId, brandId)).thenReturn(product);
         ObjectMapper mapper = new ObjectMapper();
 
@@ -405,22 +665,23 @@ class ProductRestControllerTests {
     void findProductsByNameLikeSuccessfulTest() throws Exception {
         // Arrange
         List<Product> products = List.of(
-                new Product(1L, "name", null, null, null, null, null, null, null, null, null),
-                new Product(2L, "name", null, null, null, null, null, null, null, null, null),
-                new Product(3L, "name", null, null, null, null, null, null, null, null, null)
+                new Product(1L, "name", null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, "name", null, null, null, null, null, null, null, null, null, null),
+                new Product(3L, "name", null, null, null, null, null, null, null, null, null, null)
         );
         String name = "name";
-        when(productService.findProductsByNameLike(name)).thenReturn(products);
+        Integer limit = 10;
+        when(productService.findProductsByNameLike(name, limit)).thenReturn(products);
         ObjectMapper mapper = new ObjectMapper();
 
         // Act
         // Assert
-        String response = mockMvc.perform(get("/api/v1/catalog/products/search?name={name}", name))
+        String response = mockMvc.perform(get("/api/v1/catalog/products/search?name={name}&limit={limit}", name, limit))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
         List<Product> actualProducts = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualProducts).isEqualTo(products);
-        verify(productService).findProductsByNameLike(name);
+        verify(productService).findProductsByNameLike(name, limit);
     }
 
     @Test
@@ -435,4 +696,150 @@ class ProductRestControllerTests {
         mockMvc.perform(get("/api/v1/catalog/products/search?name={name}", name))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/full-text-search should return found products with filters")
+    @WithMockUser(roles = {"SERVICE"})
+    void findProductsByFullTextSuccessfulTest() throws Exception {
+        // Arrange
+        String query = "winter jacket";
+        BigDecimal priceTo = BigDecimal.valueOf(5000);
+        String status = "accepted";
+        Long categoryId = 4L;
+        Integer limit = 5;
+        List<ProductSearchHit> hits = List.of(
+                new ProductSearchHit(1L, "Winter jacket", "warm", BigDecimal.valueOf(4000), status, categoryId, 2L, 2.5f),
+                new ProductSearchHit(2L, "Jacket", null, BigDecimal.valueOf(3000), status, categoryId, 3L, 1.0f)
+        );
+        when(productService.findProductsByFullText(query, null, priceTo, status, null, categoryId, limit)).thenReturn(hits);
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(get("/api/v1/catalog/products/full-text-search" +
+                        "?query={query}&price-to={priceTo}&status={status}&category-id={categoryId}&limit={limit}",
+                        query, priceTo, status, categoryId, limit))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ProductSearchHit> actualHits = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualHits).isEqualTo(hits);
+        verify(productService).findProductsByFullText(query, null, priceTo, status, null, categoryId, limit);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/full-text-search should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void findProductsByFullTextUnSuccessfulTest() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/full-text-search?query={query}", "jacket"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/export should stream products as newline-delimited JSON")
+    @WithMockUser(roles={"SERVICE"})
+    void exportProductsSuccessfulTest() throws Exception {
+        // Arrange
+        Long brandId = 3L;
+        String status = "approved";
+        ObjectMapper mapper = new ObjectMapper();
+        Product first = new Product(1L, "first", null, null, null, null, null, null, null, null, null, null);
+        Product second = new Product(2L, "second", null, null, null, null, null, null, null, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(5);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(productService).exportProducts(eq(null), eq(null), eq(status), eq(brandId), eq(null), any());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/catalog/products/export")
+                        .param("status", status)
+                        .param("brand-id", brandId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String response = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = response.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(mapper.readValue(lines.get(0), Product.class)).isEqualTo(first);
+        assertThat(mapper.readValue(lines.get(1), Product.class)).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/catalog/products/export should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void exportProductsUnSuccessfulTest() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/catalog/products/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/import should import products from JSON array")
+    @WithMockUser(roles={"SERVICE"})
+    void importProductsSuccessfulJsonArrayTest() throws Exception {
+        // Arrange
+        ProductImportReport report = new ProductImportReport(2, 1, List.of(new ProductImportError(2, "second", "Brand with ID: 4 not found")));
+        List<ProductImportRow> rows = new ArrayList<>();
+        when(productImportService.importProducts(any())).thenAnswer(invocation -> {
+            invocation.<Iterator<ProductImportRow>>getArgument(0).forEachRemaining(rows::add);
+            return report;
+        });
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        String response = mockMvc.perform(post("/api/v1/catalog/products/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"first\", \"price\": 10, \"sizes\": [{\"name\": \"M\"}]}, {\"name\": \"second\"}]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertThat(mapper.readValue(response, ProductImportReport.class)).isEqualTo(report);
+        assertThat(rows).extracting(ProductImportRow::name).containsExactly("first", "second");
+        assertThat(rows.get(0).sizes()).containsExactly(new ProductImportRow.Size("M"));
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/import should import products from NDJSON stream")
+    @WithMockUser(roles={"SERVICE"})
+    void importProductsSuccessfulNdjsonTest() throws Exception {
+        // Arrange
+        List<ProductImportRow> rows = new ArrayList<>();
+        when(productImportService.importProducts(any())).thenAnswer(invocation -> {
+            invocation.<Iterator<ProductImportRow>>getArgument(0).forEachRemaining(rows::add);
+            return new ProductImportReport(rows.size(), rows.size(), List.of());
+        });
+
+        // Act
+        mockMvc.perform(post("/api/v1/catalog/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"first\", \"brandId\": 1}\n{\"name\": \"second\", \"brandId\": 2}\n"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertThat(rows).extracting(ProductImportRow::brandId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/import should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void importProductsUnSuccessfulTest() throws Exception {
+        // Arrange
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/products/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnauthorized());
+    }
 }
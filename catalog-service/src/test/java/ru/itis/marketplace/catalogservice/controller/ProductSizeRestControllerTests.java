@@ -14,13 +14,19 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.itis.marketplace.catalogservice.config.SecurityBeans;
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
 import ru.itis.marketplace.catalogservice.controller.payload.product_size.NewProductSizePayload;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeAvailabilityPayload;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeReferencePayload;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.service.ProductSizeService;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -201,4 +207,62 @@ class ProductSizeRestControllerTests {
         mockMvc.perform(get("/api/v1/catalog/products/{productId}/sizes/{sizeId}", productId, sizeId))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/sizes/availability should return availability of every pair")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductSizeAvailabilitySuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        List<ProductSizeReferencePayload> references = List.of(
+                new ProductSizeReferencePayload(1L, 10L),
+                new ProductSizeReferencePayload(2L, 11L)
+        );
+        List<ProductSizeAvailability> availabilities = List.of(
+                new ProductSizeAvailability(1L, 10L, 3L, new BigDecimal("10.5"), "accepted"),
+                ProductSizeAvailability.missing(2L, 11L)
+        );
+        when(productSizeService.findProductSizeAvailability(references)).thenReturn(availabilities);
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(post("/api/v1/catalog/products/sizes/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ProductSizeAvailabilityPayload(references))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ProductSizeAvailability> actualAvailabilities = mapper.readValue(response, new TypeReference<>() {});
+        assertThat(actualAvailabilities).isEqualTo(availabilities);
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/sizes/availability should return 400, because items are empty")
+    @WithMockUser(roles={"SERVICE"})
+    void findProductSizeAvailabilityBadRequestTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/products/sizes/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ProductSizeAvailabilityPayload(List.of()))))
+                .andExpect(status().isBadRequest());
+        verify(productSizeService, never()).findProductSizeAvailability(any());
+    }
+
+    @Test
+    @DisplayName("Method: POST Endpoint: api/v1/catalog/products/sizes/availability should return 401, because not auth-ed")
+    @WithAnonymousUser
+    void findProductSizeAvailabilityUnSuccessfulTest() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Act
+        // Assert
+        mockMvc.perform(post("/api/v1/catalog/products/sizes/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ProductSizeAvailabilityPayload(List.of(new ProductSizeReferencePayload(1L, 2L))))))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -12,8 +12,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+import ru.itis.marketplace.catalogservice.cache.ProductResponseCache;
 import ru.itis.marketplace.catalogservice.config.SecurityBeans;
 import ru.itis.marketplace.catalogservice.controller.ProductRestController;
+import ru.itis.marketplace.catalogservice.service.ProductImportService;
 import ru.itis.marketplace.catalogservice.service.ProductService;
 
 import static org.mockito.Mockito.when;
@@ -31,6 +33,12 @@ class GlobalExceptionHandlerControllerAdviceTests {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductResponseCache productResponseCache;
+
     @Test
     @DisplayName("api/v1/catalog/products/{productId} should throw NotFoundException and exception handler should return 404")
     @WithMockUser(roles = {"SERVICE"})
@@ -39,7 +47,7 @@ class GlobalExceptionHandlerControllerAdviceTests {
         Long productId = 2L;
         String message = "message";
         ObjectMapper objectMapper = new ObjectMapper();
-        when(productService.findProductById(productId)).thenThrow(new NotFoundException(message));
+        when(productResponseCache.findProduct(productId, 0L)).thenThrow(new NotFoundException(message));
 
         // Act
         // Assert
@@ -65,7 +73,7 @@ class GlobalExceptionHandlerControllerAdviceTests {
         Long productId = 2L;
         String message = "message";
         ObjectMapper objectMapper = new ObjectMapper();
-        when(productService.findProductById(productId)).thenThrow(new BadRequestException(message));
+        when(productResponseCache.findProduct(productId, 0L)).thenThrow(new BadRequestException(message));
 
         // Act
         // Assert
@@ -83,6 +91,32 @@ class GlobalExceptionHandlerControllerAdviceTests {
         softly.assertAll();
     }
 
+    @Test
+    @DisplayName("api/v1/catalog/products/{productId} should throw ConflictException and exception handler should return 409")
+    @WithMockUser(roles = {"SERVICE"})
+    void handleConflictExceptionTest() throws Exception {
+        // Arrange
+        Long productId = 2L;
+        String message = "message";
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(productResponseCache.findProduct(productId, 0L)).thenThrow(new ConflictException(message));
+
+        // Act
+        // Assert
+        String result = mockMvc.perform(get("/api/v1/catalog/products/{productId}", productId))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsString();
+        ProblemDetail problemDetail = objectMapper.readValue(result, ProblemDetail.class);
+        SoftAssertions softly = new SoftAssertions();
+
+        softly.assertThat(problemDetail.getStatus()).isEqualTo(409);
+        softly.assertThat(problemDetail.getDetail()).isEqualTo(message);
+        softly.assertThat(problemDetail.getType().toString()).isEqualTo("/swagger-ui/index.html");
+        softly.assertThat(problemDetail.getTitle()).isEqualTo("Conflict");
+
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("api/v1/catalog/products/{productId} should throw IllegalStateException and exception handler should return 500")
     @WithMockUser(roles = {"SERVICE"})
@@ -91,7 +125,7 @@ class GlobalExceptionHandlerControllerAdviceTests {
         Long productId = 2L;
         String message = "message";
         ObjectMapper objectMapper = new ObjectMapper();
-        when(productService.findProductById(productId)).thenThrow(new IllegalStateException(message));
+        when(productResponseCache.findProduct(productId, 0L)).thenThrow(new IllegalStateException(message));
 
         // Act
         // Assert
@@ -0,0 +1,55 @@
+package ru.itis.marketplace.catalogservice.facet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class PriceBucketsTests {
+
+    private static final String FILL_MIGRATION = "/db/changelog/v.1.1.0/2026-10-17-fill-product-facet-count-table.xml";
+
+    @Test
+    @DisplayName("of should put price into the bucket with inclusive lower bound, the same way as width_bucket")
+    void ofTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(PriceBuckets.of(BigDecimal.valueOf(999.99))).isZero();
+        assertThat(PriceBuckets.of(BigDecimal.valueOf(1000))).isEqualTo(1);
+        assertThat(PriceBuckets.of(BigDecimal.valueOf(1_000_000))).isEqualTo(PriceBuckets.count() - 1);
+        assertThat(PriceBuckets.from(1)).isEqualByComparingTo(BigDecimal.valueOf(1000));
+        assertThat(PriceBuckets.to(PriceBuckets.count() - 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("SQL should match the expression the facet counters were filled with, because the counters would drift otherwise")
+    void sqlMatchesFillMigrationTest() throws IOException {
+        // Arrange
+        String migration;
+        try (var resource = getClass().getResourceAsStream(FILL_MIGRATION)) {
+            migration = new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Act
+        // Assert
+        assertThat(migration).contains(PriceBuckets.SQL);
+    }
+
+    @Test
+    @DisplayName("check should throw BadRequestException, because bucket does not exist")
+    void checkUnsupportedBucketTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> PriceBuckets.check(PriceBuckets.count()))
+                .withMessage("Price bucket: " + PriceBuckets.count() + " is not supported");
+    }
+}
@@ -0,0 +1,80 @@
+package ru.itis.marketplace.catalogservice.filterindex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.itis.marketplace.catalogservice.entity.Product;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("ALL")
+class ProductFilterIndexTests {
+
+    private static final String LOAD_SQL = "SELECT id, price, brand_id, category_id, request_status FROM product WHERE deleted_at IS NULL";
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductFilterIndex productFilterIndex;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = mock();
+        productFilterIndex = new ProductFilterIndex(jdbcTemplate);
+        ResultSet row = mock();
+        when(row.getLong("id")).thenReturn(1L);
+        when(row.getBigDecimal("price")).thenReturn(BigDecimal.valueOf(300));
+        when(row.getLong("brand_id")).thenReturn(10L);
+        when(row.getLong("category_id")).thenReturn(20L);
+        when(row.getString("request_status")).thenReturn("approved");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(endsWith("AND id = ANY(?)"), any(RowCallbackHandler.class), ArgumentMatchers.<Object>any());
+    }
+
+    @Test
+    @DisplayName("load should read again products changed while it was running, because the loaded rows may predate the change")
+    void loadOverlappingChangeTest() {
+        // Arrange
+        Product product = new Product("Jacket", BigDecimal.valueOf(300), "description", 20L, 10L);
+        product.setId(1L);
+        doAnswer(invocation -> {
+            productFilterIndex.put(product);
+            return null;
+        }).when(jdbcTemplate).query(eq(LOAD_SQL), any(RowCallbackHandler.class));
+
+        // Act
+        productFilterIndex.load();
+
+        // Assert
+        assertThat(productFilterIndex.isReady()).isTrue();
+        assertThat(productFilterIndex.count(null, null, List.of("approved"), List.of(10L), null)).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("productsInvalidated should read products changed by another instance from the database")
+    void productsInvalidatedSuccessfulTest() {
+        // Arrange
+        productFilterIndex.load();
+
+        // Act
+        productFilterIndex.productsInvalidated(List.of(1L));
+        productFilterIndex.rebuildChanged();
+
+        // Assert
+        assertThat(productFilterIndex.count(null, null, List.of("approved"), null, List.of(20L))).hasValue(1);
+    }
+}
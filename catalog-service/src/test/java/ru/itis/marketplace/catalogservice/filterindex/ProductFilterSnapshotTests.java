@@ -0,0 +1,83 @@
+package ru.itis.marketplace.catalogservice.filterindex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFilterSnapshotTests {
+
+    private final ProductFilterSnapshot snapshot = new ProductFilterSnapshot(Map.of(
+            1L, new ProductFilterIndex.Entry(500, 10, 20, "approved"),
+            2L, new ProductFilterIndex.Entry(100, 10, 21, "approved"),
+            3L, new ProductFilterIndex.Entry(300, 11, 20, "approved"),
+            4L, new ProductFilterIndex.Entry(300, 10, 20, "approved"),
+            5L, new ProductFilterIndex.Entry(200, 10, 20, "rejected")
+    ), 0);
+
+    @Test
+    @DisplayName("page should return ids in price order within the price range, because sorting by price is requested")
+    void pageByPriceTest() {
+        // Arrange
+        // Act
+        Window<Long> page = snapshot.page(150L, 400L, null, null, null, true, true, 0, 10);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(5L, 3L, 4L);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("page should intersect bitmaps and skip offset in descending price order, because several filters are requested")
+    void pageByPriceDescendingWithFiltersTest() {
+        // Arrange
+        // Act
+        Window<Long> page = snapshot.page(null, null, List.of("approved"), List.of(10L), List.of(20L), true, false, 1, 1);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(4L);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.positionAt(0)).isEqualTo(ScrollPosition.offset(1L));
+    }
+
+    @Test
+    @DisplayName("page should return ids in id order and report next page, because sorting by price is not requested")
+    void pageByIdTest() {
+        // Arrange
+        // Act
+        Window<Long> page = snapshot.page(null, 300L, null, List.of(10L), null, false, true, 0, 2);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(2L, 4L);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("count should count products matching the bitmaps within the price range, and zero for a value that is not indexed")
+    void countTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThat(snapshot.count(null, null, List.of("approved"), null, null)).isEqualTo(4);
+        assertThat(snapshot.count(200L, 300L, null, List.of(10L), null)).isEqualTo(2);
+        assertThat(snapshot.count(null, null, null, List.of(12L), null)).isZero();
+    }
+
+    @Test
+    @DisplayName("page should unite bitmaps of the values of one filter and intersect them with other filters, because several values are requested")
+    void pageWithSeveralValuesTest() {
+        // Arrange
+        // Act
+        Window<Long> page = snapshot.page(null, null, List.of("approved"), List.of(11L, 12L, 10L), List.of(21L, 20L),
+                true, true, 0, 10);
+
+        // Assert
+        assertThat(page.getContent()).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(snapshot.count(null, null, List.of("approved", "rejected"), List.of(10L), List.of(20L))).isEqualTo(3);
+    }
+}
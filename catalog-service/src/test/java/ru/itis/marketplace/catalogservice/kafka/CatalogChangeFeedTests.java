@@ -0,0 +1,156 @@
+package ru.itis.marketplace.catalogservice.kafka;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.kafka.message.BrandChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductChangeKafkaMessage;
+import ru.itis.marketplace.catalogservice.kafka.message.ProductSizeKafkaMessage;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogChangeFeedTests {
+
+    private ProductRepository productRepository;
+    private BrandRepository brandRepository;
+    private KafkaProducer kafkaProducer;
+    private EntityManager entityManager;
+    private CatalogChangeFeed catalogChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock();
+        brandRepository = mock();
+        kafkaProducer = mock();
+        entityManager = mock();
+        PlatformTransactionManager transactionManager = mock();
+        catalogChangeFeed = new CatalogChangeFeed(productRepository, brandRepository, kafkaProducer, entityManager,
+                new SyncTaskExecutor(), transactionManager, false, 2);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(catalogChangeFeed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("productsChanged should lock keys and then publish final state once per product before commit and tombstone for deleted product")
+    void productsChangedPublishesStateAndTombstoneTest() {
+        // Arrange
+        Product product = new Product(1L, "name", BigDecimal.TEN, "description", "approved", 2L, 3L,
+                new ArrayList<>(), List.of(new ProductSize(4L, "XL", 1L)), null, null, 5L);
+        when(productRepository.findAssembledByIdIn(Set.of(1L, 6L), FieldSelection.ALL)).thenReturn(List.of(product));
+
+        // Act
+        catalogChangeFeed.productsChanged(List.of(1L));
+        catalogChangeFeed.productsChanged(List.of(1L, 6L));
+        beforeCommit();
+
+        // Assert
+        InOrder inOrder = inOrder(entityManager, kafkaProducer, productRepository);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(kafkaProducer).lockChanges(Set.of(1L, 6L), Set.of());
+        inOrder.verify(productRepository).findAssembledByIdIn(Set.of(1L, 6L), FieldSelection.ALL);
+        verify(kafkaProducer, times(1)).sendProductChange(1L, new ProductChangeKafkaMessage(1L, "name", BigDecimal.TEN,
+                "description", "approved", 2L, 3L, List.of(new ProductSizeKafkaMessage(4L, "XL")), 5L));
+        verify(kafkaProducer).sendProductDeletion(6L, null);
+        verify(kafkaProducer, never()).sendBrandChange(any(), any());
+    }
+
+    @Test
+    @DisplayName("productsDeleted and brandsDeleted should publish deletions with the versions given by the deleting transaction")
+    void deletedPublishesVersionedDeletionTest() {
+        // Arrange
+        when(productRepository.findAssembledByIdIn(Set.of(1L), FieldSelection.ALL)).thenReturn(List.of());
+        when(brandRepository.findAssembledByIdIn(Set.of(2L), FieldSelection.ALL)).thenReturn(List.of());
+
+        // Act
+        catalogChangeFeed.productsDeleted(Map.of(1L, 4L));
+        catalogChangeFeed.brandsDeleted(Map.of(2L, 3L));
+        beforeCommit();
+
+        // Assert
+        verify(kafkaProducer).sendProductDeletion(1L, 4L);
+        verify(kafkaProducer).sendBrandDeletion(2L, 3L);
+        verify(kafkaProducer, never()).sendProductChange(any(), any());
+    }
+
+    @Test
+    @DisplayName("brandsChanged should publish brand state before commit")
+    void brandsChangedPublishesStateTest() {
+        // Arrange
+        Brand brand = new Brand(1L, "brand", "description", "logo", "approved", null, null, 2L);
+        when(brandRepository.findAssembledByIdIn(Set.of(1L), FieldSelection.ALL)).thenReturn(List.of(brand));
+
+        // Act
+        catalogChangeFeed.brandsChanged(List.of(1L));
+        beforeCommit();
+
+        // Assert
+        verify(kafkaProducer).sendBrandChange(1L, new BrandChangeKafkaMessage(1L, "brand", "description", "logo", "approved", 2L));
+    }
+
+    @Test
+    @DisplayName("replay should mark every product and brand as changed chunk by chunk")
+    void replayTest() {
+        // Arrange
+        when(productRepository.findIdsAfter(0L, 2)).thenReturn(List.of(1L, 2L));
+        when(productRepository.findIdsAfter(2L, 2)).thenReturn(List.of(3L));
+        when(brandRepository.findIdsAfter(0L, 2)).thenReturn(List.of());
+
+        // Act
+        catalogChangeFeed.replay();
+        beforeCommit();
+
+        // Assert
+        verify(productRepository, never()).findIdsAfter(eq(3L), anyInt());
+        verify(productRepository).findAssembledByIdIn(Set.of(1L, 2L, 3L), FieldSelection.ALL);
+        verify(kafkaProducer).sendProductDeletion(3L, null);
+        verify(brandRepository, never()).findAssembledByIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("productsChanged should throw IllegalStateException, because there is no transaction")
+    void productsChangedWithoutTransactionTest() {
+        // Arrange
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> catalogChangeFeed.productsChanged(List.of(1L)))
+                .withMessage("Catalog changes can only be published within a transaction");
+    }
+
+    private static void beforeCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.itis.marketplace.catalogservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.entity.OutboxEvent;
+import ru.itis.marketplace.catalogservice.repository.OutboxEventRepository;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {KafkaProducerImpl.class, ObjectMapper.class})
+@ActiveProfiles("test")
+class KafkaProducerImplTests {
+
+    @Autowired
+    private KafkaProducerImpl kafkaProducer;
+
+    @MockBean
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    @DisplayName("sendSizeIds should store size ids in outbox for size deletion topic")
+    void sendSizeIdsSuccessfulTest() {
+        // Arrange
+        List<Long> sizeIds = List.of(1L, 2L);
+
+        // Act
+        kafkaProducer.sendSizeIds(sizeIds);
+
+        // Assert
+        verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getTopic().equals("size-topic")
+                && event.getMessageKey() == null
+                && event.getPayload().equals("[1,2]")));
+    }
+
+    @Test
+    @DisplayName("sendSizeIds should not store anything, because size ids are empty")
+    void sendSizeIdsEmptyTest() {
+        // Arrange
+        // Act
+        kafkaProducer.sendSizeIds(List.of());
+
+        // Assert
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    @DisplayName("sendProductUpdateMessage should lock product key and store message keyed by product ID in outbox for product update topic")
+    void sendProductUpdateMessageSuccessfulTest() {
+        // Arrange
+        Long productId = 3L;
+        Long brandId = 4L;
+
+        // Act
+        kafkaProducer.sendProductUpdateMessage(productId, brandId);
+
+        // Assert
+        InOrder inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).lockKeys(List.of("product-topic/3"));
+        inOrder.verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getTopic().equals("product-topic")
+                && event.getMessageKey().equals("3")
+                && event.getPayload().equals("{\"productId\":3,\"brandId\":4}")));
+    }
+
+    @Test
+    @DisplayName("sendProductDeletion should store versioned delete marker and then tombstone keyed by product in outbox for catalog changes topic")
+    void sendProductDeletionSuccessfulTest() {
+        // Arrange
+        Long productId = 3L;
+
+        // Act
+        kafkaProducer.sendProductDeletion(productId, 5L);
+
+        // Assert
+        InOrder inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getTopic().equals("catalog-changes")
+                && event.getMessageKey().equals("product:3")
+                && "{\"id\":3,\"deleted\":true,\"version\":5}".equals(event.getPayload())));
+        inOrder.verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getTopic().equals("catalog-changes")
+                && event.getMessageKey().equals("product:3")
+                && event.getPayload() == null));
+    }
+
+    @Test
+    @DisplayName("lockChanges should lock catalog changes keys of products and brands in outbox")
+    void lockChangesSuccessfulTest() {
+        // Arrange
+        // Act
+        kafkaProducer.lockChanges(List.of(1L), List.of(2L));
+
+        // Assert
+        verify(outboxEventRepository).lockKeys(List.of("catalog-changes/product:1", "catalog-changes/brand:2"));
+    }
+}
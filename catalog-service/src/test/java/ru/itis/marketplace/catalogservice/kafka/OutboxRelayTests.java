@@ -0,0 +1,86 @@
+package ru.itis.marketplace.catalogservice.kafka;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.itis.marketplace.catalogservice.entity.OutboxEvent;
+import ru.itis.marketplace.catalogservice.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTests {
+
+    private OutboxEventRepository outboxEventRepository;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private PlatformTransactionManager transactionManager;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock();
+        kafkaTemplate = mock();
+        transactionManager = mock();
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, 2, Duration.ofSeconds(1));
+        when(outboxEventRepository.tryLockRelay()).thenReturn(true);
+    }
+
+    @Test
+    void relaySendsBatchesUntilOutboxIsDrainedAndDeletesSentRows() {
+        // Arrange
+        when(outboxEventRepository.lockOldest(2)).thenReturn(
+                List.of(event(1L, "size-topic", null, "[1]"), event(2L, "product-topic", "3", "{}")),
+                List.of(event(3L, "brand-topic", null, "[4]")));
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(kafkaTemplate).send("size-topic", null, "[1]");
+        verify(kafkaTemplate).send("product-topic", "3", "{}");
+        verify(kafkaTemplate).send("brand-topic", null, "[4]");
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void relayKeepsRowsWhenBrokerRejectsBatch() {
+        // Arrange
+        when(outboxEventRepository.lockOldest(2)).thenReturn(List.of(event(1L, "size-topic", null, "[1]")));
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker is down")));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> outboxRelay.relay());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void relaySkipsBatchWhenAnotherReplicaIsRelaying() {
+        // Arrange
+        when(outboxEventRepository.tryLockRelay()).thenReturn(false);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository, never()).lockOldest(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static OutboxEvent event(Long id, String topic, String key, String payload) {
+        return new OutboxEvent(id, topic, key, payload, Instant.now());
+    }
+}
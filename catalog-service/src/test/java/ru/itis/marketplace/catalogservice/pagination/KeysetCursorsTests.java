@@ -0,0 +1,107 @@
+package ru.itis.marketplace.catalogservice.pagination;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class KeysetCursorsTests {
+
+    @Test
+    @DisplayName("decode should restore typed keyset values, because cursor was encoded for the same sorting")
+    void encodeDecodeRoundTripTest() {
+        // Arrange
+        Instant additionDateTime = Instant.parse("2024-11-06T10:15:30.123456Z");
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of(
+                "price", new BigDecimal("1999.90"),
+                "additionDateTime", additionDateTime,
+                "id", 42L));
+        Sort sort = Sort.by("price", "additionDateTime").and(Sort.by("id"));
+
+        // Act
+        KeysetScrollPosition actualPosition = KeysetCursors.decode(KeysetCursors.encode(position), Product.class, sort);
+
+        // Assert
+        assertThat(actualPosition.getKeys())
+                .containsEntry("price", new BigDecimal("1999.90"))
+                .containsEntry("additionDateTime", additionDateTime)
+                .containsEntry("id", 42L);
+    }
+
+    @Test
+    @DisplayName("decode should return initial position, because cursor is blank")
+    void decodeBlankCursorTest() {
+        // Arrange
+        // Act
+        KeysetScrollPosition actualPosition = KeysetCursors.decode("", Product.class, Sort.by("id"));
+
+        // Assert
+        assertThat(actualPosition.isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("decode should throw BadRequestException, because a null key can not be compared with")
+    void decodeNullKeyTest() {
+        // Arrange
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"description\":null,\"id\":42}".getBytes(StandardCharsets.UTF_8));
+        Sort sort = KeysetCursors.keysetSort("description", Sort.Direction.ASC);
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> KeysetCursors.decode(cursor, Product.class, sort))
+                .withMessage("Cursor: " + cursor + " is invalid");
+    }
+
+    @Test
+    @DisplayName("keysetSort should throw BadRequestException, because sort property may be empty")
+    void keysetSortNullablePropertyTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> KeysetCursors.keysetSort("description", Sort.Direction.ASC, Set.of("description")))
+                .withMessage("Keyset pagination by: description is not supported, because it may be empty");
+        assertThat(KeysetCursors.keysetSort("price", Sort.Direction.ASC, Set.of("description")))
+                .isEqualTo(Sort.by("price", "id"));
+    }
+
+    @Test
+    @DisplayName("keysetSort should append id as tie breaker with the same direction")
+    void keysetSortTest() {
+        // Arrange
+        // Act
+        Sort sort = KeysetCursors.keysetSort("price", Sort.Direction.DESC);
+
+        // Assert
+        assertThat(sort).isEqualTo(Sort.by(Sort.Direction.DESC, "price", "id"));
+        assertThat(KeysetCursors.keysetSort(null, Sort.Direction.ASC)).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("nextCursor should be empty, because window does not have next page")
+    void nextCursorEmptyTest() {
+        // Arrange
+        Window<Product> window = Window.from(List.of(new Product()), ScrollPosition::offset, false);
+
+        // Act
+        // Assert
+        assertThat(KeysetCursors.nextCursor(window)).isEmpty();
+    }
+}
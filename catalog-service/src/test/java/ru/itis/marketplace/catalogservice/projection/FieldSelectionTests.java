@@ -0,0 +1,75 @@
+package ru.itis.marketplace.catalogservice.projection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class FieldSelectionTests {
+
+    @Test
+    @DisplayName("forProducts should select everything, because neither fields nor include are specified")
+    void forProductsAllTest() {
+        // Arrange
+        // Act
+        FieldSelection selection = FieldSelection.forProducts(null, null);
+
+        // Assert
+        assertThat(selection.isAll()).isTrue();
+        assertThat(selection.selects("price")).isTrue();
+        assertThat(selection.includes("photos")).isTrue();
+    }
+
+    @Test
+    @DisplayName("forProducts should select requested fields with id and no relations, because include is not specified")
+    void forProductsFieldsWithoutIncludeTest() {
+        // Arrange
+        // Act
+        FieldSelection selection = FieldSelection.forProducts("name, price", null);
+
+        // Assert
+        assertThat(selection.isAll()).isFalse();
+        assertThat(selection.productProperties()).containsExactlyInAnyOrder("id", "name", "price");
+        assertThat(selection.includes("photos")).isFalse();
+        assertThat(selection.includes("sizes")).isFalse();
+    }
+
+    @Test
+    @DisplayName("forBrands should select all fields and requested relations, because only include is specified")
+    void forBrandsIncludeWithoutFieldsTest() {
+        // Arrange
+        // Act
+        FieldSelection selection = FieldSelection.forBrands(null, "photos");
+
+        // Assert
+        assertThat(selection.selects("linkToLogo")).isTrue();
+        assertThat(selection.includes("photos")).isTrue();
+        assertThat(selection.includes("links")).isFalse();
+        assertThat(selection.brandProperties())
+                .containsExactlyInAnyOrder("id", "name", "description", "linkToLogo", "requestStatus", "brandPhotos");
+    }
+
+    @Test
+    @DisplayName("forProducts should throw BadRequestException, because field is not supported")
+    void forProductsUnknownFieldTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> FieldSelection.forProducts("name,secret", null))
+                .withMessage("Field: secret is not supported");
+    }
+
+    @Test
+    @DisplayName("forBrands should throw BadRequestException, because relation is not supported")
+    void forBrandsUnknownIncludeTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> FieldSelection.forBrands(null, "sizes"))
+                .withMessage("Include: sizes is not supported");
+    }
+}
@@ -0,0 +1,50 @@
+package ru.itis.marketplace.catalogservice.purge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SoftDeletedProductPurgerTests {
+
+    private ProductRepository productRepository;
+    private PlatformTransactionManager transactionManager;
+    private SoftDeletedProductPurger softDeletedProductPurger;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock();
+        transactionManager = mock();
+        softDeletedProductPurger = new SoftDeletedProductPurger(productRepository, transactionManager, Duration.ofMinutes(1), 2);
+    }
+
+    @Test
+    void purgeDeletesBatchesInSeparateTransactionsUntilBatchIsNotFull() {
+        // Arrange
+        when(productRepository.purgeSoftDeleted(60L, 2)).thenReturn(2, 2, 1);
+
+        // Act
+        softDeletedProductPurger.purge();
+
+        // Assert
+        verify(productRepository, times(3)).purgeSoftDeleted(60L, 2);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void purgeStopsWhenNothingIsDeleted() {
+        // Arrange
+        when(productRepository.purgeSoftDeleted(60L, 2)).thenReturn(0);
+
+        // Act
+        softDeletedProductPurger.purge();
+
+        // Assert
+        verify(productRepository, times(1)).purgeSoftDeleted(60L, 2);
+    }
+}
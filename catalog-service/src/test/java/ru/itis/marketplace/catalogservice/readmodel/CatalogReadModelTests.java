@@ -0,0 +1,194 @@
+package ru.itis.marketplace.catalogservice.readmodel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.Category;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("ALL")
+class CatalogReadModelTests {
+
+    private ProductRepository productRepository;
+    private BrandRepository brandRepository;
+    private CategoryRepository categoryRepository;
+    private CatalogReadModel catalogReadModel;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock();
+        brandRepository = mock();
+        categoryRepository = mock();
+        catalogReadModel = new CatalogReadModel(productRepository, brandRepository, categoryRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("findAllProducts should filter, sort and page products from the snapshot")
+    void findAllProductsSuccessfulTest() {
+        // Arrange
+        rebuildWith(List.of(
+                product(1L, "Jacket", 300L, 1L, 1L),
+                product(2L, "Dress", 100L, 1L, 2L),
+                product(3L, "Coat", 200L, 1L, 1L),
+                product(4L, "Hat", 50L, 2L, 1L)
+        ), List.of(), List.of());
+
+        // Act
+        var firstPage = catalogReadModel.findAllProducts(2, 0, "price", "desc", null, null, null, List.of(1L), null);
+        var secondPage = catalogReadModel.findAllProducts(2, 1, "price", "desc", null, null, null, List.of(1L), null);
+
+        // Assert
+        assertThat(catalogReadModel.isReady()).isTrue();
+        assertThat(firstPage).hasValueSatisfying(window -> {
+            assertThat(window.getContent()).extracting(Product::getId).containsExactly(1L, 3L);
+            assertThat(window.hasNext()).isTrue();
+        });
+        assertThat(secondPage).hasValueSatisfying(window -> {
+            assertThat(window.getContent()).extracting(Product::getId).containsExactly(2L);
+            assertThat(window.hasNext()).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("findAllProducts should return empty optional when sorting property is unknown")
+    void findAllProductsUnknownSortTest() {
+        // Arrange
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L)), List.of(), List.of());
+
+        // Act
+        var products = catalogReadModel.findAllProducts(null, null, "unknown", null, null, null, null, null, null);
+
+        // Assert
+        assertThat(products).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findProductsByIds should return products in request order and skip missing ids")
+    void findProductsByIdsSuccessfulTest() {
+        // Arrange
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L), product(2L, "Dress", 100L, 1L, 1L)), List.of(), List.of());
+
+        // Act
+        var products = catalogReadModel.findProductsByIds(List.of(2L, 5L, 1L));
+
+        // Assert
+        assertThat(products).extracting(Product::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("refreshProduct should replace snapshot with current product state and drop deleted product")
+    void refreshProductSuccessfulTest() {
+        // Arrange
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L), product(2L, "Dress", 100L, 1L, 1L)), List.of(), List.of());
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "Winter jacket", 300L, 1L, 1L)));
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of());
+
+        // Act
+        catalogReadModel.refreshProduct(1L);
+        catalogReadModel.refreshProduct(2L);
+
+        // Assert
+        assertThat(catalogReadModel.findProductById(1L)).hasValueSatisfying(product -> assertThat(product.getName()).isEqualTo("Winter jacket"));
+        assertThat(catalogReadModel.findProductById(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refreshBrand should drop products of deleted brand")
+    void refreshDeletedBrandTest() {
+        // Arrange
+        Brand brand = new Brand("Nike", "Sport", "logo");
+        brand.setId(1L);
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L), product(2L, "Dress", 100L, 2L, 1L)), List.of(brand), List.of());
+        when(brandRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        catalogReadModel.refreshBrand(1L);
+
+        // Assert
+        assertThat(catalogReadModel.findAllBrands(null, null, null, null)).hasValueSatisfying(window -> assertThat(window.getContent()).isEmpty());
+        assertThat(catalogReadModel.findProductsByIds(List.of(1L, 2L))).extracting(Product::getId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("evictProductPhotos should remove deleted photos from product snapshots")
+    void evictProductPhotosSuccessfulTest() {
+        // Arrange
+        Product product = product(1L, "Jacket", 300L, 1L, 1L);
+        product.setPhotos(List.of(new ProductPhoto(1L, "url1", 1L, 1L), new ProductPhoto(2L, "url2", 2L, 1L)));
+        rebuildWith(List.of(product), List.of(), List.of(new Category(1L, "Outerwear", null)));
+
+        // Act
+        catalogReadModel.evictProductPhotos(List.of(1L));
+
+        // Assert
+        assertThat(catalogReadModel.findProductById(1L)).hasValueSatisfying(found ->
+                assertThat(found.getPhotos()).extracting(ProductPhoto::getId).containsExactly(2L));
+        assertThat(catalogReadModel.findAllCategories()).extracting(Category::getName).containsExactly("Outerwear");
+    }
+
+    @Test
+    @DisplayName("refreshProducts should keep every sort order up to date with changed and new products")
+    void refreshProductsSuccessfulOrderTest() {
+        // Arrange
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L), product(2L, "Dress", 100L, 1L, 1L)), List.of(), List.of());
+        when(productRepository.findAllById(List.of(1L, 3L)))
+                .thenReturn(List.of(product(1L, "Jacket", 50L, 1L, 1L), product(3L, "Coat", 200L, 1L, 1L)));
+
+        // Act
+        catalogReadModel.refreshProducts(List.of(1L, 3L));
+        var byPrice = catalogReadModel.findAllProducts(null, null, "price", "asc", null, null, null, null, null);
+        var byName = catalogReadModel.findAllProducts(null, null, "name", "desc", null, null, null, null, null);
+
+        // Assert
+        assertThat(byPrice).hasValueSatisfying(window ->
+                assertThat(window.getContent()).extracting(Product::getId).containsExactly(1L, 2L, 3L));
+        assertThat(byName).hasValueSatisfying(window ->
+                assertThat(window.getContent()).extracting(Product::getId).containsExactly(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("productsInvalidated should reload products changed by another instance")
+    void productsInvalidatedSuccessfulTest() {
+        // Arrange
+        rebuildWith(List.of(product(1L, "Jacket", 300L, 1L, 1L)), List.of(), List.of());
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1L, "Winter jacket", 300L, 1L, 1L)));
+
+        // Act
+        catalogReadModel.productsInvalidated(List.of(1L));
+
+        // Assert
+        assertThat(catalogReadModel.findProductById(1L)).hasValueSatisfying(product -> assertThat(product.getName()).isEqualTo("Winter jacket"));
+    }
+
+    private void rebuildWith(List<Product> products, List<Brand> brands, List<Category> categories) {
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(products, ScrollPosition::offset, false));
+        when(brandRepository.findAll()).thenReturn(brands);
+        when(categoryRepository.findAll()).thenReturn(categories);
+        catalogReadModel.rebuild();
+    }
+
+    private static Product product(Long id, String name, Long price, Long brandId, Long categoryId) {
+        Product product = new Product(name, BigDecimal.valueOf(price), "description", categoryId, brandId);
+        product.setId(id);
+        return product;
+    }
+}
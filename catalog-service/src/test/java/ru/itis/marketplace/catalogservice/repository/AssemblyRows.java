@@ -0,0 +1,43 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+// feeds rows of the single-statement assembly to the row callback, so the mapping is checked without a database
+final class AssemblyRows {
+
+    private AssemblyRows() {
+    }
+
+    static Answer<Void> feed(List<Map<String, Object>> rows) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        };
+    }
+
+    // absent columns are read as SQL NULL
+    private static ResultSet resultSet(Map<String, Object> row) {
+        Object[] lastValue = new Object[1];
+        return mock(ResultSet.class, invocation -> {
+            if (invocation.getMethod().getName().equals("wasNull")) {
+                return lastValue[0] == null;
+            }
+            Object value = row.get(invocation.<String>getArgument(0));
+            lastValue[0] = value;
+            if (value == null && invocation.getMethod().getReturnType() == long.class) {
+                return 0L;
+            }
+            return value;
+        });
+    }
+}
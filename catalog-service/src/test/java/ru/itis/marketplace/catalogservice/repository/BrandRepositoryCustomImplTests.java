@@ -0,0 +1,80 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.itis.marketplace.catalogservice.entity.Brand;
+import ru.itis.marketplace.catalogservice.entity.BrandLink;
+import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BrandRepositoryCustomImplTests {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private BrandRepositoryCustomImpl brandRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock();
+        brandRepository = new BrandRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("findAssembledByIdIn should group link and photo rows under their brands, because the statement returns one row per child")
+    void findAssembledByIdInSuccessfulTest() {
+        // Arrange
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        doAnswer(AssemblyRows.feed(List.of(
+                brandRow(1L, "link", 10L, "https://link", "site", null),
+                brandRow(1L, "photo", 20L, "https://photo", null, 1L),
+                brandRow(2L, "link", null, null, null, null)
+        ))).when(jdbcTemplate).query(sql.capture(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // Act
+        List<Brand> brands = brandRepository.findAssembledByIdIn(List.of(1L, 2L), FieldSelection.ALL);
+
+        // Assert
+        assertThat(sql.getValue()).startsWith("WITH page AS (SELECT b.*").contains("UNION ALL");
+        assertThat(brands).extracting(Brand::getId, Brand::getName, Brand::getDescription, Brand::getLinkToLogo,
+                        Brand::getRequestStatus, Brand::getVersion)
+                .containsExactly(
+                        tuple(1L, "brand 1", "description", "logo", "approved", 6L),
+                        tuple(2L, "brand 2", "description", "logo", "approved", 6L));
+        assertThat(brands.get(0).getBrandLinks()).extracting(BrandLink::getId, BrandLink::getUrl, BrandLink::getName, BrandLink::getBrandId)
+                .containsExactly(tuple(10L, "https://link", "site", 1L));
+        assertThat(brands.get(0).getBrandPhotos()).extracting(BrandPhoto::getId, BrandPhoto::getUrl, BrandPhoto::getSequenceNumber, BrandPhoto::getBrandId)
+                .containsExactly(tuple(20L, "https://photo", 1L, 1L));
+        assertThat(brands.get(1).getBrandLinks()).isEmpty();
+        assertThat(brands.get(1).getBrandPhotos()).isEmpty();
+    }
+
+    private static Map<String, Object> brandRow(Long id, String kind, Long childId, String childUrl,
+                                                String childName, Long childSequenceNumber) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", "brand " + id);
+        row.put("description", "description");
+        row.put("link_to_logo", "logo");
+        row.put("request_status", "approved");
+        row.put("version", 6L);
+        row.put("kind", kind);
+        row.put("child_id", childId);
+        row.put("child_url", childUrl);
+        row.put("child_name", childName);
+        row.put("child_sequence_number", childSequenceNumber);
+        return row;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class DeletionJobRepositoryTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry propertyRegistry) {
+        propertyRegistry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        propertyRegistry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        propertyRegistry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM deletion_job");
+    }
+
+    @Test
+    @DisplayName("claim should take an expired lease back, because the instance that held it may have died mid run")
+    void claimExpiredOwnLeaseSuccessfulTest() {
+        // Arrange
+        insertJob(1L, "owner", "now() - interval '1 minute'");
+
+        // Act
+        int claimed = transactionTemplate.execute(status -> deletionJobRepository.claim(1L, "owner", 300));
+
+        // Assert
+        assertThat(claimed).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("claim should not take a live lease, because its holder is still running the job")
+    void claimLiveLeaseUnSuccessfulTest() {
+        // Arrange
+        insertJob(1L, "owner", "now() + interval '1 minute'");
+
+        // Act
+        int claimedByOther = transactionTemplate.execute(status -> deletionJobRepository.claim(1L, "other", 300));
+        int claimedByOwner = transactionTemplate.execute(status -> deletionJobRepository.claim(1L, "owner", 300));
+
+        // Assert
+        assertThat(claimedByOther).isZero();
+        assertThat(claimedByOwner).isZero();
+    }
+
+    private void insertJob(Long id, String leaseOwner, String leaseExpiresAt) {
+        jdbcTemplate.update("INSERT INTO deletion_job (id, target_type, target_id, status, deleted_products, deleted_sizes, " +
+                "lease_owner, lease_expires_at, creation_date_time, update_date_time) " +
+                "VALUES (?, 'brand', 1, 'running', 0, 0, ?, " + leaseExpiresAt + ", now(), now())", id, leaseOwner);
+    }
+}
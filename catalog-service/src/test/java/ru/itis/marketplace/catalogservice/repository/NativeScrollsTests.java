@@ -0,0 +1,103 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class NativeScrollsTests {
+
+    private static final Map<String, String> COLUMNS = Map.of("id", "id", "price", "price", "additionDateTime", "addition_date_time");
+
+    @Test
+    @DisplayName("orderBy should map properties to columns, because all sort properties are known")
+    void orderBySuccessfulTest() {
+        // Arrange
+        Sort sort = Sort.by(Sort.Direction.DESC, "price").and(Sort.by("id"));
+
+        // Act
+        String orderBy = NativeScrolls.orderBy(sort, COLUMNS, "p");
+
+        // Assert
+        assertThat(orderBy).isEqualTo("p.price DESC, p.id ASC");
+    }
+
+    @Test
+    @DisplayName("orderBy should throw BadRequestException, because sort property is unknown")
+    void orderByUnSuccessfulTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> NativeScrolls.orderBy(Sort.by("weight"), COLUMNS, "p"))
+                .withMessage("Sorting by: weight is not supported");
+    }
+
+    @Test
+    @DisplayName("keysetCondition should seek past the cursor respecting directions of every order")
+    void keysetConditionSuccessfulTest() {
+        // Arrange
+        Instant additionDateTime = Instant.parse("2024-11-06T10:15:30Z");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("additionDateTime", additionDateTime);
+        keys.put("id", 42L);
+        KeysetScrollPosition position = ScrollPosition.forward(keys);
+        Sort sort = Sort.by(Sort.Direction.DESC, "additionDateTime").and(Sort.by(Sort.Direction.DESC, "id"));
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+        // Act
+        String condition = NativeScrolls.keysetCondition(position, sort, COLUMNS, "p", parameters);
+
+        // Assert
+        assertThat(condition).isEqualTo("((p.addition_date_time < :key0) OR (p.addition_date_time = :key0 AND p.id < :key1))");
+        assertThat(parameters.getValue("key0")).isEqualTo(Timestamp.from(additionDateTime));
+        assertThat(parameters.getValue("key1")).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("window should drop the extra row and expose offset positions, because more rows than limit were fetched")
+    void windowOffsetSuccessfulTest() {
+        // Arrange
+        List<Integer> rows = List.of(1, 2, 3);
+
+        // Act
+        var window = NativeScrolls.window(rows, ScrollPosition.offset(1L), 2, Sort.unsorted());
+
+        // Assert
+        assertThat(window.getContent()).containsExactly(1, 2);
+        assertThat(window.hasNext()).isTrue();
+        assertThat(window.positionAt(1)).isEqualTo(ScrollPosition.offset(3L));
+    }
+
+    @Test
+    @DisplayName("window should expose keyset positions built from sort properties, because position is keyset")
+    void windowKeysetSuccessfulTest() {
+        // Arrange
+        Product product = new Product("name", new BigDecimal("10.00"), null, 1L, 1L);
+        product.setId(7L);
+        Sort sort = Sort.by("price").and(Sort.by("id"));
+
+        // Act
+        var window = NativeScrolls.window(List.of(product), ScrollPosition.keyset(), 2, sort);
+
+        // Assert
+        assertThat(window.hasNext()).isFalse();
+        assertThat(((KeysetScrollPosition) window.positionAt(0)).getKeys())
+                .containsEntry("price", new BigDecimal("10.00"))
+                .containsEntry("id", 7L);
+    }
+}
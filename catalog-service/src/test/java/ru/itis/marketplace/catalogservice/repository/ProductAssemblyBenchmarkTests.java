@@ -0,0 +1,131 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ProductAssemblyBenchmarkTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductAssemblyBenchmarkTests.class);
+    private static final int PRODUCTS = 2000;
+    private static final int PAGE_SIZE = 50;
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "price");
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Container
+    static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry propertyRegistry) {
+        propertyRegistry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        propertyRegistry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        propertyRegistry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM product", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO brand (id, name, description, link_to_logo, request_status) VALUES (1, 'brand', 'description', 'logo', 'accepted')");
+        jdbcTemplate.update("INSERT INTO category (id, name) VALUES (1, 'category')");
+        jdbcTemplate.update("INSERT INTO product (id, name, description, price, request_status, brand_id, category_id, addition_date_time, update_date_time) " +
+                "SELECT i, 'product ' || i, 'description', i, 'accepted', 1, 1, now(), now() FROM generate_series(1, ?) i", PRODUCTS);
+        jdbcTemplate.update("INSERT INTO product_photo (id, url, sequence_number, product_id) " +
+                "SELECT row_number() OVER (), 'url', s, i FROM generate_series(1, ?) i, generate_series(1, 4) s", PRODUCTS);
+        jdbcTemplate.update("INSERT INTO product_size (id, name, product_id) " +
+                "SELECT row_number() OVER (), 'size ' || s, i FROM generate_series(1, ?) i, generate_series(1, 5) s", PRODUCTS);
+    }
+
+    @Test
+    @DisplayName("scrollAssembled should return the same page with photos and sizes as the entity path")
+    void assembledPathMatchesEntityPathTest() {
+        // Arrange
+        List<Product> expected = entityPath().get();
+
+        // Act
+        List<Product> actual = assembledPath().get();
+
+        // Assert
+        assertThat(actual).extracting(Product::getId).containsExactlyElementsOf(expected.stream().map(Product::getId).toList());
+        assertThat(actual).allSatisfy(product -> {
+            assertThat(product.getPhotos()).hasSize(4);
+            assertThat(product.getSizes()).hasSize(5);
+        });
+    }
+
+    // run with -Pbenchmark, timings are not asserted and are kept out of the regular test run
+    @Test
+    @Tag("benchmark")
+    @DisplayName("entity and assembled paths are timed for comparison")
+    void assembledPathBenchmark() {
+        LOGGER.info("Entity path (page query + two join fetches): {} us/op", measure(entityPath()));
+        LOGGER.info("Assembled path (single statement): {} us/op", measure(assembledPath()));
+    }
+
+    private Supplier<List<Product>> entityPath() {
+        return () -> transactionTemplate.execute(status -> {
+            Window<Product> products = productRepository.findBy(
+                    ProductRepository.buildProductSpecification(null, null, null, null, null),
+                    query -> query.sortBy(SORT).limit(PAGE_SIZE).scroll(ScrollPosition.offset()));
+            var productIds = products.stream().map(Product::getId).toList();
+            productRepository.joinPhotosToProductWithIds(productIds);
+            productRepository.joinSizesToBrandWithIds(productIds);
+            products.forEach(product -> {
+                product.getPhotos().size();
+                product.getSizes().size();
+            });
+            return products.getContent();
+        });
+    }
+
+    private Supplier<List<Product>> assembledPath() {
+        return () -> productRepository
+                .scrollAssembled(null, null, null, null, null, SORT, ScrollPosition.offset(), PAGE_SIZE, FieldSelection.ALL).getContent();
+    }
+
+    private static long measure(Supplier<List<Product>> path) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            path.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            path.get();
+        }
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS / 1000;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
+import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductRepositoryCustomImplTests {
+
+    private static final Instant ADDITION_DATE_TIME = Instant.parse("2024-11-06T10:15:30Z");
+    private static final Instant UPDATE_DATE_TIME = Instant.parse("2024-11-07T10:15:30Z");
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ProductRepositoryCustomImpl productRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock();
+        productRepository = new ProductRepositoryCustomImpl(jdbcTemplate, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("findAssembledByIdIn should group photo and size rows under their products, because the statement returns one row per child")
+    void findAssembledByIdInSuccessfulTest() {
+        // Arrange
+        doAnswer(AssemblyRows.feed(List.of(
+                productRow(1L, "photo", 10L, "first", 1L, null),
+                productRow(1L, "photo", 11L, "second", 2L, null),
+                productRow(1L, "size", 20L, null, null, "XL"),
+                productRow(2L, "photo", null, null, null, null)
+        ))).when(jdbcTemplate).query(any(String.class), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // Act
+        List<Product> products = productRepository.findAssembledByIdIn(List.of(1L, 2L), FieldSelection.ALL);
+
+        // Assert
+        assertThat(products).extracting(Product::getId, Product::getName, Product::getPrice, Product::getDescription,
+                        Product::getRequestStatus, Product::getCategoryId, Product::getBrandId,
+                        Product::getAdditionDateTime, Product::getUpdateDateTime, Product::getVersion)
+                .containsExactly(
+                        tuple(1L, "product 1", new BigDecimal("10.50"), "description", "approved", 3L, 4L, ADDITION_DATE_TIME, UPDATE_DATE_TIME, 5L),
+                        tuple(2L, "product 2", new BigDecimal("10.50"), "description", "approved", 3L, 4L, ADDITION_DATE_TIME, UPDATE_DATE_TIME, 5L));
+        assertThat(products.get(0).getPhotos()).extracting(ProductPhoto::getId, ProductPhoto::getUrl, ProductPhoto::getSequenceNumber, ProductPhoto::getProductId)
+                .containsExactly(tuple(10L, "first", 1L, 1L), tuple(11L, "second", 2L, 1L));
+        assertThat(products.get(0).getSizes()).extracting(ProductSize::getId, ProductSize::getName, ProductSize::getProductId)
+                .containsExactly(tuple(20L, "XL", 1L));
+        assertThat(products.get(1).getPhotos()).isEmpty();
+        assertThat(products.get(1).getSizes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findAssembledByIdIn should read only selected columns and join only included relations")
+    void findAssembledByIdInSparseFieldsetsTest() {
+        // Arrange
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        Map<String, Object> row = new HashMap<>(Map.of("id", 1L, "name", "product 1", "version", 5L,
+                "kind", "size", "child_id", 20L, "child_name", "XL"));
+        doAnswer(AssemblyRows.feed(List.of(row)))
+                .when(jdbcTemplate).query(sql.capture(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // Act
+        List<Product> products = productRepository.findAssembledByIdIn(List.of(1L), FieldSelection.forProducts("name", "sizes"));
+
+        // Assert
+        assertThat(sql.getValue())
+                .startsWith("WITH page AS (SELECT ")
+                .contains("p.name", "NULL AS description", "p.version")
+                .contains("JOIN product_size ps")
+                .doesNotContain("product_photo");
+        assertThat(products).singleElement().satisfies(product -> {
+            assertThat(product.getName()).isEqualTo("product 1");
+            assertThat(product.getDescription()).isNull();
+            assertThat(product.getPhotos()).isEmpty();
+            assertThat(product.getSizes()).extracting(ProductSize::getId).containsExactly(20L);
+        });
+    }
+
+    private static Map<String, Object> productRow(Long id, String kind, Long childId, String childUrl,
+                                                  Long childSequenceNumber, String childName) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", "product " + id);
+        row.put("price", new BigDecimal("10.50"));
+        row.put("description", "description");
+        row.put("request_status", "approved");
+        row.put("category_id", 3L);
+        row.put("brand_id", 4L);
+        row.put("addition_date_time", Timestamp.from(ADDITION_DATE_TIME));
+        row.put("update_date_time", Timestamp.from(UPDATE_DATE_TIME));
+        row.put("version", 5L);
+        row.put("kind", kind);
+        row.put("child_id", childId);
+        row.put("child_url", childUrl);
+        row.put("child_sequence_number", childSequenceNumber);
+        row.put("child_name", childName);
+        return row;
+    }
+}
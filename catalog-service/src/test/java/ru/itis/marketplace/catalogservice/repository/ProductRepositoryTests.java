@@ -0,0 +1,77 @@
+package ru.itis.marketplace.catalogservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ProductRepositoryTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry propertyRegistry) {
+        propertyRegistry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        propertyRegistry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        propertyRegistry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM product");
+        jdbcTemplate.update("DELETE FROM brand");
+        jdbcTemplate.update("DELETE FROM category");
+        jdbcTemplate.update("INSERT INTO brand (id, name, description, link_to_logo, request_status) VALUES (1, 'brand', 'description', 'logo', 'accepted')");
+        jdbcTemplate.update("INSERT INTO category (id, name) VALUES (1, 'category')");
+        jdbcTemplate.update("INSERT INTO product (id, name, description, price, request_status, brand_id, category_id, addition_date_time, update_date_time, deleted_at) " +
+                "VALUES (1, 'active', 'description', 1, 'accepted', 1, 1, now(), now(), NULL), " +
+                "(2, 'soft deleted', 'description', 1, 'accepted', 1, 1, now(), now(), now())");
+    }
+
+    @Test
+    @DisplayName("findIdsByBrandId and findIdsByCategoryId should skip soft deleted products, because their deletion was already published")
+    void findIdsSkipSoftDeletedProductsTest() {
+        // Act
+        List<Long> byBrand = productRepository.findIdsByBrandId(1L, 10);
+        List<Long> byCategory = productRepository.findIdsByCategoryId(1L, 10);
+
+        // Assert
+        assertThat(byBrand).containsExactly(1L);
+        assertThat(byCategory).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("hardDeleteByIdIn should delete the rows, so a deletion job chunk does not select them again")
+    void hardDeleteByIdInSuccessfulTest() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> productRepository.hardDeleteByIdIn(List.of(1L, 2L)));
+
+        // Assert
+        assertThat(productRepository.findIdsByBrandId(1L, 10)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM product", Long.class)).isZero();
+    }
+}
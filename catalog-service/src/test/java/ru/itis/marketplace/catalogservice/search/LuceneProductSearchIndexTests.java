@@ -0,0 +1,193 @@
+package ru.itis.marketplace.catalogservice.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("ALL")
+class LuceneProductSearchIndexTests {
+
+    private ProductRepository productRepository;
+    private LuceneProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productRepository = mock();
+        searchIndex = new LuceneProductSearchIndex(productRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.destroy();
+    }
+
+    @Test
+    @DisplayName("rebuild should index all products from productRepository")
+    void rebuildSuccessfulTest() {
+        // Arrange
+        List<Product> products = List.of(
+                product(1L, "Winter jacket", "Warm down jacket", 100L, 1L, 1L),
+                product(2L, "Summer dress", "Light cotton dress", 50L, 2L, 1L)
+        );
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(products, ScrollPosition::offset, false));
+
+        // Act
+        searchIndex.rebuild();
+
+        // Assert
+        assertThat(searchIndex.search("dress", null, null, null, null, null, 10))
+                .extracting(ProductSearchHit::id)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search should find products by stemmed russian and english words")
+    void searchSuccessfulStemmingTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Зимняя куртка", "Тёплые куртки для города", 100L, 1L, 1L));
+        searchIndex.index(product(2L, "Running shoes", "Lightweight shoes for runners", 50L, 2L, 1L));
+
+        // Act
+        var russianHits = searchIndex.search("куртки", null, null, null, null, null, 10);
+        var englishHits = searchIndex.search("run", null, null, null, null, null, 10);
+
+        // Assert
+        assertThat(russianHits).extracting(ProductSearchHit::id).containsExactly(1L);
+        assertThat(englishHits).extracting(ProductSearchHit::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search should find products despite typos and rank name matches higher than description matches")
+    void searchSuccessfulFuzzyAndRankingTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Leather bag", "Goes well with a jacket", 100L, 1L, 1L));
+        searchIndex.index(product(2L, "Denim jacket", "Classic cut", 80L, 1L, 1L));
+
+        // Act
+        var hits = searchIndex.search("jakcet", null, null, null, null, null, 10);
+
+        // Assert
+        assertThat(hits).extracting(ProductSearchHit::id).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("search should apply brand, category, status and price filters")
+    void searchSuccessfulFiltersTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Jacket one", null, 100L, 1L, 1L));
+        searchIndex.index(product(2L, "Jacket two", null, 200L, 2L, 1L));
+        searchIndex.index(product(3L, "Jacket three", null, 300L, 2L, 2L));
+        Product rejected = product(4L, "Jacket four", null, 250L, 2L, 1L);
+        rejected.setRequestStatus("rejected");
+        searchIndex.index(rejected);
+
+        // Act
+        var hits = searchIndex.search("jacket", BigDecimal.valueOf(150), BigDecimal.valueOf(300),
+                "under_consideration", 2L, 1L, 10);
+
+        // Assert
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).id()).isEqualTo(2L);
+        assertThat(hits.get(0).price()).isEqualTo(new BigDecimal("200"));
+        assertThat(hits.get(0).brandId()).isEqualTo(2L);
+        assertThat(hits.get(0).categoryId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("index should replace product document and remove should delete it")
+    void indexAndRemoveSuccessfulTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Old name", null, 100L, 1L, 1L));
+
+        // Act
+        searchIndex.index(product(1L, "Sneakers", null, 100L, 1L, 1L));
+        var hitsAfterUpdate = searchIndex.search("sneakers", null, null, null, null, null, 10);
+        var oldNameHits = searchIndex.search("old", null, null, null, null, null, 10);
+        searchIndex.remove(List.of(1L));
+        var hitsAfterRemove = searchIndex.search("sneakers", null, null, null, null, null, 10);
+
+        // Assert
+        assertThat(hitsAfterUpdate).extracting(ProductSearchHit::id).containsExactly(1L);
+        assertThat(oldNameHits).isEmpty();
+        assertThat(hitsAfterRemove).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rebuild should drop documents of products that are no longer in productRepository")
+    void rebuildSuccessfulStaleDocumentsTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Winter jacket", null, 100L, 1L, 1L));
+        searchIndex.index(product(2L, "Summer jacket", null, 50L, 1L, 1L));
+        when(productRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(product(2L, "Summer jacket", null, 50L, 1L, 1L)), ScrollPosition::offset, false));
+
+        // Act
+        searchIndex.rebuild();
+
+        // Assert
+        assertThat(searchIndex.search("jacket", null, null, null, null, null, 10))
+                .extracting(ProductSearchHit::id)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("index should apply changes made in a transaction only after it commits")
+    void indexSuccessfulAfterCommitTest() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            searchIndex.index(product(1L, "Sneakers", null, 100L, 1L, 1L));
+            var hitsBeforeCommit = searchIndex.search("sneakers", null, null, null, null, null, 10);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            var hitsAfterCommit = searchIndex.search("sneakers", null, null, null, null, null, 10);
+
+            // Assert
+            assertThat(hitsBeforeCommit).isEmpty();
+            assertThat(hitsAfterCommit).extracting(ProductSearchHit::id).containsExactly(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("productsInvalidated should reindex found products and remove missing ones")
+    void productsInvalidatedSuccessfulTest() {
+        // Arrange
+        searchIndex.index(product(1L, "Old name", null, 100L, 1L, 1L));
+        searchIndex.index(product(2L, "Deleted sneakers", null, 100L, 1L, 1L));
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product(1L, "Sneakers", null, 100L, 1L, 1L)));
+
+        // Act
+        searchIndex.productsInvalidated(List.of(1L, 2L));
+
+        // Assert
+        assertThat(searchIndex.search("sneakers", null, null, null, null, null, 10))
+                .extracting(ProductSearchHit::id)
+                .containsExactly(1L);
+    }
+
+    private static Product product(Long id, String name, String description, Long price, Long brandId, Long categoryId) {
+        Product product = new Product(name, BigDecimal.valueOf(price), description, categoryId, brandId);
+        product.setId(id);
+        return product;
+    }
+}
@@ -8,10 +8,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.Brand;
 import ru.itis.marketplace.catalogservice.entity.BrandLink;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.repository.BrandLinkRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.impl.BrandLinkServiceImpl;
@@ -38,9 +40,13 @@ class BrandLinkServiceTests {
     @MockBean
     private BrandRepository brandRepository;
     @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
+    @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
 
     @Test
     @DisplayName("findAllBrandLinks should return list of brand links, because brandId is correct")
@@ -93,6 +99,7 @@ class BrandLinkServiceTests {
 
         // Assert
         assertThat(actualBrandLink).isEqualTo(savedBrandLink);
+        verify(catalogChangeFeed).brandsChanged(List.of(brandId));
     }
 
     @Test
@@ -135,11 +142,13 @@ class BrandLinkServiceTests {
     void deleteAllBrandLinkByIdSuccessfulTest() {
         // Arrange
         List<Long> brandLinkIds = List.of(1L, 2L, 3L, 4L, 5L);
+        when(brandLinkRepository.findBrandIdsByIdIn(brandLinkIds)).thenReturn(List.of(7L, 8L));
 
         // Act
         brandLinkService.deleteAllBrandLinkById(brandLinkIds);
 
         // Assert
         verify(brandLinkRepository).deleteAllByIdInBatch(brandLinkIds);
+        verify(catalogChangeFeed).brandsChanged(List.of(7L, 8L));
     }
 }
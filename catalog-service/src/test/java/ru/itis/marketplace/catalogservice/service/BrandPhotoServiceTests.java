@@ -9,9 +9,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.Brand;
 import ru.itis.marketplace.catalogservice.entity.BrandPhoto;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.repository.BrandPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.impl.BrandPhotoServiceImpl;
@@ -35,9 +37,13 @@ class BrandPhotoServiceTests {
     @MockBean
     private BrandRepository brandRepository;
     @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
+    @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
 
 
     @Test
@@ -82,12 +88,14 @@ class BrandPhotoServiceTests {
     void deleteAllBrandLinkByIdSuccessfulTest() {
         // Arrange
         List<Long> brandPhotosIds = List.of(1L, 2L, 3L, 4L, 5L);
+        when(brandPhotoRepository.findBrandIdsByIdIn(brandPhotosIds)).thenReturn(List.of(7L, 8L));
 
         // Act
         brandPhotoService.deleteAllBrandPhotosById(brandPhotosIds);
 
         // Assert
         verify(brandPhotoRepository).deleteAllByIdInBatch(brandPhotosIds);
+        verify(catalogChangeFeed).brandsChanged(List.of(7L, 8L));
     }
 
     @Test
@@ -108,6 +116,7 @@ class BrandPhotoServiceTests {
 
         // Assert
         assertThat(actualBrandPhoto).isEqualTo(savedBrandphoto);
+        verify(catalogChangeFeed).brandsChanged(List.of(brandId));
     }
 
     @Test
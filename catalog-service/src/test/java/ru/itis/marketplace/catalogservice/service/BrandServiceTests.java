@@ -2,33 +2,44 @@ package ru.itis.marketplace.catalogservice.service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
 import ru.itis.marketplace.catalogservice.entity.Brand;
-import ru.itis.marketplace.catalogservice.entity.Product;
-import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.exception.ConflictException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
-import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.SearchLimits;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.repository.BrandLinkRepository;
+import ru.itis.marketplace.catalogservice.repository.BrandPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
 import ru.itis.marketplace.catalogservice.service.impl.BrandServiceImpl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,20 +54,35 @@ class BrandServiceTests {
     @MockBean
     private BrandRepository brandRepository;
     @MockBean
-    private ProductService productService;
+    private DeletionJobService deletionJobService;
     @MockBean
-    private KafkaProducer kafkaProducer;
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
+    @MockBean
+    private BrandPhotoRepository brandPhotoRepository;
+    @MockBean
+    private BrandLinkRepository brandLinkRepository;
     @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
+    private CatalogReadModel catalogReadModel;
+    @MockBean
     private Counter counter;
 
+    @BeforeEach
+    void setUp() {
+        when(catalogNearCache.findBrand(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, Brand>>getArgument(1).apply(invocation.getArgument(0)));
+    }
+
     @Test
     @DisplayName("findBrandById should return brand, because brandId is correct")
     void findBrandByIdSuccessfulTest() {
         // Arrange
         Long brandId = 2L;
         Brand brand = new Brand("name", "desc", "link");
+        brand.setId(brandId);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(brand));
 
         // Act
@@ -89,7 +115,7 @@ class BrandServiceTests {
         String description = "desc";
         String linkToLogo = "link";
         String status = "status";
-        Brand oldBrand = new Brand(brandId, "oldName", "oldDesc",  "oldLink", "oldStatus", null, null);
+        Brand oldBrand = new Brand(brandId, "oldName", "oldDesc",  "oldLink", "oldStatus", null, null, null);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(oldBrand));
         when(brandRepository.findByName(name)).thenReturn(Optional.empty());
 
@@ -109,7 +135,7 @@ class BrandServiceTests {
         String description = "desc";
         String linkToLogo = "link";
         String status = "status";
-        Brand oldBrand = new Brand(brandId, "oldName", "oldDesc",  "oldLink", "oldStatus", null, null);
+        Brand oldBrand = new Brand(brandId, "oldName", "oldDesc",  "oldLink", "oldStatus", null, null, null);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(oldBrand));
         when(brandRepository.findByName(name)).thenReturn(Optional.of(new Brand(name, "desc2", "link2")));
 
@@ -129,7 +155,7 @@ class BrandServiceTests {
         String description = "desc";
         String linkToLogo = "link";
         String status = "status";
-        Brand oldBrand = new Brand(brandId, name, "oldDesc",  "oldLink", "oldStatus", null, null);
+        Brand oldBrand = new Brand(brandId, name, "oldDesc",  "oldLink", "oldStatus", null, null, null);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(oldBrand));
 
         // Act
@@ -140,88 +166,112 @@ class BrandServiceTests {
     }
 
     @Test
-    @DisplayName("deleteBrandById should delete brand and send messages in kafka, because brandId is correct")
+    @DisplayName("deleteBrandById should start brand deletion job, because brandId is correct")
     void deleteBrandByIdSuccessfulTest() {
         // Arrange
         Long brandId = 2L;
-        List<Product> productList = List.of(
-                new Product(1L, null, null, null, null, null, brandId, null,
-                List.of(new ProductSize(1L, null, 1L), new ProductSize(2L, null, 1L)), null, null),
-                new Product(2L, null, null, null, null, null, brandId, null,
-                        List.of(new ProductSize(3L, null, 2L), new ProductSize(4L, null, 2L)), null, null));
-        when(productService.findAllProducts(null, null, null, null,
-                null, null, null, brandId, null))
-                .thenReturn(productList);
+        DeletionJob deletionJob = new DeletionJob("brand", brandId);
+        when(deletionJobService.startBrandDeletion(brandId)).thenReturn(deletionJob);
 
         // Act
-        brandService.deleteBrandById(brandId);
+        DeletionJob actualDeletionJob = brandService.deleteBrandById(brandId);
 
         // Assert
-        verify(kafkaProducer).sendSizeIds(List.of(1L, 2L, 3L, 4L));
-        verify(kafkaProducer).sendBrandIds(List.of(brandId));
-        verify(brandRepository).deleteById(brandId);
+        assertThat(actualDeletionJob).isEqualTo(deletionJob);
     }
 
     @Test
-    @DisplayName("findAllProducts should call productRepository.findAll with pageable and sort, because page and size provided")
+    @DisplayName("findAllBrands should scroll brands by offset without counting them, because page and size provided")
     void findAllBrandsSuccessfulPageableTest() {
         // Arrange
         int page = 1;
         int pageSize = 2;
-        Pageable pageable = PageRequest.of(page, pageSize);
-        when(brandRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        List<Brand> brands = List.of(
+                new Brand(3L, "name3", null, null, null, null, null, null),
+                new Brand(4L, "name4", null, null, null, null, null, null)
+        );
+        Window<Brand> window = Window.from(brands, ScrollPosition::offset, true);
+        when(brandRepository.scrollAssembled(null, Sort.by("name"), ScrollPosition.offset(1L), pageSize, FieldSelection.ALL)).thenReturn(window);
 
         // Act
-        brandService.findAllBrands(null, pageSize, page, null);
+        Window<Brand> actualBrands = brandService.findAllBrands(null, pageSize, page, "name", FieldSelection.ALL);
 
         // Assert
-        verify(brandRepository).findAll(any(Specification.class), eq(pageable));
+        assertThat(actualBrands).isEqualTo(window);
+        verify(brandRepository, never()).count(any(Specification.class));
+        verify(brandRepository, never()).joinLinksToBrandsWithIds(any());
+        verify(brandRepository, never()).joinPhotosToBrandsWithIds(any());
     }
 
     @Test
-    @DisplayName("findAllBrands should call brandRepository.findAll with pageable and sorting, because page and size and sort provided")
-    void findAllBrandsSuccessfulPageableAndSortableTest() {
+    @DisplayName("findAllBrands should scroll all assembled brands with sorting, because sort provided")
+    void findAllBrandsSuccessfulSortableTest() {
         // Arrange
-        int page = 1;
-        int pageSize = 2;
         String sort = "name";
-        Pageable pageable = PageRequest.of(page, pageSize, Sort.by(sort));
-        when(brandRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        when(brandRepository.scrollAssembled(any(), any(), any(), any(), any())).thenReturn(Window.from(List.of(), ScrollPosition::offset));
 
         // Act
-        brandService.findAllBrands(null, pageSize, page, sort);
+        brandService.findAllBrands(null, null, null, sort, FieldSelection.ALL);
 
         // Assert
-        verify(brandRepository).findAll(any(Specification.class), eq(pageable));
+        verify(brandRepository).scrollAssembled(null, Sort.by(sort), ScrollPosition.offset(), null, FieldSelection.ALL);
     }
 
     @Test
-    @DisplayName("findAllBrands should call brandRepository.findAll with sorting, because sort provided")
-    void findAllBrandsSuccessfulSortableTest() {
+    @DisplayName("findAllBrands should scroll all assembled brands with out anything, because all parameters null")
+    void findAllBrandsSuccessfulTest() {
         // Arrange
-        String sort = "name";
-        Pageable pageable = Pageable.unpaged(Sort.by(sort));
-        when(brandRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        when(brandRepository.scrollAssembled(any(), any(), any(), any(), any())).thenReturn(Window.from(List.of(), ScrollPosition::offset));
 
         // Act
-        brandService.findAllBrands(null, null, null, sort);
+        brandService.findAllBrands(null, null, null, null, FieldSelection.ALL);
 
         // Assert
-        verify(brandRepository).findAll(any(Specification.class), eq(pageable));
+        verify(brandRepository).scrollAssembled(null, Sort.unsorted(), ScrollPosition.offset(), null, FieldSelection.ALL);
     }
 
     @Test
-    @DisplayName("findAllBrands should call brandRepository.findAll with out anything, because all parameters null")
-    void findAllBrandsSuccessfulTest() {
+    @DisplayName("findAllBrandsAfter should scroll assembled brands by keyset")
+    void findAllBrandsAfterSuccessfulTest() {
+        // Arrange
+        List<Brand> brands = List.of(
+                new Brand(1L, "name1", null, null, null, null, null, null),
+                new Brand(2L, "name2", null, null, null, null, null, null)
+        );
+        Window<Brand> window = Window.from(brands, ScrollPosition::offset, false);
+        Sort sort = Sort.by("name").and(Sort.by("id"));
+        when(brandRepository.scrollAssembled(null, sort, ScrollPosition.keyset(), 2, FieldSelection.ALL)).thenReturn(window);
+
+        // Act
+        Window<Brand> actualBrands = brandService.findAllBrandsAfter(null, 2, "", "name", FieldSelection.ALL);
+
+        // Assert
+        assertThat(actualBrands).isEqualTo(window);
+        verify(brandRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("countBrands should count brands with status, because total count mode is exact")
+    void countBrandsSuccessfulTest() {
         // Arrange
-        Pageable pageable = Pageable.unpaged(Sort.unsorted());
-        when(brandRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        when(brandRepository.count(any(Specification.class))).thenReturn(7L);
 
         // Act
-        brandService.findAllBrands(null, null, null, null);
+        long count = brandService.countBrands("exact", "status");
+
+        // Assert
+        assertThat(count).isEqualTo(7L);
+    }
 
+    @Test
+    @DisplayName("countBrands should throw BadRequestException, because total count mode is not supported")
+    void countBrandsUnSuccessfulTest() {
+        // Arrange
+        // Act
         // Assert
-        verify(brandRepository).findAll(any(Specification.class), eq(pageable));
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> brandService.countBrands("estimate", null))
+                .withMessage("Total count mode: estimate is not supported");
     }
 
     @Test
@@ -231,7 +281,7 @@ class BrandServiceTests {
         String name = "name";
         String description = "description";
         String linkToLogo = "link";
-        Brand savedBrand = new Brand(1L, name, description, linkToLogo, null, null, null);
+        Brand savedBrand = new Brand(1L, name, description, linkToLogo, null, null, null, null);
         when(brandRepository.findByName(name)).thenReturn(Optional.empty());
         when(brandRepository.save(any()))
                 .thenReturn(savedBrand);
@@ -242,6 +292,7 @@ class BrandServiceTests {
 
         // Assert
         assertThat(actualBrand).isEqualTo(savedBrand);
+        verify(catalogChangeFeed).brandsChanged(List.of(1L));
     }
 
     @Test
@@ -251,7 +302,7 @@ class BrandServiceTests {
         String name = "name";
         String description = "description";
         String linkToLogo = "link";
-        Brand existedBrand = new Brand(1L, name, description, linkToLogo, null, null, null);
+        Brand existedBrand = new Brand(1L, name, description, linkToLogo, null, null, null, null);
         when(brandRepository.findByName(name)).thenReturn(Optional.of(existedBrand));
 
         // Act
@@ -275,33 +326,96 @@ class BrandServiceTests {
     }
 
     @Test
-    @DisplayName("findBrandsByNameLike should call brandRepository.findByNameLikeIgnoreCase")
+    @DisplayName("findBrandsByNameLike should call brandRepository.findAssembledByNameSimilar with default limit, because limit is not provided")
     void findBrandsByNameLikeSuccessfulTest() {
         // Arrange
         String name = "name";
-        when(brandRepository.findByNameLikeIgnoreCase(name)).thenReturn(List.of());
+        when(brandRepository.findAssembledByNameSimilar(name, SearchLimits.DEFAULT_LIMIT)).thenReturn(List.of());
+
+        // Act
+        brandService.findBrandsByNameLike(name, null);
+
+        // Assert
+        verify(brandRepository).findAssembledByNameSimilar(name, SearchLimits.DEFAULT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("findBrandsByNameLike should call brandRepository.findAssembledByNameSimilar with max limit, because provided limit is too big")
+    void findBrandsByNameLikeSuccessfulMaxLimitTest() {
+        // Arrange
+        String name = "name";
+        when(brandRepository.findAssembledByNameSimilar(name, SearchLimits.MAX_LIMIT)).thenReturn(List.of());
 
         // Act
-        brandService.findBrandsByNameLike(name);
+        brandService.findBrandsByNameLike(name, 1000);
 
         // Assert
-        verify(brandRepository).findByNameLikeIgnoreCase(name);
+        verify(brandRepository).findAssembledByNameSimilar(name, SearchLimits.MAX_LIMIT);
     }
 
     @Test
-    @DisplayName("updateBrandStatusById should set Request Status and save to brandRepository")
+    @DisplayName("updateBrandStatusById should update Request Status in brandRepository without loading brand")
     void updateBrandStatusByIdSuccessfulTest() {
         // Arrange
         Long brandId = 2L;
         String requestStatus = "status";
-        Brand oldBrand = Mockito.mock();
-        when(brandRepository.findById(brandId)).thenReturn(Optional.of(oldBrand));
+        when(brandRepository.updateRequestStatus(brandId, requestStatus, null)).thenReturn(1);
 
         // Act
-        brandService.updateBrandStatusById(brandId, requestStatus);
+        brandService.updateBrandStatusById(brandId, requestStatus, null);
 
         // Assert
-        verify(oldBrand).setRequestStatus(requestStatus);
-        verify(brandRepository).save(oldBrand);
+        verify(brandRepository, never()).findById(brandId);
+        verify(catalogReadModel).refreshBrand(brandId);
+        verify(catalogChangeFeed).brandsChanged(List.of(brandId));
+        verify(catalogNearCache).invalidateBrand(brandId);
+    }
+
+    @Test
+    @DisplayName("updateBrandStatusById should throw ConflictException, because brand has another Request Status")
+    void updateBrandStatusByIdUnSuccessfulConflictTest() {
+        // Arrange
+        Long brandId = 2L;
+        when(brandRepository.updateRequestStatus(brandId, "status", "approved")).thenReturn(0);
+        when(brandRepository.findVersionById(brandId)).thenReturn(Optional.of(1L));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> brandService.updateBrandStatusById(brandId, "status", "approved"))
+                .withMessage("Brand with ID: 2 has request status other than: approved");
+        verify(catalogNearCache, never()).invalidateBrand(brandId);
+    }
+
+    @Test
+    @DisplayName("updateBrandStatusById should throw NotFoundException, because brand does not exist")
+    void updateBrandStatusByIdUnSuccessfulNotFoundTest() {
+        // Arrange
+        Long brandId = 2L;
+        when(brandRepository.updateRequestStatus(brandId, "status", null)).thenReturn(0);
+        when(brandRepository.findVersionById(brandId)).thenReturn(Optional.empty());
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> brandService.updateBrandStatusById(brandId, "status", null))
+                .withMessage("Brand with ID: 2 not found");
+    }
+
+    @Test
+    @DisplayName("multiGetBrands should return brands in request order and list ids that do not exist")
+    void multiGetBrandsSuccessfulTest() {
+        // Arrange
+        Brand brand = new Brand(4L, "name", null, null, null, List.of(), List.of(), null);
+        when(catalogNearCache.findBrands(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Set<? extends Long>, Map<Long, Brand>>>getArgument(1).apply(Set.of(4L, 5L)));
+        when(brandRepository.findAssembledByIdIn(any(), any())).thenReturn(List.of(brand));
+
+        // Act
+        MultiGetResult<Brand> result = brandService.multiGetBrands(List.of(5L, 4L), FieldSelection.ALL);
+
+        // Assert
+        assertThat(result.items()).containsExactly(brand);
+        assertThat(result.missingIds()).containsExactly(5L);
     }
 }
@@ -0,0 +1,158 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.delta.CatalogChanges;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstone;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
+import ru.itis.marketplace.catalogservice.delta.ChangesCursor;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.service.impl.CatalogChangeServiceImpl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {CatalogChangeServiceImpl.class})
+@ActiveProfiles("test")
+class CatalogChangeServiceTests {
+
+    @Autowired
+    private CatalogChangeService catalogChangeService;
+
+    @MockBean
+    private ProductRepository productRepository;
+    @MockBean
+    private CatalogTombstones catalogTombstones;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogTombstones.retention()).thenReturn(Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("findChangesSince should return all products without tombstones and move both streams to the bound, because since is not provided")
+    void findChangesSinceInitialTest() {
+        // Arrange
+        Product product = product(1L, Instant.parse("2024-01-01T00:00:00Z"));
+        when(productRepository.findAssembledChangedAfter(eq(Instant.EPOCH), eq(0L), any(), eq(101)))
+                .thenReturn(List.of(product));
+
+        // Act
+        CatalogChanges changes = catalogChangeService.findChangesSince(null, null);
+
+        // Assert
+        assertThat(changes.products()).isEqualTo(List.of(product));
+        assertThat(changes.deleted()).isEmpty();
+        assertThat(changes.hasMore()).isFalse();
+        ChangesCursor next = ChangesCursor.decode(changes.next());
+        assertThat(next.productId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(next.tombstoneId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(next.updatedAt()).isEqualTo(next.deletedAt()).isBefore(Instant.now());
+        verifyNoInteractions(catalogTombstones);
+    }
+
+    @Test
+    @DisplayName("findChangesSince should return a batch and a cursor at its last product, because there are more changed products than limit")
+    void findChangesSinceWithMoreProductsTest() {
+        // Arrange
+        Instant updatedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        Instant deletedAt = Instant.now().minus(2, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+        String since = new ChangesCursor(updatedAt, 3L, deletedAt, 4L).encode();
+        Product first = product(5L, updatedAt.plusSeconds(1));
+        Product second = product(6L, updatedAt.plusSeconds(2));
+        Product third = product(7L, updatedAt.plusSeconds(3));
+        CatalogTombstone tombstone = new CatalogTombstone(8L, CatalogTombstones.PRODUCT_SIZE, 9L, 5L, deletedAt.plusSeconds(1));
+        when(productRepository.findAssembledChangedAfter(eq(updatedAt), eq(3L), any(), eq(3)))
+                .thenReturn(List.of(first, second, third));
+        when(catalogTombstones.findAfter(eq(deletedAt), eq(4L), any(), eq(3))).thenReturn(List.of(tombstone));
+
+        // Act
+        CatalogChanges changes = catalogChangeService.findChangesSince(since, 2);
+
+        // Assert
+        assertThat(changes.products()).isEqualTo(List.of(first, second));
+        assertThat(changes.deleted()).isEqualTo(List.of(tombstone));
+        assertThat(changes.hasMore()).isTrue();
+        ChangesCursor next = ChangesCursor.decode(changes.next());
+        assertThat(next.updatedAt()).isEqualTo(second.getUpdateDateTime());
+        assertThat(next.productId()).isEqualTo(6L);
+        assertThat(next.tombstoneId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("findChangesSince should throw BadRequestException, because cursor is older than the tombstone retention")
+    void findChangesSinceWithExpiredCursorTest() {
+        // Arrange
+        Instant expired = Instant.now().minus(31, ChronoUnit.DAYS);
+        String since = new ChangesCursor(expired, 1L, expired, 1L).encode();
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> catalogChangeService.findChangesSince(since, null))
+                .withMessage("Cursor: " + since + " is older than the tombstone retention, a full sync is required");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("findChangesSince should throw BadRequestException, because cursor is invalid")
+    void findChangesSinceWithInvalidCursorTest() {
+        // Arrange
+        String since = "not-a-cursor";
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> catalogChangeService.findChangesSince(since, null))
+                .withMessage("Cursor: not-a-cursor is invalid");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("findChangesSince should throw BadRequestException, because limit is not positive")
+    void findChangesSinceWithInvalidLimitTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> catalogChangeService.findChangesSince(null, 0))
+                .withMessage("Limit: 0 must be positive");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("findChangesSince should cap limit, because limit is greater than the maximum")
+    void findChangesSinceWithHugeLimitTest() {
+        // Arrange
+        when(productRepository.findAssembledChangedAfter(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        catalogChangeService.findChangesSince(null, 100_000);
+
+        // Assert
+        verify(productRepository).findAssembledChangedAfter(eq(Instant.EPOCH), eq(0L), any(), eq(1001));
+    }
+
+    private static Product product(Long id, Instant updateDateTime) {
+        return new Product(id, "name", null, null, null, null, null, null, null, null, updateDateTime, 1L);
+    }
+}
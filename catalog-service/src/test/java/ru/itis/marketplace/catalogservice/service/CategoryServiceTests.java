@@ -2,31 +2,33 @@ package ru.itis.marketplace.catalogservice.service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.cache.CategoryDictionary;
 import ru.itis.marketplace.catalogservice.entity.Category;
-import ru.itis.marketplace.catalogservice.entity.Product;
-import ru.itis.marketplace.catalogservice.entity.ProductSize;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
-import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
 import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
 import ru.itis.marketplace.catalogservice.service.impl.CategoryServiceImpl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {CategoryServiceImpl.class})
@@ -39,21 +41,29 @@ class CategoryServiceTests {
     @MockBean
     private CategoryRepository categoryRepository;
     @MockBean
-    private ProductService productService;
+    private DeletionJobService deletionJobService;
     @MockBean
-    private KafkaProducer kafkaProducer;
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private CategoryDictionary categoryDictionary;
     @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
 
+    @BeforeEach
+    void setUp() {
+        when(catalogNearCache.findCategory(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, Category>>getArgument(1).apply(invocation.getArgument(0)));
+    }
+
     @Test
     @DisplayName("findCategoryById should return category, because categoryId is correct")
     void findCategoryByIdSuccessfulTest() {
         // Arrange
         Long categoryId = 2L;
         String categoryName = "name";
-        Category category = new Category(categoryId, categoryName);
+        Category category = new Category(categoryId, categoryName, null);
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
 
         // Act
@@ -94,6 +104,7 @@ class CategoryServiceTests {
         // Assert
         verify(category).setName(name);
         verify(categoryRepository).save(category);
+        verify(catalogNearCache).invalidateCategory(id);
     }
 
     @Test
@@ -148,25 +159,18 @@ class CategoryServiceTests {
     }
 
     @Test
-    @DisplayName("deleteCategoryById should delete category and send messages in kafka, because categoryId is correct")
+    @DisplayName("deleteCategoryById should start category deletion job, because categoryId is correct")
     void deleteCategoryByIdSuccessfulTest() {
         // Arrange
         Long categoryId = 2L;
-        List<Product> productList = List.of(
-                new Product(1L, null, null, null, null, categoryId, null, null,
-                        List.of(new ProductSize(1L, null, 1L), new ProductSize(2L, null, 1L)), null, null),
-                new Product(2L, null, null, null, null, categoryId, null, null,
-                        List.of(new ProductSize(3L, null, 2L), new ProductSize(4L, null, 2L)), null, null));
-        when(productService.findAllProducts(null, null, null, null,
-                null, null, null, null, categoryId))
-                .thenReturn(productList);
+        DeletionJob deletionJob = new DeletionJob("category", categoryId);
+        when(deletionJobService.startCategoryDeletion(categoryId)).thenReturn(deletionJob);
 
         // Act
-        categoryService.deleteCategoryById(categoryId);
+        DeletionJob actualDeletionJob = categoryService.deleteCategoryById(categoryId);
 
         // Assert
-        verify(kafkaProducer).sendSizeIds(List.of(1L, 2L, 3L, 4L));
-        verify(categoryRepository).deleteById(categoryId);
+        assertThat(actualDeletionJob).isEqualTo(deletionJob);
     }
 
     @Test
@@ -176,7 +180,7 @@ class CategoryServiceTests {
         String name = "name";
         when(categoryRepository.findByName(name)).thenReturn(Optional.empty());
         when(meterRegistry.counter(anyString())).thenReturn(counter);
-        when(categoryRepository.save(any())).thenReturn(new Category(name));
+        when(categoryRepository.save(any())).thenReturn(new Category(1L, name, 0L));
 
         // Act
         Category category = categoryService.createCategory(name);
@@ -184,6 +188,7 @@ class CategoryServiceTests {
         // Assert
         assertThat(category.getName()).isEqualTo(name);
         verify(categoryRepository).save(any());
+        verify(catalogNearCache).invalidateCategory(1L);
     }
 
     @Test
@@ -202,25 +207,43 @@ class CategoryServiceTests {
 
 
     @Test
-    @DisplayName("findAllCategories should call categoryRepository.findAll")
+    @DisplayName("findAllCategories should return categories from dictionary without querying categoryRepository")
     void findAllCategoriesSuccessfulTest() {
         // Arrange
+        List<Category> categories = List.of(new Category(1L, "name", 0L));
+        when(categoryDictionary.findAll()).thenReturn(categories);
+
         // Act
-        categoryService.findAllCategories();
+        List<Category> actualCategories = categoryService.findAllCategories();
 
         // Assert
-        verify(categoryRepository).findAll(Sort.by("name"));
+        assertThat(actualCategories).isEqualTo(categories);
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
-    @DisplayName("findCategoryByNameLike should call categoryRepository.findByNameLikeIgnoreCase")
+    @DisplayName("findCategoryByNameLike should call categoryRepository.findByNameSimilar with provided limit")
     void findCategoryByNameLikeSuccessfulTest() {
         // Arrange
         String name = "name";
         // Act
-        categoryService.findCategoryByNameLike(name);
+        categoryService.findCategoryByNameLike(name, 5);
 
         // Assert
-        verify(categoryRepository).findByNameLikeIgnoreCase(name);
+        verify(categoryRepository).findByNameSimilar(name, 5);
+    }
+
+    @Test
+    @DisplayName("findCategoryByNameLike should throw BadRequestException, because limit is not positive")
+    void findCategoryByNameLikeUnSuccessfulTest() {
+        // Arrange
+        String name = "name";
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> categoryService.findCategoryByNameLike(name, 0))
+                .withMessage("Search limit: 0 must be positive");
+        verifyNoInteractions(categoryRepository);
     }
 }
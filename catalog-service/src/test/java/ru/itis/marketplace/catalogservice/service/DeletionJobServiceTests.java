@@ -0,0 +1,225 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
+import ru.itis.marketplace.catalogservice.entity.DeletionJob;
+import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndex;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.DeletionJobRepository;
+import ru.itis.marketplace.catalogservice.repository.EntityVersion;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
+import ru.itis.marketplace.catalogservice.service.impl.DeletionJobServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DeletionJobServiceTests {
+
+    private DeletionJobRepository deletionJobRepository;
+    private ProductRepository productRepository;
+    private ProductSizeRepository productSizeRepository;
+    private BrandRepository brandRepository;
+    private CategoryRepository categoryRepository;
+    private KafkaProducer kafkaProducer;
+    private CatalogChangeFeed catalogChangeFeed;
+    private ProductSearchIndex productSearchIndex;
+    private ProductFacetCounters productFacetCounters;
+    private CatalogTombstones catalogTombstones;
+    private CatalogNearCache catalogNearCache;
+    private DeletionJobService deletionJobService;
+
+    @BeforeEach
+    void setUp() {
+        deletionJobRepository = mock();
+        productRepository = mock();
+        productSizeRepository = mock();
+        brandRepository = mock();
+        categoryRepository = mock();
+        kafkaProducer = mock();
+        catalogChangeFeed = mock();
+        productSearchIndex = mock();
+        productFacetCounters = mock();
+        catalogTombstones = mock();
+        catalogNearCache = mock();
+        ObjectProvider<CatalogReadModel> catalogReadModel = mock();
+        ObjectProvider<ProductFilterIndex> productFilterIndex = mock();
+        PlatformTransactionManager transactionManager = mock();
+        deletionJobService = new DeletionJobServiceImpl(deletionJobRepository, productRepository, productSizeRepository,
+                brandRepository, categoryRepository, kafkaProducer, catalogChangeFeed, productSearchIndex, productFacetCounters,
+                catalogTombstones, catalogNearCache, catalogReadModel, productFilterIndex, new SyncTaskExecutor(), transactionManager, 2,
+                Duration.ofMinutes(5));
+        when(deletionJobRepository.claim(any(), anyString(), anyLong())).thenReturn(1);
+        when(deletionJobRepository.renewLease(any(), anyString(), anyLong())).thenReturn(1);
+    }
+
+    @Test
+    void startBrandDeletionDeletesProductsInChunksAndThenBrand() {
+        // Arrange
+        Long brandId = 7L;
+        DeletionJob job = savedJob("brand", brandId);
+        when(productRepository.findIdsByBrandId(brandId, 2)).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(productSizeRepository.findIdsByProductIdIn(List.of(1L, 2L))).thenReturn(List.of(10L, 11L, 12L));
+        when(productSizeRepository.findIdsByProductIdIn(List.of(3L))).thenReturn(List.of(13L));
+        when(productRepository.findVersionsByIdIn(List.of(1L, 2L))).thenReturn(List.of(new EntityVersion(1L, 4L), new EntityVersion(2L, 0L)));
+        when(productRepository.findVersionsByIdIn(List.of(3L))).thenReturn(List.of(new EntityVersion(3L, 1L)));
+        when(brandRepository.findVersionById(brandId)).thenReturn(Optional.of(6L));
+
+        // Act
+        DeletionJob actualJob = deletionJobService.startBrandDeletion(brandId);
+
+        // Assert
+        assertThat(actualJob).isSameAs(job);
+        verify(kafkaProducer).sendSizeIds(List.of(10L, 11L, 12L));
+        verify(kafkaProducer).sendSizeIds(List.of(13L));
+        verify(productFacetCounters).removeByProductIds(List.of(1L, 2L));
+        verify(productRepository).hardDeleteByIdIn(List.of(1L, 2L));
+        verify(productRepository).hardDeleteByIdIn(List.of(3L));
+        verify(catalogTombstones).recordProducts(List.of(1L, 2L));
+        verify(catalogTombstones).recordProducts(List.of(3L));
+        verify(productSearchIndex).remove(List.of(1L, 2L));
+        verify(productSearchIndex).remove(List.of(3L));
+        verify(catalogChangeFeed).productsDeleted(Map.of(1L, 5L, 2L, 1L));
+        verify(catalogChangeFeed).productsDeleted(Map.of(3L, 2L));
+        verify(catalogChangeFeed).brandsDeleted(Map.of(brandId, 7L));
+        verify(kafkaProducer).sendBrandIds(List.of(brandId));
+        verify(brandRepository).deleteById(brandId);
+        verify(catalogNearCache).invalidateBrand(brandId);
+        assertThat(job.getStatus()).isEqualTo("completed");
+        assertThat(job.getDeletedProducts()).isEqualTo(3L);
+        assertThat(job.getDeletedSizes()).isEqualTo(4L);
+    }
+
+    @Test
+    void startCategoryDeletionDeletesCategoryWithoutProducts() {
+        // Arrange
+        Long categoryId = 4L;
+        DeletionJob job = savedJob("category", categoryId);
+        when(productRepository.findIdsByCategoryId(categoryId, 2)).thenReturn(List.of());
+
+        // Act
+        deletionJobService.startCategoryDeletion(categoryId);
+
+        // Assert
+        verify(productRepository, never()).hardDeleteByIdIn(any());
+        verify(kafkaProducer, never()).sendBrandIds(any());
+        verify(categoryRepository).deleteById(categoryId);
+        verify(catalogNearCache).invalidateCategory(categoryId);
+        assertThat(job.getStatus()).isEqualTo("completed");
+    }
+
+    @Test
+    void startBrandDeletionCompletesWhenOnlySoftDeletedProductsAreLeft() {
+        // Arrange
+        Long brandId = 7L;
+        DeletionJob job = savedJob("brand", brandId);
+        when(productRepository.findIdsByBrandId(brandId, 2)).thenReturn(List.of(1L), List.of());
+        when(productSizeRepository.findIdsByProductIdIn(List.of(1L))).thenReturn(List.of());
+        when(productRepository.findVersionsByIdIn(List.of(1L))).thenReturn(List.of(new EntityVersion(1L, 0L)));
+
+        // Act
+        deletionJobService.startBrandDeletion(brandId);
+
+        // Assert
+        verify(productRepository, times(2)).findIdsByBrandId(brandId, 2);
+        verify(productRepository).hardDeleteByIdIn(List.of(1L));
+        verify(catalogTombstones).recordProducts(List.of(1L));
+        verify(brandRepository).deleteById(brandId);
+        assertThat(job.getStatus()).isEqualTo("completed");
+        assertThat(job.getDeletedProducts()).isEqualTo(1L);
+    }
+
+    @Test
+    void startBrandDeletionMarksJobFailedWhenChunkFails() {
+        // Arrange
+        Long brandId = 7L;
+        DeletionJob job = savedJob("brand", brandId);
+        when(productRepository.findIdsByBrandId(brandId, 2)).thenReturn(List.of(1L));
+        doThrow(new IllegalStateException("database is down")).when(productRepository).hardDeleteByIdIn(any());
+
+        // Act
+        deletionJobService.startBrandDeletion(brandId);
+
+        // Assert
+        verify(brandRepository, never()).deleteById(any());
+        assertThat(job.getStatus()).isEqualTo("failed");
+        assertThat(job.getError()).isEqualTo("database is down");
+    }
+
+    @Test
+    void resumeUnfinishedJobsSkipsJobsLeasedByAnotherInstance() {
+        // Arrange
+        DeletionJob job = savedJob("brand", 7L);
+        job.setStatus("running");
+        when(deletionJobRepository.findByStatusIn(List.of("pending", "running"))).thenReturn(List.of(job));
+        when(deletionJobRepository.claim(any(), anyString(), anyLong())).thenReturn(0);
+
+        // Act
+        ((DeletionJobServiceImpl) deletionJobService).resumeUnfinishedJobs();
+
+        // Assert
+        verify(productRepository, never()).findIdsByBrandId(any(), anyInt());
+        verify(brandRepository, never()).deleteById(any());
+        assertThat(job.getStatus()).isEqualTo("running");
+    }
+
+    @Test
+    void startBrandDeletionStopsWhenLeaseIsTakenOver() {
+        // Arrange
+        Long brandId = 7L;
+        DeletionJob job = savedJob("brand", brandId);
+        when(deletionJobRepository.renewLease(any(), anyString(), anyLong())).thenReturn(1, 0);
+        when(productRepository.findIdsByBrandId(brandId, 2)).thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // Act
+        deletionJobService.startBrandDeletion(brandId);
+
+        // Assert
+        verify(productRepository).hardDeleteByIdIn(List.of(1L, 2L));
+        verify(productRepository, never()).hardDeleteByIdIn(List.of(3L));
+        verify(brandRepository, never()).deleteById(any());
+        assertThat(job.getStatus()).isEqualTo("running");
+    }
+
+    @Test
+    void findDeletionJobByIdThrowsWhenJobDoesNotExist() {
+        // Arrange
+        when(deletionJobRepository.findById(5L)).thenReturn(Optional.empty());
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> deletionJobService.findDeletionJobById(5L))
+                .withMessage("Deletion job with ID: 5 not found");
+    }
+
+    private DeletionJob savedJob(String targetType, Long targetId) {
+        DeletionJob job = new DeletionJob(targetType, targetId);
+        job.setId(1L);
+        when(deletionJobRepository.save(any())).thenReturn(job);
+        when(deletionJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        return job;
+    }
+}
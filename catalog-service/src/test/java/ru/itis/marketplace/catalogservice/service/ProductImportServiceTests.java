@@ -0,0 +1,157 @@
+package ru.itis.marketplace.catalogservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.entity.Product;
+import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.importing.ProductImportError;
+import ru.itis.marketplace.catalogservice.importing.ProductImportReport;
+import ru.itis.marketplace.catalogservice.importing.ProductImportRow;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
+import ru.itis.marketplace.catalogservice.repository.BrandRepository;
+import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductRepository;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
+import ru.itis.marketplace.catalogservice.service.impl.ProductImportServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {ProductImportServiceImpl.class, LocalValidatorFactoryBean.class},
+        properties = "catalog.import.chunk-size=2")
+@ActiveProfiles("test")
+class ProductImportServiceTests {
+
+    @Autowired
+    private ProductImportServiceImpl productImportService;
+
+    @MockBean
+    private ProductRepository productRepository;
+    @MockBean
+    private CategoryRepository categoryRepository;
+    @MockBean
+    private BrandRepository brandRepository;
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    @MockBean
+    private ProductFacetCounters productFacetCounters;
+    @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
+    @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+    @MockBean
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private Counter counter;
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.counter(anyString())).thenReturn(counter);
+        when(categoryRepository.findExistingIds(any())).thenReturn(Set.of(1L));
+        when(brandRepository.findExistingIds(any())).thenReturn(Set.of(2L));
+        when(productRepository.findExistingNames(any())).thenReturn(Set.of());
+        when(productRepository.insertAssembled(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("importProducts should insert valid rows chunk by chunk with their sizes and photos")
+    void importProductsSuccessfulTest() {
+        // Arrange
+        List<ProductImportRow> rows = List.of(
+                new ProductImportRow("first", BigDecimal.TEN, "desc", 1L, 2L,
+                        List.of(new ProductImportRow.Size("M")), List.of(new ProductImportRow.Photo("url", 1L))),
+                row("second", 1L, 2L),
+                row("third", 1L, 2L));
+
+        // Act
+        ProductImportReport report = productImportService.importProducts(rows.iterator());
+
+        // Assert
+        assertThat(report).isEqualTo(new ProductImportReport(3, 3, List.of()));
+        verify(productRepository).insertAssembled(argThat(products -> products.size() == 2
+                && products.get(0).getName().equals("first")
+                && products.get(0).getSizes().get(0).getName().equals("M")
+                && products.get(0).getPhotos().get(0).getUrl().equals("url")));
+        verify(productRepository).insertAssembled(argThat(products -> products.size() == 1));
+        verify(productSearchIndex, times(2)).index(anyCollection());
+        verify(catalogNearCache).invalidateProducts(argThat(ids -> ids.size() == 2));
+        verify(catalogNearCache).invalidateProducts(argThat(ids -> ids.size() == 1));
+        verify(catalogNearCache, never()).invalidateProduct(any());
+        verify(counter).increment(3);
+    }
+
+    @Test
+    @DisplayName("importProducts should report rejected rows and import the rest")
+    void importProductsUnSuccessfulRowsTest() {
+        // Arrange
+        List<ProductImportRow> rows = List.of(
+                row("", 1L, 2L),
+                row("first", 1L, 2L),
+                row("first", 1L, 2L),
+                row("second", 5L, 2L),
+                row("third", 1L, 6L),
+                row("taken", 1L, 2L),
+                row("concurrent", 1L, 2L));
+        when(productRepository.findExistingNames(any())).thenReturn(Set.of("taken"));
+        when(productRepository.insertAssembled(anyList())).thenAnswer(invocation -> invocation.<List<Product>>getArgument(0)
+                .stream().filter(product -> !product.getName().equals("concurrent")).toList());
+
+        // Act
+        ProductImportReport report = productImportService.importProducts(rows.iterator());
+
+        // Assert
+        assertThat(report.received()).isEqualTo(7);
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.errors()).extracting(ProductImportError::row).containsExactly(1L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(report.errors()).extracting(ProductImportError::message).containsExactly(
+                "name: must not be blank",
+                "Product with name: first is repeated in the import",
+                "Category with ID: 5 not found",
+                "Brand with ID: 6 not found",
+                "Product with name: taken already exist",
+                "Product with name: concurrent already exist");
+    }
+
+    @Test
+    @DisplayName("importProducts should stop and report the row, because it could not be read")
+    void importProductsUnSuccessfulMalformedRowTest() {
+        // Arrange
+        Iterator<ProductImportRow> rows = mock();
+        when(rows.hasNext()).thenReturn(true);
+        when(rows.next()).thenReturn(row("first", 1L, 2L)).thenThrow(new BadRequestException("Row could not be read"));
+
+        // Act
+        ProductImportReport report = productImportService.importProducts(rows);
+
+        // Assert
+        assertThat(report).isEqualTo(new ProductImportReport(1, 1,
+                List.of(new ProductImportError(2, null, "Row could not be read"))));
+    }
+
+    private static ProductImportRow row(String name, Long categoryId, Long brandId) {
+        return new ProductImportRow(name, BigDecimal.TEN, "desc", categoryId, brandId, null, null);
+    }
+}
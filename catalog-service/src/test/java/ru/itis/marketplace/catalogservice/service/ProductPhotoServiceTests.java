@@ -9,9 +9,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.Product;
 import ru.itis.marketplace.catalogservice.entity.ProductPhoto;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.repository.ProductPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.service.impl.ProductPhotoServiceImpl;
@@ -39,6 +42,12 @@ class ProductPhotoServiceTests {
     @MockBean
     private ProductRepository productRepository;
     @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
+    @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private CatalogTombstones catalogTombstones;
+    @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
@@ -85,12 +94,16 @@ class ProductPhotoServiceTests {
     void deleteProductPhotosByIdsSuccessfulTest() {
         // Arrange
         List<Long> productPhotosIds = List.of(1L, 2L, 3L, 4L, 5L);
+        when(productPhotoRepository.findProductIdsByIdIn(productPhotosIds)).thenReturn(List.of(7L, 8L));
 
         // Act
         productPhotoService.deleteProductPhotosByIds(productPhotosIds);
 
         // Assert
+        verify(productRepository).incrementVersionByPhotoIds(productPhotosIds);
+        verify(catalogChangeFeed).productsChanged(List.of(7L, 8L));
         verify(productPhotoRepository).deleteAllByIdInBatch(productPhotosIds);
+        verify(catalogTombstones).recordProductPhotos(productPhotosIds);
     }
 
     @Test
@@ -111,6 +124,8 @@ class ProductPhotoServiceTests {
 
         // Assert
         assertThat(actualProductPhoto).isEqualTo(savedProductPhoto);
+        verify(productRepository).incrementVersion(productId);
+        verify(catalogChangeFeed).productsChanged(List.of(productId));
     }
 
     @Test
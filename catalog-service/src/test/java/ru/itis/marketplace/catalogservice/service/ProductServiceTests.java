@@ -2,35 +2,57 @@ package ru.itis.marketplace.catalogservice.service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.cache.CategoryDictionary;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.Brand;
-import ru.itis.marketplace.catalogservice.entity.Category;
 import ru.itis.marketplace.catalogservice.entity.Product;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
+import ru.itis.marketplace.catalogservice.exception.ConflictException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.facet.FacetKey;
+import ru.itis.marketplace.catalogservice.facet.ProductFacetCounters;
+import ru.itis.marketplace.catalogservice.filterindex.ProductFilterIndex;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
+import ru.itis.marketplace.catalogservice.multiget.MultiGetResult;
+import ru.itis.marketplace.catalogservice.pagination.KeysetCursors;
+import ru.itis.marketplace.catalogservice.pagination.SearchLimits;
+import ru.itis.marketplace.catalogservice.projection.FieldSelection;
+import ru.itis.marketplace.catalogservice.readmodel.CatalogReadModel;
 import ru.itis.marketplace.catalogservice.repository.BrandRepository;
-import ru.itis.marketplace.catalogservice.repository.CategoryRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductPhotoRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
+import ru.itis.marketplace.catalogservice.repository.ProductStatusChange;
+import ru.itis.marketplace.catalogservice.search.ProductSearchHit;
+import ru.itis.marketplace.catalogservice.search.ProductSearchIndex;
 import ru.itis.marketplace.catalogservice.service.impl.ProductServiceImpl;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -50,22 +72,45 @@ class ProductServiceTests {
     @MockBean
     private ProductSizeRepository productSizeRepository;
     @MockBean
-    private CategoryRepository categoryRepository;
+    private CategoryDictionary categoryDictionary;
     @MockBean
     private BrandRepository brandRepository;
     @MockBean
     private KafkaProducer kafkaProducer;
     @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    @MockBean
+    private ProductFacetCounters productFacetCounters;
+    @MockBean
+    private ProductFilterIndex productFilterIndex;
+    @MockBean
+    private CatalogReadModel catalogReadModel;
+    @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private CatalogTombstones catalogTombstones;
+    @MockBean
+    private ProductPhotoRepository productPhotoRepository;
+    @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
 
+    @BeforeEach
+    void setUp() {
+        when(catalogNearCache.findProduct(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, Product>>getArgument(1).apply(invocation.getArgument(0)));
+    }
+
     @Test
     @DisplayName("findProductById should return product, because productId is correct")
     void findProductByIdSuccessfulTest() {
         // Arrange
         Long productId = 1L;
         Product product = new Product();
+        product.setId(productId);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
 
         // Act
@@ -89,6 +134,20 @@ class ProductServiceTests {
                 .withMessage("Product with ID: "  + productId + " not found");
     }
 
+    @Test
+    @DisplayName("findProductVersionById should throw NotFoundException, because productId is incorrect")
+    void findProductVersionByIdUnSuccessfulTest() {
+        // Arrange
+        Long productId = 1L;
+        when(productRepository.findVersionById(productId)).thenReturn(Optional.empty());
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> productService.findProductVersionById(productId))
+                .withMessage("Product with ID: "  + productId + " not found");
+    }
+
     @Test
     @DisplayName("updateProductById should update product, because productId, categoryId, brandId is correct and name is free")
     void updateProductByIdSuccessfulTest() {
@@ -101,12 +160,12 @@ class ProductServiceTests {
         Long categoryId = 2L;
         Long brandId = 3L;
         Product product = Mockito.mock();
-        Category category = new Category(categoryId, "nameCat");
-        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null);
+        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null, null);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(brand));
         when(product.getName()).thenReturn("anotherName");
+        when(product.getPrice()).thenReturn(price);
         when(productRepository.findByName(name)).thenReturn(Optional.empty());
 
         // Act
@@ -121,6 +180,8 @@ class ProductServiceTests {
         verify(product).setCategoryId(categoryId);
         verify(kafkaProducer).sendProductUpdateMessage(productId, brandId);
         verify(productRepository).save(any());
+        verify(productSearchIndex).index(ArgumentMatchers.<Product>any());
+        verify(productFacetCounters).move(any(), any());
     }
 
     @Test
@@ -156,7 +217,7 @@ class ProductServiceTests {
         Long brandId = 3L;
         Product product = new Product();
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+        when(categoryDictionary.exists(categoryId)).thenReturn(false);
 
         // Act
         // Assert
@@ -177,9 +238,8 @@ class ProductServiceTests {
         Long categoryId = 2L;
         Long brandId = 3L;
         Product product = new Product();
-        Category category = new Category();
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.empty());
 
         // Act
@@ -201,12 +261,12 @@ class ProductServiceTests {
         Long categoryId = 2L;
         Long brandId = 3L;
         Product product = Mockito.mock();
-        Category category = new Category(categoryId, "nameCat");
-        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null);
+        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null, null);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(brand));
         when(product.getName()).thenReturn(name);
+        when(product.getPrice()).thenReturn(price);
         when(productRepository.findByName(name)).thenReturn(Optional.empty());
 
         // Act
@@ -235,10 +295,9 @@ class ProductServiceTests {
         Long categoryId = 2L;
         Long brandId = 3L;
         Product product = Mockito.mock();
-        Category category = new Category(categoryId, "nameCat");
-        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null);
+        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null, null);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(brand));
         when(product.getName()).thenReturn("anotherName");
         when(productRepository.findByName(name)).thenReturn(Optional.of(new Product()));
@@ -262,13 +321,13 @@ class ProductServiceTests {
         Long categoryId = 2L;
         Long brandId = 3L;
         Product product = Mockito.mock();
-        Category category = new Category(categoryId, "nameCat");
-        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null);
+        Brand brand = new Brand(brandId, "nameBr", "descBr", "linkBr", "statusBr", null, null, null);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(brand));
         when(product.getBrandId()).thenReturn(brandId);
         when(product.getName()).thenReturn(name);
+        when(product.getPrice()).thenReturn(price);
         when(productRepository.findByName(name)).thenReturn(Optional.empty());
 
         // Act
@@ -285,7 +344,7 @@ class ProductServiceTests {
     }
 
     @Test
-    @DisplayName("deleteProductById should call productRepository.deleteById(id) and send message to kafka")
+    @DisplayName("deleteProductById should soft delete product by productRepository.softDeleteById(id) and send message to kafka")
     void deleteAllProductSizesByIdSuccessfulTest() {
         // Arrange
         Long productId = 2L;
@@ -294,50 +353,199 @@ class ProductServiceTests {
                 new ProductSize(2L, "name2", productId),
                 new ProductSize(3L, "name3", productId)
         );
+        when(productRepository.lockVersionById(productId)).thenReturn(Optional.of(1L));
         when(productSizeRepository.findByProductId(productId)).thenReturn(productSizes);
 
         // Act
         productService.deleteProductById(productId);
 
         // Assert
-        verify(productRepository).deleteById(productId);
+        verify(catalogTombstones).recordProducts(List.of(productId));
+        verify(productFacetCounters).removeByProductIds(List.of(productId));
+        verify(productRepository).softDeleteById(productId);
+        verify(productRepository, never()).deleteById(any());
         verify(kafkaProducer).sendSizeIds(List.of(1L, 2L, 3L));
+        verify(productSearchIndex).remove(List.of(productId));
+        verify(catalogChangeFeed).productsDeleted(Map.of(productId, 2L));
+        verify(catalogReadModel).evictProducts(List.of(productId));
+        verify(productFilterIndex).remove(List.of(productId));
+    }
+
+    @Test
+    @DisplayName("deleteProductById should not change counters and send messages, because product is already deleted")
+    void deleteProductByIdAlreadyDeletedTest() {
+        // Arrange
+        Long productId = 2L;
+        when(productRepository.lockVersionById(productId)).thenReturn(Optional.empty());
+
+        // Act
+        productService.deleteProductById(productId);
+
+        // Assert
+        verify(productRepository, never()).softDeleteById(productId);
+        verifyNoInteractions(productFacetCounters, catalogTombstones, kafkaProducer, catalogChangeFeed, productSearchIndex);
     }
 
     @Test
-    @DisplayName("findAllProducts should call productRepository.findAll with pageable, sort and direction, because page, size, sort and direction provided")
+    @DisplayName("findAllProducts should scroll products by offset without counting them, because page, size, sort and direction provided")
     void findAllProductsSuccessfulWithAllTest() {
         // Arrange
         int page = 1;
         int pageSize = 2;
-        String sortBy = "name";
-        String direction = "desc";
-        var dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
-        Sort sort = Sort.by(dir, sortBy);
-        Pageable pageable = PageRequest.of(page, pageSize, sort);
-        when(productRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        List<Product> products = List.of(
+                new Product(3L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(4L, null, null, null, null, null, null, null, null, null, null, null)
+        );
+        Window<Product> window = Window.from(products, ScrollPosition::offset, true);
+        when(productRepository.scrollAssembled(null, null, null, null, null,
+                Sort.by(Sort.Direction.DESC, "name"), ScrollPosition.offset(1L), pageSize, FieldSelection.ALL)).thenReturn(window);
+
+        // Act
+        Window<Product> actualProducts = productService.findAllProducts(pageSize, page, "name", "desc", null, null, null, null, null, FieldSelection.ALL);
+
+        // Assert
+        assertThat(actualProducts).isEqualTo(window);
+        verify(productRepository, never()).count(any(Specification.class));
+        verify(productRepository, never()).joinPhotosToProductWithIds(any());
+        verify(productRepository, never()).joinSizesToBrandWithIds(any());
+    }
 
+    @Test
+    @DisplayName("findAllProducts should load only the page found by productFilterIndex, because index is ready and sorting is supported")
+    void findAllProductsIndexedTest() {
+        // Arrange
+        BigDecimal priceFrom = BigDecimal.TEN;
+        Window<Long> ids = Window.from(List.of(3L, 1L), ScrollPosition::offset, true);
+        when(productFilterIndex.findIds(priceFrom, null, List.of("approved"), List.of(2L), null, "price", Sort.Direction.DESC, 4L, 2))
+                .thenReturn(Optional.of(ids));
+        Product first = new Product(1L, null, null, null, null, null, null, null, null, null, null, null);
+        Product third = new Product(3L, null, null, null, null, null, null, null, null, null, null, null);
+        when(productRepository.findAssembledByIdIn(any(), eq(FieldSelection.ALL))).thenReturn(List.of(first, third));
 
         // Act
-        productService.findAllProducts(pageSize, page, sortBy, direction, null, null, null, null, null);
+        Window<Product> actualProducts = productService.findAllProducts(2, 2, "price", "desc", priceFrom, null, List.of("approved"), List.of(2L), null, FieldSelection.ALL);
 
         // Assert
-        verify(productRepository).findAll(any(Specification.class), eq(pageable));
+        assertThat(actualProducts.getContent()).containsExactly(third, first);
+        assertThat(actualProducts.hasNext()).isTrue();
+        assertThat(actualProducts.positionAt(0)).isEqualTo(ScrollPosition.offset(4L));
+        verify(productRepository, never()).scrollAssembled(any(), any(), any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
-    @DisplayName("findAllProducts should call productRepository.findAll with out anything, because nothing provided")
+    @DisplayName("findAllProducts should scroll all assembled products, because nothing provided")
     void findAllProductsSuccessfulWithOutAnythingTest() {
         // Arrange
-        Pageable pageable = Pageable.unpaged(Sort.unsorted());
-        when(productRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty());
+        when(productRepository.scrollAssembled(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        // Act
+        productService.findAllProducts(null, null, null, null, null, null, null, null, null, FieldSelection.ALL);
+
+        // Assert
+        verify(productRepository).scrollAssembled(null, null, null, null, null, Sort.unsorted(), ScrollPosition.offset(), null, FieldSelection.ALL);
+    }
+
+    @Test
+    @DisplayName("countProducts should count products exactly, because total count mode is exact")
+    void countProductsSuccessfulExactTest() {
+        // Arrange
+        when(productRepository.count(any(Specification.class))).thenReturn(42L);
+
+        // Act
+        long count = productService.countProducts("exact", null, null, null, List.of(1L), null);
+
+        // Assert
+        assertThat(count).isEqualTo(42L);
+        verify(productRepository, never()).estimateCount(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("countProducts should count products with productFilterIndex, because total count mode is exact and index is ready")
+    void countProductsIndexedExactTest() {
+        // Arrange
+        when(productFilterIndex.count(null, null, null, List.of(1L), null)).thenReturn(OptionalLong.of(7L));
+
+        // Act
+        long count = productService.countProducts("exact", null, null, null, List.of(1L), null);
+
+        // Assert
+        assertThat(count).isEqualTo(7L);
+        verify(productRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("countProducts should return planner estimate, because total count mode is estimate")
+    void countProductsSuccessfulEstimateTest() {
+        // Arrange
+        BigDecimal priceFrom = BigDecimal.TEN;
+        when(productRepository.estimateCount(priceFrom, null, List.of("accepted"), null, List.of(2L, 3L))).thenReturn(1000L);
+
+        // Act
+        long count = productService.countProducts("ESTIMATE", priceFrom, null, List.of("accepted"), null, List.of(2L, 3L));
+
+        // Assert
+        assertThat(count).isEqualTo(1000L);
+        verify(productRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("countProducts should throw BadRequestException, because total count mode is not supported")
+    void countProductsUnSuccessfulTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> productService.countProducts("approximate", null, null, null, null, null))
+                .withMessage("Total count mode: approximate is not supported");
+    }
+
+    @Test
+    @DisplayName("findAllProductsAfter should scroll products by keyset, because cursor is empty")
+    void findAllProductsAfterSuccessfulFirstPageTest() {
+        // Arrange
+        List<Product> products = List.of(
+                new Product(1L, null, null, null, null, null, null, null, null, null, null, null),
+                new Product(2L, null, null, null, null, null, null, null, null, null, null, null)
+        );
+        Window<Product> window = Window.from(products, ScrollPosition::offset, true);
+        Sort sort = Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"));
+        when(productRepository.scrollAssembled(null, null, null, null, null, sort, ScrollPosition.keyset(), 2, FieldSelection.ALL)).thenReturn(window);
+
+        // Act
+        Window<Product> actualProducts = productService.findAllProductsAfter(2, "", "price", "desc", null, null, null, null, null, FieldSelection.ALL);
 
+        // Assert
+        assertThat(actualProducts).isEqualTo(window);
+        verify(productRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("findAllProductsAfter should throw BadRequestException, because cursor is not a valid token")
+    void findAllProductsAfterUnSuccessfulInvalidCursorTest() {
+        // Arrange
+        String cursor = "not-a-cursor";
 
         // Act
-        productService.findAllProducts(null, null, null, null, null, null, null, null, null);
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> productService.findAllProductsAfter(2, cursor, null, null, null, null, null, null, null, FieldSelection.ALL))
+                .withMessage("Cursor: " + cursor + " is invalid");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("findAllProductsAfter should throw BadRequestException, because cursor was issued for another sorting")
+    void findAllProductsAfterUnSuccessfulCursorSortMismatchTest() {
+        // Arrange
+        String cursor = KeysetCursors.encode(ScrollPosition.forward(Map.of("id", 5L)));
 
+        // Act
         // Assert
-        verify(productRepository).findAll(any(Specification.class), eq(pageable));
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> productService.findAllProductsAfter(2, cursor, "price", null, null, null, null, null, null, FieldSelection.ALL))
+                .withMessage("Cursor: " + cursor + " does not match the requested sorting");
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -349,9 +557,10 @@ class ProductServiceTests {
         String description = "desc";
         Long categoryId = 2L;
         Long brandId = 3L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(new Category()));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(new Brand()));
-        Product savedProduct = new Product();
+        Product savedProduct = new Product(name, price, description, categoryId, brandId);
+        savedProduct.setId(1L);
         when(productRepository.findByName(name)).thenReturn(Optional.empty());
         when(productRepository.save(any()))
                 .thenReturn(savedProduct);
@@ -362,6 +571,9 @@ class ProductServiceTests {
 
         // Assert
         assertThat(actualProduct).isEqualTo(savedProduct);
+        verify(productSearchIndex).index(savedProduct);
+        verify(productFacetCounters).add(List.of(savedProduct));
+        verify(catalogChangeFeed).productsChanged(List.of(1L));
     }
 
     @Test
@@ -373,7 +585,7 @@ class ProductServiceTests {
         String description = "desc";
         Long categoryId = 2L;
         Long brandId = 3L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+        when(categoryDictionary.exists(categoryId)).thenReturn(false);
 
         // Act
         // Assert
@@ -391,7 +603,7 @@ class ProductServiceTests {
         String description = "desc";
         Long categoryId = 2L;
         Long brandId = 3L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(new Category()));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.empty());
 
         // Act
@@ -410,7 +622,7 @@ class ProductServiceTests {
         String description = "desc";
         Long categoryId = 2L;
         Long brandId = 3L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(new Category()));
+        when(categoryDictionary.exists(categoryId)).thenReturn(true);
         when(brandRepository.findById(brandId)).thenReturn(Optional.of(new Brand()));
         when(productRepository.findByName(name)).thenReturn(Optional.of(new Product()));
 
@@ -434,7 +646,7 @@ class ProductServiceTests {
     }
 
     @Test
-    @DisplayName("findProductsByNameLike should call productRepository.findByNameLikeIgnoreCase")
+    @DisplayName("findProductsByNameLike should call productRepository.findAssembledByNameSimilar with default limit, because limit is not provided")
     void findProductsByNameLikeSuccessfulTest() {
         // Arrange
         String name = "name";
@@ -445,30 +657,144 @@ class ProductServiceTests {
         );
         Random random = new Random();
         products = products.stream().peek(product -> product.setId(random.nextLong())).toList();
-        when(productRepository.findByNameLikeIgnoreCase(name)).thenReturn(products);
+        when(productRepository.findAssembledByNameSimilar(name, SearchLimits.DEFAULT_LIMIT)).thenReturn(products);
 
         // Act
-        List<Product> actualProducts = productService.findProductsByNameLike(name);
+        List<Product> actualProducts = productService.findProductsByNameLike(name, null);
 
         // Assert
-        verify(productRepository).findByNameLikeIgnoreCase(name);
+        verify(productRepository).findAssembledByNameSimilar(name, SearchLimits.DEFAULT_LIMIT);
         assertThat(actualProducts).isEqualTo(products);
     }
 
     @Test
-    @DisplayName("updateProductStatusById should call productRepository.findByNameLikeIgnoreCase")
+    @DisplayName("updateProductStatusById should update Request Status in productRepository and move facet from the previous status")
     void updateProductStatusByIdSuccessfulTest() {
         // Arrange
         Long productId = 2L;
         String requestStatus = "status";
-        Product product = Mockito.mock();
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        Product product = new Product(productId, "name", BigDecimal.valueOf(3000), "desc", requestStatus, 4L, 5L, List.of(), List.of(), null, null, 1L);
+        when(productRepository.updateRequestStatus(productId, requestStatus, "approved"))
+                .thenReturn(Optional.of(new ProductStatusChange(product, "approved")));
+
+        // Act
+        productService.updateProductStatusById(productId, requestStatus, "approved");
+
+        // Assert
+        verify(productRepository, never()).save(any());
+        verify(productSearchIndex).index(product);
+        verify(productFacetCounters).move(new FacetKey(5L, 4L, 2, "approved"), new FacetKey(5L, 4L, 2, requestStatus));
+        verify(catalogNearCache).invalidateProduct(productId);
+        verify(catalogReadModel).refreshProduct(productId);
+        verify(productFilterIndex).put(product);
+    }
+
+    @Test
+    @DisplayName("updateProductStatusById should throw ConflictException, because product has another Request Status")
+    void updateProductStatusByIdUnSuccessfulConflictTest() {
+        // Arrange
+        Long productId = 2L;
+        when(productRepository.updateRequestStatus(productId, "status", "approved")).thenReturn(Optional.empty());
+        when(productRepository.findVersionById(productId)).thenReturn(Optional.of(1L));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> productService.updateProductStatusById(productId, "status", "approved"))
+                .withMessage("Product with ID: 2 has request status other than: approved");
+        verifyNoInteractions(productFacetCounters, catalogChangeFeed);
+    }
+
+    @Test
+    @DisplayName("updateProductStatusById should throw NotFoundException, because product does not exist")
+    void updateProductStatusByIdUnSuccessfulNotFoundTest() {
+        // Arrange
+        Long productId = 2L;
+        when(productRepository.updateRequestStatus(productId, "status", null)).thenReturn(Optional.empty());
+        when(productRepository.findVersionById(productId)).thenReturn(Optional.empty());
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> productService.updateProductStatusById(productId, "status", null))
+                .withMessage("Product with ID: 2 not found");
+    }
+
+    @Test
+    @DisplayName("findProductsByFullText should search in productSearchIndex with default limit, because limit is not provided")
+    void findProductsByFullTextSuccessfulTest() {
+        // Arrange
+        String query = "куртка";
+        Long brandId = 3L;
+        List<ProductSearchHit> hits = List.of(
+                new ProductSearchHit(1L, "Куртка", null, BigDecimal.TEN, "accepted", 2L, brandId, 1.5f)
+        );
+        when(productSearchIndex.search(query, null, null, null, brandId, null, SearchLimits.DEFAULT_LIMIT)).thenReturn(hits);
+
+        // Act
+        List<ProductSearchHit> actualHits = productService.findProductsByFullText(query, null, null, null, brandId, null, null);
+
+        // Assert
+        assertThat(actualHits).isEqualTo(hits);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("exportProducts should stream products from productRepository to the consumer")
+    void exportProductsSuccessfulTest() {
+        // Arrange
+        BigDecimal priceFrom = BigDecimal.ONE;
+        String status = "approved";
+        Long categoryId = 4L;
+        Consumer<Product> consumer = product -> {};
+
+        // Act
+        productService.exportProducts(priceFrom, null, status, null, categoryId, consumer);
+
+        // Assert
+        verify(productRepository).streamAssembled(priceFrom, null, status, null, categoryId, consumer);
+    }
+
+    @Test
+    @DisplayName("multiGetProducts should load only products missing in cache and return them in request order with missing ids")
+    void multiGetProductsSuccessfulTest() {
+        // Arrange
+        Product cachedProduct = new Product(1L, "cached", null, null, null, null, null, List.of(), List.of(), null, null, null);
+        Product loadedProduct = new Product(3L, "loaded", null, null, null, null, null, List.of(), List.of(), null, null, null);
+        when(catalogNearCache.findProducts(any(), any())).thenAnswer(invocation -> {
+            Function<Set<? extends Long>, Map<Long, Product>> loader = invocation.getArgument(1);
+            Map<Long, Product> products = new HashMap<>(loader.apply(Set.of(2L, 3L)));
+            products.put(1L, cachedProduct);
+            return products;
+        });
+        when(productRepository.findAssembledByIdIn(any(), any())).thenReturn(List.of(loadedProduct));
+
+        // Act
+        MultiGetResult<Product> result = productService.multiGetProducts(List.of(3L, 1L, 2L, 3L), FieldSelection.ALL);
+
+        // Assert
+        assertThat(result.items()).containsExactly(loadedProduct, cachedProduct);
+        assertThat(result.missingIds()).containsExactly(2L);
+        verify(productRepository).findAssembledByIdIn(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))), eq(FieldSelection.ALL));
+    }
+
+    @Test
+    @DisplayName("multiGetProducts should serve cached products and load only missing ones with projection without caching them, because fields are selected")
+    void multiGetProductsWithSelectionTest() {
+        // Arrange
+        FieldSelection selection = FieldSelection.forProducts("name", null);
+        Product cachedProduct = new Product(1L, "cached", null, null, null, null, null, List.of(), List.of(), null, null, null);
+        Product loadedProduct = new Product(2L, "loaded", null, null, null, null, null, List.of(), List.of(), null, null, null);
+        when(catalogNearCache.findPresentProducts(any())).thenReturn(Map.of(1L, cachedProduct));
+        when(productRepository.findAssembledByIdIn(any(), any())).thenReturn(List.of(loadedProduct));
 
         // Act
-        productService.updateProductStatusById(productId, requestStatus);
+        MultiGetResult<Product> result = productService.multiGetProducts(List.of(2L, 1L, 3L), selection);
 
         // Assert
-        verify(product).setRequestStatus(requestStatus);
-        verify(productRepository).save(product);
+        assertThat(result.items()).containsExactly(loadedProduct, cachedProduct);
+        assertThat(result.missingIds()).containsExactly(3L);
+        verify(productRepository).findAssembledByIdIn(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))), eq(selection));
+        verify(catalogNearCache, never()).findProducts(any(), any());
     }
 }
@@ -8,15 +8,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
+import ru.itis.marketplace.catalogservice.availability.ProductSizeAvailability;
+import ru.itis.marketplace.catalogservice.cache.CatalogNearCache;
+import ru.itis.marketplace.catalogservice.controller.payload.product_size.ProductSizeReferencePayload;
+import ru.itis.marketplace.catalogservice.delta.CatalogTombstones;
 import ru.itis.marketplace.catalogservice.entity.Product;
 import ru.itis.marketplace.catalogservice.entity.ProductSize;
 import ru.itis.marketplace.catalogservice.exception.BadRequestException;
 import ru.itis.marketplace.catalogservice.exception.NotFoundException;
+import ru.itis.marketplace.catalogservice.kafka.CatalogChangeFeed;
 import ru.itis.marketplace.catalogservice.kafka.KafkaProducer;
 import ru.itis.marketplace.catalogservice.repository.ProductRepository;
 import ru.itis.marketplace.catalogservice.repository.ProductSizeRepository;
 import ru.itis.marketplace.catalogservice.service.impl.ProductSizeServiceImpl;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {ProductSizeServiceImpl.class})
@@ -41,6 +48,12 @@ class ProductSizeServiceTests {
     @MockBean
     private KafkaProducer kafkaProducer;
     @MockBean
+    private CatalogChangeFeed catalogChangeFeed;
+    @MockBean
+    private CatalogNearCache catalogNearCache;
+    @MockBean
+    private CatalogTombstones catalogTombstones;
+    @MockBean
     private MeterRegistry meterRegistry;
     @MockBean
     private Counter counter;
@@ -139,6 +152,7 @@ class ProductSizeServiceTests {
     void deleteAllProductSizesByIdSuccessfulTest() {
         // Arrange
         List<Long> productSizeIds = List.of(1L, 2L, 3L, 4L, 5L);
+        when(productSizeRepository.findProductIdsByIdIn(productSizeIds)).thenReturn(List.of(7L, 8L));
 
         // Act
         productSizeService.deleteAllProductSizesById(productSizeIds);
@@ -146,6 +160,8 @@ class ProductSizeServiceTests {
         // Assert
         verify(productSizeRepository).deleteAllByIdInBatch(productSizeIds);
         verify(kafkaProducer).sendSizeIds(productSizeIds);
+        verify(catalogChangeFeed).productsChanged(List.of(7L, 8L));
+        verify(catalogTombstones).recordProductSizes(productSizeIds);
     }
 
     @Test
@@ -155,6 +171,7 @@ class ProductSizeServiceTests {
         Long productId = 2L;
         Long productSizeId = 4L;
         ProductSize expectedSize = new ProductSize("name", productId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(new Product()));
         when(productSizeRepository.findById(productSizeId))
                 .thenReturn(Optional.of(expectedSize));
 
@@ -171,6 +188,7 @@ class ProductSizeServiceTests {
         // Arrange
         Long productId = 2L;
         Long productSizeId = 4L;
+        when(productRepository.findById(productId)).thenReturn(Optional.of(new Product()));
         when(productSizeRepository.findById(productSizeId))
                 .thenReturn(Optional.empty());
 
@@ -189,6 +207,7 @@ class ProductSizeServiceTests {
         Long productSizeId = 4L;
         Long trueProductId = 100L;
         ProductSize expectedSize = new ProductSize("name", trueProductId);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(new Product()));
         when(productSizeRepository.findById(productSizeId))
                 .thenReturn(Optional.of(expectedSize));
 
@@ -198,4 +217,47 @@ class ProductSizeServiceTests {
                 .isThrownBy(() -> productSizeService.findSizeByIdAndProductId(productId, productSizeId))
                 .withMessage("Size with ID: " + productSizeId + " belongs to Product with ID: " + trueProductId);
     }
+
+    @Test
+    @DisplayName("findSizeByIdAndProductId should throw NotFoundException, because product is deleted")
+    void findSizeByIdAndProductIdUnSuccessfulProductIsDeletedTest() {
+        // Arrange
+        Long productId = 2L;
+        Long productSizeId = 4L;
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> productSizeService.findSizeByIdAndProductId(productId, productSizeId))
+                .withMessage("Product with ID: " + productId + " not found");
+        verifyNoInteractions(productSizeRepository);
+    }
+
+    @Test
+    @DisplayName("findProductSizeAvailability should answer every pair in request order with a single query")
+    void findProductSizeAvailabilitySuccessfulTest() {
+        // Arrange
+        List<ProductSizeReferencePayload> references = List.of(
+                new ProductSizeReferencePayload(1L, 10L),
+                new ProductSizeReferencePayload(2L, 11L),
+                new ProductSizeReferencePayload(3L, 12L),
+                new ProductSizeReferencePayload(1L, 10L)
+        );
+        ProductSizeAvailability size10 = new ProductSizeAvailability(1L, 10L, 3L, BigDecimal.TEN, "accepted");
+        ProductSizeAvailability size11 = new ProductSizeAvailability(5L, 11L, 3L, BigDecimal.ONE, "accepted");
+        when(productSizeRepository.findAvailabilityBySizeIdIn(List.of(10L, 11L, 12L))).thenReturn(List.of(size11, size10));
+
+        // Act
+        List<ProductSizeAvailability> availabilities = productSizeService.findProductSizeAvailability(references);
+
+        // Assert
+        assertThat(availabilities).containsExactly(
+                size10,
+                ProductSizeAvailability.missing(2L, 11L),
+                ProductSizeAvailability.missing(3L, 12L),
+                size10
+        );
+        verify(productSizeRepository).findAvailabilityBySizeIdIn(List.of(10L, 11L, 12L));
+    }
 }
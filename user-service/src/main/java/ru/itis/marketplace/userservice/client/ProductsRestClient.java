@@ -1,10 +1,12 @@
 package ru.itis.marketplace.userservice.client;
 
 import ru.itis.marketplace.userservice.model.Product;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 
 import java.util.List;
 
 public interface ProductsRestClient {
-    boolean productWithIdAndWithSizeIdExist(Long productId, Long sizeId);
+    List<ProductSizeAvailability> findProductSizeAvailability(List<ProductSizeReference> references);
     List<Product> findProductsByIds(List<Long> ids);
 }
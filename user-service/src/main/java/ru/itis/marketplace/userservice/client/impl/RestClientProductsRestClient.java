@@ -6,28 +6,42 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 import ru.itis.marketplace.userservice.client.ProductsRestClient;
+import ru.itis.marketplace.userservice.exception.BadRequestException;
 import ru.itis.marketplace.userservice.exception.UnavailableServiceException;
 import ru.itis.marketplace.userservice.model.Product;
+import ru.itis.marketplace.userservice.model.ProductMultiGetResult;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 public class RestClientProductsRestClient implements ProductsRestClient {
 
-    private static final ParameterizedTypeReference<List<Product>> PRODUCTS_TYPE_REFERENCE = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<ProductSizeAvailability>> AVAILABILITIES_TYPE_REFERENCE = new ParameterizedTypeReference<>() {};
+    // products are fetched only to build the payment, so only the fields it uses are requested
+    private static final String PAYMENT_FIELDS = "id,name,price,description";
+    // the catalog accepts at most this many references in one availability request
+    private static final int AVAILABILITY_CHUNK_SIZE = 1000;
 
     private final RestClient restClient;
     @Override
-    public boolean productWithIdAndWithSizeIdExist(Long productId, Long sizeId) {
+    public List<ProductSizeAvailability> findProductSizeAvailability(List<ProductSizeReference> references) {
         try {
-            restClient
-                    .get()
-                    .uri("/api/v1/catalog/products/{productId}/sizes/{sizeId}", productId, sizeId)
-                    .retrieve()
-                    .toBodilessEntity();
-            return true;
-        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.BadRequest exception) {
-            return false;
+            List<ProductSizeAvailability> availabilities = new ArrayList<>(references.size());
+            for (int from = 0; from < references.size(); from += AVAILABILITY_CHUNK_SIZE) {
+                availabilities.addAll(restClient
+                        .post()
+                        .uri("/api/v1/catalog/products/sizes/availability")
+                        .body(Map.of("items", references.subList(from, Math.min(from + AVAILABILITY_CHUNK_SIZE, references.size()))))
+                        .retrieve()
+                        .body(AVAILABILITIES_TYPE_REFERENCE));
+            }
+            return availabilities;
+        } catch (HttpClientErrorException e) {
+            throw new BadRequestException("Catalog service rejected the request, because: " + e.getMessage());
         } catch (HttpServerErrorException e) {
             throw new UnavailableServiceException("Catalog service is unavailable, because: " + e.getMessage());
         } catch (Exception e) {
@@ -39,10 +53,14 @@ public class RestClientProductsRestClient implements ProductsRestClient {
     public List<Product> findProductsByIds(List<Long> ids) {
         try {
             return restClient
-                    .get()
-                    .uri("/api/v1/catalog/products/by-ids/{productIds}", String.join(",", ids.stream().map(String::valueOf).toList()))
+                    .post()
+                    .uri("/api/v1/catalog/products/multi-get?fields={fields}&include={include}", PAYMENT_FIELDS, "photos")
+                    .body(Map.of("ids", ids))
                     .retrieve()
-                    .body(PRODUCTS_TYPE_REFERENCE);
+                    .body(ProductMultiGetResult.class)
+                    .items();
+        } catch (HttpClientErrorException exception) {
+            throw new BadRequestException("Catalog service rejected the request, because: " + exception.getMessage());
         } catch (HttpServerErrorException exception) {
             throw new UnavailableServiceException("Catalog service is unavailable, because: " + exception.getMessage());
         } catch (Exception e) {
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +19,8 @@ import ru.itis.marketplace.userservice.controller.payload.order.NewOrderPayload;
 import ru.itis.marketplace.userservice.service.OrderService;
 import ru.itis.marketplace.userservice.controller.payload.order.UpdateOrderPayload;
 import ru.itis.marketplace.userservice.entity.Order;
+import ru.itis.marketplace.userservice.pagination.KeysetCursors;
+import ru.itis.marketplace.userservice.pagination.PaginationHeaders;
 
 import java.util.List;
 
@@ -30,20 +33,39 @@ public class OrderRestController {
     private final OrderService orderService;
 
     @Operation(
-            summary = "Endpoint for getting all user orders, by user ID, only for authorized users",
+            summary = "Endpoint for getting all user orders, by user ID, only for authorized users. If the 'after' parameter is provided, keyset pagination is used and the cursor of the next page is returned in the X-Next-Cursor header, an empty 'after' starts from the first page. The total number of orders is not counted unless the 'total' parameter is set to 'exact'",
             responses = {
-                    @ApiResponse(description = "Successful response with user orders and order items", responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Order.class)))),
+                    @ApiResponse(description = "Successful response with user orders and order items", headers = {
+                            @Header(name = PaginationHeaders.NEXT_CURSOR, description = "Cursor of the next page, present only in keyset mode when the next page exists"),
+                            @Header(name = PaginationHeaders.HAS_NEXT, description = "Whether the next page exists"),
+                            @Header(name = PaginationHeaders.TOTAL_COUNT, description = "Total number of user orders, present only when the 'total' parameter is specified")
+                    }, responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Order.class)))),
+                    @ApiResponse(description = "Cursor is invalid or does not match the requested sorting or total count mode is not supported", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "User not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @GetMapping("/orders")
-    public List<Order> findAllUserOrders(@PathVariable Long userId,
-                                         @RequestParam(required = false) String status,
-                                         @RequestParam(required = false, name = "page-size") Integer pageSize,
-                                         @RequestParam(required = false) Integer page,
-                                         @RequestParam(required = false, name = "sorted-by") String sortedBy) {
-        return orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy);
+    public ResponseEntity<List<Order>> findAllUserOrders(@PathVariable Long userId,
+                                                         @RequestParam(required = false) String status,
+                                                         @RequestParam(required = false, name = "page-size") Integer pageSize,
+                                                         @RequestParam(required = false) Integer page,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) String total,
+                                                         @RequestParam(required = false, name = "sorted-by") String sortedBy) {
+        var response = ResponseEntity.ok();
+        Window<Order> orders;
+        if (after == null) {
+            orders = orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy);
+        } else {
+            orders = orderService.findOrdersByUserIdAndOrderStatusAfter(userId, status, pageSize, after, sortedBy);
+            KeysetCursors.nextCursor(orders).ifPresent(cursor -> response.header(PaginationHeaders.NEXT_CURSOR, cursor));
+        }
+        response.header(PaginationHeaders.HAS_NEXT, String.valueOf(orders.hasNext()));
+        if (total != null) {
+            response.header(PaginationHeaders.TOTAL_COUNT, String.valueOf(orderService.countOrders(total, userId, status)));
+        }
+        return response.body(orders.getContent());
     }
 
     @Operation(
@@ -106,14 +128,16 @@ public class OrderRestController {
                     @ApiResponse(description = "Successful response, order status updated", responseCode = "204", useReturnTypeSchema = true),
                     @ApiResponse(description = "Incorrect payload or some parameters are not specified", responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Order not found", responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(description = "Order status differs from the expected one", responseCode = "409", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class))),
                     @ApiResponse(description = "Error on the server", responseCode = "500", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProblemDetail.class)))
             }
     )
     @PatchMapping("/orders/{orderId:\\d+}")
     public ResponseEntity<Void> updateOrderStatusById(@PathVariable(name = "userId") Long ignoredUserId,
                                                       @PathVariable Long orderId,
-                                                      @Valid @NotBlank @RequestParam String status) {
-        orderService.updateOrderStatusById(orderId, status);
+                                                      @Valid @NotBlank @RequestParam String status,
+                                                      @RequestParam(required = false, name = "expected-status") String expectedStatus) {
+        orderService.updateOrderStatusById(orderId, status, expectedStatus);
         return ResponseEntity.noContent().build();
     }
 
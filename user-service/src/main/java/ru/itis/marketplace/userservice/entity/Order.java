@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -22,7 +23,7 @@ import java.util.Objects;
 public class Order {
     @Id
     @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "order_seq")
-    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 1)
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
     private String paymentLink;
     private String paymentId;
@@ -35,6 +36,7 @@ public class Order {
     private String houseNumber;
     private Long userId;
     @OneToMany(mappedBy = "orderId", cascade = CascadeType.PERSIST, fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     private List<OrderItem> orderItems;
     private String status;
     private String description;
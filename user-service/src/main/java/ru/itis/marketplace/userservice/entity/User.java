@@ -20,7 +20,7 @@ import java.util.Objects;
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 1, initialValue = 10)
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50, initialValue = 10)
     private Long id;
     private String email;
     private String phoneNumber;
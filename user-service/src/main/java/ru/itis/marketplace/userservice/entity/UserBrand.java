@@ -18,7 +18,7 @@ import java.util.Objects;
 public class UserBrand {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_brands_seq")
-    @SequenceGenerator(name = "users_brands_seq", sequenceName = "users_brands_seq", allocationSize = 1)
+    @SequenceGenerator(name = "users_brands_seq", sequenceName = "users_brands_seq", allocationSize = 50)
     private Long id;
     private Long userId;
     private Long brandId;
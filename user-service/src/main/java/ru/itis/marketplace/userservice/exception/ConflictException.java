@@ -0,0 +1,7 @@
+package ru.itis.marketplace.userservice.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
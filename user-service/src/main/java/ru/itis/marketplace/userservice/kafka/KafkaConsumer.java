@@ -29,11 +29,11 @@ public class KafkaConsumer {
             if (order.getPaymentIntentId() != null) {
                 if (!(order.getStatus().equals("shipped") || order.getStatus().equals("delivered"))) {
                     paymentService.refundPayment(order.getPaymentIntentId());
-                    orderService.updateOrderStatusById(order.getId(), "refunded");
+                    orderService.updateOrderStatusById(order.getId(), "refunded", null);
                     orderService.deleteAllOrderItemsByOrderId(order.getId());
                 }
             } else {
-                orderService.updateOrderStatusById(order.getId(), "must be refunded");
+                orderService.updateOrderStatusById(order.getId(), "must be refunded", null);
                 orderService.deleteAllOrderItemsByOrderId(order.getId());
             }
         });
@@ -0,0 +1,9 @@
+package ru.itis.marketplace.userservice.model;
+
+import java.util.List;
+
+public record ProductMultiGetResult(
+        List<Product> items,
+        List<Long> missingIds
+) {
+}
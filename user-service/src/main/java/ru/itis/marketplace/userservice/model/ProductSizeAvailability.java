@@ -0,0 +1,13 @@
+package ru.itis.marketplace.userservice.model;
+
+import java.math.BigDecimal;
+
+public record ProductSizeAvailability(
+        Long productId,
+        Long sizeId,
+        boolean exists,
+        Long brandId,
+        BigDecimal price,
+        String requestStatus
+) {
+}
@@ -0,0 +1,7 @@
+package ru.itis.marketplace.userservice.model;
+
+public record ProductSizeReference(
+        Long productId,
+        Long sizeId
+) {
+}
@@ -0,0 +1,97 @@
+package ru.itis.marketplace.userservice.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ru.itis.marketplace.userservice.exception.BadRequestException;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// the services share no module, so catalog-service keeps its own copy of this class, changes are made to both
+public final class KeysetCursors {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .disable(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES)
+            .build();
+    private static final TypeReference<Map<String, JsonNode>> KEYS_TYPE_REFERENCE = new TypeReference<>() {};
+
+    private KeysetCursors() {
+    }
+
+    public static Sort keysetSort(String sortBy, Sort.Direction direction) {
+        if (sortBy == null || sortBy.equals("id")) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    // keyset comparisons skip rows with NULL keys, so only properties that always have a value can be paged by
+    public static Sort keysetSort(String sortBy, Sort.Direction direction, Set<String> nullableProperties) {
+        if (sortBy != null && nullableProperties.contains(sortBy)) {
+            throw new BadRequestException("Keyset pagination by: " + sortBy + " is not supported, because it may be empty");
+        }
+        return keysetSort(sortBy, direction);
+    }
+
+    public static KeysetScrollPosition decode(String cursor, Class<?> entityType, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Set<String> expectedKeys = new HashSet<>();
+        sort.forEach(order -> expectedKeys.add(order.getProperty()));
+        try {
+            Map<String, JsonNode> rawKeys = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE_REFERENCE);
+            if (!rawKeys.keySet().equals(expectedKeys)) {
+                throw new BadRequestException("Cursor: " + cursor + " does not match the requested sorting");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (var entry : rawKeys.entrySet()) {
+                var propertyDescriptor = BeanUtils.getPropertyDescriptor(entityType, entry.getKey());
+                // a null key can not be compared with, the seek would silently return an empty or truncated page
+                if (propertyDescriptor == null || entry.getValue() == null || entry.getValue().isNull()) {
+                    throw new BadRequestException("Cursor: " + cursor + " is invalid");
+                }
+                keys.put(entry.getKey(), MAPPER.treeToValue(entry.getValue(), propertyDescriptor.getPropertyType()));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IOException exception) {
+            throw new BadRequestException("Cursor: " + cursor + " is invalid");
+        }
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keysetScrollPosition)) {
+            throw new IllegalArgumentException("Only keyset scroll position can be encoded to cursor");
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MAPPER.writeValueAsBytes(keysetScrollPosition.getKeys()));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public static Optional<String> nextCursor(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(encode(window.positionAt(window.size() - 1)));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.itis.marketplace.userservice.pagination;
+
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+public final class OffsetPositions {
+
+    private OffsetPositions() {
+    }
+
+    public static OffsetScrollPosition forPage(int page, int pageSize) {
+        if (page == 0) {
+            return ScrollPosition.offset();
+        }
+        return ScrollPosition.offset((long) page * pageSize - 1);
+    }
+}
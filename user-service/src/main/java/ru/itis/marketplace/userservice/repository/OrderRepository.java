@@ -4,6 +4,7 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.itis.marketplace.userservice.entity.Order;
@@ -16,10 +17,20 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     @Query("SELECT c_o FROM Order c_o RIGHT JOIN FETCH c_o.orderItems o_i where o_i.brandId =:brandId")
     List<Order> findOrderThatContainsItemsWithSpecifiedBrandId(@Param("brandId") Long brandId);
     Optional<Order> findByPaymentId(String paymentId);
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updateDateTime = instant " +
+            "WHERE o.id = :id AND (:expectedStatus IS NULL OR o.status = :expectedStatus)")
+    int updateStatus(Long id, String status, String expectedStatus);
 
     static Specification<Order> buildSpecification(Long userId, String status) {
         return (root, query, criteriaBuilder) -> {
             root.fetch("orderItems");
+            return buildFilterSpecification(userId, status).toPredicate(root, query, criteriaBuilder);
+        };
+    }
+
+    static Specification<Order> buildFilterSpecification(Long userId, String status) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>(2);
             if (userId != null) {
                 predicates.add(criteriaBuilder.equal(root.get("userId"), userId));
@@ -1,12 +1,16 @@
 package ru.itis.marketplace.userservice.service;
 
 import ru.itis.marketplace.userservice.controller.payload.order.NewOrderItemPayload;
+import org.springframework.data.domain.Window;
 import ru.itis.marketplace.userservice.entity.Order;
 
 import java.util.List;
 
 public interface OrderService {
-    List<Order> findOrdersByUserIdAndOrderStatus(Long userId, String status, Integer pageSize, Integer page, String sortedBy);
+    Window<Order> findOrdersByUserIdAndOrderStatus(Long userId, String status, Integer pageSize, Integer page, String sortedBy);
+
+    Window<Order> findOrdersByUserIdAndOrderStatusAfter(Long userId, String status, Integer pageSize, String after, String sortedBy);
+    long countOrders(String totalMode, Long userId, String status);
 
     Order findOrderById(Long orderId);
 
@@ -14,7 +18,7 @@ public interface OrderService {
 
     void updateOrderById(Long orderId, String country, String locality, String region, String postalCode, String street, String houseNumber, String description);
 
-    void updateOrderStatusById(Long orderId, String status);
+    void updateOrderStatusById(Long orderId, String status, String expectedStatus);
 
     List<Order> findOrdersByBrandId(Long brandId);
 
@@ -2,9 +2,10 @@ package ru.itis.marketplace.userservice.service.impl;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import ru.itis.marketplace.userservice.client.ProductsRestClient;
@@ -12,8 +13,13 @@ import ru.itis.marketplace.userservice.controller.payload.order.NewOrderItemPayl
 import ru.itis.marketplace.userservice.entity.Order;
 import ru.itis.marketplace.userservice.entity.OrderItem;
 import ru.itis.marketplace.userservice.exception.BadRequestException;
+import ru.itis.marketplace.userservice.exception.ConflictException;
 import ru.itis.marketplace.userservice.exception.NotFoundException;
 import ru.itis.marketplace.userservice.model.Product;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
+import ru.itis.marketplace.userservice.pagination.KeysetCursors;
+import ru.itis.marketplace.userservice.pagination.OffsetPositions;
 import ru.itis.marketplace.userservice.repository.OrderItemRepository;
 import ru.itis.marketplace.userservice.repository.UserRepository;
 import ru.itis.marketplace.userservice.repository.OrderRepository;
@@ -28,6 +34,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final Set<String> NULLABLE_SORT_PROPERTIES = Set.of("description", "paymentIntentId");
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductsRestClient productsRestClient;
@@ -35,17 +44,38 @@ public class OrderServiceImpl implements OrderService {
     private final PaymentService paymentService;
 
     @Override
-    public List<Order> findOrdersByUserIdAndOrderStatus(Long userId, String status, Integer pageSize, Integer page, String sortedBy) {
+    public Window<Order> findOrdersByUserIdAndOrderStatus(Long userId, String status, Integer pageSize, Integer page, String sortedBy) {
         userRepository
                 .findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with ID: " + userId + " not found"));
         Sort sort = sortedBy != null ? Sort.by(sortedBy) : Sort.unsorted();
-        Pageable pageable = Pageable.unpaged(sort);
         if (page != null && pageSize != null) {
-            pageable = PageRequest.of(page, pageSize, sort);
+            var position = OffsetPositions.forPage(page, pageSize);
+            Specification<Order> specification = OrderRepository.buildFilterSpecification(userId, status);
+            return orderRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).scroll(position));
         }
         Specification<Order> specification = OrderRepository.buildSpecification(userId, status);
-        return orderRepository.findAll(specification, pageable).toList();
+        return Window.from(orderRepository.findAll(specification, Pageable.unpaged(sort)).toList(), ScrollPosition::offset);
+    }
+
+    @Override
+    public Window<Order> findOrdersByUserIdAndOrderStatusAfter(Long userId, String status, Integer pageSize, String after, String sortedBy) {
+        userRepository
+                .findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with ID: " + userId + " not found"));
+        Sort sort = KeysetCursors.keysetSort(sortedBy, Sort.Direction.ASC, NULLABLE_SORT_PROPERTIES);
+        var position = KeysetCursors.decode(after, Order.class, sort);
+        int limit = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        Specification<Order> specification = OrderRepository.buildFilterSpecification(userId, status);
+        return orderRepository.findBy(specification, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    @Override
+    public long countOrders(String totalMode, Long userId, String status) {
+        if (!totalMode.equalsIgnoreCase("exact")) {
+            throw new BadRequestException("Total count mode: " + totalMode + " is not supported");
+        }
+        return orderRepository.count(OrderRepository.buildFilterSpecification(userId, status));
     }
 
     @Override
@@ -61,28 +91,32 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new NotFoundException("User with ID: " + userId + " not found"));
         Order order = new Order(UUID.randomUUID().toString(), country, locality, region, postalCode, street, houseNumber, userId, null, "awaiting payment", description);
 
-        List<Long> productIds = orderItems
+        Map<ProductSizeReference, ProductSizeAvailability> availabilities = productsRestClient.findProductSizeAvailability(orderItems
+                        .stream()
+                        .map(orderItem -> new ProductSizeReference(orderItem.productId(), orderItem.productSizeId()))
+                        .toList())
                 .stream()
-                .map(NewOrderItemPayload::productId)
-                .toList();
-
-        Map<Long, Product> products = productsRestClient.findProductsByIds(productIds)
-                .stream()
-                .collect(Collectors.toMap(Product::id, Function.identity()));
+                .collect(Collectors.toMap(availability -> new ProductSizeReference(availability.productId(), availability.sizeId()),
+                        Function.identity(), (first, second) -> first));
 
         var orderItemsList = new ArrayList<OrderItem>(orderItems.size());
-        for (NewOrderItemPayload orderItem : orderItems) {
-            if (!products.containsKey(orderItem.productId())) {
-                throw new BadRequestException("Product with ID: " + orderItem.productId() + " does not exist");
+        for (var orderItem : orderItems) {
+            var availability = availabilities.get(new ProductSizeReference(orderItem.productId(), orderItem.productSizeId()));
+            if (availability == null || !availability.exists()) {
+                throw new BadRequestException("Product with ID: " + orderItem.productId()
+                        + " does not exist or this product does not have a size with ID: " + orderItem.productSizeId());
             }
-            var product = products.get(orderItem.productId());
-            var productSize = product.sizes()
-                    .stream()
-                    .filter((size) -> size.id().equals(orderItem.productSizeId()))
-                    .findFirst()
-                    .orElseThrow(() -> new BadRequestException("Product with ID: " + product.id() + " does not have a size with ID: " + orderItem.productSizeId()));
-            orderItemsList.add(new OrderItem(product.id(), productSize.id(), product.brandId(), orderItem.quantity()));
+            orderItemsList.add(new OrderItem(availability.productId(), availability.sizeId(), availability.brandId(), orderItem.quantity()));
         }
+
+        List<Long> productIds = orderItemsList
+                .stream()
+                .map(OrderItem::getProductId)
+                .distinct()
+                .toList();
+        Map<Long, Product> products = productsRestClient.findProductsByIds(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::id, Function.identity()));
         order.setPaymentLink(paymentService.createPayment(order.getPaymentId(), products, orderItemsList));
         var savedOrder = orderRepository.save(order);
         orderItemsList.forEach((orderItem -> orderItem.setOrderId(savedOrder.getId())));
@@ -106,12 +140,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public void updateOrderStatusById(Long orderId, String status) {
-        Order order = orderRepository
-                .findById(orderId)
-                .orElseThrow(() -> new NotFoundException("Order with ID: " + orderId + " not found"));
-        order.setStatus(status);
-        orderRepository.save(order);
+    @Transactional
+    public void updateOrderStatusById(Long orderId, String status, String expectedStatus) {
+        if (orderRepository.updateStatus(orderId, status, expectedStatus) == 0) {
+            if (!orderRepository.existsById(orderId)) {
+                throw new NotFoundException("Order with ID: " + orderId + " not found");
+            }
+            throw new ConflictException("Order with ID: " + orderId + " has status other than: " + expectedStatus);
+        }
     }
 
     @Override
@@ -12,6 +12,7 @@ import ru.itis.marketplace.userservice.repository.UserCartRepository;
 import ru.itis.marketplace.userservice.service.UserCartService;
 import ru.itis.marketplace.userservice.client.ProductsRestClient;
 import ru.itis.marketplace.userservice.exception.BadRequestException;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 
 import java.util.List;
 
@@ -38,7 +39,8 @@ public class UserCartServiceImpl implements UserCartService {
         userRepository
                 .findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with ID: " + userId + " not found"));
-        if (!productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId)) {
+        var availability = productsRestClient.findProductSizeAvailability(List.of(new ProductSizeReference(productId, sizeId)));
+        if (!availability.get(0).exists()) {
             throw new BadRequestException("Product with ID: " + productId
                     + " does not exist or this product does not have a size with ID: " + sizeId);
         }
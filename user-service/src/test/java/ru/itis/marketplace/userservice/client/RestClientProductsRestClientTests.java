@@ -10,9 +10,13 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.wiremock.integrations.testcontainers.WireMockContainer;
 import ru.itis.marketplace.userservice.config.ClientBeans;
+import ru.itis.marketplace.userservice.exception.BadRequestException;
 import ru.itis.marketplace.userservice.exception.UnavailableServiceException;
 import ru.itis.marketplace.userservice.model.Product;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,59 +42,48 @@ class RestClientProductsRestClientTests {
     }
 
     @Test
-    @DisplayName("Rest client should return true, because product with id and size with id exist in catalog (mocks-config.json)")
-    void productWithIdAndWithSizeIdExistSuccessfulTest() {
+    @DisplayName("Rest client should return availability of every pair in request order (mocks-config.json)")
+    void findProductSizeAvailabilitySuccessfulTest() {
         // Arrange
-        Long productId = 200L;
-        Long sizeId = 201L;
+        List<ProductSizeReference> references = List.of(
+                new ProductSizeReference(200L, 201L),
+                new ProductSizeReference(404L, 405L)
+        );
 
         // Act
-        boolean productAndSizeAreExist = productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId);
+        List<ProductSizeAvailability> availabilities = productsRestClient.findProductSizeAvailability(references);
 
         // Assert
-        assertThat(productAndSizeAreExist).isTrue();
+        assertThat(availabilities).containsExactly(
+                new ProductSizeAvailability(200L, 201L, true, 1L, new BigDecimal("100.99"), "accepted"),
+                new ProductSizeAvailability(404L, 405L, false, null, null, null)
+        );
     }
 
     @Test
-    @DisplayName("Rest client should return false, because product with id and size with id do not exist in catalog (mocks-config.json)")
-    void brandWithIdExistUnSuccessfulNotFoundTest() {
-        // Arrange
-        Long productId = 404L;
-        Long sizeId = 405L;
-
-        // Act
-        boolean productAndSizeAreExist = productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId);
-
-        // Assert
-        assertThat(productAndSizeAreExist).isFalse();
-    }
-
-    @Test
-    @DisplayName("Rest client should return false, because server return 400 (mocks-config.json)")
-    void brandWithIdExistUnSuccessfulBadRequestTest() {
+    @DisplayName("Rest client should throw UnavailableServiceException, because server return 500 (mocks-config.json")
+    void findProductSizeAvailabilityUnSuccessfulInternalServerErrorTest() {
         // Arrange
-        Long productId = 400L;
-        Long sizeId = 401L;
+        List<ProductSizeReference> references = List.of(new ProductSizeReference(500L, 501L));
 
         // Act
-        boolean productAndSizeAreExist = productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId);
-
         // Assert
-        assertThat(productAndSizeAreExist).isFalse();
+        assertThatExceptionOfType(UnavailableServiceException.class)
+                .isThrownBy(() -> productsRestClient.findProductSizeAvailability(references))
+                .withMessage("Catalog service is unavailable, because: 500 Internal Server Error: \"{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,\"detail\":\"something wrong\",\"instance\":\"/api/v1/catalog/products/sizes/availability\"}\"");
     }
 
     @Test
-    @DisplayName("Rest client should throw UnavailableServiceException, because server return 500 (mocks-config.json")
-    void brandWithIdExistUnSuccessfulInternalServerErrorTest() {
+    @DisplayName("Rest client should throw BadRequestException, because server return 400 (mocks-config.json)")
+    void findProductSizeAvailabilityUnSuccessfulBadRequestTest() {
         // Arrange
-        Long productId = 500L;
-        Long sizeId = 501L;
+        List<ProductSizeReference> references = List.of(new ProductSizeReference(400L, 401L));
 
         // Act
         // Assert
-        assertThatExceptionOfType(UnavailableServiceException.class)
-                .isThrownBy(() -> productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId))
-                .withMessage("Catalog service is unavailable, because: 500 Internal Server Error: \"{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,\"detail\":\"something wrong\",\"instance\":\"/api/v1/catalog/products/500/sizes/501\"}\"");
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> productsRestClient.findProductSizeAvailability(references))
+                .withMessageStartingWith("Catalog service rejected the request, because: 400 Bad Request");
     }
 
     @Test
@@ -116,7 +109,7 @@ class RestClientProductsRestClientTests {
         // Assert
         assertThatExceptionOfType(UnavailableServiceException.class)
                 .isThrownBy(() -> productsRestClient.findProductsByIds(ids))
-                .withMessage("Catalog service is unavailable, because: 500 Internal Server Error: \"{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,\"detail\":\"something wrong\",\"instance\":\"/api/v1/catalog/products/by-ids/5%2C0%2C3\"}\"");
+                .withMessage("Catalog service is unavailable, because: 500 Internal Server Error: \"{\"type\":\"about:blank\",\"title\":\"Internal Server Error\",\"status\":500,\"detail\":\"something wrong\",\"instance\":\"/api/v1/catalog/products/multi-get\"}\"");
     }
 
 }
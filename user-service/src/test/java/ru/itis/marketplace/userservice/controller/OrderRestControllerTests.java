@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -17,10 +19,13 @@ import ru.itis.marketplace.userservice.controller.payload.order.NewOrderItemPayl
 import ru.itis.marketplace.userservice.controller.payload.order.NewOrderPayload;
 import ru.itis.marketplace.userservice.controller.payload.order.UpdateOrderPayload;
 import ru.itis.marketplace.userservice.entity.Order;
+import ru.itis.marketplace.userservice.pagination.KeysetCursors;
+import ru.itis.marketplace.userservice.pagination.PaginationHeaders;
 import ru.itis.marketplace.userservice.service.OrderService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
@@ -60,17 +65,44 @@ class OrderRestControllerTests {
         orders.get(0).setId(1L);
         orders.get(1).setId(2L);
         orders.get(2).setId(3L);
-        when(orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy)).thenReturn(orders);
+        String total = "exact";
+        when(orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy))
+                .thenReturn(Window.from(orders, ScrollPosition::offset, true));
+        when(orderService.countOrders(total, userId, status)).thenReturn(7L);
 
         // Act
         // Assert
         String response = mockMvc.perform(get("/api/v1/user-service/users/{userId}/orders" +
-                        "?status={status}&page={page}&page-size={pageSize}&sorted-by={sortBy}", userId, status, page, pageSize, sortedBy))
+                        "?status={status}&page={page}&page-size={pageSize}&sorted-by={sortBy}&total={total}", userId, status, page, pageSize, sortedBy, total))
                 .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.HAS_NEXT, "true"))
+                .andExpect(header().string(PaginationHeaders.TOTAL_COUNT, "7"))
                 .andReturn().getResponse().getContentAsString();
         List<Order> actualOrders = mapper.readValue(response, new TypeReference<>() {});
         assertThat(actualOrders).isEqualTo(orders);
         verify(orderService).findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy);
+        verify(orderService).countOrders(total, userId, status);
+    }
+
+    @Test
+    @DisplayName("Method: GET Endpoint: api/v1/user-service/users/{userId}/orders should return user orders and next cursor, because after parameter is provided")
+    @WithMockUser(roles={"SERVICE"})
+    void findAllUserOrdersSuccessfulAfterCursorTest() throws Exception {
+        // Arrange
+        Long userId = 2L;
+        Integer pageSize = 1;
+        String after = "";
+        Order order = new Order("paymentId1", "country", "locality", "region", "postalCode", "street", "houseNumber", null, null, null, null);
+        order.setId(1L);
+        Window<Order> orders = Window.from(List.of(order), index -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        when(orderService.findOrdersByUserIdAndOrderStatusAfter(userId, null, pageSize, after, null)).thenReturn(orders);
+
+        // Act
+        // Assert
+        mockMvc.perform(get("/api/v1/user-service/users/{userId}/orders?page-size={pageSize}&after={after}", userId, pageSize, after))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PaginationHeaders.NEXT_CURSOR, KeysetCursors.encode(ScrollPosition.forward(Map.of("id", 1L)))));
+        verify(orderService).findOrdersByUserIdAndOrderStatusAfter(userId, null, pageSize, after, null);
     }
 
     @Test
@@ -89,7 +121,8 @@ class OrderRestControllerTests {
         orders.get(0).setId(1L);
         orders.get(1).setId(2L);
         orders.get(2).setId(3L);
-        when(orderService.findOrdersByUserIdAndOrderStatus(userId, null, null, null, null)).thenReturn(orders);
+        when(orderService.findOrdersByUserIdAndOrderStatus(userId, null, null, null, null))
+                .thenReturn(Window.from(orders, ScrollPosition::offset));
 
         // Act
         // Assert
@@ -251,9 +284,9 @@ class OrderRestControllerTests {
 
         // Act
         // Assert
-        mockMvc.perform(patch("/api/v1/user-service/users/{userId}/orders/{orderId}?status={status}", userId, orderId, status))
+        mockMvc.perform(patch("/api/v1/user-service/users/{userId}/orders/{orderId}?status={status}&expected-status=paid", userId, orderId, status))
                 .andExpect(status().isNoContent());
-        verify(orderService).updateOrderStatusById(orderId, status);
+        verify(orderService).updateOrderStatusById(orderId, status, "paid");
     }
 
     @Test
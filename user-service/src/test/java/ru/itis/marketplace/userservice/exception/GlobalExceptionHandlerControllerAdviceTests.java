@@ -109,6 +109,32 @@ class GlobalExceptionHandlerControllerAdviceTests {
         softly.assertAll();
     }
 
+    @Test
+    @DisplayName("user service should throw ConflictException and Exception handler should return Problem Detail with 409")
+    @WithMockUser(roles={"SERVICE"})
+    void handleConflictExceptionTest() throws Exception {
+        // Arrange
+        String username = "username";
+        ObjectMapper mapper = new ObjectMapper();
+        String message = "message";
+        when(userService.findUserByUsername(username)).thenThrow(new ConflictException(message));
+
+        // Act
+        // Assert
+        String response = mockMvc.perform(get("/api/v1/user-service/users/by-username/{username}", username))
+                .andExpect(status().isConflict())
+                .andReturn().getResponse().getContentAsString();
+        ProblemDetail problemDetail = mapper.readValue(response, ProblemDetail.class);
+        SoftAssertions softly = new SoftAssertions();
+
+        softly.assertThat(problemDetail.getStatus()).isEqualTo(409);
+        softly.assertThat(problemDetail.getDetail()).isEqualTo(message);
+        softly.assertThat(problemDetail.getType().toString()).isEqualTo("/swagger-ui/index.html");
+        softly.assertThat(problemDetail.getTitle()).isEqualTo("Conflict");
+
+        softly.assertAll();
+    }
+
     @Test
     @DisplayName("user service should throw IllegalStateException and Exception handler should return Problem Detail with 500")
     @WithMockUser(roles={"SERVICE"})
@@ -0,0 +1,90 @@
+package ru.itis.marketplace.userservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.itis.marketplace.userservice.client.ProductsRestClient;
+import ru.itis.marketplace.userservice.controller.payload.order.NewOrderItemPayload;
+import ru.itis.marketplace.userservice.model.Product;
+import ru.itis.marketplace.userservice.model.ProductSize;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderServiceStatementCountTests {
+
+    private static final Long ADMIN_USER_ID = 1L;
+
+    @Container
+    static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry propertyRegistry) {
+        propertyRegistry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        propertyRegistry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        propertyRegistry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductsRestClient productsRestClient;
+    @MockBean
+    private PaymentService paymentService;
+
+    @Test
+    void createOrderIssuesConstantNumberOfStatements() {
+        // Arrange
+        statementsToCreateOrder(1);
+
+        // Act
+        long singleItemStatements = statementsToCreateOrder(1);
+        long fiftyItemsStatements = statementsToCreateOrder(50);
+
+        // Assert
+        // fifty items may cross into the next pooled id block, which costs exactly one nextval
+        assertThat(fiftyItemsStatements).isBetween(singleItemStatements, singleItemStatements + 1);
+    }
+
+    private long statementsToCreateOrder(int items) {
+        List<ProductSize> sizes = LongStream.rangeClosed(1, items)
+                .mapToObj(sizeId -> new ProductSize(sizeId, "size " + sizeId))
+                .toList();
+        Product product = new Product(1L, "product", BigDecimal.TEN, "description", "accepted", 1L, 1L, List.of(), sizes, null, null);
+        when(productsRestClient.findProductsByIds(any())).thenReturn(List.of(product));
+        when(productsRestClient.findProductSizeAvailability(any())).thenReturn(sizes.stream()
+                .map(size -> new ProductSizeAvailability(product.id(), size.id(), true, product.brandId(), product.price(), product.requestStatus()))
+                .toList());
+        when(paymentService.createPayment(any(), any(), any())).thenReturn("payment link");
+        List<NewOrderItemPayload> orderItems = sizes.stream()
+                .map(size -> new NewOrderItemPayload(product.id(), size.id(), 1L))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        orderService.createOrder(ADMIN_USER_ID, "Russia", "Kazan", "Tatarstan", "420000", "Kremlyovskaya", "18",
+                "description", orderItems);
+        return statistics.getPrepareStatementCount();
+    }
+}
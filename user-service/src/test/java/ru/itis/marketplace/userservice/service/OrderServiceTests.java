@@ -6,9 +6,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import ru.itis.marketplace.userservice.client.ProductsRestClient;
@@ -17,20 +18,26 @@ import ru.itis.marketplace.userservice.entity.Order;
 import ru.itis.marketplace.userservice.entity.OrderItem;
 import ru.itis.marketplace.userservice.entity.User;
 import ru.itis.marketplace.userservice.exception.BadRequestException;
+import ru.itis.marketplace.userservice.exception.ConflictException;
 import ru.itis.marketplace.userservice.exception.NotFoundException;
 import ru.itis.marketplace.userservice.model.Product;
 import ru.itis.marketplace.userservice.model.ProductSize;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 import ru.itis.marketplace.userservice.repository.OrderItemRepository;
 import ru.itis.marketplace.userservice.repository.OrderRepository;
 import ru.itis.marketplace.userservice.repository.UserRepository;
 import ru.itis.marketplace.userservice.service.impl.OrderServiceImpl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
@@ -54,7 +61,7 @@ class OrderServiceTests {
     private PaymentService paymentService;
 
     @Test
-    @DisplayName("findOrdersByUserIdAndOrderStatus should return list of Orders pageable and sortable")
+    @DisplayName("findOrdersByUserIdAndOrderStatus should scroll Orders by offset without counting them, because page and size provided")
     void findOrdersByUserIdAndOrderStatusSuccessfulPageableAndSortableTest() {
         // Arrange
         Long userId = 2L;
@@ -63,22 +70,16 @@ class OrderServiceTests {
         int page = 4;
         String sortedBy = "name";
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        Sort sort = Sort.by(sortedBy);
-        Pageable pageable = PageRequest.of(page, pageSize, sort);
-        List<Order> orders = List.of(
-                new Order(),
-                new Order()
-        );
-        Page<Order> page1 = mock();
-        when(orderRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page1);
-        when(page1.toList()).thenReturn(orders);
+        Window<Order> orders = Window.from(List.of(new Order(), new Order()), ScrollPosition::offset, true);
+        when(orderRepository.findBy(any(Specification.class), any())).thenReturn(orders);
 
         // Act
-        List<Order> actualOrders = orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy);
+        Window<Order> actualOrders = orderService.findOrdersByUserIdAndOrderStatus(userId, status, pageSize, page, sortedBy);
 
         // Assert
         assertThat(actualOrders).isEqualTo(orders);
-        verify(orderRepository).findAll(any(Specification.class), eq(pageable));
+        verify(orderRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(orderRepository, never()).count(any(Specification.class));
     }
 
     @Test
@@ -99,13 +100,78 @@ class OrderServiceTests {
         when(page1.toList()).thenReturn(orders);
 
         // Act
-        List<Order> actualOrders = orderService.findOrdersByUserIdAndOrderStatus(userId, status, null, null, null);
+        Window<Order> actualOrders = orderService.findOrdersByUserIdAndOrderStatus(userId, status, null, null, null);
 
         // Assert
-        assertThat(actualOrders).isEqualTo(orders);
+        assertThat(actualOrders.getContent()).isEqualTo(orders);
+        assertThat(actualOrders.hasNext()).isFalse();
         verify(orderRepository).findAll(any(Specification.class), eq(pageable));
     }
 
+    @Test
+    @DisplayName("findOrdersByUserIdAndOrderStatusAfter should scroll user orders by keyset")
+    void findOrdersByUserIdAndOrderStatusAfterSuccessfulTest() {
+        // Arrange
+        Long userId = 2L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        Window<Order> orders = Window.from(List.of(new Order(), new Order()), ScrollPosition::offset, true);
+        when(orderRepository.findBy(any(Specification.class), any())).thenReturn(orders);
+
+        // Act
+        Window<Order> actualOrders = orderService.findOrdersByUserIdAndOrderStatusAfter(userId, null, 2, "", "creationDateTime");
+
+        // Assert
+        assertThat(actualOrders).isEqualTo(orders);
+        verify(orderRepository).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("findOrdersByUserIdAndOrderStatusAfter should throw BadRequestException, because cursor is invalid")
+    void findOrdersByUserIdAndOrderStatusAfterUnSuccessfulInvalidCursorTest() {
+        // Arrange
+        Long userId = 2L;
+        String cursor = "not-a-cursor";
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> orderService.findOrdersByUserIdAndOrderStatusAfter(userId, null, 2, cursor, null))
+                .withMessage("Cursor: " + cursor + " is invalid");
+    }
+
+    @Test
+    @DisplayName("findOrdersByUserIdAndOrderStatusAfter should throw BadRequestException, because sort property may be empty")
+    void findOrdersByUserIdAndOrderStatusAfterUnSuccessfulNullableSortTest() {
+        // Arrange
+        Long userId = 2L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> orderService.findOrdersByUserIdAndOrderStatusAfter(userId, null, 2, "", "description"))
+                .withMessage("Keyset pagination by: description is not supported, because it may be empty");
+        verify(orderRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    @DisplayName("findOrdersByUserIdAndOrderStatusAfter should throw BadRequestException, because cursor has a null key")
+    void findOrdersByUserIdAndOrderStatusAfterUnSuccessfulNullCursorKeyTest() {
+        // Arrange
+        Long userId = 2L;
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"creationDateTime\":null,\"id\":5}".getBytes(StandardCharsets.UTF_8));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> orderService.findOrdersByUserIdAndOrderStatusAfter(userId, null, 2, cursor, "creationDateTime"))
+                .withMessage("Cursor: " + cursor + " is invalid");
+        verify(orderRepository, never()).findBy(any(Specification.class), any());
+    }
+
     @Test
     @DisplayName("findOrdersByUserIdAndOrderStatus should throw NotFoundException, because user not found")
     void findOrdersByUserIdAndOrderStatusUnSuccessfulTest() {
@@ -121,6 +187,30 @@ class OrderServiceTests {
                 .withMessage("User with ID: " + userId + " not found");
     }
 
+    @Test
+    @DisplayName("countOrders should count user orders with status, because total count mode is exact")
+    void countOrdersSuccessfulTest() {
+        // Arrange
+        when(orderRepository.count(any(Specification.class))).thenReturn(5L);
+
+        // Act
+        long count = orderService.countOrders("exact", 2L, "status");
+
+        // Assert
+        assertThat(count).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("countOrders should throw BadRequestException, because total count mode is not supported")
+    void countOrdersUnSuccessfulTest() {
+        // Arrange
+        // Act
+        // Assert
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> orderService.countOrders("estimate", 2L, null))
+                .withMessage("Total count mode: estimate is not supported");
+    }
+
     @Test
     @DisplayName("findOrderById should return order")
     void findOrderByIdSuccessfulTest() {
@@ -177,6 +267,15 @@ class OrderServiceTests {
             new Product(30L, null, null, null, null, null, null, null, List.of(new ProductSize(330L, null)), null, null)
         );
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        when(productsRestClient.findProductSizeAvailability(List.of(
+                new ProductSizeReference(10L, 110L),
+                new ProductSizeReference(20L, 220L),
+                new ProductSizeReference(30L, 330L)
+        ))).thenReturn(List.of(
+                new ProductSizeAvailability(10L, 110L, true, 1L, null, null),
+                new ProductSizeAvailability(20L, 220L, true, 1L, null, null),
+                new ProductSizeAvailability(30L, 330L, true, 2L, null, null)
+        ));
         when(productsRestClient.findProductsByIds(List.of(10L, 20L, 30L))).thenReturn(products);
         when(paymentService.createPayment(any(), any(), any())).thenReturn(url);
         Order order = new Order();
@@ -192,6 +291,37 @@ class OrderServiceTests {
         verify(orderItemRepository).saveAll(any());
     }
 
+    @Test
+    @DisplayName("createOrder should match availabilities to order items by product and size, because catalog may return them in any order")
+    void createOrderSuccessfulAvailabilitiesInOtherOrderTest() {
+        // Arrange
+        Long userId = 2L;
+        List<NewOrderItemPayload> orderItems = List.of(
+                new NewOrderItemPayload(10L, 110L, 12L),
+                new NewOrderItemPayload(20L, 220L, 6L)
+        );
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+        when(productsRestClient.findProductSizeAvailability(List.of(
+                new ProductSizeReference(10L, 110L),
+                new ProductSizeReference(20L, 220L)
+        ))).thenReturn(List.of(
+                new ProductSizeAvailability(20L, 220L, true, 2L, null, null),
+                new ProductSizeAvailability(10L, 110L, true, 1L, null, null)
+        ));
+        when(productsRestClient.findProductsByIds(List.of(10L, 20L))).thenReturn(List.of());
+        when(orderRepository.save(any())).thenReturn(new Order());
+
+        // Act
+        orderService.createOrder(userId, "country", "locality", "region", "postalCode", "street", "houseNumber", "desc", orderItems);
+
+        // Assert
+        verify(orderItemRepository).saveAll(argThat(items -> {
+            var list = (List<OrderItem>) items;
+            return list.get(0).getProductId().equals(10L) && list.get(0).getBrandId().equals(1L)
+                    && list.get(1).getProductId().equals(20L) && list.get(1).getBrandId().equals(2L);
+        }));
+    }
+
     @Test
     @DisplayName("createOrder should throw BadRequestException, because one of size id is not property of product")
     void createOrderUnSuccessfulSizeIsNotPropertyOfProductTest() {
@@ -209,19 +339,22 @@ class OrderServiceTests {
                 new NewOrderItemPayload(20L, 221L, 6L),
                 new NewOrderItemPayload(30L, 330L, 1L)
         );
-        List<Product> products = List.of(
-                new Product(10L, null, null, null, null, null, null, null, List.of(new ProductSize(110L, null)), null, null),
-                new Product(20L, null, null, null, null, null, null, null, List.of(new ProductSize(220L, null)), null, null),
-                new Product(30L, null, null, null, null, null, null, null, List.of(new ProductSize(330L, null)), null, null)
-        );
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(productsRestClient.findProductsByIds(List.of(10L, 20L, 30L))).thenReturn(products);
+        when(productsRestClient.findProductSizeAvailability(List.of(
+                new ProductSizeReference(10L, 110L),
+                new ProductSizeReference(20L, 221L),
+                new ProductSizeReference(30L, 330L)
+        ))).thenReturn(List.of(
+                new ProductSizeAvailability(10L, 110L, true, 1L, null, null),
+                new ProductSizeAvailability(20L, 221L, false, null, null, null),
+                new ProductSizeAvailability(30L, 330L, true, 1L, null, null)
+        ));
 
         // Act
         // Assert
         assertThatExceptionOfType(BadRequestException.class)
                 .isThrownBy(() -> orderService.createOrder(userId, country, locality, region, postalCode, street, houseNumber, description, orderItems))
-                .withMessage("Product with ID: 20 does not have a size with ID: 221");
+                .withMessage("Product with ID: 20 does not exist or this product does not have a size with ID: 221");
     }
 
     @Test
@@ -241,19 +374,22 @@ class OrderServiceTests {
                 new NewOrderItemPayload(20L, 220L, 6L),
                 new NewOrderItemPayload(30L, 330L, 1L)
         );
-        List<Product> products = List.of(
-                new Product(10L, null, null, null, null, null, null, null, List.of(new ProductSize(110L, null)), null, null),
-                new Product(20L, null, null, null, null, null, null, null, List.of(new ProductSize(220L, null)), null, null),
-                new Product(30L, null, null, null, null, null, null, null, List.of(new ProductSize(330L, null)), null, null)
-        );
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(productsRestClient.findProductsByIds(List.of(10L, 20L, 30L))).thenReturn(products);
+        when(productsRestClient.findProductSizeAvailability(List.of(
+                new ProductSizeReference(11L, 110L),
+                new ProductSizeReference(20L, 220L),
+                new ProductSizeReference(30L, 330L)
+        ))).thenReturn(List.of(
+                new ProductSizeAvailability(11L, 110L, false, null, null, null),
+                new ProductSizeAvailability(20L, 220L, true, 1L, null, null),
+                new ProductSizeAvailability(30L, 330L, true, 1L, null, null)
+        ));
 
         // Act
         // Assert
         assertThatExceptionOfType(BadRequestException.class)
                 .isThrownBy(() -> orderService.createOrder(userId, country, locality, region, postalCode, street, houseNumber, description, orderItems))
-                .withMessage("Product with ID: " + 11L + " does not exist");
+                .withMessage("Product with ID: 11 does not exist or this product does not have a size with ID: 110");
     }
 
     @Test
@@ -334,21 +470,20 @@ class OrderServiceTests {
     }
 
     @Test
-    @DisplayName("updateOrderStatusById should update order status")
+    @DisplayName("updateOrderStatusById should update order status without loading order")
     void updateOrderStatusByIdSuccessfulTest() {
         // Arrange
         Long orderId = 2L;
         String status = "status";
-        Order order = mock();
-        order.setId(orderId);
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatus(orderId, status, "paid")).thenReturn(1);
 
         // Act
-        orderService.updateOrderStatusById(orderId, status);
+        orderService.updateOrderStatusById(orderId, status, "paid");
 
         // Assert
-        verify(order).setStatus(status);
-        verify(orderRepository).save(order);
+        verify(orderRepository).updateStatus(orderId, status, "paid");
+        verify(orderRepository, never()).findById(orderId);
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -357,15 +492,32 @@ class OrderServiceTests {
         // Arrange
         Long orderId = 2L;
         String status = "status";
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.updateStatus(orderId, status, null)).thenReturn(0);
+        when(orderRepository.existsById(orderId)).thenReturn(false);
 
         // Act
         // Assert
         assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> orderService.updateOrderStatusById(orderId, status))
+                .isThrownBy(() -> orderService.updateOrderStatusById(orderId, status, null))
                 .withMessage("Order with ID: " + orderId + " not found");
     }
 
+    @Test
+    @DisplayName("updateOrderStatusById should throw ConflictException, because order has another status")
+    void updateOrderStatusByIdUnSuccessfulConflictTest() {
+        // Arrange
+        Long orderId = 2L;
+        String status = "status";
+        when(orderRepository.updateStatus(orderId, status, "paid")).thenReturn(0);
+        when(orderRepository.existsById(orderId)).thenReturn(true);
+
+        // Act
+        // Assert
+        assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> orderService.updateOrderStatusById(orderId, status, "paid"))
+                .withMessage("Order with ID: " + orderId + " has status other than: paid");
+    }
+
     @Test
     @DisplayName("findOrdersByBrandId should return list of orders that contains products from specified brand")
     void findOrdersByBrandIdSuccessfulTest() {
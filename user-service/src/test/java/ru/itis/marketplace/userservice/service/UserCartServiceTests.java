@@ -14,6 +14,8 @@ import ru.itis.marketplace.userservice.entity.CartItem;
 import ru.itis.marketplace.userservice.entity.User;
 import ru.itis.marketplace.userservice.exception.BadRequestException;
 import ru.itis.marketplace.userservice.exception.NotFoundException;
+import ru.itis.marketplace.userservice.model.ProductSizeAvailability;
+import ru.itis.marketplace.userservice.model.ProductSizeReference;
 import ru.itis.marketplace.userservice.repository.UserCartRepository;
 import ru.itis.marketplace.userservice.repository.UserRepository;
 import ru.itis.marketplace.userservice.service.impl.UserCartServiceImpl;
@@ -125,7 +127,8 @@ class UserCartServiceTests {
         Long quantity = 5L;
         CartItem cartItem = new CartItem(2L, userId, productId, sizeId, quantity, null);
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId)).thenReturn(true);
+        when(productsRestClient.findProductSizeAvailability(List.of(new ProductSizeReference(productId, sizeId))))
+                .thenReturn(List.of(new ProductSizeAvailability(productId, sizeId, true, null, null, null)));
         when(cartRepository.findByUserIdAndProductIdAndSizeId(userId, productId, sizeId)).thenReturn(Optional.empty());
         when(cartRepository.save(any())).thenReturn(cartItem);
         when(meterRegistry.counter(any())).thenReturn(counter);
@@ -164,7 +167,8 @@ class UserCartServiceTests {
         Long sizeId = 4L;
         Long quantity = 5L;
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId)).thenReturn(false);
+        when(productsRestClient.findProductSizeAvailability(List.of(new ProductSizeReference(productId, sizeId))))
+                .thenReturn(List.of(new ProductSizeAvailability(productId, sizeId, false, null, null, null)));
 
         // Act
         // Assert
@@ -183,7 +187,8 @@ class UserCartServiceTests {
         Long sizeId = 4L;
         Long quantity = 5L;
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(productsRestClient.productWithIdAndWithSizeIdExist(productId, sizeId)).thenReturn(true);
+        when(productsRestClient.findProductSizeAvailability(List.of(new ProductSizeReference(productId, sizeId))))
+                .thenReturn(List.of(new ProductSizeAvailability(productId, sizeId, true, null, null, null)));
         when(cartRepository.findByUserIdAndProductIdAndSizeId(userId, productId, sizeId)).thenReturn(Optional.of(new CartItem()));
 
         // Act